@@ -0,0 +1,57 @@
+import http from 'k6/http';
+import { check } from 'k6';
+
+// Redirect-only saturation test, used to compare platform and virtual threads.
+// Run once per concurrency level, e.g.:
+//   k6 run -e VUS=50 load-test-redirect.js
+//   k6 run -e VUS=500 load-test-redirect.js
+//   k6 run -e VUS=5000 load-test-redirect.js
+// VirtualThreadsBenchmark (JMH) runs the same loop inside one JVM.
+const VUS = parseInt(__ENV.VUS || '50', 10);
+const DURATION = __ENV.DURATION || '30s';
+
+export const options = {
+  scenarios: {
+    redirects: {
+      executor: 'constant-vus',
+      vus: VUS,
+      duration: DURATION,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    checks: ['rate > 0.95'],
+  },
+};
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const API_KEY = __ENV.API_KEY || 'dev-key-123'; // must match shortener.api-key locally
+
+export function setup() {
+  const payload = JSON.stringify({
+    targetUrl: 'https://google.com',
+    customAlias: 'mario-long',
+  });
+
+  const res = http.post(`${BASE_URL}/links`, payload, {
+    headers: {
+      'Content-Type': 'application/json',
+      'X-API-KEY': API_KEY,
+    },
+  });
+
+  check(res, {
+    'created mario-long': (r) => r.status === 201 || r.status === 409,
+  });
+
+  return {};
+}
+
+export default function () {
+  // No think time: every VU is one concurrent redirect client
+  const res = http.get(`${BASE_URL}/r/mario-long`, { redirects: 0 });
+
+  check(res, {
+    'redirect status is 302': (r) => r.status === 302,
+  });
+}
@@ -0,0 +1,91 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.alias.AliasCodec;
+import com.example.urlShortenerService.alias.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alias lookup in a {@code HashMap<String, Long>} vs a packed alias in a {@link LongLongHashMap}.
+ * Every lookup uses a fresh copy of the alias, as a request path would: the String hash is not cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AliasLookupBenchmark {
+
+    private static final char[] SYMBOLS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    @Param({"1000000"})
+    private int aliasCount;
+
+    @Param({"7"})
+    private int aliasLength;
+
+    private char[][] aliases;
+    private final char[] unknown = "unknown".toCharArray();
+    private Map<String, Long> stringMap;
+    private LongLongHashMap packedMap;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(42);
+        aliases = new char[aliasCount][];
+        stringMap = new HashMap<>(aliasCount * 2);
+        packedMap = new LongLongHashMap(aliasCount);
+        for (int i = 0; i < aliasCount; i++) {
+            final char[] code = new char[aliasLength];
+            for (int c = 0; c < aliasLength; c++) {
+                code[c] = SYMBOLS[random.nextInt(SYMBOLS.length)];
+            }
+            aliases[i] = code;
+            stringMap.put(new String(code), (long) i);
+            packedMap.put(AliasCodec.pack(new String(code)), i);
+        }
+    }
+
+    @Benchmark
+    public Long stringMapHit() {
+        return stringMap.get(nextAlias());
+    }
+
+    @Benchmark
+    public long packedMapHit() {
+        return packedMap.get(AliasCodec.pack(nextAlias()));
+    }
+
+    @Benchmark
+    public Long stringMapMiss() {
+        return stringMap.get(new String(unknown));
+    }
+
+    @Benchmark
+    public long packedMapMiss() {
+        return packedMap.get(AliasCodec.pack(new String(unknown)));
+    }
+
+    private String nextAlias() {
+        next = (next + 1) % aliasCount;
+        return new String(aliases[next]);
+    }
+}
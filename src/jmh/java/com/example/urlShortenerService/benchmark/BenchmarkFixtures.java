@@ -0,0 +1,197 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.cache.AliasBloomFilter;
+import com.example.urlShortenerService.cache.CaffeineRedirectCache;
+import com.example.urlShortenerService.cache.RedirectCache;
+import com.example.urlShortenerService.cache.RedirectLoadCoalescer;
+import com.example.urlShortenerService.click.ClickAccumulator;
+import com.example.urlShortenerService.click.ClickLog;
+import com.example.urlShortenerService.client.database.DbConcurrencyLimiter;
+import com.example.urlShortenerService.client.database.ShortCodeSequence;
+import com.example.urlShortenerService.client.database.UrlArchiveRepository;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.manager.BlockShortCodeGenerator;
+import com.example.urlShortenerService.manager.UrlManagerImpl;
+import com.example.urlShortenerService.logging.SuccessLogSampler;
+import com.example.urlShortenerService.metrics.ShortenerMetrics;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.Url;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Wiring shared by the benchmarks: a real {@link UrlManagerImpl} on top of an
+ * in-memory {@link LinkStore} stub, so the numbers exclude H2 and JPA.
+ */
+final class BenchmarkFixtures {
+
+    static final String REDIRECT_DOMAIN = "http://localhost:8080/r/";
+
+    private BenchmarkFixtures() {
+    }
+
+    static ShortenerProperties properties() {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setRedirectDomain(REDIRECT_DOMAIN);
+        return props;
+    }
+
+    static UrlManagerImpl newManager(final LinkStore store, final RedirectCache redirectCache) {
+        final ShortenerProperties props = properties();
+        final ClickAccumulator clickAccumulator = new ClickAccumulator(store);
+        return new UrlManagerImpl(
+                store,
+                props,
+                redirectCache,
+                clickAccumulator,
+                newBlockGenerator(props),
+                new DbConcurrencyLimiter(props, new SimpleMeterRegistry()),
+                new ShortenerMetrics(new SimpleMeterRegistry()),
+                new SuccessLogSampler(props),
+                emptyArchive(),
+                loadedAliasFilter(store, props),
+                // disabled click log, never reads its checkpoint
+                new ClickLog(props, clickAccumulator, null, new SimpleMeterRegistry()),
+                new RedirectLoadCoalescer(props, new SimpleMeterRegistry()));
+    }
+
+    static AliasBloomFilter loadedAliasFilter(final LinkStore store, final ShortenerProperties props) {
+        final AliasBloomFilter aliasFilter = new AliasBloomFilter(store, props, new SimpleMeterRegistry());
+        aliasFilter.load();
+        return aliasFilter;
+    }
+
+    static RedirectCache newRedirectCache() {
+        return new CaffeineRedirectCache(properties(), new SimpleMeterRegistry());
+    }
+
+    /**
+     * A cache that never hits, to measure the database (stub) path.
+     */
+    static RedirectCache disabledRedirectCache() {
+        return new CaffeineRedirectCache(properties(), new SimpleMeterRegistry()) {
+            @Override
+            public RedirectTarget get(final String alias) {
+                return null;
+            }
+        };
+    }
+
+    static BlockShortCodeGenerator newBlockGenerator(final ShortenerProperties props) {
+        final AtomicLong blocks = new AtomicLong();
+        final ShortCodeSequence sequence = new ShortCodeSequence(null) {
+            @Override
+            public long nextBlock() {
+                return blocks.incrementAndGet();
+            }
+        };
+        return new BlockShortCodeGenerator(sequence, props);
+    }
+
+    static Url url(final long id, final String alias, final LocalDateTime expiresAt) {
+        final Url url = new Url("https://example.com/some/long/path?utm_source=benchmark&id=" + id, alias, expiresAt);
+        url.setId(id);
+        url.setCreatedAt(LocalDateTime.now());
+        url.setClickCount(42L);
+        url.setLastAccessedAt(LocalDateTime.now());
+        return url;
+    }
+
+    /**
+     * In-memory stub of the link store methods used by the manager.
+     */
+    static LinkStore inMemoryStore(final Map<String, Url> urlsByAlias) {
+        final AtomicLong ids = new AtomicLong(1_000_000L);
+        final Map<String, Url> store = new ConcurrentHashMap<>(urlsByAlias);
+        return (LinkStore) Proxy.newProxyInstance(
+                LinkStore.class.getClassLoader(),
+                new Class<?>[] {LinkStore.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByCustomAlias" -> Optional.ofNullable(store.get((String) args[0]));
+                    case "findRedirectTargetByCustomAlias" ->
+                            Optional.ofNullable(store.get((String) args[0])).map(RedirectTarget::of);
+                    case "save" -> save(store, ids, (Url) args[0]);
+                    case "saveAll" -> {
+                        final List<Url> saved = new ArrayList<>();
+                        for (final Object url : (Iterable<?>) args[0]) {
+                            saved.add(save(store, ids, (Url) url));
+                        }
+                        yield saved;
+                    }
+                    case "findExistingAliases" -> ((Collection<?>) args[0]).stream()
+                            .filter(store::containsKey)
+                            .toList();
+                    case "existsByCustomAlias" -> store.containsKey((String) args[0]);
+                    case "forEachAlias" -> {
+                        @SuppressWarnings("unchecked")
+                        final Consumer<String> action = (Consumer<String>) args[0];
+                        store.keySet().forEach(action);
+                        yield null;
+                    }
+                    case "addClicks" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryLinkStore";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Link store stub that keeps nothing: every alias is free and inserts are dropped, for the bulk
+     * import of more links than fit in memory.
+     */
+    static LinkStore discardingStore() {
+        return (LinkStore) Proxy.newProxyInstance(
+                LinkStore.class.getClassLoader(),
+                new Class<?>[] {LinkStore.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findExistingAliases" -> List.of();
+                    case "save" -> args[0];
+                    case "saveAll" -> args[0];
+                    case "forEachAlias" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "DiscardingLinkStore";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Archive stub without any archived link, benchmarks only look up live aliases.
+     */
+    static UrlArchiveRepository emptyArchive() {
+        return (UrlArchiveRepository) Proxy.newProxyInstance(
+                UrlArchiveRepository.class.getClassLoader(),
+                new Class<?>[] {UrlArchiveRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findFirstByCustomAliasOrderByArchivedAtDesc" -> Optional.empty();
+                    case "existsByCustomAlias" -> false;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "EmptyUrlArchiveRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Url save(final Map<String, Url> store, final AtomicLong ids, final Url url) {
+        if (url.getId() == null) {
+            url.setId(ids.incrementAndGet());
+        }
+        if (url.getCreatedAt() == null) {
+            url.setCreatedAt(LocalDateTime.now());
+        }
+        store.put(url.getCustomAlias(), url);
+        return url;
+    }
+}
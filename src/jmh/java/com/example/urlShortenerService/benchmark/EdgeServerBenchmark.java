@@ -0,0 +1,86 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.UrlShortenerServiceApplication;
+import com.example.urlShortenerService.activity.RedirectEdgeServer;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.model.Url;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /r/{shortCode} over loopback HTTP/1.1 with keep-alive: the Tomcat port (servlet filter fast path)
+ * vs the JDK HTTP server edge port, on the same booted application and redirect cache. Throughput is
+ * per benchmark thread, the sample mode gives the latency percentiles (p99).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class EdgeServerBenchmark {
+
+    @Param({"tomcat", "edge"})
+    private String server;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest found;
+    private HttpRequest notFound;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UrlShortenerServiceApplication.class)
+                // command line arguments, application.properties would override default properties
+                .run("--server.port=0", "--shortener.edge-server-enabled=true", "--shortener.edge-server-port=0",
+                        "--logging.level.root=OFF");
+        context.getBean(LinkStore.class)
+                .save(new Url("https://example.com/campaign/landing?utm_source=newsletter", "bench1", null));
+        final int port = "edge".equals(server)
+                ? context.getBean(RedirectEdgeServer.class).getPort()
+                : ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        found = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/r/bench1")).build();
+        notFound = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/r/unknown1")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int redirectFound() throws IOException, InterruptedException {
+        return client.send(found, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int redirectNotFound() throws IOException, InterruptedException {
+        return client.send(notFound, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
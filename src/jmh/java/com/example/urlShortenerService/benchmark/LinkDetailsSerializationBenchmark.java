@@ -0,0 +1,67 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.manager.UrlManagerImpl;
+import com.example.urlShortenerService.model.LinkDetailsOutput;
+import com.example.urlShortenerService.model.Url;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Link details: entity to DTO mapping (toLinkDetailsOutput) and Jackson serialization,
+ * using an ObjectMapper configured like the Spring Boot one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkDetailsSerializationBenchmark {
+
+    private static final String ALIAS = "mario-long";
+
+    private UrlManagerImpl manager;
+    private ObjectMapper objectMapper;
+    private LinkDetailsOutput details;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        manager = BenchmarkFixtures.newManager(
+                BenchmarkFixtures.inMemoryStore(
+                        Map.of(ALIAS, BenchmarkFixtures.url(1L, ALIAS, LocalDateTime.now().plusYears(1)))),
+                BenchmarkFixtures.newRedirectCache());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        details = manager.getLinkDetails(ALIAS);
+    }
+
+    @Benchmark
+    public LinkDetailsOutput toLinkDetailsOutput() {
+        return manager.getLinkDetails(ALIAS);
+    }
+
+    @Benchmark
+    public byte[] serializeLinkDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(details);
+    }
+
+    @Benchmark
+    public byte[] toLinkDetailsOutputAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(manager.getLinkDetails(ALIAS));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.client.database.DbConcurrencyLimiter;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.linkimport.LinkImporter;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.ImportSummaryOutput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Whole bulk import of a synthetic file generated on the fly (nothing on disk, nothing buffered): read,
+ * parse, validate on the workers, alias lookup and batched insert into a store that discards the links,
+ * so the numbers are the import pipeline without the database. One line in 100 is not valid and goes
+ * to the report. Rows per second = rows / score; run the 10M rows file with {@code -p rows=10000000}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LinkImportBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"NDJSON", "CSV"})
+    private ImportFormat format;
+
+    private Path reportDir;
+    private LinkImporter importer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        reportDir = Files.createTempDirectory("link-import-benchmark");
+        final ShortenerProperties props = BenchmarkFixtures.properties();
+        props.setImportReportDir(reportDir.toString());
+        final LinkStore store = BenchmarkFixtures.discardingStore();
+        importer = new LinkImporter(store, new DbConcurrencyLimiter(props, new SimpleMeterRegistry()),
+                BenchmarkFixtures.loadedAliasFilter(store, props), props, new ObjectMapper(),
+                new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(reportDir)) {
+            for (final Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public ImportSummaryOutput importLinks() {
+        final ImportSummaryOutput summary = importer.importLinks(new SyntheticInput(format, rows), format);
+        if (summary.getLines() != rows) {
+            throw new IllegalStateException("Imported " + summary.getLines() + " of " + rows + " lines");
+        }
+        return summary;
+    }
+
+    /**
+     * Import file generated line by line as it is read.
+     */
+    private static final class SyntheticInput extends InputStream {
+
+        private final ImportFormat format;
+        private final int rows;
+        private byte[] line;
+        private int position;
+        private int next = -1;
+
+        SyntheticInput(final ImportFormat format, final int rows) {
+            this.format = format;
+            this.rows = rows;
+            this.line = format == ImportFormat.CSV
+                    ? "customAlias,targetUrl,expiresAt\n".getBytes(StandardCharsets.UTF_8)
+                    : new byte[0];
+        }
+
+        @Override
+        public int read() {
+            final byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) {
+            int written = 0;
+            while (written < length) {
+                if (position == line.length) {
+                    if (next + 1 >= rows) {
+                        break;
+                    }
+                    line = line(++next).getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                final int count = Math.min(length - written, line.length - position);
+                System.arraycopy(line, position, buffer, offset + written, count);
+                position += count;
+                written += count;
+            }
+            return written == 0 && length > 0 ? -1 : written;
+        }
+
+        private String line(final int i) {
+            // one line in 100 has a target that is not http(s), to exercise the report
+            final String target = (i % 100 == 99 ? "ftp" : "https")
+                    + "://example.com/some/long/path?utm_source=import&id=" + i;
+            final String expiresAt = i % 2 == 0 ? "2030-01-01T00:00:00" : "";
+            if (format == ImportFormat.CSV) {
+                return "imp" + i + "," + target + "," + expiresAt + "\n";
+            }
+            return "{\"customAlias\":\"imp" + i + "\",\"targetUrl\":\"" + target + "\""
+                    + (expiresAt.isEmpty() ? "" : ",\"expiresAt\":\"" + expiresAt + "\"") + "}\n";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.UrlShortenerServiceApplication;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.Url;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Link store engines compared on a booted application (in-memory H2 for "jpa"): redirect lookup of a
+ * known and of an unknown alias, and single insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkStoreBenchmark {
+
+    private static final int PRELOADED_LINKS = 10_000;
+
+    @Param({"jpa", "mapped"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private LinkStore store;
+    private Path directory;
+    private String[] aliases;
+    private int next;
+    private long inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("link-store-benchmark");
+        context = new SpringApplicationBuilder(UrlShortenerServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                // command line arguments, application.properties would override default properties
+                .run("--shortener.link-store=" + engine, "--shortener.link-store-dir=" + directory);
+        store = context.getBean(LinkStore.class);
+
+        aliases = new String[PRELOADED_LINKS];
+        final List<Url> urls = new ArrayList<>(PRELOADED_LINKS);
+        for (int i = 0; i < PRELOADED_LINKS; i++) {
+            aliases[i] = "bench" + i;
+            urls.add(new Url("https://example.com/some/long/path?utm_source=benchmark&id=" + i, aliases[i], null));
+        }
+        store.saveAll(urls);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (final Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<RedirectTarget> findRedirectTarget() {
+        next = (next + 1) % PRELOADED_LINKS;
+        return store.findRedirectTargetByCustomAlias(aliases[next]);
+    }
+
+    @Benchmark
+    public Optional<RedirectTarget> findRedirectTargetUnknown() {
+        return store.findRedirectTargetByCustomAlias("unknown-alias");
+    }
+
+    @Benchmark
+    public Url insert() {
+        return store.save(new Url("https://example.com/campaign/landing?utm_source=newsletter",
+                "insert" + inserted++, null));
+    }
+}
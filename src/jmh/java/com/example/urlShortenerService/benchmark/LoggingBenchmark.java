@@ -0,0 +1,106 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.logging.SuccessLogSampler;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.api.RootLoggerComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost of a redirect on the request threads.
+ * <ul>
+ *     <li>{@code perRequestLogs}: the former redirect logging, three INFO lines per request</li>
+ *     <li>{@code sampledSuccessLog}: one INFO line for 1 request out of 100</li>
+ * </ul>
+ * each with a synchronous logger (the former pipeline) and the async root logger of
+ * log4j2-spring.xml. Events go to a file under target/jmh-logging so the console does not
+ * distort the results. The forked JVM blocks instead of discarding when the ring buffer is
+ * full, so every event is written and the pipelines are compared on the same work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.asyncQueueFullPolicy=Default")
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final String PATTERN = "%d{ISO8601} %5level [%15.15t] %-40.40c{1.} : %m%n";
+    private static final String ALIAS = "mario-long";
+    private static final String TARGET_URL = "https://example.com/campaign/landing?utm_source=newsletter";
+
+    @Param({"sync", "async"})
+    public String pipeline;
+
+    private LoggerContext context;
+    private Logger activityLog;
+    private Logger managerLog;
+    private SuccessLogSampler sampler;
+
+    @Setup
+    public void setUp() {
+        final boolean async = "async".equals(pipeline);
+        final ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.add(builder.newAppender("File", "File")
+                .addAttribute("fileName", "target/jmh-logging/" + pipeline + ".log")
+                .addAttribute("append", false)
+                .addAttribute("bufferedIo", true)
+                // async loggers flush at the end of each batch
+                .addAttribute("immediateFlush", !async)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", PATTERN)));
+        final RootLoggerComponentBuilder root = async
+                ? builder.newAsyncRootLogger(Level.INFO).addAttribute("includeLocation", false)
+                : builder.newRootLogger(Level.INFO);
+        builder.add(root.add(builder.newAppenderRef("File")));
+
+        context = new LoggerContext("logging-benchmark-" + pipeline);
+        context.start(builder.build());
+        activityLog = context.getLogger("com.example.urlShortenerService.activity.UrlActivity");
+        managerLog = context.getLogger("com.example.urlShortenerService.manager.UrlManagerImpl");
+
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setSuccessLogSampleRate(100);
+        sampler = new SuccessLogSampler(props);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void perRequestLogs() {
+        activityLog.info("HTTP GET /r/{} received", ALIAS);
+        managerLog.info("Redirect request for alias={}", ALIAS);
+        managerLog.info("Redirect success: alias={} -> {}", ALIAS, TARGET_URL);
+    }
+
+    @Benchmark
+    public void sampledSuccessLog() {
+        activityLog.debug("HTTP GET /r/{} received", ALIAS);
+        managerLog.debug("Redirect request for alias={}", ALIAS);
+        if (sampler.sample()) {
+            managerLog.info("Redirect success: alias={} -> {}", ALIAS, TARGET_URL);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of {@link RateLimiter#tryAcquire}: one client within its limit (single thread and
+ * 4 threads on the same bucket), 1M clients rotating through a table of 65536 (every request evicts),
+ * one client over its limit, and the rate limit disabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    private static final String API_KEY = "bench-key";
+    private static final int CLIENTS = 1_000_000;
+
+    private RateLimiter unlimited;
+    private RateLimiter limited;
+    private RateLimiter disabled;
+    private String[] addresses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        unlimited = rateLimiter(1_000_000, 16_000);
+        limited = rateLimiter(1, 1);
+        disabled = new RateLimiter(new ShortenerProperties(), new SimpleMeterRegistry());
+        addresses = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            addresses[i] = "10." + (i >>> 16 & 0xFF) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public long withinLimit() {
+        return unlimited.tryAcquire(RateLimiter.Traffic.REDIRECT, null, "203.0.113.7");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long withinLimitSameKey4Threads() {
+        return unlimited.tryAcquire(RateLimiter.Traffic.CREATE, API_KEY, "203.0.113.7");
+    }
+
+    @Benchmark
+    public long manyClientsEvicting() {
+        final String address = addresses[next];
+        next = next + 1 == CLIENTS ? 0 : next + 1;
+        return unlimited.tryAcquire(RateLimiter.Traffic.REDIRECT, null, address);
+    }
+
+    @Benchmark
+    public long overLimit() {
+        return limited.tryAcquire(RateLimiter.Traffic.REDIRECT, null, "203.0.113.7");
+    }
+
+    @Benchmark
+    public long rateLimitDisabled() {
+        return disabled.tryAcquire(RateLimiter.Traffic.REDIRECT, null, "203.0.113.7");
+    }
+
+    private static RateLimiter rateLimiter(final int ratePerSecond, final int burst) {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setApiKey(API_KEY);
+        props.setRateLimitEnabled(true);
+        props.setRateLimitCreatePerSecond(ratePerSecond);
+        props.setRateLimitCreateBurst(burst);
+        props.setRateLimitRedirectPerSecond(ratePerSecond);
+        props.setRateLimitRedirectBurst(burst);
+        return new RateLimiter(props, new SimpleMeterRegistry());
+    }
+}
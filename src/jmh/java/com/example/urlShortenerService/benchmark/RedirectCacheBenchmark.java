@@ -0,0 +1,92 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.cache.CaffeineRedirectCache;
+import com.example.urlShortenerService.cache.OffHeapRedirectCache;
+import com.example.urlShortenerService.cache.RedirectCache;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redirect cache implementations compared on a loaded working set: hit, miss and put. The setup prints
+ * the heap used after a full GC, to compare the live heap the cached links keep (run with -prof gc
+ * for the allocation rate of a hit).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=1g"})
+public class RedirectCacheBenchmark {
+
+    @Param({"caffeine", "off-heap"})
+    private String implementation;
+
+    @Param({"1000000"})
+    private int links;
+
+    private RedirectCache cache;
+    private String[] aliases;
+    private int next;
+    private long inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ShortenerProperties props = BenchmarkFixtures.properties();
+        props.setRedirectCacheMaxSize(links);
+        props.setRedirectCacheOffHeapBytes(links * 128L);
+        final long heapBefore = usedHeapAfterGc();
+        cache = "off-heap".equals(implementation)
+                ? new OffHeapRedirectCache(props, new SimpleMeterRegistry())
+                : new CaffeineRedirectCache(props, new SimpleMeterRegistry());
+
+        aliases = new String[links];
+        final LocalDateTime expiresAt = LocalDateTime.now().plusDays(365);
+        for (int i = 0; i < links; i++) {
+            aliases[i] = "b" + Integer.toString(i, 36);
+            cache.put(aliases[i], new RedirectTarget((long) i,
+                    "https://example.com/some/long/path?utm_source=benchmark&id=" + i, expiresAt));
+        }
+        System.out.printf("%n%s: %d links, %d MiB of live heap (aliases array included)%n",
+                implementation, links, (usedHeapAfterGc() - heapBefore) >> 20);
+    }
+
+    @Benchmark
+    public RedirectTarget getHit() {
+        next = (next + 1) % links;
+        return cache.get(aliases[next]);
+    }
+
+    @Benchmark
+    public RedirectTarget getMiss() {
+        return cache.get("unknown-alias");
+    }
+
+    @Benchmark
+    public void put() {
+        cache.put("put" + (inserted++ % 1000), new RedirectTarget(inserted,
+                "https://example.com/campaign/landing?utm_source=newsletter", null));
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.UrlShortenerServiceApplication;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.model.Url;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.DefaultMockMvcBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * GET /r/{shortCode} through the servlet filter fast path vs the Spring MVC dispatch, on a booted
+ * application with mock requests (no socket): known (cache hit), unknown and expired codes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedirectDispatchBenchmark {
+
+    @Param({"true", "false"})
+    private boolean fastPath;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(UrlShortenerServiceApplication.class)
+                // command line arguments, application.properties would override default properties
+                // logging off: the dispatch cost is measured, LoggingBenchmark covers the logs
+                .run("--shortener.redirect-fast-path-enabled=" + fastPath, "--server.port=0",
+                        "--logging.level.root=OFF");
+        final DefaultMockMvcBuilder builder =
+                MockMvcBuilders.webAppContextSetup((WebApplicationContext) context);
+        for (final FilterRegistrationBean<?> registration : context.getBeansOfType(FilterRegistrationBean.class)
+                .values()) {
+            builder.addFilter(registration.getFilter(), registration.getUrlPatterns().toArray(String[]::new));
+        }
+        mockMvc = builder.build();
+
+        final LinkStore store = context.getBean(LinkStore.class);
+        store.save(new Url("https://example.com/campaign/landing?utm_source=newsletter", "bench1", null));
+        store.save(new Url("https://example.com/old", "expired1", LocalDateTime.now().minusDays(1)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse redirectFound() throws Exception {
+        return mockMvc.perform(get("/r/bench1")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse redirectNotFound() throws Exception {
+        return mockMvc.perform(get("/r/unknown1")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse redirectExpired() throws Exception {
+        return mockMvc.perform(get("/r/expired1")).andReturn().getResponse();
+    }
+}
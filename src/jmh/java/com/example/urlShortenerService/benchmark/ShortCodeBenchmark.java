@@ -0,0 +1,55 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.manager.BlockShortCodeGenerator;
+import com.example.urlShortenerService.manager.RandomShortCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short code resolution for links without custom alias: block generator vs legacy UUID codes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortCodeBenchmark {
+
+    private BlockShortCodeGenerator blockGenerator;
+    private RandomShortCodeGenerator randomGenerator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blockGenerator = BenchmarkFixtures.newBlockGenerator(BenchmarkFixtures.properties());
+        randomGenerator = new RandomShortCodeGenerator();
+    }
+
+    @Benchmark
+    public String blockCode() {
+        return blockGenerator.nextCode();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String blockCodeContended() {
+        return blockGenerator.nextCode();
+    }
+
+    @Benchmark
+    public String randomUuidCode() {
+        return randomGenerator.nextCode();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.model.TargetUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost of the {@link TargetUrl} record, for accepted and rejected URLs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TargetUrlBenchmark {
+
+    private final String validUrl = "https://example.com/campaign/landing?utm_source=newsletter&utm_medium=email";
+    private final String longValidUrl = "https://example.com/" + "segment/".repeat(200) + "?q=1";
+    private final String invalidUrl = "ftp://example.com/file";
+
+    @Benchmark
+    public TargetUrl validUrl() {
+        return new TargetUrl(validUrl);
+    }
+
+    @Benchmark
+    public TargetUrl longValidUrl() {
+        return new TargetUrl(longValidUrl);
+    }
+
+    @Benchmark
+    public Object invalidUrl() {
+        try {
+            return new TargetUrl(invalidUrl);
+        } catch (final ShortUrlNotValidException e) {
+            return e;
+        }
+    }
+}
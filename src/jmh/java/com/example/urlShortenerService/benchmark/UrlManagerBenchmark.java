@@ -0,0 +1,99 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.exception.ShortUrlExpiredException;
+import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.manager.UrlManagerImpl;
+import com.example.urlShortenerService.model.CreateUrlInput;
+import com.example.urlShortenerService.model.CreateUrlOutput;
+import com.example.urlShortenerService.model.LinkDetailsOutput;
+import com.example.urlShortenerService.model.Url;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manager hot paths: redirect (cache hit, cache miss, expired, unknown code), creation and details.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlManagerBenchmark {
+
+    private static final String ACTIVE_ALIAS = "mario-long";
+    private static final String EXPIRED_ALIAS = "expired1";
+
+    private UrlManagerImpl cachedManager;
+    private UrlManagerImpl uncachedManager;
+    private CreateUrlInput generatedCodeInput;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final Map<String, Url> urls = Map.of(
+                ACTIVE_ALIAS, BenchmarkFixtures.url(1L, ACTIVE_ALIAS, LocalDateTime.now().plusYears(1)),
+                EXPIRED_ALIAS, BenchmarkFixtures.url(2L, EXPIRED_ALIAS, LocalDateTime.now().minusDays(1)));
+        cachedManager = BenchmarkFixtures.newManager(
+                BenchmarkFixtures.inMemoryStore(urls), BenchmarkFixtures.newRedirectCache());
+        uncachedManager = BenchmarkFixtures.newManager(
+                BenchmarkFixtures.inMemoryStore(urls), BenchmarkFixtures.disabledRedirectCache());
+        cachedManager.getTargetUrl(ACTIVE_ALIAS);
+        generatedCodeInput = CreateUrlInput.builder()
+                .targetUrl("https://example.com/campaign/landing?utm_source=newsletter")
+                .build();
+    }
+
+    @Benchmark
+    public String getTargetUrlCacheHit() {
+        return cachedManager.getTargetUrl(ACTIVE_ALIAS);
+    }
+
+    @Benchmark
+    public String getTargetUrlCacheMiss() {
+        return uncachedManager.getTargetUrl(ACTIVE_ALIAS);
+    }
+
+    @Benchmark
+    public Object getTargetUrlExpired() {
+        try {
+            return uncachedManager.getTargetUrl(EXPIRED_ALIAS);
+        } catch (final ShortUrlExpiredException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Unknown code, rejected by the alias filter before the link store.
+     */
+    @Benchmark
+    public Object getTargetUrlUnknown() {
+        try {
+            return uncachedManager.getTargetUrl("no-such-code");
+        } catch (final ShortUrlNotFoundException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public CreateUrlOutput createUrlWithGeneratedCode() {
+        return uncachedManager.createUrl(generatedCodeInput);
+    }
+
+    @Benchmark
+    public LinkDetailsOutput getLinkDetails() {
+        return uncachedManager.getLinkDetails(ACTIVE_ALIAS);
+    }
+}
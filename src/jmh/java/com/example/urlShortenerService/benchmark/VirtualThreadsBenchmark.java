@@ -0,0 +1,125 @@
+package com.example.urlShortenerService.benchmark;
+
+import com.example.urlShortenerService.UrlShortenerServiceApplication;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.model.Url;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-JVM stand-in of {@code load-test-redirect.js}: the same redirect-only closed loop (every client
+ * sends its next GET /r/{shortCode} as soon as the previous one answered, no think time) against
+ * Tomcat on platform threads vs the {@code virtual-threads} profile, at 50, 500 and 5000 concurrent
+ * clients. One operation is {@value #REQUESTS} redirects split evenly between the clients, so
+ * redirects per second = {@value #REQUESTS} / score. The clients are virtual threads sharing one
+ * HTTP/1.1 client with keep-alive; each iteration prints the p50 and p99 latency of its redirects.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class VirtualThreadsBenchmark {
+
+    static final int REQUESTS = 50_000;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"50", "500", "5000"})
+    private int clients;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest redirect;
+    private long[] latencies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // command line arguments, application.properties would override default properties
+        final List<String> args = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=OFF"));
+        if ("virtual".equals(threads)) {
+            args.add("--spring.profiles.active=virtual-threads");
+        }
+        context = new SpringApplicationBuilder(UrlShortenerServiceApplication.class).run(args.toArray(String[]::new));
+        context.getBean(LinkStore.class).save(new Url("https://google.com", "mario-long", null));
+        final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        redirect = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/r/mario-long")).build();
+        latencies = new long[REQUESTS];
+    }
+
+    @TearDown(Level.Iteration)
+    public void printLatencies() {
+        final long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%n%s threads, %d clients: p50=%.2f ms, p99=%.2f ms%n", threads, clients,
+                sorted[REQUESTS / 2] / 1e6, sorted[REQUESTS * 99 / 100] / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int redirects() throws Exception {
+        final int perClient = REQUESTS / clients;
+        int redirected = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<Integer>> results = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                final int first = c * perClient;
+                results.add(executor.submit(() -> {
+                    int found = 0;
+                    for (int i = first; i < first + perClient; i++) {
+                        final long start = System.nanoTime();
+                        if (client.send(redirect, HttpResponse.BodyHandlers.discarding()).statusCode() == 302) {
+                            found++;
+                        }
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return found;
+                }));
+            }
+            for (final Future<Integer> result : results) {
+                redirected += result.get();
+            }
+        }
+        if (redirected != REQUESTS) {
+            throw new IllegalStateException("Only " + redirected + " of " + REQUESTS + " requests redirected");
+        }
+        return redirected;
+    }
+}
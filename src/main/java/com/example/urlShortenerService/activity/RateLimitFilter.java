@@ -0,0 +1,96 @@
+package com.example.urlShortenerService.activity;
+
+import com.example.urlShortenerService.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Servlet filter that applies the {@link RateLimiter} to the /links and /r/ traffic of the main port,
+ * ahead of the redirect fast path and the MVC dispatch (so ahead of the API key check too). A rejected
+ * request gets a 429 with a {@code Retry-After} header and the {@code RATE_LIMITED} error body.
+ * The client address is the one of the servlet request: set {@code server.forward-headers-strategy}
+ * behind a proxy.
+ */
+@Log4j2
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_KEY_HEADER = "X-API-KEY";
+    private static final String LINKS_PATH = "/links";
+    private static final String BATCH_PATH = "/links/batch";
+    private static final String IMPORT_PATH = "/links/import";
+    private static final String REDIRECT_PREFIX = "/r/";
+
+    private final RateLimiter rateLimiter;
+    private final byte[] rateLimitedBody;
+
+    /**
+     * Constructor
+     * @param rateLimiter the rate limits
+     * @param objectMapper the JSON mapper of the MVC responses
+     */
+    public RateLimitFilter(final RateLimiter rateLimiter, final ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.rateLimitedBody = new RedirectResponses(objectMapper).rateLimitedBody();
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final RateLimiter.Traffic traffic = trafficOf(request);
+        if (traffic != null) {
+            final long waitMillis = rateLimiter.tryAcquire(traffic, request.getHeader(API_KEY_HEADER),
+                    request.getRemoteAddr());
+            if (waitMillis > 0L) {
+                log.debug("Rate limited {} {} from {}", request.getMethod(), request.getRequestURI(),
+                        request.getRemoteAddr());
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        Long.toString(RateLimiter.retryAfterSeconds(waitMillis)));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setContentLength(rateLimitedBody.length);
+                response.getOutputStream().write(rateLimitedBody);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Get the kind of traffic of a request.
+     * @param request the request
+     * @return the traffic, or null if the request is not limited
+     */
+    static RateLimiter.Traffic trafficOf(final HttpServletRequest request) {
+        final String uri = request.getRequestURI();
+        final int start = request.getContextPath().length();
+        final int length = uri.length() - start;
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            final boolean create = length == LINKS_PATH.length() && uri.startsWith(LINKS_PATH, start)
+                    || length == BATCH_PATH.length() && uri.startsWith(BATCH_PATH, start)
+                    || length == IMPORT_PATH.length() && uri.startsWith(IMPORT_PATH, start);
+            return create ? RateLimiter.Traffic.CREATE : null;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return null;
+        }
+        if (uri.startsWith(REDIRECT_PREFIX, start)) {
+            return RateLimiter.Traffic.REDIRECT;
+        }
+        if (uri.startsWith(LINKS_PATH, start)
+                && (length == LINKS_PATH.length() || uri.charAt(start + LINKS_PATH.length()) == '/')) {
+            return RateLimiter.Traffic.DETAILS;
+        }
+        return null;
+    }
+}
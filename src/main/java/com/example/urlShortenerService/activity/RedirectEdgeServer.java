@@ -0,0 +1,176 @@
+package com.example.urlShortenerService.activity;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import com.example.urlShortenerService.exception.ErrorResponse;
+import com.example.urlShortenerService.exception.GlobalExceptionHandler;
+import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.example.urlShortenerService.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Redirect-only HTTP server on its own port ({@code shortener.edge-server-port}), next to Tomcat.
+ * <p>
+ * Serves {@code GET /r/{shortCode}} with the JDK HTTP server, one virtual thread per exchange, and
+ * nothing else: no servlet container, no filter chain, no MVC dispatch. The lookup, click recording
+ * and {@code shortener.operation} metrics are the ones of {@link UrlManager#resolveRedirect}, and
+ * the responses are the ones of the main port ({@link RedirectResponses}). Connections are kept
+ * alive and pipelined requests are answered in order. The redirect rate limit of the main port applies,
+ * per client address. {@code http.server.requests} is not recorded.
+ * <p>
+ * Start the JVM with {@code -Dsun.net.httpserver.nodelay=true} (set in the Dockerfile and for
+ * {@code spring-boot:run}), a warning is logged otherwise.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(prefix = "shortener", name = "edge-server-enabled", havingValue = "true")
+public class RedirectEdgeServer {
+
+    private static final String PATH_PREFIX = "/r/";
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final UrlManager manager;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final RedirectResponses responses;
+    private final ShortenerProperties props;
+    private final RateLimiter rateLimiter;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructor
+     * @param manager the Url manager
+     * @param exceptionHandler the handler whose error responses are reproduced
+     * @param objectMapper the JSON mapper of the MVC responses
+     * @param props the shortener properties (edge server port)
+     * @param rateLimiter the rate limits
+     */
+    public RedirectEdgeServer(final UrlManager manager, final GlobalExceptionHandler exceptionHandler,
+                              final ObjectMapper objectMapper, final ShortenerProperties props,
+                              final RateLimiter rateLimiter) {
+        this.manager = manager;
+        this.exceptionHandler = exceptionHandler;
+        this.responses = new RedirectResponses(objectMapper);
+        this.props = props;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Bind the port and start serving.
+     */
+    @PostConstruct
+    public void start() {
+        // headers and body are separate writes: without TCP_NODELAY a body waits for the delayed ACK (~40 ms).
+        // The JDK reads the property once, so it is a JVM option and not set from here.
+        if (!Boolean.getBoolean(NO_DELAY_PROPERTY)) {
+            log.warn("Redirect edge server without TCP_NODELAY, responses may wait for the delayed ACK: "
+                    + "start the JVM with -D{}=true", NO_DELAY_PROPERTY);
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(props.getEdgeServerPort()), 0);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot bind the redirect edge server", e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext(PATH_PREFIX, this::handle);
+        server.start();
+        log.info("Redirect edge server listening on port {}", getPort());
+    }
+
+    /**
+     * Stop accepting connections and finish the exchanges in flight.
+     */
+    @PreDestroy
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        executor.close();
+    }
+
+    /**
+     * Get the bound port, useful when {@code shortener.edge-server-port} is 0 (any free port).
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set(HttpHeaders.ALLOW, "GET");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            // decoded like the MVC path variable
+            final String shortCode = exchange.getRequestURI().getPath().substring(PATH_PREFIX.length());
+            if (shortCode.isEmpty() || shortCode.indexOf('/') >= 0) {
+                send(exchange, 404, responses.notFoundBody());
+                return;
+            }
+            final long waitMillis = rateLimiter.tryAcquire(RateLimiter.Traffic.REDIRECT, null,
+                    exchange.getRemoteAddress().getAddress().getHostAddress());
+            if (waitMillis > 0L) {
+                exchange.getResponseHeaders().set(HttpHeaders.RETRY_AFTER,
+                        Long.toString(RateLimiter.retryAfterSeconds(waitMillis)));
+                send(exchange, 429, responses.rateLimitedBody());
+                return;
+            }
+            respond(exchange, shortCode);
+        }
+    }
+
+    private void respond(final HttpExchange exchange, final String shortCode) throws IOException {
+        try {
+            final RedirectResult result = manager.resolveRedirect(shortCode,
+                    exchange.getRequestHeaders().getFirst(HttpHeaders.REFERER),
+                    exchange.getRequestHeaders().getFirst(HttpHeaders.USER_AGENT));
+            switch (result.status()) {
+                case FOUND -> {
+                    exchange.getResponseHeaders().set(HttpHeaders.LOCATION, responses.location(result.targetUrl()));
+                    if (result.cacheControl() != null) {
+                        exchange.getResponseHeaders().set(HttpHeaders.CACHE_CONTROL, result.cacheControl());
+                    }
+                    exchange.sendResponseHeaders(result.httpStatus(), -1);
+                }
+                case NOT_FOUND -> send(exchange, 404, responses.notFoundBody());
+                case EXPIRED -> send(exchange, 410, responses.expiredBody());
+            }
+        } catch (final DatabaseOverloadedException e) {
+            send(exchange, exceptionHandler.handleDatabaseOverloaded(e));
+        } catch (final RuntimeException e) {
+            send(exchange, exceptionHandler.handleUnexpected(e));
+        }
+    }
+
+    private void send(final HttpExchange exchange, final ResponseEntity<ErrorResponse> entity) throws IOException {
+        send(exchange, entity.getStatusCode().value(), responses.serialize(entity.getBody()));
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final byte[] body) throws IOException {
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
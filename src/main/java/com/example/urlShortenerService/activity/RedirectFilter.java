@@ -0,0 +1,137 @@
+package com.example.urlShortenerService.activity;
+
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import com.example.urlShortenerService.exception.ErrorResponse;
+import com.example.urlShortenerService.exception.GlobalExceptionHandler;
+import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+import java.io.IOException;
+
+/**
+ * Fast path of {@code GET /r/{shortCode}}, served before the Spring MVC dispatch.
+ * <p>
+ * Answers exactly like {@link UrlActivity#redirect} and {@link GlobalExceptionHandler}: a 302 or 301 with
+ * the target in {@code Location} and the Cache-Control of the link's redirect policy, or the same JSON
+ * error bodies. The lookup does not throw for unknown or
+ * expired links ({@link UrlManager#resolveRedirect}) and the responses are prepared once
+ * ({@link RedirectResponses}).
+ * <p>
+ * Codes with {@code %} or {@code ;} (decoding, matrix variables), extra path segments and other
+ * methods go through the MVC dispatch unchanged.
+ */
+@Log4j2
+public class RedirectFilter extends OncePerRequestFilter {
+
+    /**
+     * Servlet URL pattern the filter is registered for.
+     */
+    public static final String URL_PATTERN = "/r/*";
+
+    private static final String PATH_PREFIX = "/r/";
+    private static final String PATH_PATTERN = "/r/{shortCode}";
+
+    private final UrlManager manager;
+    private final GlobalExceptionHandler exceptionHandler;
+    private final RedirectResponses responses;
+
+    /**
+     * Constructor
+     * @param manager the Url manager
+     * @param exceptionHandler the handler whose error responses are reproduced
+     * @param objectMapper the JSON mapper of the MVC responses
+     */
+    public RedirectFilter(final UrlManager manager, final GlobalExceptionHandler exceptionHandler,
+                          final ObjectMapper objectMapper) {
+        this.manager = manager;
+        this.exceptionHandler = exceptionHandler;
+        this.responses = new RedirectResponses(objectMapper);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final String shortCode = shortCodeOf(request);
+        if (shortCode == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        log.debug("HTTP GET /r/{} received", shortCode);
+        // same uri tag on http.server.requests as the MVC handler
+        ServerHttpObservationFilter.findObservationContext(request)
+                .ifPresent(context -> context.setPathPattern(PATH_PATTERN));
+        try {
+            final RedirectResult result = manager.resolveRedirect(shortCode,
+                    request.getHeader(HttpHeaders.REFERER), request.getHeader(HttpHeaders.USER_AGENT));
+            switch (result.status()) {
+                case FOUND -> {
+                    response.setStatus(result.httpStatus());
+                    response.setHeader(HttpHeaders.LOCATION, responses.location(result.targetUrl()));
+                    if (result.cacheControl() != null) {
+                        response.setHeader(HttpHeaders.CACHE_CONTROL, result.cacheControl());
+                    }
+                }
+                case NOT_FOUND -> {
+                    log.debug("Short URL not found: {}", UrlManager.NOT_FOUND_MESSAGE);
+                    write(response, HttpServletResponse.SC_NOT_FOUND, responses.notFoundBody());
+                }
+                case EXPIRED -> {
+                    log.warn("Short URL expired: {}", UrlManager.EXPIRED_MESSAGE);
+                    write(response, HttpServletResponse.SC_GONE, responses.expiredBody());
+                }
+            }
+        } catch (final DatabaseOverloadedException e) {
+            write(response, exceptionHandler.handleDatabaseOverloaded(e));
+        } catch (final RuntimeException e) {
+            write(response, exceptionHandler.handleUnexpected(e));
+        }
+    }
+
+    /**
+     * Get the short code of a request the fast path serves.
+     * @param request the request
+     * @return the short code, or null if the request is left to the MVC dispatch
+     */
+    static String shortCodeOf(final HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return null;
+        }
+        final String uri = request.getRequestURI();
+        final int start = request.getContextPath().length() + PATH_PREFIX.length();
+        if (uri.length() <= start || !uri.startsWith(PATH_PREFIX, start - PATH_PREFIX.length())) {
+            return null;
+        }
+        for (int i = start; i < uri.length(); i++) {
+            final char c = uri.charAt(i);
+            if (c == '/' || c == ';' || c == '%') {
+                return null;
+            }
+        }
+        return uri.substring(start);
+    }
+
+    private void write(final HttpServletResponse response, final ResponseEntity<ErrorResponse> entity)
+            throws IOException {
+        write(response, entity.getStatusCode().value(), responses.serialize(entity.getBody()));
+    }
+
+    private static void write(final HttpServletResponse response, final int status, final byte[] body)
+            throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
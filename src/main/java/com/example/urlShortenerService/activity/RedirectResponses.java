@@ -0,0 +1,98 @@
+package com.example.urlShortenerService.activity;
+
+import com.example.urlShortenerService.exception.ErrorResponse;
+import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+
+/**
+ * Responses of the redirect fast paths ({@link RedirectFilter}, {@link RedirectEdgeServer}), identical
+ * to the ones of the MVC endpoint: the not found, expired and rate limited bodies are serialized once, and the
+ * {@code Location} value of an ASCII target is the target itself ({@code URI.toASCIIString()} keeps
+ * it as is), the others are percent-encoded once and cached.
+ */
+class RedirectResponses {
+
+    /**
+     * Error code of the 429 responses.
+     */
+    static final String RATE_LIMITED_CODE = "RATE_LIMITED";
+
+    private static final int ENCODED_LOCATIONS_MAX_SIZE = 10_000;
+
+    private final ObjectMapper objectMapper;
+    private final byte[] notFoundBody;
+    private final byte[] expiredBody;
+    private final byte[] rateLimitedBody;
+    private final Cache<String, String> encodedLocations = Caffeine.newBuilder()
+            .maximumSize(ENCODED_LOCATIONS_MAX_SIZE)
+            .build();
+
+    /**
+     * Constructor
+     * @param objectMapper the JSON mapper of the MVC responses
+     */
+    RedirectResponses(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.notFoundBody = serialize(new ErrorResponse("NOT_FOUND", UrlManager.NOT_FOUND_MESSAGE));
+        this.expiredBody = serialize(new ErrorResponse("EXPIRED_URL", UrlManager.EXPIRED_MESSAGE));
+        this.rateLimitedBody = serialize(new ErrorResponse(RATE_LIMITED_CODE, RateLimiter.RATE_LIMITED_MESSAGE));
+    }
+
+    /**
+     * Get the JSON body of a 404.
+     * @return the shared bytes, not to be modified
+     */
+    byte[] notFoundBody() {
+        return notFoundBody;
+    }
+
+    /**
+     * Get the JSON body of a 410.
+     * @return the shared bytes, not to be modified
+     */
+    byte[] expiredBody() {
+        return expiredBody;
+    }
+
+    /**
+     * Get the JSON body of a 429.
+     * @return the shared bytes, not to be modified
+     */
+    byte[] rateLimitedBody() {
+        return rateLimitedBody;
+    }
+
+    /**
+     * Get the {@code Location} header value of a target URL.
+     * @param targetUrl the target URL
+     * @return the target URL, percent-encoded if it is not ASCII
+     */
+    String location(final String targetUrl) {
+        for (int i = 0; i < targetUrl.length(); i++) {
+            if (targetUrl.charAt(i) > 0x7F) {
+                return encodedLocations.get(targetUrl, url -> URI.create(url).toASCIIString());
+            }
+        }
+        return targetUrl;
+    }
+
+    /**
+     * Serialize an error body.
+     * @param body the error
+     * @return the JSON bytes
+     */
+    byte[] serialize(final ErrorResponse body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,22 +1,49 @@
 package com.example.urlShortenerService.activity;
 
+import com.example.urlShortenerService.exception.ShortUrlExpiredException;
+import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.linkimport.LinkImporter;
 import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.model.AliasAvailabilityOutput;
+import com.example.urlShortenerService.model.BatchCreateUrlInput;
+import com.example.urlShortenerService.model.BatchCreateUrlOutput;
 import com.example.urlShortenerService.model.CreateUrlInput;
 import com.example.urlShortenerService.model.CreateUrlOutput;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.ImportSummaryOutput;
 import com.example.urlShortenerService.model.LinkDetailsOutput;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.LinkPageOutput;
+import com.example.urlShortenerService.model.LinkStatsOutput;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Url Activity
@@ -27,13 +54,21 @@ public class UrlActivity {
 
     // Url manager
     private final UrlManager manager;
+    // JSON mapper of the MVC responses, also used for the NDJSON export
+    private final ObjectMapper objectMapper;
+    // Bulk import of existing links
+    private final LinkImporter importer;
 
     /**
      * Constructor
      * @param manager the Url manager
+     * @param objectMapper the JSON mapper of the MVC responses
+     * @param importer the link importer
      */
-    public UrlActivity(final UrlManager manager) {
+    public UrlActivity(final UrlManager manager, final ObjectMapper objectMapper, final LinkImporter importer) {
         this.manager = manager;
+        this.objectMapper = objectMapper;
+        this.importer = importer;
     }
 
     /**
@@ -51,29 +86,86 @@ public class UrlActivity {
     }
 
     /**
-     * Redirect to the Long URL from the short one.
+     * Create many shortURLs in one call.
+     * Every item gets its own result, so invalid or conflicting items never abort the batch.
+     * @param batchCreateUrlInput the input items
+     * @return one result per input item, in the same order
+     */
+    @PostMapping("/links/batch")
+    public ResponseEntity<BatchCreateUrlOutput> createUrls(@RequestBody final BatchCreateUrlInput batchCreateUrlInput) {
+        final List<CreateUrlInput> items = batchCreateUrlInput.getItems() == null
+                ? List.of()
+                : batchCreateUrlInput.getItems();
+        log.info("HTTP POST /links/batch received: items={}", items.size());
+        return ResponseEntity.ok(manager.createUrls(items));
+    }
+
+    /**
+     * Redirect to the Long URL from the short one, with a 301 or a cacheable 302 when the link's
+     * redirect policy allows it.
      * @param shortCode the input short code
+     * @param referrer the Referer header, logged with the click
+     * @param userAgent the User-Agent header, logged with the click
      * @return redirect to the actual link
      */
     @GetMapping("/r/{shortCode}")
-    public ResponseEntity<Void> redirect(@PathVariable final String shortCode) {
-        log.info("HTTP GET /r/{} received", shortCode);
-        final String targetUrl = manager.getTargetUrl(shortCode);
-        return ResponseEntity
-                .status(HttpStatus.FOUND)
-                .location(URI.create(targetUrl))
-                .build();
+    public ResponseEntity<Void> redirect(
+            @PathVariable final String shortCode,
+            @RequestHeader(value = HttpHeaders.REFERER, required = false) final String referrer,
+            @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) final String userAgent
+    ) {
+        log.debug("HTTP GET /r/{} received", shortCode);
+        final RedirectResult result = manager.resolveRedirect(shortCode, referrer, userAgent);
+        return switch (result.status()) {
+            case FOUND -> {
+                final ResponseEntity.BodyBuilder response = ResponseEntity
+                        .status(result.httpStatus())
+                        .location(URI.create(result.targetUrl()));
+                if (result.cacheControl() != null) {
+                    response.header(HttpHeaders.CACHE_CONTROL, result.cacheControl());
+                }
+                yield response.build();
+            }
+            case EXPIRED -> throw new ShortUrlExpiredException(UrlManager.EXPIRED_MESSAGE);
+            case NOT_FOUND -> throw new ShortUrlNotFoundException(UrlManager.NOT_FOUND_MESSAGE);
+        };
     }
 
     /**
      * Get details about the short link.
+     * The response carries a strong ETag: a request whose {@code If-None-Match} matches it gets a
+     * 304 without body, the details are not serialized.
      * @param shortCode the input short code
      * @return link details (target URL, creation date, etc.)
      */
     @GetMapping("/links/{shortCode}")
     public ResponseEntity<LinkDetailsOutput> getLinkDetails(@PathVariable final String shortCode) {
-        log.info("HTTP GET /links/{} received", shortCode);
-        return ResponseEntity.ok(manager.getLinkDetails(shortCode));
+        log.debug("HTTP GET /links/{} received", shortCode);
+        final LinkDetailsOutput output = manager.getLinkDetails(shortCode);
+        // cached by the client only, and revalidated on every use
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(output.etag())
+                .body(output);
+    }
+
+    /**
+     * Get the clicks of the short link per minute, hour or day over a range.
+     * @param shortCode the input short code
+     * @param from ISO date-time of the range start, defaults to 1 hour, 1 day or 30 days before {@code to}
+     * @param to ISO date-time of the range end (exclusive), defaults to now
+     * @param granularity minute, hour or day
+     * @return one bucket per unit of the range, with its clicks
+     */
+    @GetMapping("/links/{shortCode}/stats")
+    public ResponseEntity<LinkStatsOutput> getLinkStats(
+            @PathVariable final String shortCode,
+            @RequestParam(required = false) final String from,
+            @RequestParam(required = false) final String to,
+            @RequestParam(defaultValue = "hour") final String granularity
+    ) {
+        log.debug("HTTP GET /links/{}/stats received", shortCode);
+        return ResponseEntity.ok(manager.getLinkStats(shortCode, from, to, granularity));
     }
 
     /**
@@ -87,8 +179,108 @@ public class UrlActivity {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size
     ) {
-        log.info("HTTP GET /links received");
+        log.debug("HTTP GET /links received");
         return ResponseEntity.ok(manager.listLinks(page, size));
     }
 
+    /**
+     * Get the links with keyset pagination, newest first.
+     * Selected when the {@code after} parameter is present (empty for the first page).
+     * @param after the opaque cursor returned with the previous page
+     * @param size size of the page
+     * @return the links of the page and the cursor of the next one
+     */
+    @GetMapping(value = "/links", params = "after")
+    public ResponseEntity<LinkPageOutput> listLinksAfter(
+            @RequestParam(required = false) final String after,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        log.debug("HTTP GET /links?after received");
+        return ResponseEntity.ok(manager.listLinksAfter(after, size));
+    }
+
+    /**
+     * Export the links as NDJSON (one link details object per line), oldest first.
+     * The rows are read through a database cursor and written as they come, on the MVC async executor:
+     * the memory used does not depend on the number of links. The filter is checked before the
+     * response starts, a failure in the middle of the export truncates the stream.
+     * @param status "active" or "expired", all links when absent
+     * @param createdFrom ISO date-time, only the links created at or after it
+     * @param createdTo ISO date-time, only the links created before it
+     * @return the NDJSON stream of the links
+     */
+    @GetMapping(value = "/links/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLinks(
+            @RequestParam(required = false) final String status,
+            @RequestParam(required = false) final String createdFrom,
+            @RequestParam(required = false) final String createdTo
+    ) {
+        log.debug("HTTP GET /links/export received");
+        final LinkExportFilter filter = manager.exportFilter(status, createdFrom, createdTo);
+        final StreamingResponseBody body = outputStream -> {
+            final JsonGenerator generator = objectMapper.createGenerator(outputStream, JsonEncoding.UTF8);
+            // one value per line instead of the default space between root values
+            generator.setRootValueSeparator(null);
+            manager.exportLinks(filter, details -> writeLine(generator, details));
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Import existing links, aliases kept, from an NDJSON or CSV upload read as it arrives: the upload
+     * slows down when the database cannot keep up instead of being buffered. Lines that are not valid
+     * or whose alias is taken do not fail the import, they are listed in its report.
+     * @param contentType application/x-ndjson or text/csv
+     * @param body the upload, UTF-8
+     * @return the counts of the import and the path of its report
+     */
+    @PostMapping("/links/import")
+    public ResponseEntity<ImportSummaryOutput> importLinks(
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) final String contentType,
+            final InputStream body
+    ) {
+        final ImportFormat format = ImportFormat.ofContentType(contentType);
+        log.info("HTTP POST /links/import received: format={}", format);
+        return ResponseEntity.ok(importer.importLinks(body, format));
+    }
+
+    /**
+     * Download the report of an import: one NDJSON object per rejected or conflicting line.
+     * @param importId the id returned with the import summary
+     * @return the report file
+     */
+    @GetMapping("/links/import/{importId}/report")
+    public ResponseEntity<FileSystemResource> getImportReport(@PathVariable final String importId) {
+        log.debug("HTTP GET /links/import/{}/report received", importId);
+        final Path report = importer.reportFile(importId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(report.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(report));
+    }
+
+    /**
+     * Check whether a custom alias can still be used.
+     * @param alias the custom alias
+     * @return the alias and whether it is available
+     */
+    @GetMapping("/aliases/{alias}/available")
+    public ResponseEntity<AliasAvailabilityOutput> checkAliasAvailability(@PathVariable final String alias) {
+        log.debug("HTTP GET /aliases/{}/available received", alias);
+        return ResponseEntity.ok(manager.checkAliasAvailability(alias));
+    }
+
+    private static void writeLine(final JsonGenerator generator, final LinkDetailsOutput details) {
+        try {
+            generator.writeObject(details);
+            generator.writeRaw('\n');
+        } catch (final IOException e) {
+            // client gone: stop the database cursor too
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+package com.example.urlShortenerService.alias;
+
+import java.util.Arrays;
+
+/**
+ * Packs short aliases into a single long, so in-memory lookups hash and compare one primitive
+ * instead of a String.
+ * <p>
+ * Aliases only use {@code [a-zA-Z0-9_-]}, 64 symbols of 6 bits each: up to {@value #MAX_PACKED_LENGTH}
+ * characters fit in 60 bits, the 4 top bits hold the length. Packing is a bijection, two aliases
+ * get the same code only if they are equal. Longer custom aliases, or strings with other characters,
+ * are not packed ({@value #NOT_PACKED}) and need a String-keyed fallback.
+ */
+public final class AliasCodec {
+
+    /**
+     * Longest alias that fits in a long, generated codes are never longer.
+     */
+    public static final int MAX_PACKED_LENGTH = 10;
+
+    /**
+     * Returned for an alias that cannot be packed, no packed alias is 0 (its length is at least 1).
+     */
+    public static final long NOT_PACKED = 0L;
+
+    private static final char[] SYMBOLS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_".toCharArray();
+    private static final byte[] DIGITS = new byte[128];
+    private static final int BITS_PER_SYMBOL = 6;
+    private static final int LENGTH_SHIFT = 60;
+
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            DIGITS[SYMBOLS[i]] = (byte) i;
+        }
+    }
+
+    private AliasCodec() {
+    }
+
+    /**
+     * Pack an alias into a long.
+     * @param alias the alias
+     * @return the packed code, or {@value #NOT_PACKED} if the alias is empty, too long or has a
+     *         character outside {@code [a-zA-Z0-9_-]}
+     */
+    public static long pack(final String alias) {
+        final int length = alias.length();
+        if (length == 0 || length > MAX_PACKED_LENGTH) {
+            return NOT_PACKED;
+        }
+        long code = 0L;
+        for (int i = 0; i < length; i++) {
+            final char c = alias.charAt(i);
+            final int digit = c < DIGITS.length ? DIGITS[c] : -1;
+            if (digit < 0) {
+                return NOT_PACKED;
+            }
+            code = (code << BITS_PER_SYMBOL) | digit;
+        }
+        return ((long) length << LENGTH_SHIFT) | code;
+    }
+
+    /**
+     * Get back the alias of a packed code.
+     * @param code a code returned by {@link #pack(String)}
+     * @return the alias
+     * @throws IllegalArgumentException if the code is {@value #NOT_PACKED} or has an invalid length
+     */
+    public static String unpack(final long code) {
+        final int length = (int) (code >>> LENGTH_SHIFT);
+        if (length == 0 || length > MAX_PACKED_LENGTH) {
+            throw new IllegalArgumentException("Not a packed alias: " + code);
+        }
+        final char[] alias = new char[length];
+        long symbols = code;
+        for (int i = length - 1; i >= 0; i--) {
+            alias[i] = SYMBOLS[(int) (symbols & ((1 << BITS_PER_SYMBOL) - 1))];
+            symbols >>>= BITS_PER_SYMBOL;
+        }
+        return new String(alias);
+    }
+
+    /**
+     * Spread the bits of a packed code over a 32-bit hash (murmur3 finalizer), for hash tables
+     * indexed by its low bits.
+     * @param code the packed code
+     * @return the hash
+     */
+    public static int hash(final long code) {
+        long h = code;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
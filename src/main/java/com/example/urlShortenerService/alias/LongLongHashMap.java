@@ -0,0 +1,195 @@
+package com.example.urlShortenerService.alias;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Open-addressing hash map from a packed alias ({@link AliasCodec}) to a long value, with linear
+ * probing and no boxing: one lookup hashes a long and compares longs.
+ * <p>
+ * Key {@value AliasCodec#NOT_PACKED} marks an empty slot and cannot be stored, value
+ * {@value #NO_VALUE} marks a removed slot (the slot keeps its key so the probe chains stay intact)
+ * and cannot be stored either.
+ * <p>
+ * Lookups take no lock. Writes are serialized by the caller; a slot is published by writing its
+ * value before its key. The table is kept at most half full and is rebuilt (without the removed
+ * slots) into a new table published through a volatile field: a concurrent lookup on the old table
+ * only misses the writes made meanwhile.
+ */
+public class LongLongHashMap {
+
+    /**
+     * Returned for an absent key.
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Visits one entry.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private static final class Table {
+        private final AtomicLongArray keys;
+        private final AtomicLongArray values;
+        private final int mask;
+
+        private Table(final int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.values = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+
+    private volatile Table table;
+    private volatile int size;
+    // live and removed slots, guarded by the caller's write lock
+    private int used;
+
+    /**
+     * Constructor
+     * @param expectedKeys the number of keys the first table is sized for
+     */
+    public LongLongHashMap(final int expectedKeys) {
+        this.table = new Table(capacityFor(expectedKeys));
+    }
+
+    /**
+     * Get the value of a key.
+     * @param key the packed alias
+     * @return the value, or {@value #NO_VALUE} if absent
+     */
+    public long get(final long key) {
+        final Table t = table;
+        for (int slot = AliasCodec.hash(key) & t.mask; ; slot = (slot + 1) & t.mask) {
+            final long found = t.keys.get(slot);
+            if (found == key) {
+                return t.values.get(slot);
+            }
+            if (found == AliasCodec.NOT_PACKED) {
+                return NO_VALUE;
+            }
+        }
+    }
+
+    /**
+     * Set the value of a key. The caller holds the write lock.
+     * @param key the packed alias, not {@value AliasCodec#NOT_PACKED}
+     * @param value the value, not {@value #NO_VALUE}
+     * @return the previous value, or {@value #NO_VALUE} if absent
+     */
+    public long put(final long key, final long value) {
+        if (key == AliasCodec.NOT_PACKED || value == NO_VALUE) {
+            throw new IllegalArgumentException("Reserved key or value: " + key + " -> " + value);
+        }
+        if ((used + 1) * 2L > table.keys.length()) {
+            rebuild(Math.max(size + 1, used / 2));
+        }
+        final Table t = table;
+        int slot = AliasCodec.hash(key) & t.mask;
+        for (; ; slot = (slot + 1) & t.mask) {
+            final long found = t.keys.get(slot);
+            if (found == key) {
+                final long previous = t.values.getAndSet(slot, value);
+                if (previous == NO_VALUE) {
+                    size++;
+                }
+                return previous;
+            }
+            if (found == AliasCodec.NOT_PACKED) {
+                break;
+            }
+        }
+        t.values.set(slot, value);
+        t.keys.set(slot, key);
+        used++;
+        size++;
+        return NO_VALUE;
+    }
+
+    /**
+     * Remove a key if it still has the given value. The caller holds the write lock.
+     * @param key the packed alias
+     * @param expected the value the key must have
+     * @return true if the key was removed
+     */
+    public boolean remove(final long key, final long expected) {
+        final Table t = table;
+        for (int slot = AliasCodec.hash(key) & t.mask; ; slot = (slot + 1) & t.mask) {
+            final long found = t.keys.get(slot);
+            if (found == key) {
+                if (t.values.get(slot) != expected || expected == NO_VALUE) {
+                    return false;
+                }
+                t.values.set(slot, NO_VALUE);
+                size--;
+                return true;
+            }
+            if (found == AliasCodec.NOT_PACKED) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Visit every entry, in no particular order.
+     * @param action called once per entry
+     */
+    public void forEach(final EntryConsumer action) {
+        final Table t = table;
+        for (int slot = 0; slot < t.keys.length(); slot++) {
+            final long key = t.keys.get(slot);
+            final long value = t.values.get(slot);
+            if (key != AliasCodec.NOT_PACKED && value != NO_VALUE) {
+                action.accept(key, value);
+            }
+        }
+    }
+
+    /**
+     * Get the number of keys.
+     * @return the number of keys
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of slots of the current table.
+     * @return the table capacity
+     */
+    public int capacity() {
+        return table.keys.length();
+    }
+
+    private void rebuild(final int keys) {
+        final Table old = table;
+        final Table rebuilt = new Table(capacityFor(keys));
+        for (int slot = 0; slot < old.keys.length(); slot++) {
+            final long key = old.keys.get(slot);
+            final long value = old.values.get(slot);
+            if (key == AliasCodec.NOT_PACKED || value == NO_VALUE) {
+                continue;
+            }
+            int target = AliasCodec.hash(key) & rebuilt.mask;
+            while (rebuilt.keys.get(target) != AliasCodec.NOT_PACKED) {
+                target = (target + 1) & rebuilt.mask;
+            }
+            rebuilt.values.set(target, value);
+            rebuilt.keys.set(target, key);
+        }
+        used = size;
+        table = rebuilt;
+    }
+
+    // room for twice the keys at a 50% load factor, as a power of two
+    private static int capacityFor(final int keys) {
+        final long wanted = Math.max(MIN_CAPACITY, (long) keys * 4);
+        if (wanted > 1 << 30) {
+            throw new IllegalStateException("Hash map is full: " + keys + " keys");
+        }
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+}
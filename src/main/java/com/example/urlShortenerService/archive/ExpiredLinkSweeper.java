@@ -0,0 +1,133 @@
+package com.example.urlShortenerService.archive;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background job moving expired links out of the hot {@code urls} table.
+ * <p>
+ * Links that expired more than {@code shortener.sweep-grace-period-hours} ago are copied to
+ * {@code urls_archive} and deleted, oldest first, in batches of {@code shortener.sweep-batch-size}
+ * rows. Each batch is its own short transaction and is followed by a pause, so the sweep never
+ * holds long locks nor saturates the database. A run stops after
+ * {@code shortener.sweep-max-batches-per-run} batches; a failed batch is retried on the next run.
+ * <p>
+ * Progress is exposed as {@code shortener.sweep.archived} (links moved), {@code shortener.sweep.batches}
+ * (batch latency) and {@code shortener.sweep.lag} (age, in seconds, of the oldest link that should
+ * already be archived).
+ */
+@Log4j2
+@Component
+public class ExpiredLinkSweeper {
+
+    private final UrlRepository dbClient;
+    private final ShortenerProperties props;
+    private final Counter archived;
+    private final Timer batches;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param dbClient the database client
+     * @param props the shortener properties (grace period, batch size, pause)
+     * @param meterRegistry the registry the sweep meters are bound to
+     */
+    public ExpiredLinkSweeper(
+            final UrlRepository dbClient,
+            final ShortenerProperties props,
+            final MeterRegistry meterRegistry
+    ) {
+        this.dbClient = dbClient;
+        this.props = props;
+        this.archived = Counter.builder("shortener.sweep.archived")
+                .description("Expired links moved to the archive table")
+                .register(meterRegistry);
+        this.batches = Timer.builder("shortener.sweep.batches")
+                .description("Latency of one archival batch")
+                .register(meterRegistry);
+        Gauge.builder("shortener.sweep.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest expired link waiting to be archived")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archive the links past their grace period, batch by batch.
+     * @return the number of links archived by this run
+     */
+    @Scheduled(
+            initialDelayString = "${shortener.sweep-interval-ms:60000}",
+            fixedDelayString = "${shortener.sweep-interval-ms:60000}")
+    public int sweep() {
+        if (!props.isSweepEnabled()) {
+            return 0;
+        }
+        final int batchSize = Math.max(1, props.getSweepBatchSize());
+        int total = 0;
+        try {
+            for (int batch = 0; batch < props.getSweepMaxBatchesPerRun(); batch++) {
+                final LocalDateTime now = LocalDateTime.now();
+                final LocalDateTime expiredBefore = now.minusHours(props.getSweepGracePeriodHours());
+                final int moved = batches.record(() -> dbClient.archiveExpired(expiredBefore, batchSize, now));
+                archived.increment(moved);
+                total += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+                pause();
+            }
+        } catch (final RuntimeException e) {
+            log.error("Expired link sweep failed after {} links, will retry", total, e);
+        } finally {
+            updateLag();
+        }
+        if (total > 0) {
+            log.info("Expired link sweep archived {} links", total);
+        }
+        return total;
+    }
+
+    /**
+     * Get the age of the oldest link that should already be archived, as of the last run.
+     * @return the lag in seconds, 0 when the sweep is caught up
+     */
+    public long lagSeconds() {
+        return lagSeconds.get();
+    }
+
+    private void updateLag() {
+        try {
+            final LocalDateTime oldest = dbClient.findOldestExpiresAt();
+            final LocalDateTime expiredBefore = LocalDateTime.now().minusHours(props.getSweepGracePeriodHours());
+            lagSeconds.set(oldest == null || !oldest.isBefore(expiredBefore)
+                    ? 0L
+                    : Duration.between(oldest, expiredBefore).toSeconds());
+        } catch (final RuntimeException e) {
+            log.warn("Could not measure the expired link sweep lag", e);
+        }
+    }
+
+    private void pause() {
+        if (props.getSweepBatchPauseMs() <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(props.getSweepBatchPauseMs());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted between two sweep batches", e);
+        }
+    }
+}
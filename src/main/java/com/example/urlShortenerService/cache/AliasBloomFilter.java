@@ -0,0 +1,213 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory Bloom filter of every alias ever stored (live and archived links).
+ * <p>
+ * {@link #mightContain(String)} returning false means the alias definitely does not exist,
+ * so unknown codes are answered without a database round trip. True means "probably":
+ * the database stays the source of truth. Aliases are never removed, an archived alias
+ * must still reach the archive lookup.
+ * <p>
+ * The bit array is sized from {@code shortener.alias-filter-expected-aliases} and
+ * {@code shortener.alias-filter-false-positive-rate}, filled at startup by streaming the
+ * aliases from the link store and updated on every insert by {@link AliasFilterEntityListener}
+ * (or by the {@code MappedLinkStore} itself). The inserts of other instances sharing the database
+ * are only seen by {@link #refresh()}, every {@code shortener.alias-filter-refresh-interval-ms}:
+ * until then such an alias is reported as unknown here.
+ * Until the initial load is done, or when the filter is disabled, every alias is reported
+ * as possibly present.
+ */
+@Log4j2
+@Component
+public class AliasBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    // word index is an int
+    private static final long MAX_BITS = (long) Integer.MAX_VALUE * Long.SIZE;
+
+    private final LinkStore dbClient;
+    private final boolean enabled;
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+    private final Counter rejections;
+    private final Counter falsePositives;
+    private volatile boolean ready;
+
+    /**
+     * Constructor
+     * @param dbClient the link store the aliases are loaded from
+     * @param props the shortener properties (expected aliases, false positive rate)
+     * @param meterRegistry the registry the filter meters are bound to
+     */
+    public AliasBloomFilter(
+            final LinkStore dbClient,
+            final ShortenerProperties props,
+            final MeterRegistry meterRegistry
+    ) {
+        this.dbClient = dbClient;
+        this.enabled = props.isAliasFilterEnabled();
+        final long expected = Math.max(1L, props.getAliasFilterExpectedAliases());
+        final double fpp = Math.min(Math.max(props.getAliasFilterFalsePositiveRate(), 1e-9), 0.5);
+        final long optimalBits = (long) Math.ceil(-expected * Math.log(fpp) / (LN2 * LN2));
+        final int wordCount = enabled ? (int) ((Math.min(optimalBits, MAX_BITS) + Long.SIZE - 1) / Long.SIZE) : 1;
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expected * LN2));
+
+        this.rejections = Counter.builder("shortener.alias.filter.rejections")
+                .description("Lookups answered as unknown by the alias Bloom filter, without a database call")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("shortener.alias.filter.false.positives")
+                .description("Lookups the alias Bloom filter let through but the database did not find")
+                .register(meterRegistry);
+        Gauge.builder("shortener.alias.filter.fpp", this, AliasBloomFilter::expectedFalsePositiveRate)
+                .description("Current false positive rate of the alias Bloom filter, from its fill ratio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fill the filter with the aliases already in the database. Creations that happen meanwhile
+     * are added directly, so nothing is missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final AtomicLong loaded = new AtomicLong();
+        dbClient.forEachAlias(alias -> {
+            put(alias);
+            loaded.incrementAndGet();
+        });
+        ready = true;
+        log.info("Alias filter loaded: aliases={}, bits={}, hashes={}, memory={} KiB, took={} ms",
+                loaded.get(), bitCount, hashCount, bitCount / Byte.SIZE / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Stream the stored aliases into the filter again, to add the ones inserted by other instances.
+     * Aliases are never removed, so the filter stays valid while it is refreshed in place.
+     */
+    @Scheduled(
+            initialDelayString = "${shortener.alias-filter-refresh-interval-ms:300000}",
+            fixedDelayString = "${shortener.alias-filter-refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!ready) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final long bitsBefore = bitsSet.get();
+        try {
+            dbClient.forEachAlias(this::put);
+        } catch (final RuntimeException e) {
+            log.error("Alias filter refresh failed, will retry", e);
+            return;
+        }
+        log.info("Alias filter refreshed: newBits={}, took={} ms", bitsSet.get() - bitsBefore,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Add an alias.
+     * @param alias the alias
+     */
+    public void put(@NonNull final String alias) {
+        if (!enabled) {
+            return;
+        }
+        final long h1 = mix(hash(alias));
+        final long h2 = mix(h1 ^ GOLDEN_GAMMA) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            setBit(((h1 + i * h2) & Long.MAX_VALUE) % bitCount);
+        }
+    }
+
+    /**
+     * Check whether an alias may exist.
+     * @param alias the alias
+     * @return false if the alias definitely does not exist, true if it may exist
+     */
+    public boolean mightContain(@NonNull final String alias) {
+        if (!ready) {
+            return true;
+        }
+        final long h1 = mix(hash(alias));
+        final long h2 = mix(h1 ^ GOLDEN_GAMMA) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                rejections.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Count an alias reported as possibly present that the database did not find.
+     */
+    public void falsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Get the false positive rate expected from the current fill ratio.
+     * @return the probability that an unknown alias is reported as possibly present
+     */
+    public double expectedFalsePositiveRate() {
+        return ready ? Math.pow((double) bitsSet.get() / bitCount, hashCount) : 1.0;
+    }
+
+    private void setBit(final long bit) {
+        final int index = (int) (bit >>> 6);
+        final long mask = 1L << bit;
+        long word = words.get(index);
+        while ((word & mask) == 0) {
+            final long witness = words.compareAndExchange(index, word, word | mask);
+            if (witness == word) {
+                bitsSet.incrementAndGet();
+                return;
+            }
+            word = witness;
+        }
+    }
+
+    // FNV-1a over the chars, no byte[] copy of the alias
+    private static long hash(final String alias) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < alias.length(); i++) {
+            hash = (hash ^ alias.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // murmur3 finalizer, spreads the FNV bits over the whole word
+    private static long mix(final long value) {
+        long h = value;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.model.Url;
+import jakarta.persistence.PostPersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the alias of every inserted {@link Url} to the {@link AliasBloomFilter}, whatever the
+ * code path (single create, batch, retried generated code), so the filter never misses a link.
+ * <p>
+ * Runs right after the INSERT, before the commit: a rolled back alias only costs a false positive.
+ * The filter is resolved lazily, Hibernate creates its listeners while the repositories are wired.
+ */
+@Component
+public class AliasFilterEntityListener {
+
+    private final ObjectProvider<AliasBloomFilter> aliasFilter;
+
+    /**
+     * Constructor
+     * @param aliasFilter the alias filter, resolved on first insert
+     */
+    public AliasFilterEntityListener(final ObjectProvider<AliasBloomFilter> aliasFilter) {
+        this.aliasFilter = aliasFilter;
+    }
+
+    /**
+     * Register the alias of a new link.
+     * @param url the inserted link
+     */
+    @PostPersist
+    public void onInsert(final Url url) {
+        aliasFilter.getObject().put(url.getCustomAlias());
+    }
+}
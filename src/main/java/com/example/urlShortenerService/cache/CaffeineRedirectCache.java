@@ -0,0 +1,105 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.NonNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Default {@link RedirectCache}: a bounded Caffeine cache on the heap, with frequency-based admission
+ * and eviction (W-TinyLFU).
+ * <p>
+ * Each entry expires exactly at the link's {@code expiresAt}, so an expired link is
+ * never served from the cache. Hit, miss and eviction counts are published through
+ * Micrometer under the {@code cache.*} meters with the tag {@code cache=redirect}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shortener", name = "redirect-cache", havingValue = "caffeine", matchIfMissing = true)
+public class CaffeineRedirectCache implements RedirectCache {
+
+    private final Cache<String, RedirectTarget> cache;
+
+    /**
+     * Constructor
+     * @param props the shortener properties (cache size)
+     * @param meterRegistry the registry the cache statistics are bound to
+     */
+    public CaffeineRedirectCache(final ShortenerProperties props, final MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getRedirectCacheMaxSize())
+                .expireAfter(new ExpiresAtExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RedirectTarget get(@NonNull final String alias) {
+        return cache.getIfPresent(alias);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(@NonNull final String alias, @NonNull final RedirectTarget target) {
+        if (!target.isExpired()) {
+            cache.put(alias, target);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidate(@NonNull final String alias) {
+        cache.invalidate(alias);
+    }
+
+    /**
+     * Entries live until the link expires, forever when it has no expiration.
+     * Reads and updates never extend that lifetime.
+     */
+    private static final class ExpiresAtExpiry implements Expiry<String, RedirectTarget> {
+
+        @Override
+        public long expireAfterCreate(final String alias, final RedirectTarget target, final long currentTime) {
+            if (target.expiresAt() == null) {
+                return Long.MAX_VALUE;
+            }
+            final Duration remaining = Duration.between(LocalDateTime.now(), target.expiresAt());
+            if (remaining.isNegative()) {
+                return 0L;
+            }
+            try {
+                return remaining.toNanos();
+            } catch (final ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        @Override
+        public long expireAfterUpdate(final String alias, final RedirectTarget target,
+                                      final long currentTime, final long currentDuration) {
+            return expireAfterCreate(alias, target, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(final String alias, final RedirectTarget target,
+                                    final long currentTime, final long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
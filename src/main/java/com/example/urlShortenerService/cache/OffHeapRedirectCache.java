@@ -0,0 +1,389 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * {@link RedirectCache} kept in direct memory, out of the GC heap: millions of cached links add
+ * neither live heap to trace nor objects to promote, only the target returned by a hit is allocated.
+ * <p>
+ * Entries are appended to slabs of {@code shortener.redirect-cache-off-heap-slab-bytes}, allocated
+ * on demand up to {@code shortener.redirect-cache-off-heap-bytes}:
+ * <pre>
+ *  0 length (int), 4 alias hash (int), 8 id (long)
+ * 16 expiry epoch second (long, Long.MIN_VALUE = never), 24 expiry nanos (int)
+ * 28 alias length (int), 32 target length (int), 36 redirect policy ordinal (int)
+ * 40 alias (ASCII) then target (UTF-8), padded to 8
+ * </pre>
+ * The index is an open-addressing table with linear probing in one more direct buffer, 16 bytes
+ * per slot: entry reference ({@code slab << 32 | offset}, plus one; 0 = empty, -1 = removed) and alias hash.
+ * It is sized for {@code shortener.redirect-cache-max-size} entries at a 50% load factor.
+ * <p>
+ * The slabs form a ring: when the next slab is needed, or the entry count limit is reached, the
+ * oldest slab is emptied (FIFO eviction) and reused. An evicted link is reloaded on its next miss.
+ * <p>
+ * Reads are optimistic ({@link StampedLock}) and fall back to a read lock when a write overlapped;
+ * writes are serialized by the write lock.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(prefix = "shortener", name = "redirect-cache", havingValue = "off-heap")
+public class OffHeapRedirectCache implements RedirectCache {
+
+    private static final int HEADER_BYTES = 40;
+    private static final int SLOT_BYTES = 16;
+    private static final long EMPTY = 0L;
+    private static final long REMOVED = -1L;
+    private static final long NO_EXPIRY = Long.MIN_VALUE;
+    private static final int MIN_SLAB_BYTES = 64 * 1024;
+
+    private final StampedLock lock = new StampedLock();
+    private final ByteBuffer[] slabs;
+    private final int slabBytes;
+    private final ByteBuffer index;
+    private final int slotMask;
+    private final long maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    // guarded by the write lock
+    private final int[] slabEnds;
+    private int head;
+    private long size;
+    private long usedSlots;
+
+    /**
+     * Constructor
+     * @param props the shortener properties (maximum entries, off-heap and slab sizes)
+     * @param meterRegistry the registry the cache statistics are bound to
+     */
+    public OffHeapRedirectCache(final ShortenerProperties props, final MeterRegistry meterRegistry) {
+        this.slabBytes = (int) Math.min(1L << 30,
+                Math.max(MIN_SLAB_BYTES, props.getRedirectCacheOffHeapSlabBytes())) & ~7;
+        final int slabCount = (int) Math.max(2, props.getRedirectCacheOffHeapBytes() / slabBytes);
+        this.slabs = new ByteBuffer[slabCount];
+        this.slabEnds = new int[slabCount];
+        this.maxEntries = Math.max(1L, props.getRedirectCacheMaxSize());
+        final long slots = Long.highestOneBit(Math.max(16L, maxEntries * 2 - 1)) << 1;
+        if (slots * SLOT_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "redirect-cache-max-size too large for the off-heap index: " + maxEntries);
+        }
+        this.index = ByteBuffer.allocateDirect((int) (slots * SLOT_BYTES));
+        this.slotMask = (int) slots - 1;
+
+        this.hits = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value.")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+                .description("The number of times cache lookup methods have returned an uncached value.")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", CACHE_NAME)
+                .description("The number of times the cache was evicted.")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, OffHeapRedirectCache::size).tag("cache", CACHE_NAME)
+                .description("The number of entries in this cache.")
+                .register(meterRegistry);
+        Gauge.builder("shortener.redirect.cache.off.heap.bytes", this, OffHeapRedirectCache::allocatedBytes)
+                .description("Direct memory allocated by the off-heap redirect cache (slabs and index)")
+                .register(meterRegistry);
+        log.info("Off-heap redirect cache: maxEntries={}, slabs={} x {} bytes, index={} bytes",
+                maxEntries, slabCount, slabBytes, index.capacity());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RedirectTarget get(@NonNull final String alias) {
+        final int hash = hash(alias);
+        RedirectTarget target = null;
+        boolean consistent = false;
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                target = find(alias, hash);
+                consistent = lock.validate(stamp);
+            } catch (final RuntimeException e) {
+                // a concurrent write moved the bytes under the read, retry under the lock
+            }
+        }
+        if (!consistent) {
+            final long readStamp = lock.readLock();
+            try {
+                target = find(alias, hash);
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+        if (target == null || target.isExpired()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Aliases that are not ASCII (never valid) and targets larger than a slab are not cached.
+     */
+    @Override
+    public void put(@NonNull final String alias, @NonNull final RedirectTarget target) {
+        if (target.isExpired() || !isAscii(alias)) {
+            return;
+        }
+        final byte[] targetBytes = target.targetUrl().getBytes(StandardCharsets.UTF_8);
+        final int length = (HEADER_BYTES + alias.length() + targetBytes.length + 7) & ~7;
+        if (length > slabBytes) {
+            return;
+        }
+        final int hash = hash(alias);
+        final long stamp = lock.writeLock();
+        try {
+            remove(alias, hash);
+            while (size >= maxEntries) {
+                evictOldest();
+            }
+            final long reference = append(alias, hash, target, targetBytes, length);
+            insert(hash, reference);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidate(@NonNull final String alias) {
+        final long stamp = lock.writeLock();
+        try {
+            remove(alias, hash(alias));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get the number of cached entries.
+     * @return the entry count
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Get the direct memory allocated so far.
+     * @return the bytes of the allocated slabs and of the index
+     */
+    public long allocatedBytes() {
+        long bytes = index.capacity();
+        for (final ByteBuffer slab : slabs) {
+            bytes += slab == null ? 0 : slab.capacity();
+        }
+        return bytes;
+    }
+
+    private RedirectTarget find(final String alias, final int hash) {
+        for (int slot = hash & slotMask, probes = 0; probes <= slotMask; slot = (slot + 1) & slotMask, probes++) {
+            final long reference = index.getLong(slot * SLOT_BYTES);
+            if (reference == EMPTY) {
+                return null;
+            }
+            if (reference != REMOVED && index.getInt(slot * SLOT_BYTES + 8) == hash
+                    && aliasEquals(reference - 1, alias)) {
+                return read(reference - 1);
+            }
+        }
+        return null;
+    }
+
+    private boolean aliasEquals(final long entry, final String alias) {
+        final ByteBuffer slab = slabs[(int) (entry >>> 32)];
+        final int offset = (int) entry;
+        if (slab.getInt(offset + 28) != alias.length()) {
+            return false;
+        }
+        for (int i = 0; i < alias.length(); i++) {
+            if (slab.get(offset + HEADER_BYTES + i) != alias.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private RedirectTarget read(final long entry) {
+        final ByteBuffer slab = slabs[(int) (entry >>> 32)];
+        final int offset = (int) entry;
+        final int targetLength = slab.getInt(offset + 32);
+        if (targetLength < 0 || targetLength > slabBytes) {
+            // only an optimistic read racing a write sees this, it is retried under the lock
+            throw new IllegalStateException("Inconsistent off-heap entry at " + entry);
+        }
+        final byte[] target = new byte[targetLength];
+        slab.get(offset + HEADER_BYTES + slab.getInt(offset + 28), target);
+        final long expirySecond = slab.getLong(offset + 16);
+        final LocalDateTime expiresAt = expirySecond == NO_EXPIRY
+                ? null
+                : LocalDateTime.ofEpochSecond(expirySecond, slab.getInt(offset + 24), ZoneOffset.UTC);
+        return new RedirectTarget(slab.getLong(offset + 8), new String(target, StandardCharsets.UTF_8), expiresAt,
+                RedirectPolicy.values()[slab.getInt(offset + 36)]);
+    }
+
+    private long append(final String alias, final int hash, final RedirectTarget target,
+                        final byte[] targetBytes, final int length) {
+        if (slabs[head] == null) {
+            slabs[head] = ByteBuffer.allocateDirect(slabBytes);
+        }
+        if (slabEnds[head] + length > slabBytes) {
+            head = (head + 1) % slabs.length;
+            if (slabs[head] == null) {
+                slabs[head] = ByteBuffer.allocateDirect(slabBytes);
+            } else {
+                evict(head);
+            }
+        }
+        final ByteBuffer slab = slabs[head];
+        final int offset = slabEnds[head];
+        slab.putInt(offset, length);
+        slab.putInt(offset + 4, hash);
+        slab.putLong(offset + 8, target.id() == null ? 0L : target.id());
+        slab.putLong(offset + 16, target.expiresAt() == null
+                ? NO_EXPIRY
+                : target.expiresAt().toEpochSecond(ZoneOffset.UTC));
+        slab.putInt(offset + 24, target.expiresAt() == null ? 0 : target.expiresAt().getNano());
+        slab.putInt(offset + 28, alias.length());
+        slab.putInt(offset + 32, targetBytes.length);
+        slab.putInt(offset + 36, target.redirectPolicy().ordinal());
+        for (int i = 0; i < alias.length(); i++) {
+            slab.put(offset + HEADER_BYTES + i, (byte) alias.charAt(i));
+        }
+        slab.put(offset + HEADER_BYTES + alias.length(), targetBytes);
+        slabEnds[head] = offset + length;
+        return ((long) head << 32) | offset;
+    }
+
+    // the slab after the head is the oldest one that may hold entries
+    private void evictOldest() {
+        for (int i = 1; i <= slabs.length; i++) {
+            final int slab = (head + i) % slabs.length;
+            if (slabEnds[slab] > 0) {
+                evict(slab);
+                return;
+            }
+        }
+    }
+
+    private void evict(final int slab) {
+        final ByteBuffer buffer = slabs[slab];
+        for (int offset = 0; offset < slabEnds[slab]; offset += buffer.getInt(offset)) {
+            final long entry = ((long) slab << 32) | offset;
+            if (removeReference(buffer.getInt(offset + 4), entry + 1)) {
+                evictions.increment();
+            }
+        }
+        slabEnds[slab] = 0;
+    }
+
+    private void insert(final int hash, final long entry) {
+        if ((usedSlots + 1) * 4 > (slotMask + 1L) * 3) {
+            rebuildIndex();
+        }
+        int slot = hash & slotMask;
+        while (true) {
+            final long reference = index.getLong(slot * SLOT_BYTES);
+            if (reference == EMPTY || reference == REMOVED) {
+                usedSlots += reference == EMPTY ? 1 : 0;
+                break;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        index.putInt(slot * SLOT_BYTES + 8, hash);
+        index.putLong(slot * SLOT_BYTES, entry + 1);
+        size++;
+    }
+
+    private void remove(final String alias, final int hash) {
+        for (int slot = hash & slotMask, probes = 0; probes <= slotMask; slot = (slot + 1) & slotMask, probes++) {
+            final long reference = index.getLong(slot * SLOT_BYTES);
+            if (reference == EMPTY) {
+                return;
+            }
+            if (reference != REMOVED && index.getInt(slot * SLOT_BYTES + 8) == hash
+                    && aliasEquals(reference - 1, alias)) {
+                index.putLong(slot * SLOT_BYTES, REMOVED);
+                size--;
+                return;
+            }
+        }
+    }
+
+    private boolean removeReference(final int hash, final long reference) {
+        for (int slot = hash & slotMask, probes = 0; probes <= slotMask; slot = (slot + 1) & slotMask, probes++) {
+            final long current = index.getLong(slot * SLOT_BYTES);
+            if (current == EMPTY) {
+                return false;
+            }
+            if (current == reference) {
+                index.putLong(slot * SLOT_BYTES, REMOVED);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // too many removed slots lengthen the probes: re-insert the live references in place
+    private void rebuildIndex() {
+        final int slots = slotMask + 1;
+        final long[] references = new long[(int) size];
+        final int[] hashes = new int[(int) size];
+        int live = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            final long reference = index.getLong(slot * SLOT_BYTES);
+            if (reference != EMPTY && reference != REMOVED) {
+                references[live] = reference;
+                hashes[live++] = index.getInt(slot * SLOT_BYTES + 8);
+            }
+            index.putLong(slot * SLOT_BYTES, EMPTY);
+        }
+        usedSlots = 0;
+        size = 0;
+        for (int i = 0; i < live; i++) {
+            insert(hashes[i], references[i] - 1);
+        }
+    }
+
+    private static boolean isAscii(final String alias) {
+        for (int i = 0; i < alias.length(); i++) {
+            if (alias.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // murmur3 finalizer of the String hash
+    private static int hash(final String alias) {
+        int h = alias.hashCode();
+        h = (h ^ (h >>> 16)) * 0x85ebca6b;
+        h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+}
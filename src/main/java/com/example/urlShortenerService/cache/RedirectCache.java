@@ -0,0 +1,38 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.model.RedirectTarget;
+
+/**
+ * Bounded in-process cache of alias -> redirect target, checked before the database.
+ * <p>
+ * Selected by {@code shortener.redirect-cache}: "caffeine" ({@link CaffeineRedirectCache}, on the heap)
+ * or "off-heap" ({@link OffHeapRedirectCache}, direct memory). An expired link is never served,
+ * and both publish the {@code cache.*} meters with the tag {@code cache=redirect}.
+ */
+public interface RedirectCache {
+
+    /**
+     * Name of the cache in the {@code cache} meter tag.
+     */
+    String CACHE_NAME = "redirect";
+
+    /**
+     * Get the cached redirect target of an alias.
+     * @param alias the short code
+     * @return the cached target, or null if absent or expired
+     */
+    RedirectTarget get(final String alias);
+
+    /**
+     * Cache the redirect target of an alias. Already expired targets are ignored.
+     * @param alias the short code
+     * @param target the redirect target
+     */
+    void put(final String alias, final RedirectTarget target);
+
+    /**
+     * Remove an alias from the cache.
+     * @param alias the short code
+     */
+    void invalidate(final String alias);
+}
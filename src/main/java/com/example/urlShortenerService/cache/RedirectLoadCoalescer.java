@@ -0,0 +1,106 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight of the redirect cache miss loads: at most one load per alias is in flight.
+ * <p>
+ * When a link goes viral or the cache is cold after a restart, many requests miss the cache for
+ * the same alias at once. The first one (the leader) runs the load, the others wait for its
+ * result instead of running their own database calls. If the load fails, every waiter fails with
+ * its own {@link DatabaseOverloadedException} caused by the leader's exception, so each failure
+ * carries the stack of the thread that threw it. A waiter also gives up with a
+ * {@link DatabaseOverloadedException} after {@code shortener.redirect-load-wait-timeout-ms}, so a
+ * stuck load cannot stall it forever; the leader itself is bounded by the database limits.
+ * The entry of an alias is removed as soon as its load completes, nothing is cached here.
+ */
+@Log4j2
+@Component
+public class RedirectLoadCoalescer {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long waitTimeoutMs;
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    /**
+     * Constructor
+     * @param props the shortener properties (wait timeout)
+     * @param meterRegistry the registry the coalescing meters are bound to
+     */
+    public RedirectLoadCoalescer(final ShortenerProperties props, final MeterRegistry meterRegistry) {
+        this.waitTimeoutMs = props.getRedirectLoadWaitTimeoutMs();
+        this.coalesced = Counter.builder("shortener.redirect.coalesced")
+                .description("Redirect cache misses that waited for the load of a concurrent request")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("shortener.redirect.coalesced.timeouts")
+                .description("Redirect cache misses that gave up waiting for the load of a concurrent request")
+                .register(meterRegistry);
+        Gauge.builder("shortener.redirect.loads.in.flight", inFlight, Map::size)
+                .description("Aliases whose redirect load is currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load the value of an alias, or wait for the load of a concurrent caller.
+     * Every caller of an alias must pass loads returning the same type.
+     * @param alias the alias
+     * @param loader the load, only run if no load of the alias is in flight
+     * @param <T> the value type
+     * @return the loaded value, shared by the concurrent callers
+     * @throws DatabaseOverloadedException if the concurrent load failed or did not complete in time
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(final String alias, final Supplier<T> loader) {
+        final CompletableFuture<Object> own = new CompletableFuture<>();
+        final CompletableFuture<Object> running = inFlight.putIfAbsent(alias, own);
+        if (running == null) {
+            return lead(alias, own, loader);
+        }
+        coalesced.increment();
+        return (T) await(alias, running);
+    }
+
+    private <T> T lead(final String alias, final CompletableFuture<Object> own, final Supplier<T> loader) {
+        try {
+            final T value = loader.get();
+            own.complete(value);
+            return value;
+        } catch (final RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(alias, own);
+        }
+    }
+
+    private Object await(final String alias, final CompletableFuture<Object> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException e) {
+            timeouts.increment();
+            log.warn("Redirect load of alias={} still running after {} ms", alias, waitTimeoutMs);
+            throw new DatabaseOverloadedException("Timed out waiting for a concurrent lookup, retry later", e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOverloadedException("Interrupted while waiting for a concurrent lookup", e);
+        } catch (final ExecutionException e) {
+            // a new exception per waiter: the leader's one is already thrown on the leader's thread
+            throw new DatabaseOverloadedException("Concurrent lookup failed, retry later", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.urlShortenerService.click;
+
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.PendingClicks;
+import jakarta.annotation.PreDestroy;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind click counter.
+ * <p>
+ * Redirects only merge into a per-link in-memory accumulator (striped by the
+ * {@link ConcurrentHashMap} bins, so two clicks on the same hot alias never lose
+ * an update). A scheduled flusher drains the accumulators and writes them as one
+ * batch of {@code click_count = click_count + ?} updates. Anything left is flushed
+ * on shutdown.
+ * <p>
+ * Clicks are also counted per link and minute; each flush adds them to the minute, hour and
+ * day click rollups in the same transaction, so the stats never need the individual clicks.
+ * <p>
+ * When the {@link ClickLog} is enabled, clicks arrive from its writer thread together with
+ * their log position, and every flush saves the position it covers (the checkpoint) in the
+ * same transaction as the counts. After a crash, replaying the log from the checkpoint
+ * restores the lost clicks exactly once.
+ */
+@Log4j2
+@Component
+public class ClickAccumulator {
+
+    private final ConcurrentHashMap<Long, PendingClicks> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ClickMinute, Long> pendingMinutes = new ConcurrentHashMap<>();
+    private final LinkStore dbClient;
+
+    // guards loggedPosition against a flush between a logged click and its position
+    private final Object logLock = new Object();
+    private long loggedPosition = -1L;
+    private volatile long checkpoint = -1L;
+
+    /**
+     * Constructor
+     * @param dbClient the link store the clicks are flushed to
+     */
+    public ClickAccumulator(final LinkStore dbClient) {
+        this.dbClient = dbClient;
+    }
+
+    /**
+     * Register one click on a link. The timestamp is kept at the microsecond precision of the
+     * database, so the link details read the same before and after the flush.
+     * @param linkId the link id
+     * @param accessedAt the click timestamp
+     */
+    public void record(@NonNull final Long linkId, @NonNull final LocalDateTime accessedAt) {
+        pending.merge(linkId, new PendingClicks(1L, accessedAt.truncatedTo(ChronoUnit.MICROS)), PendingClicks::plus);
+        pendingMinutes.merge(new ClickMinute(linkId, accessedAt.truncatedTo(ChronoUnit.MINUTES)), 1L, Long::sum);
+    }
+
+    /**
+     * Register one click read from the click log.
+     * @param linkId the link id
+     * @param accessedAt the click timestamp
+     * @param nextPosition the click log position right after this click
+     */
+    public void recordLogged(final long linkId, @NonNull final LocalDateTime accessedAt, final long nextPosition) {
+        synchronized (logLock) {
+            record(linkId, accessedAt);
+            loggedPosition = nextPosition;
+        }
+    }
+
+    /**
+     * Get the click log position covered by the last successful flush.
+     * @return the checkpoint, -1 if none was saved by this instance
+     */
+    public long checkpoint() {
+        return checkpoint;
+    }
+
+    /**
+     * Get the clicks of a link that are not flushed yet.
+     * @param linkId the link id
+     * @return the pending clicks, or null if there are none
+     */
+    public PendingClicks pending(final Long linkId) {
+        return linkId == null ? null : pending.get(linkId);
+    }
+
+    /**
+     * Drain every accumulator and write the clicks to the database in one batch.
+     * If the write fails, the drained clicks are merged back and retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${shortener.click-flush-interval-ms:1000}")
+    @PreDestroy
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        final Map<Long, PendingClicks> drained = new HashMap<>();
+        final Map<ClickMinute, Long> drainedMinutes = new HashMap<>();
+        final long position;
+        synchronized (logLock) {
+            drain(pending, drained);
+            drain(pendingMinutes, drainedMinutes);
+            position = loggedPosition;
+        }
+
+        try {
+            if (position < 0) {
+                dbClient.addClicks(drained, drainedMinutes);
+            } else {
+                dbClient.addClicks(drained, drainedMinutes, position);
+                checkpoint = position;
+            }
+            log.debug("Flushed clicks for {} links", drained.size());
+        } catch (final RuntimeException e) {
+            log.error("Click flush failed for {} links, will retry", drained.size(), e);
+            drained.forEach((linkId, clicks) -> pending.merge(linkId, clicks, PendingClicks::plus));
+            drainedMinutes.forEach((minute, clicks) -> pendingMinutes.merge(minute, clicks, Long::sum));
+        }
+    }
+
+    private static <K, V> void drain(final ConcurrentHashMap<K, V> source, final Map<K, V> target) {
+        for (final K key : source.keySet()) {
+            final V value = source.remove(key);
+            if (value != null) {
+                target.put(key, value);
+            }
+        }
+    }
+}
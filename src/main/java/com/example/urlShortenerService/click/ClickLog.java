@@ -0,0 +1,181 @@
+package com.example.urlShortenerService.click;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only log of every click, with its attributes (timestamp, referrer hash, user agent class).
+ * <p>
+ * The redirect path only publishes a fixed-width event to a {@link ClickRingBuffer}: no lock,
+ * no disk I/O and no allocation. A single writer thread drains the buffer into memory-mapped
+ * {@link ClickLogSegments} and then hands each click to the {@link ClickAccumulator}, which
+ * saves the log position it covers with every flush. On startup, the clicks logged after that
+ * checkpoint (lost by a crash before their flush) are replayed and flushed again.
+ * <p>
+ * When the ring buffer is full, the click is counted directly by the accumulator and only its
+ * log record is lost ({@code shortener.click.log.overflows}). With {@code shortener.click-log-enabled=false}
+ * clicks go straight to the accumulator, as before.
+ */
+@Log4j2
+@Component
+public class ClickLog {
+
+    private static final int DRAIN_BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ShortenerProperties props;
+    private final ClickAccumulator clickAccumulator;
+    private final UrlRepository dbClient;
+    private final boolean enabled;
+    private final ClickRingBuffer ring;
+    private final Counter events;
+    private final Counter overflows;
+    private final ClickRingBuffer.Consumer writeEvent = this::write;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private ClickLogSegments segments;
+    private Thread writer;
+    private volatile boolean running;
+
+    /**
+     * Constructor
+     * @param props the shortener properties (click log directory, segment size, ring capacity)
+     * @param clickAccumulator the write-behind click counter fed by the log
+     * @param dbClient the database client, to read the checkpoint
+     * @param meterRegistry the registry the click log meters are bound to
+     */
+    public ClickLog(
+            final ShortenerProperties props,
+            final ClickAccumulator clickAccumulator,
+            final UrlRepository dbClient,
+            final MeterRegistry meterRegistry
+    ) {
+        this.props = props;
+        this.clickAccumulator = clickAccumulator;
+        this.dbClient = dbClient;
+        this.enabled = props.isClickLogEnabled();
+        this.ring = new ClickRingBuffer(enabled ? props.getClickLogRingCapacity() : 2);
+        this.events = Counter.builder("shortener.click.log.events")
+                .description("Click events written to the click log")
+                .register(meterRegistry);
+        this.overflows = Counter.builder("shortener.click.log.overflows")
+                .description("Clicks counted without a log record because the ring buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("shortener.click.log.backlog", ring, ClickRingBuffer::size)
+                .description("Click events waiting for the click log writer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replay the clicks logged after the database checkpoint, then start the writer thread.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        segments = new ClickLogSegments(Path.of(props.getClickLogDir()), props.getClickLogSegmentBytes());
+        final Long checkpoint = dbClient.findClickLogCheckpoint();
+        final long replayed = segments.replay(checkpoint == null ? 0L : checkpoint,
+                (linkId, epochMillis, referrerHash, userAgentClass, nextPosition) ->
+                        clickAccumulator.recordLogged(linkId, toLocalDateTime(epochMillis), nextPosition));
+        if (replayed > 0) {
+            log.info("Replayed {} clicks from the click log after checkpoint {}", replayed, checkpoint);
+            clickAccumulator.flush();
+        }
+        segments.openNextSegment();
+
+        running = true;
+        writer = Thread.ofPlatform().name("click-log-writer").daemon().start(this::writeLoop);
+        log.info("Click log started: dir={}, recordsPerSegment={}, ringCapacity={}",
+                props.getClickLogDir(), segments.recordsPerSegment(), ring.capacity());
+    }
+
+    /**
+     * Register one click. Never blocks nor allocates when the click log is enabled.
+     * @param linkId the link id
+     * @param referrer the Referer header, may be null
+     * @param userAgent the User-Agent header, may be null
+     */
+    public void record(final long linkId, final String referrer, final String userAgent) {
+        if (!enabled) {
+            clickAccumulator.record(linkId, LocalDateTime.now());
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final int referrerHash = referrer == null ? 0 : referrer.hashCode();
+        if (!ring.offer(linkId, now, referrerHash, UserAgentClass.classify(userAgent).code())) {
+            overflows.increment();
+            clickAccumulator.record(linkId, toLocalDateTime(now));
+        }
+    }
+
+    /**
+     * Stop the writer once every published click is written, and flush the segment to disk.
+     * The accumulator is flushed afterwards by its own shutdown hook.
+     */
+    @PreDestroy
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        segments.force();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            try {
+                final int drained = ring.drain(writeEvent, DRAIN_BATCH);
+                if (drained > 0) {
+                    events.increment(drained);
+                    continue;
+                }
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } catch (final RuntimeException e) {
+                // a failed segment (disk full...) must not stop the counting, retry after a pause
+                log.error("Click log write failed", e);
+                LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void write(final long linkId, final long epochMillis, final int referrerHash, final byte userAgentClass) {
+        final long nextPosition = segments.append(linkId, epochMillis, referrerHash, userAgentClass);
+        clickAccumulator.recordLogged(linkId, toLocalDateTime(epochMillis), nextPosition);
+        if (nextPosition == ClickLogSegments.position(nextPosition >>> 32, segments.recordsPerSegment())) {
+            // segment full: the next append rolls over, drop the segments nobody needs anymore
+            final long checkpoint = clickAccumulator.checkpoint();
+            if (checkpoint >= 0) {
+                segments.deleteBefore(checkpoint, props.getClickLogRetainedSegments());
+            }
+        }
+    }
+
+    private LocalDateTime toLocalDateTime(final long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), zone);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.urlShortenerService.click;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Append-only click log stored as fixed-size memory-mapped segment files.
+ * <p>
+ * A segment {@code clicks-<index>.log} holds fixed-width records of {@value #RECORD_BYTES} bytes:
+ * link id (8), epoch millis (8), referrer hash (4), user agent class (1), reserved (1) and a
+ * marker (2) written last. The file is preallocated (zero filled), so the first record without
+ * marker is the end of the segment, including after a crash in the middle of a write.
+ * <p>
+ * A position in the log is {@code segment index << 32 | record index}. Only one thread appends.
+ */
+@Log4j2
+class ClickLogSegments {
+
+    static final int RECORD_BYTES = 24;
+    private static final short MARKER = 0x434C; // "CL"
+    private static final int MARKER_OFFSET = 22;
+    private static final String PREFIX = "clicks-";
+    private static final String SUFFIX = ".log";
+    private static final Pattern SEGMENT_NAME = Pattern.compile(PREFIX + "\\d+\\" + SUFFIX);
+
+    /**
+     * Receives the records read back from the log.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(long linkId, long epochMillis, int referrerHash, byte userAgentClass, long nextPosition);
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int recordsPerSegment;
+
+    private MappedByteBuffer current;
+    private long currentIndex = -1;
+    private int currentRecord;
+
+    /**
+     * Constructor
+     * @param directory the directory of the segment files, created if needed
+     * @param segmentBytes the size of one segment file
+     */
+    ClickLogSegments(final Path directory, final long segmentBytes) {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE,
+                Math.max(1L, Math.min(segmentBytes, Integer.MAX_VALUE) / RECORD_BYTES));
+        this.segmentBytes = (long) recordsPerSegment * RECORD_BYTES;
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot create the click log directory " + directory, e);
+        }
+    }
+
+    /**
+     * Encode a log position.
+     * @param segment the segment index
+     * @param record the record index in the segment
+     * @return the position
+     */
+    static long position(final long segment, final int record) {
+        return (segment << 32) | record;
+    }
+
+    /**
+     * Read back every record at or after a position, oldest first.
+     * @param from the first position to read, 0 for the whole log
+     * @param handler the record handler
+     * @return the number of records read
+     */
+    long replay(final long from, final RecordHandler handler) {
+        final long fromSegment = from >>> 32;
+        long count = 0;
+        for (final long index : segmentIndexes()) {
+            if (index < fromSegment) {
+                continue;
+            }
+            final MappedByteBuffer segment = map(segmentPath(index), FileChannel.MapMode.READ_ONLY);
+            final int records = (int) Math.min(recordsPerSegment, segment.capacity() / RECORD_BYTES);
+            int record = index == fromSegment ? (int) from : 0;
+            for (; record < records; record++) {
+                final int offset = record * RECORD_BYTES;
+                if (segment.getShort(offset + MARKER_OFFSET) != MARKER) {
+                    break;
+                }
+                handler.accept(segment.getLong(offset), segment.getLong(offset + 8), segment.getInt(offset + 16),
+                        segment.get(offset + 20), position(index, record + 1));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Start appending to a new segment after the existing ones.
+     */
+    void openNextSegment() {
+        final List<Long> indexes = segmentIndexes();
+        final long next = Math.max(currentIndex, indexes.isEmpty() ? -1L : indexes.get(indexes.size() - 1)) + 1;
+        if (current != null) {
+            current.force();
+        }
+        final Path path = segmentPath(next);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot create the click log segment " + path, e);
+        }
+        currentIndex = next;
+        currentRecord = 0;
+        log.debug("Click log segment opened: {}", path);
+    }
+
+    /**
+     * Append one record, rolling over to a new segment when the current one is full.
+     * @return the position right after the record
+     */
+    long append(final long linkId, final long epochMillis, final int referrerHash, final byte userAgentClass) {
+        if (current == null || currentRecord == recordsPerSegment) {
+            openNextSegment();
+        }
+        final int offset = currentRecord * RECORD_BYTES;
+        current.putLong(offset, linkId);
+        current.putLong(offset + 8, epochMillis);
+        current.putInt(offset + 16, referrerHash);
+        current.put(offset + 20, userAgentClass);
+        current.putShort(offset + MARKER_OFFSET, MARKER);
+        currentRecord++;
+        return position(currentIndex, currentRecord);
+    }
+
+    /**
+     * Flush the current segment to the storage device.
+     */
+    void force() {
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    /**
+     * Delete the oldest segments, keeping at least {@code retained} segments and every segment
+     * at or after the given position.
+     * @param keepFrom the oldest position still needed
+     * @param retained the minimum number of segments kept
+     * @return the number of deleted segments
+     */
+    int deleteBefore(final long keepFrom, final int retained) {
+        // a position at the end of a segment covers the whole segment
+        final long checkpointSegment = (keepFrom >>> 32) + ((int) keepFrom >= recordsPerSegment ? 1 : 0);
+        final long keepSegment = Math.min(checkpointSegment, currentIndex - Math.max(1, retained) + 1);
+        int deleted = 0;
+        for (final long index : segmentIndexes()) {
+            if (index >= keepSegment) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segmentPath(index));
+                deleted++;
+            } catch (final IOException e) {
+                log.warn("Cannot delete click log segment {}", index, e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Get the number of records per segment.
+     * @return the segment capacity in records
+     */
+    int recordsPerSegment() {
+        return recordsPerSegment;
+    }
+
+    private List<Long> segmentIndexes() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> SEGMENT_NAME.matcher(name).matches())
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot list the click log directory " + directory, e);
+        }
+    }
+
+    private Path segmentPath(final long index) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, index, SUFFIX));
+    }
+
+    private static MappedByteBuffer map(final Path path, final FileChannel.MapMode mode) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(mode, 0, channel.size());
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot read the click log segment " + path, e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.urlShortenerService.click;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer queue of click events.
+ * <p>
+ * Events are fixed width and stored in preallocated primitive slots, so {@link #offer}
+ * never allocates. Producers claim a sequence with a CAS on the tail and publish the slot
+ * with a release store; the single consumer reads published slots in order and then
+ * releases them by moving the head. A full buffer rejects the event instead of waiting.
+ */
+class ClickRingBuffer {
+
+    /**
+     * Receives the drained events, on the consumer thread.
+     */
+    @FunctionalInterface
+    interface Consumer {
+        void accept(long linkId, long epochMillis, int referrerHash, byte userAgentClass);
+    }
+
+    private final int mask;
+    private final long[] linkIds;
+    private final long[] timestamps;
+    // referrer hash in the high 32 bits, user agent class in the low 8 bits
+    private final long[] attributes;
+    // sequence published in each slot, -1 when never written
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Constructor
+     * @param capacity the requested capacity, rounded up to a power of two
+     */
+    ClickRingBuffer(final int capacity) {
+        final int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.linkIds = new long[size];
+        this.timestamps = new long[size];
+        this.attributes = new long[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    /**
+     * Add an event, from any thread.
+     * @return false if the buffer is full
+     */
+    boolean offer(final long linkId, final long epochMillis, final int referrerHash, final byte userAgentClass) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head.get() > mask) {
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        final int slot = (int) (sequence & mask);
+        linkIds[slot] = linkId;
+        timestamps[slot] = epochMillis;
+        attributes[slot] = ((long) referrerHash << 32) | (userAgentClass & 0xFFL);
+        published.lazySet(slot, sequence);
+        return true;
+    }
+
+    /**
+     * Hand the published events to the consumer, in order. Only one thread may drain.
+     * @param consumer the event consumer
+     * @param limit the maximum number of events drained
+     * @return the number of events drained
+     */
+    int drain(final Consumer consumer, final int limit) {
+        final long start = head.get();
+        long sequence = start;
+        try {
+            while (sequence - start < limit) {
+                final int slot = (int) (sequence & mask);
+                if (published.get(slot) != sequence) {
+                    break;
+                }
+                final long attribute = attributes[slot];
+                consumer.accept(linkIds[slot], timestamps[slot], (int) (attribute >>> 32), (byte) attribute);
+                sequence++;
+            }
+        } finally {
+            // a failing event stays at the head and is handed over again on the next drain
+            if (sequence != start) {
+                head.lazySet(sequence);
+            }
+        }
+        return (int) (sequence - start);
+    }
+
+    /**
+     * Get the number of events waiting for the consumer.
+     * @return the backlog
+     */
+    long size() {
+        return Math.max(0L, tail.get() - head.get());
+    }
+
+    /**
+     * Get the number of slots.
+     * @return the capacity
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
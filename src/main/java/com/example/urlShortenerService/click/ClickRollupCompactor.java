@@ -0,0 +1,84 @@
+package com.example.urlShortenerService.click;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.StatsGranularity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Background job keeping the click rollups small.
+ * <p>
+ * Every click is already counted in its minute, hour and day bucket, so an old minute bucket adds
+ * nothing its hour bucket does not hold. Minute buckets older than
+ * {@code shortener.rollup-minute-retention-hours} and hour buckets older than
+ * {@code shortener.rollup-hour-retention-days} are deleted, in batches of
+ * {@code shortener.rollup-compaction-batch-size} rows (one short transaction each). Day buckets are kept.
+ * <p>
+ * Deleted buckets are counted by {@code shortener.rollup.compacted}.
+ */
+@Log4j2
+@Component
+public class ClickRollupCompactor {
+
+    private final UrlRepository dbClient;
+    private final ShortenerProperties props;
+    private final Counter compacted;
+
+    /**
+     * Constructor
+     * @param dbClient the database client
+     * @param props the shortener properties (retention, batch size)
+     * @param meterRegistry the registry the compaction meters are bound to
+     */
+    public ClickRollupCompactor(
+            final UrlRepository dbClient,
+            final ShortenerProperties props,
+            final MeterRegistry meterRegistry
+    ) {
+        this.dbClient = dbClient;
+        this.props = props;
+        this.compacted = Counter.builder("shortener.rollup.compacted")
+                .description("Minute and hour click rollups deleted past their retention")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delete the minute and hour buckets past their retention.
+     * @return the number of buckets deleted by this run
+     */
+    @Scheduled(
+            initialDelayString = "${shortener.rollup-compaction-interval-ms:3600000}",
+            fixedDelayString = "${shortener.rollup-compaction-interval-ms:3600000}")
+    public int compact() {
+        final LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        try {
+            total += delete(StatsGranularity.MINUTE, now.minusHours(props.getRollupMinuteRetentionHours()));
+            total += delete(StatsGranularity.HOUR, now.minusDays(props.getRollupHourRetentionDays()));
+        } catch (final RuntimeException e) {
+            log.error("Click rollup compaction failed after {} buckets, will retry", total, e);
+        }
+        if (total > 0) {
+            log.info("Click rollup compaction deleted {} buckets", total);
+        }
+        return total;
+    }
+
+    private int delete(final StatsGranularity granularity, final LocalDateTime before) {
+        final int batchSize = Math.max(1, props.getRollupCompactionBatchSize());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = dbClient.deleteClickRollups(granularity, granularity.bucketStart(before), batchSize);
+            compacted.increment(deleted);
+            total += deleted;
+        } while (deleted == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.urlShortenerService.click;
+
+/**
+ * Coarse class of the client that followed a short link, stored as one byte per click event.
+ * <p>
+ * The classification only runs {@link String#contains(CharSequence)} checks on the raw header,
+ * so it does not allocate on the redirect path.
+ */
+public enum UserAgentClass {
+    UNKNOWN,
+    BOT,
+    CLI,
+    MOBILE,
+    BROWSER;
+
+    private static final UserAgentClass[] VALUES = values();
+
+    /**
+     * Get the byte stored in the click log.
+     * @return the code of this class
+     */
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Get the class stored in the click log.
+     * @param code the stored byte
+     * @return the class, {@link #UNKNOWN} for an unknown code
+     */
+    public static UserAgentClass ofCode(final byte code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : UNKNOWN;
+    }
+
+    /**
+     * Classify a User-Agent header.
+     * @param userAgent the header value, may be null
+     * @return the client class
+     */
+    public static UserAgentClass classify(final String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        if (userAgent.contains("bot") || userAgent.contains("Bot")
+                || userAgent.contains("spider") || userAgent.contains("crawl")
+                || userAgent.contains("Slurp") || userAgent.contains("facebookexternalhit")) {
+            return BOT;
+        }
+        if (userAgent.startsWith("curl/") || userAgent.startsWith("Wget/")
+                || userAgent.startsWith("python-") || userAgent.startsWith("Java/")
+                || userAgent.startsWith("okhttp/") || userAgent.startsWith("Go-http-client/")) {
+            return CLI;
+        }
+        if (userAgent.contains("Mobile") || userAgent.contains("Android")) {
+            return MOBILE;
+        }
+        if (userAgent.startsWith("Mozilla/")) {
+            return BROWSER;
+        }
+        return UNKNOWN;
+    }
+}
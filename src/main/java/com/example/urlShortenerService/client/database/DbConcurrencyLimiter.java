@@ -0,0 +1,94 @@
+package com.example.urlShortenerService.client.database;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of database calls running at the same time.
+ * <p>
+ * With virtual threads every request gets its own cheap thread, so nothing stops
+ * thousands of them from piling up on the connection pool. This limiter lets at most
+ * {@code shortener.db-max-concurrency} calls through (FIFO) and fails fast with a
+ * {@link DatabaseOverloadedException} after {@code shortener.db-acquire-timeout-ms}.
+ * It relies on a {@link Semaphore}, which parks virtual threads without pinning them.
+ * A max concurrency of 0 disables the limiter.
+ * <p>
+ * Being the single entry point of the manager database calls, it also times them
+ * ({@code shortener.db.calls}), which separates database time from the rest of a request.
+ */
+@Log4j2
+@Component
+public class DbConcurrencyLimiter {
+
+    // null when the limiter is disabled
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final Timer dbCalls;
+
+    /**
+     * Constructor
+     * @param props the shortener properties (max concurrency, acquire timeout)
+     * @param meterRegistry the registry the database call timer and permit gauges are bound to
+     */
+    public DbConcurrencyLimiter(final ShortenerProperties props, final MeterRegistry meterRegistry) {
+        this.permits = props.getDbMaxConcurrency() > 0
+                ? new Semaphore(props.getDbMaxConcurrency(), true)
+                : null;
+        this.acquireTimeoutMs = props.getDbAcquireTimeoutMs();
+        this.dbCalls = Timer.builder("shortener.db.calls")
+                .description("Latency of the database calls made by the URL manager")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        if (permits != null) {
+            final int maxConcurrency = props.getDbMaxConcurrency();
+            Gauge.builder("shortener.db.permits.active", permits, p -> maxConcurrency - p.availablePermits())
+                    .description("Database calls currently holding a permit")
+                    .register(meterRegistry);
+            Gauge.builder("shortener.db.permits.waiting", permits, Semaphore::getQueueLength)
+                    .description("Requests waiting for a database permit")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Run a database call once a permit is available.
+     * @param dbCall the database call
+     * @param <T> the result type
+     * @return the result of the call
+     * @throws DatabaseOverloadedException if no permit is available in time
+     */
+    public <T> T call(final Supplier<T> dbCall) {
+        if (permits == null) {
+            return dbCalls.record(dbCall);
+        }
+        acquire();
+        try {
+            return dbCalls.record(dbCall);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquire() {
+        final boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseOverloadedException("Interrupted while waiting for a database permit", e);
+        }
+        if (!acquired) {
+            log.warn("No database permit available after {} ms", acquireTimeoutMs);
+            throw new DatabaseOverloadedException("Too many concurrent database calls, retry later");
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.urlShortenerService.client.database;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Access to the database sequence that hands out blocks of short code ids.
+ */
+@Repository
+public class ShortCodeSequence {
+
+    private static final String NEXT_BLOCK_SQL = "SELECT NEXT VALUE FOR short_code_block_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor
+     * @param jdbcTemplate the JDBC template
+     */
+    public ShortCodeSequence(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reserve the next block number in one round trip.
+     * Block numbers are unique across every instance sharing the database.
+     * @return the reserved block number
+     */
+    public long nextBlock() {
+        final Long block = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+        if (block == null) {
+            throw new IllegalStateException("short_code_block_seq returned no value");
+        }
+        return block;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.urlShortenerService.client.database;
+
+import com.example.urlShortenerService.model.UrlArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UrlArchiveRepository extends JpaRepository<UrlArchive, Long> {
+    /**
+     * Find the most recently archived link of a custom alias.
+     * @param customAlias the customAlias
+     * @return the archived link if found.
+     */
+    Optional<UrlArchive> findFirstByCustomAliasOrderByArchivedAtDesc(final String customAlias);
+
+    /**
+     * Check whether a custom alias has been archived.
+     * @param customAlias the customAlias
+     * @return true if at least one archived link has this alias
+     */
+    boolean existsByCustomAlias(final String customAlias);
+}
@@ -1,17 +1,82 @@
 package com.example.urlShortenerService.client.database;
 
+import com.example.urlShortenerService.model.RedirectTarget;
 import com.example.urlShortenerService.model.Url;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UrlRepository extends JpaRepository<Url, Long> {
+public interface UrlRepository extends JpaRepository<Url, Long>, UrlRepositoryCustom {
     /**
      * Find actual URL based on the custom Alias.
      * @param customAlias the customAlias
      * @return the URL if found.
      */
     Optional<Url> findByCustomAlias(final String customAlias);
+
+    /**
+     * Check whether a custom alias is in use.
+     * @param customAlias the customAlias
+     * @return true if a link has this alias
+     */
+    boolean existsByCustomAlias(final String customAlias);
+
+    /**
+     * Find only what a redirect needs (id, target, expiry and redirect policy) for a custom alias.
+     * The constructor expression returns an immutable record, not a managed entity, so nothing
+     * enters the persistence context and there is no snapshot to dirty check or flush.
+     * @param customAlias the customAlias
+     * @return the redirect target if found.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.example.urlShortenerService.model.RedirectTarget("
+            + "u.id, u.targetUrl, u.expiresAt, u.redirectPolicy) from Url u where u.customAlias = :customAlias")
+    Optional<RedirectTarget> findRedirectTargetByCustomAlias(@Param("customAlias") final String customAlias);
+
+    /**
+     * Find which of the given aliases are already taken.
+     * @param aliases the aliases to check
+     * @return the subset of aliases that exist
+     */
+    @Query("select u.customAlias from Url u where u.customAlias in :aliases")
+    List<String> findExistingAliases(@Param("aliases") final Collection<String> aliases);
+
+    /**
+     * Find the oldest expiration date, used to measure how far behind the expired link sweeper is.
+     * @return the oldest expiresAt, or null if no link expires
+     */
+    @Query("select min(u.expiresAt) from Url u")
+    LocalDateTime findOldestExpiresAt();
+
+    /**
+     * First page of the keyset listing: newest links first, served by the (created_at, id) index.
+     * @param limit the page size
+     * @return the newest links
+     */
+    List<Url> findAllByOrderByCreatedAtDescIdDesc(final Limit limit);
+
+    /**
+     * Next page of the keyset listing: the links strictly after (createdAt, id) in
+     * (createdAt desc, id desc) order. Seeks on the index instead of skipping rows, and
+     * runs no count query.
+     * @param createdAt creation date of the last link of the previous page
+     * @param id id of the last link of the previous page
+     * @param limit the page size
+     * @return the next links
+     */
+    @Query("select u from Url u"
+            + " where u.createdAt < :createdAt or (u.createdAt = :createdAt and u.id < :id)"
+            + " order by u.createdAt desc, u.id desc")
+    List<Url> findPageAfter(@Param("createdAt") final LocalDateTime createdAt,
+                            @Param("id") final Long id,
+                            final Limit limit);
 }
@@ -0,0 +1,101 @@
+package com.example.urlShortenerService.client.database;
+
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.ClickRollup;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.example.urlShortenerService.model.Url;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hand-written JDBC operations that Spring Data cannot derive.
+ */
+public interface UrlRepositoryCustom {
+
+    /**
+     * Add buffered clicks to their links and to the click rollups (minute, hour and day buckets),
+     * in one transaction of JDBC batches.
+     * @param clicksById the pending clicks keyed by link id
+     * @param clicksByMinute the same clicks counted per link and minute
+     */
+    void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute);
+
+    /**
+     * Add the clicks and save the click log position they cover, in one transaction.
+     * @param clicksById the clicks to add, by link id
+     * @param clicksByMinute the same clicks counted per link and minute
+     * @param logPosition the click log position covered by these clicks
+     */
+    void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute,
+                   final long logPosition);
+
+    /**
+     * Get the click rollups of a link in a range, oldest first. Only the buckets with clicks exist.
+     * @param linkId the link id
+     * @param granularity the bucket size
+     * @param from the first bucket start, inclusive
+     * @param to the last bucket start, exclusive
+     * @return the buckets with at least one click
+     */
+    List<ClickRollup> findClickRollups(final long linkId, final StatsGranularity granularity,
+                                       final LocalDateTime from, final LocalDateTime to);
+
+    /**
+     * Delete up to {@code batchSize} rollups of a granularity that start before a date.
+     * @param granularity the bucket size
+     * @param before buckets starting before this date are deleted
+     * @param batchSize the maximum number of buckets deleted
+     * @return the number of buckets deleted
+     */
+    int deleteClickRollups(final StatsGranularity granularity, final LocalDateTime before, final int batchSize);
+
+    /**
+     * Get the click log position covered by the counts in the database.
+     * @return the position, or null if no logged click was ever flushed
+     */
+    Long findClickLogCheckpoint();
+
+    /**
+     * Move up to {@code batchSize} links that expired before the given date to the
+     * {@code urls_archive} table, oldest first, in one short transaction.
+     * @param expiredBefore links whose expiresAt is before this date are archived
+     * @param batchSize the maximum number of links moved
+     * @param archivedAt the archival timestamp
+     * @return the number of links moved
+     */
+    int archiveExpired(final LocalDateTime expiredBefore, final int batchSize, final LocalDateTime archivedAt);
+
+    /**
+     * Find the live links of canonical target hashes, newest first, served by the target_hash index.
+     * The limit applies to each hash, so a target with many links does not crowd out the others.
+     * @param targetHashes the canonical target hashes
+     * @param now the current date
+     * @param perTargetLimit the maximum number of links returned for each hash
+     * @return the live links of these targets
+     */
+    List<Url> findLiveByTargetHashes(final Collection<Long> targetHashes, final LocalDateTime now,
+                                     final int perTargetLimit);
+
+    /**
+     * Stream every alias, live and archived, without loading the rows in memory.
+     * @param action called once per alias
+     */
+    void forEachAlias(final Consumer<String> action);
+
+    /**
+     * Stream the links matching a filter in id order, through a forward-only cursor: only
+     * {@code fetchSize} rows are in memory at a time.
+     * @param filter the status and creation range of the links
+     * @param now the date the status is evaluated at
+     * @param fetchSize the number of rows fetched per database round trip
+     * @param action called once per link, on a detached instance
+     */
+    void forEachLink(final LinkExportFilter filter, final LocalDateTime now, final int fetchSize,
+                     final Consumer<Url> action);
+}
@@ -0,0 +1,328 @@
+package com.example.urlShortenerService.client.database;
+
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.ClickRollup;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.LinkStatus;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.example.urlShortenerService.model.Url;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * JDBC implementation of {@link UrlRepositoryCustom}, picked up by Spring Data
+ * as a fragment of {@link UrlRepository}.
+ */
+public class UrlRepositoryCustomImpl implements UrlRepositoryCustom {
+
+    private static final String ADD_CLICKS_SQL = """
+            UPDATE urls
+               SET click_count = click_count + ?,
+                   last_accessed_at = CASE
+                       WHEN last_accessed_at IS NULL OR last_accessed_at < ? THEN ?
+                       ELSE last_accessed_at
+                   END
+             WHERE id = ?
+            """;
+
+    // Adds to the bucket, or creates it on the first click
+    private static final String ADD_ROLLUP_SQL = """
+            MERGE INTO click_rollups r
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(6)), CAST(? AS TIMESTAMP), CAST(? AS BIGINT)))
+                  AS v (link_id, granularity, bucket_start, clicks)
+               ON r.link_id = v.link_id AND r.granularity = v.granularity AND r.bucket_start = v.bucket_start
+             WHEN MATCHED THEN UPDATE SET clicks = r.clicks + v.clicks
+             WHEN NOT MATCHED THEN INSERT (link_id, granularity, bucket_start, clicks)
+                  VALUES (v.link_id, v.granularity, v.bucket_start, v.clicks)
+            """;
+
+    // Range scan on the primary key, bounded by the number of buckets
+    private static final String SELECT_ROLLUPS_SQL = """
+            SELECT bucket_start, clicks
+              FROM click_rollups
+             WHERE link_id = ? AND granularity = ? AND bucket_start >= ? AND bucket_start < ?
+             ORDER BY bucket_start
+            """;
+
+    private static final String DELETE_ROLLUPS_SQL = """
+            DELETE FROM click_rollups
+             WHERE granularity = ? AND bucket_start < ?
+             FETCH FIRST ? ROWS ONLY
+            """;
+
+    private static final StatsGranularity[] ROLLUP_GRANULARITIES = StatsGranularity.values();
+
+    private static final String SAVE_CHECKPOINT_SQL = """
+            MERGE INTO click_log_checkpoint (id, log_position)
+             KEY (id)
+            VALUES (1, ?)
+            """;
+
+    private static final String SELECT_CHECKPOINT_SQL = """
+            SELECT log_position
+              FROM click_log_checkpoint
+             WHERE id = 1
+            """;
+
+    // Oldest first, served by the expires_at index
+    private static final String SELECT_EXPIRED_IDS_SQL = """
+            SELECT id
+              FROM urls
+             WHERE expires_at < ?
+             ORDER BY expires_at
+             FETCH FIRST ? ROWS ONLY
+            """;
+
+    private static final String COPY_TO_ARCHIVE_SQL = """
+            INSERT INTO urls_archive
+                   (id, target_url, custom_alias, expires_at, target_hash, redirect_policy,
+                    click_count, last_accessed_at, created_at, archived_at)
+            SELECT id, target_url, custom_alias, expires_at, target_hash, redirect_policy,
+                   click_count, last_accessed_at, created_at, :archivedAt
+              FROM urls
+             WHERE id IN (:ids)
+            """;
+
+    private static final String DELETE_ARCHIVED_SQL = """
+            DELETE FROM urls
+             WHERE id IN (:ids)
+            """;
+
+    // Top links of each target, numbered by the window over the target_hash index range scans
+    private static final String SELECT_LIVE_BY_TARGET_HASHES_SQL = """
+            SELECT id, target_url, custom_alias, expires_at, target_hash, redirect_policy,
+                   click_count, last_accessed_at, created_at
+              FROM (SELECT u.*, ROW_NUMBER() OVER (PARTITION BY target_hash ORDER BY id DESC) AS target_rank
+                      FROM urls u
+                     WHERE target_hash IN (:targetHashes)
+                       AND (expires_at IS NULL OR expires_at > :now)) ranked
+             WHERE target_rank <= :perTargetLimit
+             ORDER BY id DESC
+            """;
+
+    private static final String SELECT_ALIASES_SQL = """
+            SELECT custom_alias FROM urls
+            UNION ALL
+            SELECT custom_alias FROM urls_archive
+            """;
+
+    private static final int ALIAS_FETCH_SIZE = 1000;
+
+    private static final String SELECT_LINKS_SQL = """
+            SELECT id, target_url, custom_alias, expires_at, target_hash, redirect_policy,
+                   click_count, last_accessed_at, created_at
+            FROM urls
+            WHERE 1 = 1
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Constructor
+     * @param jdbcTemplate the JDBC template
+     */
+    public UrlRepositoryCustomImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute) {
+        if (!clicksById.isEmpty()) {
+            final List<Object[]> batchArgs = new ArrayList<>(clicksById.size());
+            clicksById.forEach((id, clicks) -> {
+                final Timestamp lastAccessedAt = Timestamp.valueOf(clicks.lastAccessedAt());
+                batchArgs.add(new Object[] {clicks.count(), lastAccessedAt, lastAccessedAt, id});
+            });
+            jdbcTemplate.batchUpdate(ADD_CLICKS_SQL, batchArgs);
+        }
+        if (!clicksByMinute.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_ROLLUP_SQL, rollupArgs(clicksByMinute));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute,
+                          final long logPosition) {
+        addClicks(clicksById, clicksByMinute);
+        jdbcTemplate.update(SAVE_CHECKPOINT_SQL, logPosition);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ClickRollup> findClickRollups(final long linkId, final StatsGranularity granularity,
+                                              final LocalDateTime from, final LocalDateTime to) {
+        return jdbcTemplate.query(SELECT_ROLLUPS_SQL,
+                (rs, row) -> new ClickRollup(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2)),
+                linkId, granularity.name(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public int deleteClickRollups(final StatsGranularity granularity, final LocalDateTime before,
+                                  final int batchSize) {
+        return jdbcTemplate.update(DELETE_ROLLUPS_SQL, granularity.name(), Timestamp.valueOf(before), batchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Long findClickLogCheckpoint() {
+        final List<Long> positions = jdbcTemplate.queryForList(SELECT_CHECKPOINT_SQL, Long.class);
+        return positions.isEmpty() ? null : positions.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public int archiveExpired(final LocalDateTime expiredBefore, final int batchSize, final LocalDateTime archivedAt) {
+        final List<Long> ids = jdbcTemplate.queryForList(
+                SELECT_EXPIRED_IDS_SQL, Long.class, Timestamp.valueOf(expiredBefore), batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(archivedAt));
+        namedJdbcTemplate.update(COPY_TO_ARCHIVE_SQL, params);
+        return namedJdbcTemplate.update(DELETE_ARCHIVED_SQL, params);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Url> findLiveByTargetHashes(final Collection<Long> targetHashes, final LocalDateTime now,
+                                            final int perTargetLimit) {
+        if (targetHashes.isEmpty()) {
+            return List.of();
+        }
+        final MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("targetHashes", targetHashes)
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("perTargetLimit", perTargetLimit);
+        return namedJdbcTemplate.query(SELECT_LIVE_BY_TARGET_HASHES_SQL, params, (rs, row) -> toUrl(rs));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachAlias(final Consumer<String> action) {
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(
+                    SELECT_ALIASES_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(ALIAS_FETCH_SIZE);
+            return statement;
+        }, (ResultSet rs) -> action.accept(rs.getString(1)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Runs in a read-only transaction: some drivers (PostgreSQL) only honor the fetch size
+     * with auto-commit off, and read the whole result otherwise.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachLink(final LinkExportFilter filter, final LocalDateTime now, final int fetchSize,
+                            final Consumer<Url> action) {
+        final StringBuilder sql = new StringBuilder(SELECT_LINKS_SQL);
+        final List<Timestamp> args = new ArrayList<>(3);
+        if (filter.createdFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(filter.createdTo()));
+        }
+        if (filter.status() == LinkStatus.ACTIVE) {
+            sql.append(" AND (expires_at IS NULL OR expires_at >= ?)");
+            args.add(Timestamp.valueOf(now));
+        } else if (filter.status() == LinkStatus.EXPIRED) {
+            sql.append(" AND expires_at < ?");
+            args.add(Timestamp.valueOf(now));
+        }
+        sql.append(" ORDER BY id");
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setTimestamp(i + 1, args.get(i));
+            }
+            return statement;
+        }, (ResultSet rs) -> action.accept(toUrl(rs)));
+    }
+
+    private static Url toUrl(final ResultSet rs) throws SQLException {
+        final Url url = new Url(rs.getString(2), rs.getString(3), toDate(rs.getTimestamp(4)));
+        url.setId(rs.getLong(1));
+        final long targetHash = rs.getLong(5);
+        url.setTargetHash(rs.wasNull() ? null : targetHash);
+        final String redirectPolicy = rs.getString(6);
+        url.setRedirectPolicy(redirectPolicy == null ? null : RedirectPolicy.valueOf(redirectPolicy));
+        url.setClickCount(rs.getLong(7));
+        url.setLastAccessedAt(toDate(rs.getTimestamp(8)));
+        url.setCreatedAt(toDate(rs.getTimestamp(9)));
+        return url;
+    }
+
+    private static LocalDateTime toDate(final Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * Sum the per-minute clicks into one row per link and minute, hour and day bucket.
+     */
+    private static List<Object[]> rollupArgs(final Map<ClickMinute, Long> clicksByMinute) {
+        final Map<RollupKey, Long> buckets = new HashMap<>();
+        clicksByMinute.forEach((minute, clicks) -> {
+            for (final StatsGranularity granularity : ROLLUP_GRANULARITIES) {
+                buckets.merge(new RollupKey(minute.linkId(), granularity, granularity.bucketStart(minute.minute())),
+                        clicks, Long::sum);
+            }
+        });
+        final List<Object[]> batchArgs = new ArrayList<>(buckets.size());
+        buckets.forEach((key, clicks) -> batchArgs.add(new Object[] {
+            key.linkId(), key.granularity().name(), Timestamp.valueOf(key.bucketStart()), clicks}));
+        return batchArgs;
+    }
+
+    private record RollupKey(long linkId, StatsGranularity granularity, LocalDateTime bucketStart) {
+    }
+}
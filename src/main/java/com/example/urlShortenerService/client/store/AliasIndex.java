@@ -0,0 +1,231 @@
+package com.example.urlShortenerService.client.store;
+
+import com.example.urlShortenerService.alias.AliasCodec;
+import com.example.urlShortenerService.alias.LongLongHashMap;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash index from an alias to the position of its record, with linear probing.
+ * <p>
+ * Aliases of up to {@value AliasCodec#MAX_PACKED_LENGTH} characters (every generated code) are packed
+ * into a long and kept in a {@link LongLongHashMap}: the key is the alias itself, a lookup neither
+ * hashes a String nor reads the record back. Longer custom aliases fall back to the fingerprint table.
+ * <p>
+ * A fingerprint slot holds a 32-bit fingerprint of the alias (0 = empty) and the record position
+ * ({@value #REMOVED} = removed, the slot keeps its fingerprint so the probe chains stay intact).
+ * The aliases themselves are not kept in memory: a fingerprint match is confirmed by the
+ * {@link AliasMatcher}, which compares the alias stored in the record.
+ * <p>
+ * Lookups take no lock. Writes are serialized by the caller; a slot is published by writing its
+ * position before its fingerprint. The table is kept at most half full and is rebuilt (without the
+ * removed slots) into a new table published through a volatile field: a concurrent lookup on the
+ * old table only misses the writes made meanwhile.
+ */
+class AliasIndex {
+
+    static final long REMOVED = -1L;
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Compares an alias with the alias of the record at a position.
+     */
+    @FunctionalInterface
+    interface AliasMatcher {
+        boolean matches(long position, String alias);
+    }
+
+    private static final class Table {
+        private final AtomicIntegerArray fingerprints;
+        private final AtomicLongArray positions;
+        private final int mask;
+
+        private Table(final int capacity) {
+            this.fingerprints = new AtomicIntegerArray(capacity);
+            this.positions = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+
+    private final AliasMatcher matcher;
+    private final LongLongHashMap packed;
+    private volatile Table table;
+    private volatile int size;
+    // live and removed slots, guarded by the caller's write lock
+    private int used;
+
+    /**
+     * Constructor
+     * @param expectedAliases the number of aliases the first table is sized for
+     * @param matcher the comparison of an alias with a stored record
+     */
+    AliasIndex(final int expectedAliases, final AliasMatcher matcher) {
+        this.matcher = matcher;
+        this.packed = new LongLongHashMap(expectedAliases);
+        this.table = new Table(capacityFor(0));
+    }
+
+    /**
+     * Find the record position of an alias.
+     * @param alias the alias
+     * @return the position, or {@value #REMOVED} if the alias is not indexed
+     */
+    long get(final String alias) {
+        final long code = AliasCodec.pack(alias);
+        if (code != AliasCodec.NOT_PACKED) {
+            final long position = packed.get(code);
+            return position == LongLongHashMap.NO_VALUE ? REMOVED : position;
+        }
+        final Table t = table;
+        final int fingerprint = fingerprint(alias);
+        for (int slot = fingerprint & t.mask; ; slot = (slot + 1) & t.mask) {
+            final int found = t.fingerprints.get(slot);
+            if (found == 0) {
+                return REMOVED;
+            }
+            if (found == fingerprint) {
+                final long position = t.positions.get(slot);
+                if (position != REMOVED && matcher.matches(position, alias)) {
+                    return position;
+                }
+            }
+        }
+    }
+
+    /**
+     * Index an alias, or move it to a new position. The caller holds the write lock.
+     * @param alias the alias
+     * @param position the position of its record
+     */
+    void put(final String alias, final long position) {
+        final long code = AliasCodec.pack(alias);
+        if (code != AliasCodec.NOT_PACKED) {
+            packed.put(code, position);
+            return;
+        }
+        if ((used + 1) * 2L > table.positions.length()) {
+            rebuild(Math.max(size + 1, used / 2));
+        }
+        final Table t = table;
+        final int fingerprint = fingerprint(alias);
+        int free = -1;
+        int slot = fingerprint & t.mask;
+        for (; ; slot = (slot + 1) & t.mask) {
+            final int found = t.fingerprints.get(slot);
+            if (found == 0) {
+                break;
+            }
+            final long current = t.positions.get(slot);
+            if (current == REMOVED) {
+                free = free < 0 ? slot : free;
+            } else if (found == fingerprint && matcher.matches(current, alias)) {
+                t.positions.set(slot, position);
+                return;
+            }
+        }
+        if (free < 0) {
+            free = slot;
+            used++;
+        }
+        t.positions.set(free, position);
+        t.fingerprints.set(free, fingerprint);
+        size++;
+    }
+
+    /**
+     * Remove an alias if it is still indexed at the given position. The caller holds the write lock.
+     * @param alias the alias
+     * @param position the position of the record being removed
+     * @return true if the alias was removed
+     */
+    boolean remove(final String alias, final long position) {
+        final long code = AliasCodec.pack(alias);
+        if (code != AliasCodec.NOT_PACKED) {
+            return packed.remove(code, position);
+        }
+        final Table t = table;
+        final int fingerprint = fingerprint(alias);
+        for (int slot = fingerprint & t.mask; ; slot = (slot + 1) & t.mask) {
+            final int found = t.fingerprints.get(slot);
+            if (found == 0) {
+                return false;
+            }
+            if (found == fingerprint && t.positions.get(slot) == position) {
+                t.positions.set(slot, REMOVED);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Visit the position of every indexed alias, in no particular order.
+     * @param action called once per position
+     */
+    void forEachPosition(final LongConsumer action) {
+        packed.forEach((code, position) -> action.accept(position));
+        final Table t = table;
+        for (int slot = 0; slot < t.positions.length(); slot++) {
+            final long position = t.positions.get(slot);
+            if (t.fingerprints.get(slot) != 0 && position != REMOVED) {
+                action.accept(position);
+            }
+        }
+    }
+
+    /**
+     * Get the number of indexed aliases.
+     * @return the number of aliases
+     */
+    int size() {
+        return packed.size() + size;
+    }
+
+    /**
+     * Get the number of slots of the current tables.
+     * @return the capacity of the packed map and of the fingerprint table
+     */
+    int capacity() {
+        return packed.capacity() + table.positions.length();
+    }
+
+    private void rebuild(final int aliases) {
+        final Table old = table;
+        final Table rebuilt = new Table(capacityFor(aliases));
+        for (int slot = 0; slot < old.positions.length(); slot++) {
+            final int fingerprint = old.fingerprints.get(slot);
+            final long position = old.positions.get(slot);
+            if (fingerprint == 0 || position == REMOVED) {
+                continue;
+            }
+            int target = fingerprint & rebuilt.mask;
+            while (rebuilt.fingerprints.get(target) != 0) {
+                target = (target + 1) & rebuilt.mask;
+            }
+            rebuilt.positions.set(target, position);
+            rebuilt.fingerprints.set(target, fingerprint);
+        }
+        used = size;
+        table = rebuilt;
+    }
+
+    // room for twice the aliases at a 50% load factor, as a power of two
+    private static int capacityFor(final int aliases) {
+        final long wanted = Math.max(MIN_CAPACITY, (long) aliases * 4);
+        if (wanted > 1 << 30) {
+            throw new IllegalStateException("Alias index is full: " + aliases + " aliases");
+        }
+        return Integer.highestOneBit((int) wanted - 1) << 1;
+    }
+
+    // murmur3 finalizer of the String hash, never 0 (empty slot)
+    private static int fingerprint(final String alias) {
+        int h = alias.hashCode();
+        h = (h ^ (h >>> 16)) * 0x85ebca6b;
+        h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.urlShortenerService.client.store;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.ClickRollup;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.example.urlShortenerService.model.Url;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Default {@link LinkStore}: the links are rows of the {@code urls} table, read and written
+ * through {@link UrlRepository}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shortener", name = "link-store", havingValue = "jpa", matchIfMissing = true)
+public class JpaLinkStore implements LinkStore {
+
+    private final UrlRepository dbClient;
+
+    /**
+     * Constructor
+     * @param dbClient the database client
+     */
+    public JpaLinkStore(final UrlRepository dbClient) {
+        this.dbClient = dbClient;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Url> findByCustomAlias(final String customAlias) {
+        return dbClient.findByCustomAlias(customAlias);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<RedirectTarget> findRedirectTargetByCustomAlias(final String customAlias) {
+        return dbClient.findRedirectTargetByCustomAlias(customAlias);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsByCustomAlias(final String customAlias) {
+        return dbClient.existsByCustomAlias(customAlias);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> findExistingAliases(final Collection<String> aliases) {
+        return dbClient.findExistingAliases(aliases);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Url> findLiveByTargetHashes(final Collection<Long> targetHashes, final LocalDateTime now,
+                                           final int perTargetLimit) {
+        return dbClient.findLiveByTargetHashes(targetHashes, now, perTargetLimit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Url save(final Url url) {
+        return dbClient.save(url);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Url> saveAll(final List<Url> urls) {
+        return dbClient.saveAll(urls);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Page<Url> findAll(final Pageable pageable) {
+        return dbClient.findAll(pageable);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Url> findNewest(final Limit limit) {
+        return dbClient.findAllByOrderByCreatedAtDescIdDesc(limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Url> findPageAfter(final LocalDateTime createdAt, final Long id, final Limit limit) {
+        return dbClient.findPageAfter(createdAt, id, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute) {
+        dbClient.addClicks(clicksById, clicksByMinute);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute,
+                          final long logPosition) {
+        dbClient.addClicks(clicksById, clicksByMinute, logPosition);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ClickRollup> findClickRollups(final long linkId, final StatsGranularity granularity,
+                                              final LocalDateTime from, final LocalDateTime to) {
+        return dbClient.findClickRollups(linkId, granularity, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachAlias(final Consumer<String> action) {
+        dbClient.forEachAlias(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachLink(final LinkExportFilter filter, final LocalDateTime now, final int fetchSize,
+                            final Consumer<Url> action) {
+        dbClient.forEachLink(filter, now, fetchSize, action);
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.urlShortenerService.client.store;
+
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.Url;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only link records stored in preallocated memory-mapped segment files {@code links-<index>.dat}.
+ * <p>
+ * A segment starts with an 8-byte magic number and the highest link id appended before the segment was
+ * created (8 bytes), followed by variable-length records aligned on 8 bytes:
+ * <pre>
+ *  0 length (int)       written last, 0 = end of the segment
+ *  4 crc32c (int)       of the bytes from the id to the end of the record
+ *  8 click count (long)      updated in place, outside the checksum
+ * 16 last access millis (long)  updated in place, outside the checksum
+ * 24 id (long)
+ * 32 creation millis (long)
+ * 40 expiry millis (long)   Long.MIN_VALUE = never
+ * 48 alias length (short), 50 redirect policy ordinal (byte), 1 byte unused, 52 target length in bytes (int)
+ * 56 alias (UTF-16 chars), then target (UTF-8), zero padded
+ * </pre>
+ * A record whose length is missing, out of bounds or whose checksum does not match was torn by a
+ * crash: the scan of the segment stops there and {@link #recover(RecordHandler)} zeroes it.
+ * <p>
+ * A position is {@code segment index << 32 | offset}, 0 is never a valid position. Only one thread
+ * writes at a time (the store's write lock); reads are absolute and need no lock. Retired segments
+ * stay mapped until the next {@link #deleteRetired()}, so a read that started before a compaction
+ * still finds its record. Their magic number is replaced by a durable tombstone when they are
+ * retired, so a restart before the deletion does not recover their records.
+ */
+@Log4j2
+class LinkSegments {
+
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_HEADER_BYTES = 56;
+    private static final long MAGIC = 0x4C4E4B5345473032L; // "LNKSEG02"
+    private static final long RETIRED_MAGIC = 0x4C4E4B5245543032L; // "LNKRET02"
+    private static final int HIGH_WATER_ID = 8;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    // 50 chars of alias and 2048 chars of target (4 UTF-8 bytes each at most) fit with room to spare
+    private static final int MAX_RECORD_BYTES = 16 * 1024;
+    private static final int MIN_SEGMENT_BYTES = 4 * MAX_RECORD_BYTES;
+    private static final int CRC = 4;
+    private static final int CLICKS = 8;
+    private static final int LAST_ACCESSED = 16;
+    private static final int ID = 24;
+    private static final int CREATED = 32;
+    private static final int EXPIRES = 40;
+    private static final int ALIAS_LENGTH = 48;
+    private static final int REDIRECT_POLICY = 50;
+    private static final int TARGET_LENGTH = 52;
+    private static final String PREFIX = "links-";
+    private static final String SUFFIX = ".dat";
+    private static final Pattern SEGMENT_NAME = Pattern.compile(PREFIX + "\\d+\\" + SUFFIX);
+
+    /**
+     * Receives the valid records found by {@link #recover(RecordHandler)}, oldest position first.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(long position, long id, long createdAtMillis);
+    }
+
+    private static final class Segment {
+        private final int index;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private volatile int end = HEADER_BYTES;
+        private volatile boolean dirty;
+
+        private Segment(final int index, final Path path, final MappedByteBuffer buffer) {
+            this.index = index;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final ZoneId zone;
+    private final ConcurrentSkipListMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<Integer, Segment> retired = new ConcurrentHashMap<>();
+    private Segment active;
+    // highest link id ever appended, ids of archived links included
+    private long highWaterId;
+
+    /**
+     * Constructor
+     * @param directory the directory of the segment files, created if needed
+     * @param segmentBytes the size of one segment file
+     * @param zone the time zone of the stored dates
+     */
+    LinkSegments(final Path directory, final long segmentBytes, final ZoneId zone) {
+        this.directory = directory;
+        this.segmentBytes = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_SEGMENT_BYTES, segmentBytes)) & ~7;
+        this.zone = zone;
+        try {
+            Files.createDirectories(directory);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot create the link store directory " + directory, e);
+        }
+    }
+
+    /**
+     * Encode a position.
+     * @param segment the segment index
+     * @param offset the record offset in the segment
+     * @return the position
+     */
+    static long position(final int segment, final int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    /**
+     * Map every segment file and scan its records, oldest first. The scan of a segment stops at the
+     * first torn record, which is zeroed so the next append overwrites it cleanly. Appends then go
+     * to the last segment. The segments retired before the restart are not scanned, they wait for
+     * the next {@link #deleteRetired()}. The high-water id is restored from the records and the
+     * segment headers.
+     * @param handler called for every valid record
+     * @return the number of valid records
+     */
+    long recover(final RecordHandler handler) {
+        long count = 0;
+        for (final int index : segmentIndexes()) {
+            final Segment segment = open(index, false);
+            highWaterId = Math.max(highWaterId, segment.buffer.getLong(HIGH_WATER_ID));
+            if (segment.buffer.getLong(0) == RETIRED_MAGIC) {
+                retired.put(index, segment);
+                continue;
+            }
+            segments.put(index, segment);
+            int offset = HEADER_BYTES;
+            while (offset + RECORD_HEADER_BYTES <= segmentBytes) {
+                final int length = segment.buffer.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                if (!isValid(segment.buffer, offset, length)) {
+                    log.warn("Torn link record at segment={}, offset={}, zeroing the rest of the record",
+                            index, offset);
+                    break;
+                }
+                final long id = segment.buffer.getLong(offset + ID);
+                highWaterId = Math.max(highWaterId, id);
+                handler.accept(position(index, offset), id, segment.buffer.getLong(offset + CREATED));
+                count++;
+                offset += length;
+            }
+            // bytes of a record torn before its length was written, or of a corrupted one
+            final int tornEnd = Math.min(segmentBytes, offset + MAX_RECORD_BYTES);
+            for (int i = offset; i < tornEnd; i += Long.BYTES) {
+                if (segment.buffer.getLong(i) != 0) {
+                    segment.buffer.putLong(i, 0L);
+                    segment.dirty = true;
+                }
+            }
+            segment.end = offset;
+        }
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        return count;
+    }
+
+    /**
+     * Append a new record, rolling over to a new segment when the active one is full.
+     * @param url the link, with its id and creation date set
+     * @return the position of the record
+     */
+    long append(final Url url) {
+        final char[] alias = url.getCustomAlias().toCharArray();
+        final byte[] target = url.getTargetUrl().getBytes(StandardCharsets.UTF_8);
+        final int length = align(RECORD_HEADER_BYTES + alias.length * 2 + target.length);
+        if (length > MAX_RECORD_BYTES) {
+            throw new IllegalArgumentException("Link too large for a segment: " + length + " bytes");
+        }
+        final Segment segment = reserve(length);
+        final MappedByteBuffer buffer = segment.buffer;
+        final int offset = segment.end;
+        buffer.putLong(offset + CLICKS, url.getClickCount());
+        buffer.putLong(offset + LAST_ACCESSED, toMillis(url.getLastAccessedAt()));
+        buffer.putLong(offset + ID, url.getId());
+        buffer.putLong(offset + CREATED, toMillis(url.getCreatedAt()));
+        buffer.putLong(offset + EXPIRES, toMillis(url.getExpiresAt()));
+        buffer.putShort(offset + ALIAS_LENGTH, (short) alias.length);
+        buffer.put(offset + REDIRECT_POLICY, (byte) url.getRedirectPolicy().ordinal());
+        buffer.putInt(offset + TARGET_LENGTH, target.length);
+        int cursor = offset + RECORD_HEADER_BYTES;
+        for (final char c : alias) {
+            buffer.putChar(cursor, c);
+            cursor += 2;
+        }
+        buffer.put(cursor, target);
+        highWaterId = Math.max(highWaterId, url.getId());
+        return commit(segment, offset, length);
+    }
+
+    /**
+     * Copy a record, counters included, to the end of the active segment.
+     * @param position the position of the record
+     * @return the position of the copy
+     */
+    long copy(final long position) {
+        final Segment source = segment(position);
+        final int from = (int) position;
+        final int length = source.buffer.getInt(from);
+        final Segment segment = reserve(length);
+        segment.buffer.put(segment.end + CRC, source.buffer, from + CRC, length - CRC);
+        return commit(segment, segment.end, length);
+    }
+
+    /**
+     * Get the highest link id ever appended. A compaction can archive the link that had it, the
+     * header of every new segment keeps it, so a restart never hands it out again.
+     * @return the high-water id, 0 if no link was ever appended
+     */
+    long highWaterId() {
+        return highWaterId;
+    }
+
+    /**
+     * Read a full link.
+     * @param position the position of the record
+     * @return the link
+     */
+    Url readUrl(final long position) {
+        final MappedByteBuffer buffer = segment(position).buffer;
+        final int offset = (int) position;
+        final int aliasLength = buffer.getShort(offset + ALIAS_LENGTH);
+        final char[] alias = new char[aliasLength];
+        for (int i = 0; i < aliasLength; i++) {
+            alias[i] = buffer.getChar(offset + RECORD_HEADER_BYTES + i * 2);
+        }
+        final Url url = new Url(readTarget(buffer, offset, aliasLength), new String(alias),
+                toDate(buffer.getLong(offset + EXPIRES)));
+        url.setId(buffer.getLong(offset + ID));
+        url.setCreatedAt(toDate(buffer.getLong(offset + CREATED)));
+        url.setClickCount(buffer.getLong(offset + CLICKS));
+        url.setLastAccessedAt(toDate(buffer.getLong(offset + LAST_ACCESSED)));
+        url.setRedirectPolicy(readRedirectPolicy(buffer, offset));
+        return url;
+    }
+
+    /**
+     * Read only what a redirect needs.
+     * @param position the position of the record
+     * @return the redirect target
+     */
+    RedirectTarget readRedirectTarget(final long position) {
+        final MappedByteBuffer buffer = segment(position).buffer;
+        final int offset = (int) position;
+        return new RedirectTarget(buffer.getLong(offset + ID),
+                readTarget(buffer, offset, buffer.getShort(offset + ALIAS_LENGTH)),
+                toDate(buffer.getLong(offset + EXPIRES)),
+                readRedirectPolicy(buffer, offset));
+    }
+
+    // records written before the policy byte existed hold 0, the TEMPORARY ordinal
+    private static RedirectPolicy readRedirectPolicy(final MappedByteBuffer buffer, final int offset) {
+        return RedirectPolicy.values()[buffer.get(offset + REDIRECT_POLICY)];
+    }
+
+    /**
+     * Read the alias of a record.
+     * @param position the position of the record
+     * @return the alias
+     */
+    String readAlias(final long position) {
+        final MappedByteBuffer buffer = segment(position).buffer;
+        final int offset = (int) position;
+        final char[] alias = new char[buffer.getShort(offset + ALIAS_LENGTH)];
+        for (int i = 0; i < alias.length; i++) {
+            alias[i] = buffer.getChar(offset + RECORD_HEADER_BYTES + i * 2);
+        }
+        return new String(alias);
+    }
+
+    /**
+     * Compare an alias with the alias of a record, without copying it.
+     * @param position the position of the record
+     * @param alias the alias
+     * @return true if the record has this alias
+     */
+    boolean aliasEquals(final long position, final String alias) {
+        final MappedByteBuffer buffer = segment(position).buffer;
+        final int offset = (int) position;
+        if (buffer.getShort(offset + ALIAS_LENGTH) != alias.length()) {
+            return false;
+        }
+        for (int i = 0; i < alias.length(); i++) {
+            if (buffer.getChar(offset + RECORD_HEADER_BYTES + i * 2) != alias.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the id of a record.
+     * @param position the position of the record
+     * @return the link id
+     */
+    long readId(final long position) {
+        return segment(position).buffer.getLong((int) position + ID);
+    }
+
+    /**
+     * Get the expiry of a record.
+     * @param position the position of the record
+     * @return the expiry in epoch millis, {@link Long#MIN_VALUE} if the link never expires
+     */
+    long readExpiresAtMillis(final long position) {
+        return segment(position).buffer.getLong((int) position + EXPIRES);
+    }
+
+    /**
+     * Get the length of a record.
+     * @param position the position of the record
+     * @return the length in bytes
+     */
+    int readLength(final long position) {
+        return segment(position).buffer.getInt((int) position);
+    }
+
+    /**
+     * Add clicks to the in-place counters of a record.
+     * @param position the position of the record
+     * @param count the number of clicks
+     * @param lastAccessedAt the most recent click timestamp
+     */
+    void addClicks(final long position, final long count, final LocalDateTime lastAccessedAt) {
+        final Segment segment = segment(position);
+        final int offset = (int) position;
+        segment.buffer.putLong(offset + CLICKS, segment.buffer.getLong(offset + CLICKS) + count);
+        final long millis = toMillis(lastAccessedAt);
+        if (millis > segment.buffer.getLong(offset + LAST_ACCESSED)) {
+            segment.buffer.putLong(offset + LAST_ACCESSED, millis);
+        }
+        segment.dirty = true;
+    }
+
+    /**
+     * Get the positions of the records of a segment, oldest first.
+     * @param index the segment index
+     * @return the record positions
+     */
+    List<Long> positions(final int index) {
+        final Segment segment = segments.get(index);
+        final List<Long> positions = new ArrayList<>();
+        for (int offset = HEADER_BYTES; offset < segment.end; offset += segment.buffer.getInt(offset)) {
+            positions.add(position(index, offset));
+        }
+        return positions;
+    }
+
+    /**
+     * Get the indexes of the full segments, the active one excluded.
+     * @return the sealed segment indexes, oldest first
+     */
+    List<Integer> sealedIndexes() {
+        final Segment current = active;
+        return segments.keySet().stream().filter(index -> current == null || index < current.index).toList();
+    }
+
+    /**
+     * Get the number of record bytes written in a segment.
+     * @param index the segment index
+     * @return the used bytes, header excluded
+     */
+    int usedBytes(final int index) {
+        return segments.get(index).end - HEADER_BYTES;
+    }
+
+    /**
+     * Stop listing a segment and mark its file retired, durably, before returning. Its records stay
+     * readable until {@link #deleteRetired()}.
+     * @param index the segment index
+     */
+    void retire(final int index) {
+        final Segment segment = segments.get(index);
+        if (segment != null) {
+            // a lock-free read looks in segments then in retired: the segment must stay in one of them
+            retired.put(index, segment);
+            segments.remove(index);
+            segment.buffer.putLong(0, RETIRED_MAGIC);
+            segment.buffer.force(0, Long.BYTES);
+        }
+    }
+
+    /**
+     * Delete the files of the segments retired before this call.
+     * @return the number of deleted segments
+     */
+    int deleteRetired() {
+        int deleted = 0;
+        for (final Segment segment : List.copyOf(retired.values())) {
+            try {
+                Files.deleteIfExists(segment.path);
+                retired.remove(segment.index);
+                deleted++;
+            } catch (final IOException e) {
+                log.warn("Cannot delete link store segment {}", segment.path, e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Flush the segments written since the last call to the storage device.
+     */
+    void force() {
+        for (final Segment segment : segments.values()) {
+            if (segment.dirty) {
+                segment.dirty = false;
+                segment.buffer.force();
+            }
+        }
+    }
+
+    /**
+     * Get the number of segments, retired ones excluded.
+     * @return the segment count
+     */
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private Segment reserve(final int length) {
+        if (active == null || active.end + length > segmentBytes) {
+            final int next = active == null ? 0 : active.index + 1;
+            active = open(next, true);
+            segments.put(next, active);
+            log.debug("Link store segment opened: {}", active.path);
+        }
+        return active;
+    }
+
+    private long commit(final Segment segment, final int offset, final int length) {
+        final CRC32C crc = new CRC32C();
+        crc.update(segment.buffer.slice(offset + ID, length - ID));
+        segment.buffer.putInt(offset + CRC, (int) crc.getValue());
+        // the length makes the record visible to a recovery, so it goes last
+        segment.buffer.putInt(offset, length);
+        segment.end = offset + length;
+        segment.dirty = true;
+        return position(segment.index, offset);
+    }
+
+    private boolean isValid(final MappedByteBuffer buffer, final int offset, final int length) {
+        if (length < RECORD_HEADER_BYTES || (length & 7) != 0 || offset + length > segmentBytes) {
+            return false;
+        }
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset + ID, length - ID));
+        return buffer.getInt(offset + CRC) == (int) crc.getValue();
+    }
+
+    private Segment segment(final long position) {
+        final int index = (int) (position >>> 32);
+        final Segment segment = segments.get(index);
+        return segment != null ? segment : retired.get(index);
+    }
+
+    private String readTarget(final ByteBuffer buffer, final int offset, final int aliasLength) {
+        final byte[] target = new byte[buffer.getInt(offset + TARGET_LENGTH)];
+        buffer.get(offset + RECORD_HEADER_BYTES + aliasLength * 2, target);
+        return new String(target, StandardCharsets.UTF_8);
+    }
+
+    private long toMillis(final LocalDateTime date) {
+        return date == null ? NO_DATE : date.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDate(final long millis) {
+        return millis == NO_DATE ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    private Segment open(final int index, final boolean create) {
+        final Path path = directory.resolve(String.format("%s%08d%s", PREFIX, index, SUFFIX));
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            if (create) {
+                buffer.putLong(0, MAGIC);
+                // covers every id of the older segments, whose links a compaction may archive
+                buffer.putLong(HIGH_WATER_ID, highWaterId);
+            } else if (buffer.getLong(0) != MAGIC && buffer.getLong(0) != RETIRED_MAGIC) {
+                throw new IllegalStateException("Not a link store segment: " + path);
+            }
+            return new Segment(index, path, buffer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot open the link store segment " + path, e);
+        }
+    }
+
+    private List<Integer> segmentIndexes() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> SEGMENT_NAME.matcher(name).matches())
+                    .map(name -> Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot list the link store directory " + directory, e);
+        }
+    }
+
+    private static int align(final int length) {
+        return (length + 7) & ~7;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.urlShortenerService.client.store;
+
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.ClickRollup;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.example.urlShortenerService.model.Url;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage engine of the links, selected by {@code shortener.link-store}:
+ * "jpa" ({@link JpaLinkStore}, the {@code urls} table) or "mapped" ({@link MappedLinkStore},
+ * memory-mapped files). The click rollups, the click log checkpoint and the archive stay in
+ * the database with both engines.
+ * <p>
+ * An alias already in use is reported with a {@link org.springframework.dao.DataIntegrityViolationException}.
+ */
+public interface LinkStore {
+
+    /**
+     * Find a link by its alias.
+     * @param customAlias the customAlias
+     * @return the link if found.
+     */
+    Optional<Url> findByCustomAlias(final String customAlias);
+
+    /**
+     * Find only what a redirect needs (id, target and expiry) for an alias.
+     * @param customAlias the customAlias
+     * @return the redirect target if found.
+     */
+    Optional<RedirectTarget> findRedirectTargetByCustomAlias(final String customAlias);
+
+    /**
+     * Check whether an alias is in use.
+     * @param customAlias the customAlias
+     * @return true if a link has this alias
+     */
+    boolean existsByCustomAlias(final String customAlias);
+
+    /**
+     * Find which of the given aliases are already taken.
+     * @param aliases the aliases to check
+     * @return the subset of aliases that exist
+     */
+    List<String> findExistingAliases(final Collection<String> aliases);
+
+    /**
+     * Find the live links (not expired at the given date) whose canonical target has one of the given
+     * hashes, newest first. The links created before the hash was stored are not found.
+     * @param targetHashes the canonical target hashes, see {@link com.example.urlShortenerService.model.TargetUrl#hash}
+     * @param now the current date
+     * @param perTargetLimit the maximum number of links returned for each hash
+     * @return the live links of these targets
+     */
+    List<Url> findLiveByTargetHashes(final Collection<Long> targetHashes, final LocalDateTime now,
+                                     final int perTargetLimit);
+
+    /**
+     * Insert a new link. Its id and creation date are set on the given instance.
+     * @param url the link to insert
+     * @return the inserted link
+     */
+    Url save(final Url url);
+
+    /**
+     * Insert new links, all or none.
+     * @param urls the links to insert
+     * @return the inserted links, in the same order
+     */
+    List<Url> saveAll(final List<Url> urls);
+
+    /**
+     * Get a page of links, newest first (the sort of the pageable is only honored by the JPA engine).
+     * @param pageable the page number and size
+     * @return the page of links
+     */
+    Page<Url> findAll(final Pageable pageable);
+
+    /**
+     * First page of the keyset listing: newest links first, in (createdAt desc, id desc) order.
+     * @param limit the page size
+     * @return the newest links
+     */
+    List<Url> findNewest(final Limit limit);
+
+    /**
+     * Next page of the keyset listing: the links strictly after (createdAt, id) in
+     * (createdAt desc, id desc) order.
+     * @param createdAt creation date of the last link of the previous page
+     * @param id id of the last link of the previous page
+     * @param limit the page size
+     * @return the next links
+     */
+    List<Url> findPageAfter(final LocalDateTime createdAt, final Long id, final Limit limit);
+
+    /**
+     * Add buffered clicks to their links and to the click rollups.
+     * @param clicksById the pending clicks keyed by link id
+     * @param clicksByMinute the same clicks counted per link and minute
+     */
+    void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute);
+
+    /**
+     * Add the clicks and save the click log position they cover.
+     * @param clicksById the clicks to add, by link id
+     * @param clicksByMinute the same clicks counted per link and minute
+     * @param logPosition the click log position covered by these clicks
+     */
+    void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute,
+                   final long logPosition);
+
+    /**
+     * Get the click rollups of a link in a range, oldest first. Only the buckets with clicks exist.
+     * @param linkId the link id
+     * @param granularity the bucket size
+     * @param from the first bucket start, inclusive
+     * @param to the last bucket start, exclusive
+     * @return the buckets with at least one click
+     */
+    List<ClickRollup> findClickRollups(final long linkId, final StatsGranularity granularity,
+                                       final LocalDateTime from, final LocalDateTime to);
+
+    /**
+     * Stream every alias, live and archived, without loading the links in memory.
+     * @param action called once per alias
+     */
+    void forEachAlias(final Consumer<String> action);
+
+    /**
+     * Stream the links matching a filter, oldest id first, without loading them in memory.
+     * The archived links are not included.
+     * @param filter the status and creation range of the links
+     * @param now the date the status is evaluated at
+     * @param fetchSize the number of rows read per database round trip (JPA engine only)
+     * @param action called once per link
+     */
+    void forEachLink(final LinkExportFilter filter, final LocalDateTime now, final int fetchSize,
+                     final Consumer<Url> action);
+}
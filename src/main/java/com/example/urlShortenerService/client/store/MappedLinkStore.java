@@ -0,0 +1,629 @@
+package com.example.urlShortenerService.client.store;
+
+import com.example.urlShortenerService.alias.LongLongHashMap;
+import com.example.urlShortenerService.cache.AliasBloomFilter;
+import com.example.urlShortenerService.client.database.UrlArchiveRepository;
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.ClickRollup;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.example.urlShortenerService.model.TargetUrl;
+import com.example.urlShortenerService.model.Url;
+import com.example.urlShortenerService.model.UrlArchive;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Embedded {@link LinkStore}: links are records of memory-mapped, append-only {@link LinkSegments},
+ * found through an in-memory {@link AliasIndex} (alias to position) and an id index (id to position).
+ * The newest link of each canonical target hash is kept in a third index (hash to id), which the
+ * records do not store: it is rebuilt at startup only when {@code shortener.dedup-enabled} is set.
+ * <p>
+ * Reads take no lock and make no system call. Inserts, click updates and compaction moves are
+ * serialized by one lock. Ids are assigned in creation order and creation dates never go back, so
+ * the newest-first listings simply walk the id index backwards. An id is never reused, not even the
+ * id of an archived link: the segments keep the highest id handed out.
+ * <p>
+ * Durability follows {@code shortener.link-store-fsync}: "always" (every insert is forced to disk
+ * before it returns), "interval" (dirty segments are forced every
+ * {@code shortener.link-store-fsync-interval-ms}) or "never" (left to the OS). Recovery rebuilds both
+ * indexes by scanning the segments at startup; a record torn by a crash is dropped and the later copy
+ * of a record wins.
+ * <p>
+ * Compaction rewrites the full segments whose dead share (records moved away, links expired past
+ * {@code shortener.sweep-grace-period-hours}) reaches {@code shortener.link-store-compaction-min-dead-ratio}:
+ * expired links are moved to {@code urls_archive} (when the sweep is enabled), live records are copied
+ * to the active segment and the old file is marked retired, then deleted on the next run. The click
+ * rollups and the click log checkpoint stay in the database.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(prefix = "shortener", name = "link-store", havingValue = "mapped")
+public class MappedLinkStore implements LinkStore {
+
+    private static final int ID_INDEX_INITIAL_SIZE = 1024;
+
+    /**
+     * When the written records are forced to the storage device.
+     */
+    enum FsyncPolicy { ALWAYS, INTERVAL, NEVER }
+
+    private final ShortenerProperties props;
+    private final UrlRepository dbClient;
+    private final UrlArchiveRepository archiveClient;
+    private final ObjectProvider<AliasBloomFilter> aliasFilter;
+    private final FsyncPolicy fsyncPolicy;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Timer fsyncTimer;
+    private final Counter compactedSegments;
+    private final Counter archivedLinks;
+
+    private LinkSegments segments;
+    private AliasIndex aliasIndex;
+    // position of the record of each id, 0 = none, replaced (never mutated) when it grows
+    private volatile AtomicLongArray idIndex = new AtomicLongArray(ID_INDEX_INITIAL_SIZE);
+    private volatile long maxId;
+    // newest link id of each canonical target hash, written under the write lock
+    private final LongLongHashMap targetIndex = new LongLongHashMap(ID_INDEX_INITIAL_SIZE);
+    private long lastCreatedMillis;
+
+    /**
+     * Constructor
+     * @param props the shortener properties (directory, segment size, fsync policy, compaction)
+     * @param dbClient the database client of the click rollups and the click log checkpoint
+     * @param archiveClient the database client of the archived expired links
+     * @param aliasFilter the alias filter, told about every insert
+     * @param meterRegistry the registry the store meters are bound to
+     */
+    public MappedLinkStore(
+            final ShortenerProperties props,
+            final UrlRepository dbClient,
+            final UrlArchiveRepository archiveClient,
+            final ObjectProvider<AliasBloomFilter> aliasFilter,
+            final MeterRegistry meterRegistry
+    ) {
+        this.props = props;
+        this.dbClient = dbClient;
+        this.archiveClient = archiveClient;
+        this.aliasFilter = aliasFilter;
+        this.fsyncPolicy = FsyncPolicy.valueOf(props.getLinkStoreFsync().trim().toUpperCase(Locale.ROOT));
+        this.fsyncTimer = Timer.builder("shortener.link.store.fsync")
+                .description("Time spent forcing the link store segments to disk")
+                .register(meterRegistry);
+        this.compactedSegments = Counter.builder("shortener.link.store.compacted.segments")
+                .description("Link store segments rewritten by the compaction")
+                .register(meterRegistry);
+        this.archivedLinks = Counter.builder("shortener.link.store.archived")
+                .description("Expired links moved from the link store to urls_archive by the compaction")
+                .register(meterRegistry);
+        Gauge.builder("shortener.link.store.links", this, MappedLinkStore::size)
+                .description("Links indexed by the link store")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Map the segments and rebuild the indexes from their records.
+     */
+    @PostConstruct
+    public void open() {
+        final long start = System.nanoTime();
+        segments = new LinkSegments(Path.of(props.getLinkStoreDir()), props.getLinkStoreSegmentBytes(), zone);
+        aliasIndex = new AliasIndex(ID_INDEX_INITIAL_SIZE, segments::aliasEquals);
+        final long records = segments.recover((position, id, createdAtMillis) -> {
+            // a later copy (left by a compaction) replaces the older one in both indexes
+            aliasIndex.put(segments.readAlias(position), position);
+            setIdPosition(id, position);
+            if (props.isDedupEnabled()) {
+                indexTarget(TargetUrl.hash(new TargetUrl(segments.readRedirectTarget(position).targetUrl())
+                        .canonical(props.isDedupSortQueryParameters())), id);
+            }
+            lastCreatedMillis = Math.max(lastCreatedMillis, createdAtMillis);
+        });
+        // not only the recovered ids: the newest links may have been archived by a compaction
+        maxId = segments.highWaterId();
+        log.info("Link store opened: dir={}, segments={}, records={}, links={}, fsync={}, took={} ms",
+                props.getLinkStoreDir(), segments.segmentCount(), records, size(), fsyncPolicy,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Force every written record to disk.
+     */
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Url> findByCustomAlias(final String customAlias) {
+        final long position = aliasIndex.get(customAlias);
+        return position == AliasIndex.REMOVED ? Optional.empty() : Optional.of(segments.readUrl(position));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<RedirectTarget> findRedirectTargetByCustomAlias(final String customAlias) {
+        final long position = aliasIndex.get(customAlias);
+        return position == AliasIndex.REMOVED
+                ? Optional.empty()
+                : Optional.of(segments.readRedirectTarget(position));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean existsByCustomAlias(final String customAlias) {
+        return aliasIndex.get(customAlias) != AliasIndex.REMOVED;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> findExistingAliases(final Collection<String> aliases) {
+        return aliases.stream().filter(this::existsByCustomAlias).toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the newest link of each target is indexed, so at most one link is returned for each hash.
+     */
+    @Override
+    public List<Url> findLiveByTargetHashes(final Collection<Long> targetHashes, final LocalDateTime now,
+                                           final int perTargetLimit) {
+        final List<Url> urls = new ArrayList<>();
+        for (final long targetHash : targetHashes) {
+            final long id = targetIndex.get(targetHash);
+            final long position = id == LongLongHashMap.NO_VALUE ? 0 : idPosition(id);
+            if (position == 0) {
+                continue;
+            }
+            final Url url = segments.readUrl(position);
+            if (url.getExpiresAt() == null || url.getExpiresAt().isAfter(now)) {
+                url.setTargetHash(targetHash);
+                urls.add(url);
+            }
+        }
+        urls.sort((first, second) -> Long.compare(second.getId(), first.getId()));
+        return perTargetLimit > 0 ? urls : List.of();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws DuplicateKeyException if the alias is already in use
+     */
+    @Override
+    public Url save(final Url url) {
+        writeLock.lock();
+        try {
+            if (aliasIndex.get(url.getCustomAlias()) != AliasIndex.REMOVED) {
+                throw new DuplicateKeyException("Alias already in use: " + url.getCustomAlias());
+            }
+            insert(url);
+            forceIfAlways();
+        } finally {
+            writeLock.unlock();
+        }
+        aliasFilter.getObject().put(url.getCustomAlias());
+        return url;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws DuplicateKeyException if one of the aliases is already in use, nothing is inserted then
+     */
+    @Override
+    public List<Url> saveAll(final List<Url> urls) {
+        writeLock.lock();
+        try {
+            final Set<String> aliases = new HashSet<>();
+            for (final Url url : urls) {
+                if (!aliases.add(url.getCustomAlias()) || aliasIndex.get(url.getCustomAlias()) != AliasIndex.REMOVED) {
+                    throw new DuplicateKeyException("Alias already in use: " + url.getCustomAlias());
+                }
+            }
+            urls.forEach(this::insert);
+            forceIfAlways();
+        } finally {
+            writeLock.unlock();
+        }
+        urls.forEach(url -> aliasFilter.getObject().put(url.getCustomAlias()));
+        return urls;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Page<Url> findAll(final Pageable pageable) {
+        final List<Url> content = newestFirst(maxId, pageable.getOffset(), pageable.getPageSize(), url -> true);
+        return new PageImpl<>(content, pageable, size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Url> findNewest(final Limit limit) {
+        return newestFirst(maxId, 0, maxResults(limit), url -> true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Url> findPageAfter(final LocalDateTime createdAt, final Long id, final Limit limit) {
+        return newestFirst(Math.min(maxId, id - 1), 0, maxResults(limit),
+                url -> url.getCreatedAt().isBefore(createdAt)
+                        || (url.getCreatedAt().isEqual(createdAt) && url.getId() < id));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The in-place counters are added first and taken back if the rollups cannot be written, so the
+     * accumulator's retry of a failed flush counts every click once.
+     */
+    @Override
+    public void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute) {
+        addClicks(clicksById, () -> dbClient.addClicks(Map.of(), clicksByMinute));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The in-place counters are added first and taken back if the rollups and the checkpoint cannot
+     * be written, so the accumulator's retry of a failed flush counts every click once.
+     */
+    @Override
+    public void addClicks(final Map<Long, PendingClicks> clicksById, final Map<ClickMinute, Long> clicksByMinute,
+                          final long logPosition) {
+        addClicks(clicksById, () -> dbClient.addClicks(Map.of(), clicksByMinute, logPosition));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ClickRollup> findClickRollups(final long linkId, final StatsGranularity granularity,
+                                              final LocalDateTime from, final LocalDateTime to) {
+        return dbClient.findClickRollups(linkId, granularity, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEachAlias(final Consumer<String> action) {
+        aliasIndex.forEachPosition(position -> action.accept(segments.readAlias(position)));
+        // the archived aliases
+        dbClient.forEachAlias(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Walks the id index: each link is read from its segment when it is reached.
+     */
+    @Override
+    public void forEachLink(final LinkExportFilter filter, final LocalDateTime now, final int fetchSize,
+                            final Consumer<Url> action) {
+        final AtomicLongArray ids = idIndex;
+        final long lastId = Math.min(maxId, ids.length() - 1);
+        for (long id = 1; id <= lastId; id++) {
+            final long position = ids.get((int) id);
+            if (position == 0) {
+                continue;
+            }
+            final Url url = segments.readUrl(position);
+            if (filter.matches(url, now)) {
+                action.accept(url);
+            }
+        }
+    }
+
+    /**
+     * Force the segments written since the last run, with {@code shortener.link-store-fsync=interval}.
+     */
+    @Scheduled(fixedDelayString = "${shortener.link-store-fsync-interval-ms:1000}")
+    public void sync() {
+        if (fsyncPolicy != FsyncPolicy.INTERVAL) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Delete the segments retired by the previous run, then rewrite the full segments with enough
+     * dead records.
+     * @return the number of segments rewritten by this run
+     */
+    @Scheduled(
+            initialDelayString = "${shortener.link-store-compaction-interval-ms:600000}",
+            fixedDelayString = "${shortener.link-store-compaction-interval-ms:600000}")
+    public int compact() {
+        segments.deleteRetired();
+        int compacted = 0;
+        for (final int index : segments.sealedIndexes()) {
+            try {
+                if (compactSegment(index)) {
+                    compacted++;
+                }
+            } catch (final RuntimeException e) {
+                log.error("Link store compaction of segment {} failed, will retry", index, e);
+            }
+        }
+        if (compacted > 0) {
+            log.info("Link store compaction rewrote {} segments", compacted);
+        }
+        return compacted;
+    }
+
+    /**
+     * Get the number of indexed links.
+     * @return the number of links
+     */
+    public int size() {
+        return aliasIndex == null ? 0 : aliasIndex.size();
+    }
+
+    private boolean compactSegment(final int index) {
+        final long expiredBefore = props.isSweepEnabled()
+                ? toMillis(LocalDateTime.now().minusHours(props.getSweepGracePeriodHours()))
+                : Long.MIN_VALUE;
+        final List<Long> live = new ArrayList<>();
+        final List<Long> expired = new ArrayList<>();
+        long liveBytes = 0;
+        for (final long position : segments.positions(index)) {
+            if (idPosition(segments.readId(position)) != position) {
+                continue;
+            }
+            final long expiresAt = segments.readExpiresAtMillis(position);
+            if (expiresAt != Long.MIN_VALUE && expiresAt < expiredBefore) {
+                expired.add(position);
+            } else {
+                live.add(position);
+                liveBytes += segments.readLength(position);
+            }
+        }
+        final int used = segments.usedBytes(index);
+        if (used == 0 || 1.0 - (double) liveBytes / used < props.getLinkStoreCompactionMinDeadRatio()) {
+            return false;
+        }
+
+        if (!expired.isEmpty()) {
+            final LocalDateTime archivedAt = LocalDateTime.now();
+            archiveClient.saveAll(expired.stream().map(position -> toArchive(position, archivedAt)).toList());
+            archivedLinks.increment(expired.size());
+        }
+        for (final long position : expired) {
+            writeLock.lock();
+            try {
+                final long id = segments.readId(position);
+                if (idPosition(id) == position) {
+                    aliasIndex.remove(segments.readAlias(position), position);
+                    setIdPosition(id, 0);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        for (final long position : live) {
+            // one record at a time, so inserts and click flushes are not held behind the whole segment
+            writeLock.lock();
+            try {
+                final long id = segments.readId(position);
+                if (idPosition(id) == position) {
+                    final long moved = segments.copy(position);
+                    aliasIndex.put(segments.readAlias(moved), moved);
+                    setIdPosition(id, moved);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        writeLock.lock();
+        try {
+            // the copies must be durable before the originals can go
+            force();
+        } finally {
+            writeLock.unlock();
+        }
+        segments.retire(index);
+        compactedSegments.increment();
+        log.info("Link store segment {} compacted: moved={}, archived={}", index, live.size(), expired.size());
+        return true;
+    }
+
+    private void insert(final Url url) {
+        final long id = maxId + 1;
+        lastCreatedMillis = Math.max(System.currentTimeMillis(), lastCreatedMillis);
+        url.setId(id);
+        url.setCreatedAt(toDate(lastCreatedMillis));
+        final long position = segments.append(url);
+        aliasIndex.put(url.getCustomAlias(), position);
+        setIdPosition(id, position);
+        if (url.getTargetHash() != null) {
+            indexTarget(url.getTargetHash(), id);
+        }
+        maxId = id;
+    }
+
+    // called with the write lock held (or during open), a compaction copy keeps the newest id
+    private void indexTarget(final long targetHash, final long id) {
+        if (targetIndex.get(targetHash) < id) {
+            targetIndex.put(targetHash, id);
+        }
+    }
+
+    private void addClicks(final Map<Long, PendingClicks> clicksById, final Runnable saveRollups) {
+        applyClicks(clicksById, 1);
+        try {
+            saveRollups.run();
+        } catch (final RuntimeException e) {
+            // the last access dates are kept, the retry sets the same ones
+            applyClicks(clicksById, -1);
+            throw e;
+        }
+        if (clicksById.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            forceIfAlways();
+        } catch (final UncheckedIOException e) {
+            // the rollups are saved: failing the flush now would have it retried and counted twice
+            log.error("Link store click counters could not be forced to disk", e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // a record moved by a compaction in between is found at its new position, counters included
+    private void applyClicks(final Map<Long, PendingClicks> clicksById, final int sign) {
+        if (clicksById.isEmpty()) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            clicksById.forEach((id, clicks) -> {
+                final long position = idPosition(id);
+                if (position != 0) {
+                    segments.addClicks(position, sign * clicks.count(), clicks.lastAccessedAt());
+                }
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private List<Url> newestFirst(final long fromId, final long skip, final int max, final Predicate<Url> filter) {
+        final AtomicLongArray ids = idIndex;
+        final List<Url> urls = new ArrayList<>(Math.min(max, 1024));
+        long skipped = 0;
+        for (long id = Math.min(fromId, ids.length() - 1); id > 0 && urls.size() < max; id--) {
+            final long position = ids.get((int) id);
+            if (position == 0) {
+                continue;
+            }
+            final Url url = segments.readUrl(position);
+            if (filter.test(url) && skipped++ >= skip) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
+    private UrlArchive toArchive(final long position, final LocalDateTime archivedAt) {
+        final Url url = segments.readUrl(position);
+        final UrlArchive archive = new UrlArchive();
+        archive.setId(url.getId());
+        archive.setTargetUrl(url.getTargetUrl());
+        archive.setCustomAlias(url.getCustomAlias());
+        archive.setExpiresAt(url.getExpiresAt());
+        archive.setTargetHash(TargetUrl.hash(new TargetUrl(url.getTargetUrl())
+                .canonical(props.isDedupSortQueryParameters())));
+        archive.setRedirectPolicy(url.getRedirectPolicy());
+        archive.setClickCount(url.getClickCount());
+        archive.setLastAccessedAt(url.getLastAccessedAt());
+        archive.setCreatedAt(url.getCreatedAt());
+        archive.setArchivedAt(archivedAt);
+        return archive;
+    }
+
+    private long idPosition(final long id) {
+        final AtomicLongArray ids = idIndex;
+        return id > 0 && id < ids.length() ? ids.get((int) id) : 0;
+    }
+
+    // called with the write lock held (or during open)
+    private void setIdPosition(final long id, final long position) {
+        AtomicLongArray ids = idIndex;
+        if (id >= ids.length()) {
+            if (id >= Integer.MAX_VALUE) {
+                throw new IllegalStateException("Link store id index is full: " + id);
+            }
+            final AtomicLongArray grown = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE, Math.max(id + 1,
+                    ids.length() * 2L)));
+            for (int i = 0; i < ids.length(); i++) {
+                grown.set(i, ids.get(i));
+            }
+            idIndex = grown;
+            ids = grown;
+        }
+        ids.set((int) id, position);
+    }
+
+    private void forceIfAlways() {
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            force();
+        }
+    }
+
+    private void force() {
+        fsyncTimer.record(segments::force);
+    }
+
+    private static int maxResults(final Limit limit) {
+        return limit.isLimited() ? limit.max() : Integer.MAX_VALUE;
+    }
+
+    private long toMillis(final LocalDateTime date) {
+        return date.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDate(final long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+}
@@ -27,15 +27,16 @@ public class ApiKeyInterceptor implements HandlerInterceptor {
             final HttpServletResponse response,
             final Object handler
     ) {
-        // Only protect POST /links (you can extend this later)
+        // Only protect POST /links, POST /links/batch and POST /links/import
         final boolean isPost = HttpMethod.POST.matches(request.getMethod());
         final String requestUri = request.getRequestURI();
 
-        if (isPost && "/links".equals(requestUri)) {
+        if (isPost && ("/links".equals(requestUri) || "/links/batch".equals(requestUri)
+                || "/links/import".equals(requestUri))) {
             final String providedKey = request.getHeader(API_KEY_HEADER);
 
             if (providedKey == null || providedKey.isBlank()) {
-                log.warn("Missing API key for POST /links");
+                log.warn("Missing API key for POST {}", requestUri);
                 throw new ApiKeyUnauthorizedException("Missing API key in X-API-KEY header");
             }
 
@@ -46,11 +47,11 @@ public class ApiKeyInterceptor implements HandlerInterceptor {
             }
 
             if (!expectedKey.equals(providedKey)) {
-                log.warn("Invalid API key provided for POST /links");
+                log.warn("Invalid API key provided for POST {}", requestUri);
                 throw new ApiKeyUnauthorizedException("Invalid API key");
             }
 
-            log.debug("API key validated successfully for POST /links");
+            log.debug("API key validated successfully for POST {}", requestUri);
         }
 
         // Allow the request to proceed
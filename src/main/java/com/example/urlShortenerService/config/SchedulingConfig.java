@@ -0,0 +1,12 @@
+package com.example.urlShortenerService.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs of the service (click flushing, expired link sweeping, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -34,4 +34,398 @@ public class ShortenerProperties {
      * Example: "super-secret-key".
      */
     private String apiKey;
+
+    /**
+     * Maximum number of aliases kept in the in-process redirect cache.
+     * Entries are admitted and evicted by access frequency (W-TinyLFU), or oldest first off-heap.
+     * Example: 100000.
+     */
+    private long redirectCacheMaxSize = 100_000L;
+
+    /**
+     * Implementation of the redirect cache: "caffeine" (on the heap) or "off-heap" (direct memory,
+     * out of the GC heap, for millions of links).
+     */
+    private String redirectCache = "caffeine";
+
+    /**
+     * Direct memory (in bytes) the off-heap redirect cache may use for its entries, the index comes on top
+     * (16 bytes per slot, two slots per entry). Must fit in -XX:MaxDirectMemorySize.
+     * Example: 268435456 = 256 MiB, about 2.5 million links of 100 bytes.
+     */
+    private long redirectCacheOffHeapBytes = 256L * 1024 * 1024;
+
+    /**
+     * Size (in bytes) of one slab of the off-heap redirect cache, the unit of allocation and eviction.
+     * Example: 16777216 = 16 MiB.
+     */
+    private long redirectCacheOffHeapSlabBytes = 16L * 1024 * 1024;
+
+    /**
+     * Whether GET /r/{shortCode} is served by a servlet filter ahead of the Spring MVC dispatch,
+     * with the same responses.
+     */
+    private boolean redirectFastPathEnabled = true;
+
+    /**
+     * Time (in milliseconds) a redirect waits for the database load of the same alias started by a
+     * concurrent request before failing with a 503.
+     * Example: 2000.
+     */
+    private long redirectLoadWaitTimeoutMs = 2000L;
+
+    /**
+     * Maximum time (in seconds) browsers and shared caches may keep a cacheable or permanent redirect,
+     * lowered to the time left before the link expires.
+     * Example: 86400 = 1 day.
+     */
+    private long redirectMaxAgeSeconds = 86_400L;
+
+    /**
+     * Whether GET /r/{shortCode} is also served by a redirect-only HTTP server (JDK HTTP server on
+     * virtual threads) on its own port, without Tomcat and Spring MVC.
+     */
+    private boolean edgeServerEnabled = false;
+
+    /**
+     * Port of the redirect edge server, 0 = any free port.
+     * Example: 8081.
+     */
+    private int edgeServerPort = 8081;
+
+    /**
+     * Delay (in milliseconds) between two flushes of the buffered click counts
+     * to the database.
+     * Example: 1000 = once per second.
+     */
+    private long clickFlushIntervalMs = 1000L;
+
+    /**
+     * Strategy used to generate short codes when no custom alias is given:
+     * "block" (collision-free, ids reserved from the database) or "random" (legacy UUID based).
+     */
+    private String shortCodeGenerator = "block";
+
+    /**
+     * Length of the generated base62 short codes (1 to 10).
+     * Example: 7 = 62^7, about 3.5 trillion codes.
+     */
+    private int shortCodeLength = 7;
+
+    /**
+     * Number of ids reserved from the database in one round trip.
+     * Must not change once codes have been generated, blocks would overlap otherwise.
+     * Example: 1000.
+     */
+    private long shortCodeBlockSize = 1000L;
+
+    /**
+     * Whether generated ids are shuffled before being encoded, so consecutive links
+     * do not get consecutive codes.
+     */
+    private boolean shortCodeObfuscate = true;
+
+    /**
+     * Key of the id shuffle. Must not change once codes have been generated.
+     */
+    private long shortCodeSalt = 0x5DEECE66DL;
+
+    /**
+     * Maximum number of links accepted by one POST /links/batch call.
+     * Example: 1000.
+     */
+    private int batchMaxItems = 1000;
+
+    /**
+     * Maximum number of database calls running at the same time, 0 = unbounded.
+     * Should not exceed the connection pool size when virtual threads are enabled.
+     * Example: 10.
+     */
+    private int dbMaxConcurrency = 0;
+
+    /**
+     * Time (in milliseconds) a request waits for a database permit before failing with a 503.
+     * Example: 2000.
+     */
+    private long dbAcquireTimeoutMs = 2000L;
+
+    /**
+     * Log one successful read request (redirect, details, list) out of N at INFO level,
+     * 1 = every request, 0 = none. Failures are always logged.
+     * Example: 100.
+     */
+    private int successLogSampleRate = 1;
+
+    /**
+     * Whether expired links are moved from urls to the urls_archive table in the background.
+     */
+    private boolean sweepEnabled = true;
+
+    /**
+     * Delay (in milliseconds) between two runs of the expired link sweeper.
+     * Example: 60000 = once per minute.
+     */
+    private long sweepIntervalMs = 60_000L;
+
+    /**
+     * Time (in hours) an expired link stays in urls before being archived.
+     * Example: 24 = links are archived one day after they expire.
+     */
+    private long sweepGracePeriodHours = 24L;
+
+    /**
+     * Maximum number of links moved in one transaction, keeps row locks short.
+     * Example: 500.
+     */
+    private int sweepBatchSize = 500;
+
+    /**
+     * Pause (in milliseconds) between two batches, leaves room to the request traffic.
+     * Example: 50.
+     */
+    private long sweepBatchPauseMs = 50L;
+
+    /**
+     * Maximum number of batches per run, the rest is left to the next runs.
+     * Example: 100 = at most 50000 links per run with the default batch size.
+     */
+    private int sweepMaxBatchesPerRun = 100;
+
+    /**
+     * Whether unknown aliases are rejected by an in-memory Bloom filter before reaching the database.
+     */
+    private boolean aliasFilterEnabled = true;
+
+    /**
+     * Number of aliases the Bloom filter is sized for, beyond it the false positive rate grows.
+     * Memory use is about 1.2 bytes per alias at 1%.
+     * Example: 1000000 = about 1.2 MB at 1%.
+     */
+    private long aliasFilterExpectedAliases = 1_000_000L;
+
+    /**
+     * Share of unknown aliases the Bloom filter lets through to the database, once full.
+     * Example: 0.01 = 1%.
+     */
+    private double aliasFilterFalsePositiveRate = 0.01;
+
+    /**
+     * Delay (in milliseconds) between two reloads of the stored aliases into the Bloom filter. The aliases
+     * created by another instance sharing the database get a 404 here for at most this long.
+     * Example: 300000 = every 5 minutes.
+     */
+    private long aliasFilterRefreshIntervalMs = 300_000L;
+
+    /**
+     * Whether every click is appended to the memory-mapped click log (and replayed after a crash).
+     */
+    private boolean clickLogEnabled = false;
+
+    /**
+     * Directory of the click log segment files.
+     * Example: "data/click-log".
+     */
+    private String clickLogDir = "data/click-log";
+
+    /**
+     * Size (in bytes) of one click log segment file, 24 bytes per click.
+     * Example: 67108864 = 64 MiB, about 2.8 million clicks.
+     */
+    private long clickLogSegmentBytes = 64L * 1024 * 1024;
+
+    /**
+     * Number of click events the redirect path can publish ahead of the log writer (power of two).
+     * Example: 65536.
+     */
+    private int clickLogRingCapacity = 65_536;
+
+    /**
+     * Minimum number of click log segments kept on disk, older segments already covered by the
+     * database checkpoint are deleted.
+     * Example: 16.
+     */
+    private int clickLogRetainedSegments = 16;
+
+    /**
+     * Time (in hours) the per-minute click rollups are kept, older minutes only remain in the hour
+     * and day rollups.
+     * Example: 48 = minute stats for the last 2 days.
+     */
+    private long rollupMinuteRetentionHours = 48L;
+
+    /**
+     * Time (in days) the per-hour click rollups are kept, older hours only remain in the day rollups.
+     * Example: 90.
+     */
+    private long rollupHourRetentionDays = 90L;
+
+    /**
+     * Delay (in milliseconds) between two compactions of the click rollups.
+     * Example: 3600000 = once per hour.
+     */
+    private long rollupCompactionIntervalMs = 3_600_000L;
+
+    /**
+     * Maximum number of click rollups deleted in one transaction by the compaction.
+     * Example: 5000.
+     */
+    private int rollupCompactionBatchSize = 5000;
+
+    /**
+     * Maximum number of buckets returned by one GET /links/{shortCode}/stats call.
+     * Example: 1500 = 25 hours of minutes, 62 days of hours or 4 years of days.
+     */
+    private int statsMaxBuckets = 1500;
+
+    /**
+     * Number of rows GET /links/export reads per database round trip: the memory used by an export
+     * does not depend on the number of links.
+     * Example: 500.
+     */
+    private int exportFetchSize = 500;
+
+    /**
+     * Storage engine of the links: "jpa" (the urls table) or "mapped" (embedded memory-mapped files).
+     * The engines do not share their links.
+     */
+    private String linkStore = "jpa";
+
+    /**
+     * Directory of the mapped link store segment files.
+     * Example: "data/link-store".
+     */
+    private String linkStoreDir = "data/link-store";
+
+    /**
+     * Size (in bytes) of one mapped link store segment file, at least 64 KiB.
+     * Example: 67108864 = 64 MiB, about 400000 links of 100 bytes.
+     */
+    private long linkStoreSegmentBytes = 64L * 1024 * 1024;
+
+    /**
+     * When the mapped link store forces its writes to disk: "always" (before each insert returns),
+     * "interval" (every link-store-fsync-interval-ms) or "never" (left to the OS).
+     */
+    private String linkStoreFsync = "interval";
+
+    /**
+     * Delay (in milliseconds) between two forces of the mapped link store, with the "interval" policy.
+     * Example: 1000 = at most one second of links lost by a power failure.
+     */
+    private long linkStoreFsyncIntervalMs = 1000L;
+
+    /**
+     * Delay (in milliseconds) between two compactions of the mapped link store.
+     * Example: 600000 = every 10 minutes.
+     */
+    private long linkStoreCompactionIntervalMs = 600_000L;
+
+    /**
+     * Share of dead bytes (moved records, links expired past the sweep grace period) from which a
+     * full segment is rewritten.
+     * Example: 0.5 = half of the segment.
+     */
+    private double linkStoreCompactionMinDeadRatio = 0.5;
+
+    /**
+     * Whether requests are rate limited per API key and per client address (429 with Retry-After).
+     */
+    private boolean rateLimitEnabled = false;
+
+    /**
+     * Sustained rate (requests per second) of POST /links and POST /links/batch per client, 0 for no limit.
+     * Example: 10.
+     */
+    private int rateLimitCreatePerSecond = 10;
+
+    /**
+     * Requests above the create rate a client may send at once.
+     * Example: 20.
+     */
+    private int rateLimitCreateBurst = 20;
+
+    /**
+     * Sustained rate (requests per second) of the other /links reads per client, 0 for no limit.
+     * Example: 50.
+     */
+    private int rateLimitDetailsPerSecond = 50;
+
+    /**
+     * Requests above the details rate a client may send at once.
+     * Example: 100.
+     */
+    private int rateLimitDetailsBurst = 100;
+
+    /**
+     * Sustained rate (requests per second) of GET /r/{shortCode} per client, 0 for no limit.
+     * Example: 200.
+     */
+    private int rateLimitRedirectPerSecond = 200;
+
+    /**
+     * Requests above the redirect rate a client may send at once.
+     * Example: 400.
+     */
+    private int rateLimitRedirectBurst = 400;
+
+    /**
+     * Number of clients tracked at once per kind of traffic; the least recently refilled ones are evicted.
+     * Example: 65536 = about 1 MiB per kind of traffic.
+     */
+    private int rateLimitMaxKeys = 65_536;
+
+    /**
+     * Whether a create without custom alias returns the existing live link of the same canonical target
+     * (same redirect policy, same expiresAt when one is requested) instead of inserting a new one.
+     */
+    private boolean dedupEnabled = false;
+
+    /**
+     * Whether the query parameters are sorted in the canonical target of the deduplication:
+     * "?b=2&a=1" and "?a=1&b=2" are then the same target. Changing it only affects the new links.
+     */
+    private boolean dedupSortQueryParameters = false;
+
+    /**
+     * Threads validating the lines of POST /links/import and of the import-file mode, 0 for one per CPU.
+     * Example: 4.
+     */
+    private int importWorkers = 0;
+
+    /**
+     * Lines per import chunk: the unit handed to a validation worker and inserted in one transaction.
+     * Example: 1000.
+     */
+    private int importBatchSize = 1000;
+
+    /**
+     * Chunks waiting for a worker or for the writer before the upload is no longer read (backpressure).
+     * Example: 16.
+     */
+    private int importQueueCapacity = 16;
+
+    /**
+     * Longest import line accepted, a longer line is rejected without being buffered.
+     * Example: 8192.
+     */
+    private int importMaxLineLength = 8192;
+
+    /**
+     * Directory of the import reports (rejected and conflicting lines).
+     * Example: data/import-reports.
+     */
+    private String importReportDir = "data/import-reports";
+
+    /**
+     * Hours an import report is kept, the older ones are deleted when an import starts.
+     * Example: 24.
+     */
+    private int importReportRetentionHours = 24;
+
+    /**
+     * NDJSON or CSV file (optionally .gz) to import at startup, after which the application exits:
+     * the command line import mode. Not set by default.
+     * Example: /data/old-links.ndjson.gz.
+     */
+    private String importFile;
 }
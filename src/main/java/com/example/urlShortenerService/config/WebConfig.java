@@ -1,12 +1,22 @@
 package com.example.urlShortenerService.config;
 
+import com.example.urlShortenerService.activity.RateLimitFilter;
+import com.example.urlShortenerService.activity.RedirectFilter;
+import com.example.urlShortenerService.exception.GlobalExceptionHandler;
+import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
- * Web MVC configuration that registers application interceptors.
+ * Web MVC configuration that registers application interceptors, the rate limit and the redirect fast path.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -16,8 +26,47 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(final InterceptorRegistry registry) {
-        // Apply API key interceptor only to /links endpoint
+        // Apply API key interceptor only to the link creation endpoints
         registry.addInterceptor(apiKeyInterceptor)
-                .addPathPatterns("/links");
+                .addPathPatterns("/links", "/links/batch", "/links/import");
+    }
+
+    /**
+     * Serve GET /r/{shortCode} before the MVC dispatch, after the Spring Boot filters
+     * (request observation, character encoding).
+     * @param manager the Url manager
+     * @param exceptionHandler the handler whose error responses are reproduced
+     * @param objectMapper the JSON mapper of the MVC responses
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "shortener", name = "redirect-fast-path-enabled", havingValue = "true",
+            matchIfMissing = true)
+    public FilterRegistrationBean<RedirectFilter> redirectFilter(final UrlManager manager,
+                                                                 final GlobalExceptionHandler exceptionHandler,
+                                                                 final ObjectMapper objectMapper) {
+        final FilterRegistrationBean<RedirectFilter> registration =
+                new FilterRegistrationBean<>(new RedirectFilter(manager, exceptionHandler, objectMapper));
+        registration.addUrlPatterns(RedirectFilter.URL_PATTERN);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Rate limit the /links and /r/ traffic right before the redirect fast path, after the Spring Boot
+     * filters (request observation, character encoding), so rejected requests are still observed.
+     * @param rateLimiter the rate limits
+     * @param objectMapper the JSON mapper of the MVC responses
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "shortener", name = "rate-limit-enabled", havingValue = "true")
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(final RateLimiter rateLimiter,
+                                                                   final ObjectMapper objectMapper) {
+        final FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(rateLimiter, objectMapper));
+        registration.addUrlPatterns("/links", "/links/*", RedirectFilter.URL_PATTERN);
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return registration;
     }
 }
@@ -0,0 +1,26 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when a batch request as a whole is rejected (empty or too large).
+ */
+public class BatchNotValidException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public BatchNotValidException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor with message and cause.
+     *
+     * @param message the exception message
+     * @param cause   the underlying cause
+     */
+    public BatchNotValidException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
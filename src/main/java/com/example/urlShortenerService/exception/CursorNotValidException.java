@@ -0,0 +1,26 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when a pagination cursor cannot be decoded.
+ */
+public class CursorNotValidException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public CursorNotValidException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor with message and cause.
+     *
+     * @param message the exception message
+     * @param cause   the underlying cause
+     */
+    public CursorNotValidException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
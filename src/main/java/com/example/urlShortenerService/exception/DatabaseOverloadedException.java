@@ -0,0 +1,26 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when a database call cannot get a concurrency permit in time.
+ */
+public class DatabaseOverloadedException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public DatabaseOverloadedException(final String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor with message and cause.
+     *
+     * @param message the exception message
+     * @param cause   the underlying cause
+     */
+    public DatabaseOverloadedException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
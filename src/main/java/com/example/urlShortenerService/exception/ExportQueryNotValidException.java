@@ -0,0 +1,16 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when the status or creation range of a link export is not valid.
+ */
+public class ExportQueryNotValidException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public ExportQueryNotValidException(final String message) {
+        super(message);
+    }
+}
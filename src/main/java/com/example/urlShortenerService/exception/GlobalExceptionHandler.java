@@ -20,6 +20,41 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body); // 400
     }
 
+    @ExceptionHandler(BatchNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleBatchNotValid(final BatchNotValidException ex) {
+        log.warn("Invalid batch: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("INVALID_BATCH", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body); // 400
+    }
+
+    @ExceptionHandler(CursorNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleCursorNotValid(final CursorNotValidException ex) {
+        log.warn("Invalid cursor: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("INVALID_CURSOR", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body); // 400
+    }
+
+    @ExceptionHandler(StatsQueryNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleStatsQueryNotValid(final StatsQueryNotValidException ex) {
+        log.warn("Invalid stats query: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("INVALID_STATS_QUERY", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body); // 400
+    }
+
+    @ExceptionHandler(ExportQueryNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleExportQueryNotValid(final ExportQueryNotValidException ex) {
+        log.warn("Invalid export query: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("INVALID_EXPORT_QUERY", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body); // 400
+    }
+
+    @ExceptionHandler(ImportNotValidException.class)
+    public ResponseEntity<ErrorResponse> handleImportNotValid(final ImportNotValidException ex) {
+        log.warn("Invalid import: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("INVALID_IMPORT", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body); // 400
+    }
+
     @ExceptionHandler(AliasConflictException.class)
     public ResponseEntity<ErrorResponse> handleAliasConflict(final AliasConflictException ex) {
         log.warn("Alias conflict: {}", ex.getMessage());
@@ -29,7 +64,15 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ShortUrlNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(final ShortUrlNotFoundException ex) {
-        log.warn("Short URL not found: {}", ex.getMessage());
+        // the manager already logs the misses that reached the database, filter rejections stay quiet
+        log.debug("Short URL not found: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("NOT_FOUND", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body); // 404
+    }
+
+    @ExceptionHandler(ImportReportNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleImportReportNotFound(final ImportReportNotFoundException ex) {
+        log.warn("Import report not found: {}", ex.getMessage());
         final ErrorResponse body = new ErrorResponse("NOT_FOUND", ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body); // 404
     }
@@ -41,6 +84,20 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.GONE).body(body); // 410
     }
 
+    @ExceptionHandler(DatabaseOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleDatabaseOverloaded(final DatabaseOverloadedException ex) {
+        log.warn("Database overloaded: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("SERVICE_OVERLOADED", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body); // 503
+    }
+
+    @ExceptionHandler(ShortCodeUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleShortCodeUnavailable(final ShortCodeUnavailableException ex) {
+        log.error("Short code unavailable: {}", ex.getMessage());
+        final ErrorResponse body = new ErrorResponse("SHORT_CODE_UNAVAILABLE", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(body); // 503
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleUnexpected(final Exception ex) {
         log.error("Unexpected error", ex);
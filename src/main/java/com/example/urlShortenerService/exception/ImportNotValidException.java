@@ -0,0 +1,16 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when an import upload cannot be read: unsupported format or missing CSV columns.
+ */
+public class ImportNotValidException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public ImportNotValidException(final String message) {
+        super(message);
+    }
+}
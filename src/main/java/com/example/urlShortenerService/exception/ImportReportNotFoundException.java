@@ -0,0 +1,16 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when an import report does not exist, or is past its retention.
+ */
+public class ImportReportNotFoundException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public ImportReportNotFoundException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when every generated short code tried for a link without custom alias is already in use.
+ */
+public class ShortCodeUnavailableException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public ShortCodeUnavailableException(final String message) {
+        super(message);
+    }
+}
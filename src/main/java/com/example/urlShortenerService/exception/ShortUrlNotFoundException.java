@@ -2,6 +2,8 @@ package com.example.urlShortenerService.exception;
 
 /**
  * Short URL Not Found Exception.
+ * <p>
+ * Thrown for every unknown code (scanners, typos), so it does not capture a stack trace.
  */
 public class ShortUrlNotFoundException extends RuntimeException {
 
@@ -11,7 +13,7 @@ public class ShortUrlNotFoundException extends RuntimeException {
      * @param message the exception message
      */
     public ShortUrlNotFoundException(final String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     /**
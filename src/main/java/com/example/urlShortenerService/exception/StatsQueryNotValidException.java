@@ -0,0 +1,16 @@
+package com.example.urlShortenerService.exception;
+
+/**
+ * Thrown when the range or granularity of a click stats query is not valid.
+ */
+public class StatsQueryNotValidException extends RuntimeException {
+
+    /**
+     * Constructor with message.
+     *
+     * @param message the exception message
+     */
+    public StatsQueryNotValidException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.example.urlShortenerService.model.Url;
+
+/**
+ * Consecutive lines of an import, the unit passed from the reader to a validation worker and from the
+ * worker to the writer (one insert transaction). The worker fills the link or the rejection of each line.
+ */
+final class ImportChunk {
+
+    /**
+     * Marks the end of the lines in a queue.
+     */
+    static final ImportChunk END = new ImportChunk(-1L, 0);
+
+    // position of the chunk in the import, from 0: the writer restores the order the workers lost
+    final long sequence;
+    final long[] lineNumbers;
+    // null for a line longer than the limit
+    final String[] lines;
+    // set by the worker: the alias read from the line (may be null), and its link or rejection
+    final String[] aliases;
+    final Url[] urls;
+    final String[] rejections;
+    private int size;
+
+    /**
+     * Constructor
+     * @param sequence the position of the chunk in the import
+     * @param capacity the maximum number of lines
+     */
+    ImportChunk(final long sequence, final int capacity) {
+        this.sequence = sequence;
+        this.lineNumbers = new long[capacity];
+        this.lines = new String[capacity];
+        this.aliases = new String[capacity];
+        this.urls = new Url[capacity];
+        this.rejections = new String[capacity];
+    }
+
+    /**
+     * Add a line.
+     * @param lineNumber its number in the import
+     * @param line the line, null if it was too long
+     * @return true if the chunk is now full
+     */
+    boolean add(final long lineNumber, final String line) {
+        lineNumbers[size] = lineNumber;
+        lines[size] = line;
+        return ++size == lines.length;
+    }
+
+    /**
+     * Get the number of lines.
+     * @return the lines added
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.example.urlShortenerService.exception.ImportNotValidException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.model.CreateUrlInput;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.TargetUrl;
+import com.example.urlShortenerService.model.Url;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the lines of an import into links, with the validation rules of the create API except that
+ * the custom alias is required and the expiration may be in the past (the link is imported expired).
+ * Thread-safe once the CSV header is read: the validation workers share one instance.
+ */
+final class ImportLineParser {
+
+    static final String CUSTOM_ALIAS = "customAlias";
+    static final String TARGET_URL = "targetUrl";
+    static final String EXPIRES_AT = "expiresAt";
+    static final String REDIRECT_POLICY = "redirectPolicy";
+
+    private static final Pattern ALIAS_PATTERN = Pattern.compile(CreateUrlInput.CUSTOM_ALIAS_REGEX);
+
+    private final ImportFormat format;
+    private final JsonFactory jsonFactory;
+    private final boolean sortQueryParameters;
+    // CSV column of each field, -1 when the header does not name it
+    private int aliasColumn = -1;
+    private int targetColumn = -1;
+    private int expiresColumn = -1;
+    private int policyColumn = -1;
+
+    /**
+     * Constructor
+     * @param format the format of the lines
+     * @param jsonFactory the factory of the NDJSON line parsers
+     * @param sortQueryParameters whether the canonical target hash sorts the query parameters
+     */
+    ImportLineParser(final ImportFormat format, final JsonFactory jsonFactory, final boolean sortQueryParameters) {
+        this.format = format;
+        this.jsonFactory = jsonFactory;
+        this.sortQueryParameters = sortQueryParameters;
+    }
+
+    /**
+     * Read the header line of a CSV import, before any other line.
+     * @param header the first line, null if the input is empty
+     * @throws ImportNotValidException if the header is missing or does not name the required columns
+     */
+    void readHeader(final String header) {
+        if (header == null) {
+            throw new ImportNotValidException("The CSV header line is missing");
+        }
+        final List<String> columns = csvFields(header);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim()) {
+                case CUSTOM_ALIAS -> aliasColumn = i;
+                case TARGET_URL -> targetColumn = i;
+                case EXPIRES_AT -> expiresColumn = i;
+                case REDIRECT_POLICY -> policyColumn = i;
+                default -> {
+                    // other columns are ignored
+                }
+            }
+        }
+        if (aliasColumn < 0 || targetColumn < 0) {
+            throw new ImportNotValidException("The CSV header must name the customAlias and targetUrl columns");
+        }
+    }
+
+    /**
+     * Parse a line into its fields, without validating them.
+     * @param line a non-blank line
+     * @return the fields of the line, null when absent
+     * @throws ShortUrlNotValidException if the line is not a JSON object (NDJSON) or has an unclosed quote (CSV)
+     */
+    ImportRecord parse(final String line) {
+        return format == ImportFormat.CSV ? parseCsv(line) : parseJson(line);
+    }
+
+    /**
+     * Validate the fields of a line and build its link.
+     * @param record the fields
+     * @return the link to insert, with its canonical target hash
+     * @throws ShortUrlNotValidException if a field is not valid
+     */
+    Url toUrl(final ImportRecord record) {
+        final String alias = record.customAlias() == null ? "" : record.customAlias().trim();
+        if (alias.isEmpty()) {
+            throw new ShortUrlNotValidException("customAlias is required");
+        }
+        if (alias.length() < CreateUrlInput.CUSTOM_ALIAS_MIN_LENGTH
+                || alias.length() > CreateUrlInput.CUSTOM_ALIAS_MAX_LENGTH) {
+            throw new ShortUrlNotValidException("customAlias must be between 3 and 50 characters");
+        }
+        if (!ALIAS_PATTERN.matcher(alias).matches()) {
+            throw new ShortUrlNotValidException(
+                    "custom Alias can only contain letters, numbers, hyphens, and underscores");
+        }
+        if (CreateUrlInput.RESERVED_ALIASES.contains(alias)) {
+            throw new ShortUrlNotValidException("customAlias is reserved: " + alias);
+        }
+        if (record.targetUrl() != null && record.targetUrl().length() > CreateUrlInput.TARGET_URL_MAX_LENGTH) {
+            throw new ShortUrlNotValidException("targetUrl is too long");
+        }
+        final TargetUrl targetUrl = new TargetUrl(record.targetUrl());
+        final Url url = new Url(targetUrl.value(), alias, parseExpiresAt(record.expiresAt()));
+        url.setRedirectPolicy(RedirectPolicy.parse(record.redirectPolicy()));
+        url.setTargetHash(TargetUrl.hash(targetUrl.canonical(sortQueryParameters)));
+        return url;
+    }
+
+    private ImportRecord parseJson(final String line) {
+        String alias = null;
+        String target = null;
+        String expiresAt = null;
+        String redirectPolicy = null;
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ShortUrlNotValidException("The line is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.currentName();
+                final JsonToken value = parser.nextToken();
+                final String text = value != null && value.isScalarValue() && value != JsonToken.VALUE_NULL
+                        ? parser.getText()
+                        : null;
+                // an object or array value is skipped whole, and reads as absent
+                parser.skipChildren();
+                switch (field) {
+                    case CUSTOM_ALIAS -> alias = text;
+                    case TARGET_URL -> target = text;
+                    case EXPIRES_AT -> expiresAt = text;
+                    case REDIRECT_POLICY -> redirectPolicy = text;
+                    default -> {
+                        // other fields are ignored
+                    }
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                throw new ShortUrlNotValidException("The line is not a JSON object");
+            }
+        } catch (final IOException e) {
+            throw new ShortUrlNotValidException("The line is not valid JSON");
+        }
+        return new ImportRecord(alias, target, expiresAt, redirectPolicy);
+    }
+
+    private ImportRecord parseCsv(final String line) {
+        final List<String> fields = csvFields(line);
+        return new ImportRecord(field(fields, aliasColumn), field(fields, targetColumn),
+                field(fields, expiresColumn), field(fields, policyColumn));
+    }
+
+    private static String field(final List<String> fields, final int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        final String value = fields.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Split a CSV line on commas. A field may be double-quoted, with "" for a quote inside.
+     */
+    static List<String> csvFields(final String line) {
+        final List<String> fields = new ArrayList<>(4);
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new ShortUrlNotValidException("The line has an unclosed quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static LocalDateTime parseExpiresAt(final String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (final DateTimeParseException e) {
+            throw new ShortUrlNotValidException("expiresAt must be an ISO date-time, e.g. 2025-01-31T10:15:00");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.urlShortenerService.linkimport;
+
+/**
+ * The raw fields of one import line, before validation.
+ *
+ * @param customAlias    the alias to keep
+ * @param targetUrl      the URL to redirect to
+ * @param expiresAt      ISO date-time of the expiration, null for none
+ * @param redirectPolicy temporary, cacheable or permanent, null for temporary
+ */
+record ImportRecord(String customAlias, String targetUrl, String expiresAt, String redirectPolicy) {
+}
@@ -0,0 +1,67 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * NDJSON file of the import lines that were not imported, one object per line:
+ * {@code {"line":12,"status":"REJECTED","customAlias":"abc","message":"..."}}. Written by the import
+ * writer thread only.
+ */
+final class ImportReport implements Closeable {
+
+    /**
+     * Status of a line that is not a valid link.
+     */
+    static final String REJECTED = "REJECTED";
+
+    /**
+     * Status of a valid link whose alias is taken, or repeated in the import.
+     */
+    static final String CONFLICT = "CONFLICT";
+
+    private final JsonGenerator generator;
+
+    /**
+     * Constructor, creates or truncates the file.
+     * @param file the report file
+     * @param jsonFactory the factory of the generator
+     * @throws IOException if the file cannot be created
+     */
+    ImportReport(final Path file, final JsonFactory jsonFactory) throws IOException {
+        this.generator = jsonFactory.createGenerator(new BufferedOutputStream(Files.newOutputStream(file)),
+                JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    /**
+     * Add a line that was not imported.
+     * @param lineNumber the line number in the import, from 1
+     * @param status {@link #REJECTED} or {@link #CONFLICT}
+     * @param customAlias the alias of the line, null if it could not be read
+     * @param message why the line was not imported
+     * @throws IOException if the report cannot be written
+     */
+    void add(final long lineNumber, final String status, final String customAlias, final String message)
+            throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("line", lineNumber);
+        generator.writeStringField("status", status);
+        generator.writeStringField("customAlias", customAlias);
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.urlShortenerService.linkimport;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the lines of an upload with a bounded length: a line longer than the limit is skipped up to
+ * its end instead of being buffered, and reported as {@link #truncated()}. Lines end with "\n" or
+ * "\r\n", a byte order mark at the start of the input is dropped. Not thread-safe.
+ */
+final class LineReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private boolean truncated;
+
+    /**
+     * Constructor
+     * @param reader the decoded input, not buffered by the caller
+     * @param maxLength the longest line returned, in chars
+     */
+    LineReader(final Reader reader, final int maxLength) {
+        this.reader = reader;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Read the next line.
+     * @return the line without its end of line, or null at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    String next() throws IOException {
+        line.setLength(0);
+        truncated = false;
+        while (true) {
+            if (position == limit) {
+                limit = Math.max(0, reader.read(buffer, 0, buffer.length));
+                position = 0;
+                if (limit == 0) {
+                    return line.isEmpty() && !truncated ? null : finish();
+                }
+            }
+            final int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            append(start, position);
+            if (position < limit) {
+                position++;
+                return finish();
+            }
+        }
+    }
+
+    /**
+     * Get the number of the line last returned by {@link #next()}, from 1.
+     * @return the line number
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Check whether the line last returned by {@link #next()} was longer than the limit.
+     * @return true if the line was cut, its content must not be used
+     */
+    boolean truncated() {
+        return truncated;
+    }
+
+    private void append(final int start, final int end) {
+        // one more char than the limit, for the "\r" of a line of the maximum length
+        final int room = maxLength + 1 - line.length();
+        if (end - start > room) {
+            line.append(buffer, start, Math.max(0, room));
+            truncated = true;
+        } else {
+            line.append(buffer, start, end - start);
+        }
+    }
+
+    private String finish() {
+        lineNumber++;
+        if (!truncated && !line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        if (line.length() > maxLength) {
+            truncated = true;
+        }
+        if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+            line.deleteCharAt(0);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.ImportSummaryOutput;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.function.IntConsumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Command line import mode: with {@code shortener.import-file} set, the file is imported once the
+ * application is started and the application exits, with status 0 if the import ran to its end
+ * (rejected or conflicting lines included, see the report) and 1 if it failed. Run it without the web
+ * server: {@code --spring.main.web-application-type=none}.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(prefix = "shortener", name = "import-file")
+public class LinkImportRunner implements ApplicationRunner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final LinkImporter importer;
+    private final ShortenerProperties props;
+    private final IntConsumer exit;
+
+    /**
+     * Constructor
+     * @param importer the link importer
+     * @param props the shortener properties (import file)
+     * @param context the application context, closed on exit
+     */
+    @Autowired
+    public LinkImportRunner(final LinkImporter importer, final ShortenerProperties props,
+                            final ConfigurableApplicationContext context) {
+        this(importer, props, code -> System.exit(SpringApplication.exit(context, () -> code)));
+    }
+
+    LinkImportRunner(final LinkImporter importer, final ShortenerProperties props, final IntConsumer exit) {
+        this.importer = importer;
+        this.props = props;
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) {
+        final Path file = Path.of(props.getImportFile());
+        final ImportFormat format = ImportFormat.ofFileName(file.getFileName().toString());
+        log.info("Importing {} as {}", file, format);
+        int code = 0;
+        try (InputStream input = open(file)) {
+            final ImportSummaryOutput summary = importer.importLinks(input, format);
+            log.info("Imported {} of {} lines ({} rejected, {} conflicts), report: {}",
+                    summary.getImported(), summary.getLines(), summary.getRejected(), summary.getConflicts(),
+                    importer.reportFile(summary.getImportId()).toAbsolutePath());
+        } catch (final Exception e) {
+            log.error("Import of {} failed", file, e);
+            code = 1;
+        }
+        exit.accept(code);
+    }
+
+    private static InputStream open(final Path file) throws IOException {
+        final InputStream input = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        return file.toString().toLowerCase(Locale.ROOT).endsWith(".gz")
+                ? new GZIPInputStream(input, BUFFER_SIZE)
+                : input;
+    }
+}
@@ -0,0 +1,486 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.example.urlShortenerService.cache.AliasBloomFilter;
+import com.example.urlShortenerService.client.database.DbConcurrencyLimiter;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.ImportReportNotFoundException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.ImportSummaryOutput;
+import com.example.urlShortenerService.model.Url;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import of existing links (alias, target, expiration kept) from an NDJSON or CSV stream.
+ * <p>
+ * The caller thread reads the lines into chunks of {@code shortener.import-batch-size}, the validation
+ * workers parse and check them ({@link ImportLineParser}, {@link com.example.urlShortenerService.model.TargetUrl}),
+ * and one writer thread looks up the aliases already taken and inserts the rest, one transaction per chunk.
+ * The stages are connected by queues of {@code shortener.import-queue-capacity} chunks: when the database
+ * is the bottleneck the queues fill up and the input is no longer read, so memory stays bounded and an
+ * HTTP upload slows down instead of being buffered. The chunks validated ahead of a slow one wait for it
+ * at the writer, so the chunks in flight are capped end to end too ({@link #maxChunksInFlight()}).
+ * The rejected and conflicting lines are written to a report, kept
+ * {@code shortener.import-report-retention-hours}.
+ * <p>
+ * The single writer inserts the chunks in the order of the input, so the first occurrence of an alias
+ * repeated in the import is the one imported, the later ones are reported as conflicts. Importing the same input again is safe: the
+ * lines already imported are reported as conflicts.
+ */
+@Log4j2
+@Component
+public class LinkImporter {
+
+    private static final String REPORT_SUFFIX = ".ndjson";
+    private static final long POLL_MILLIS = 100L;
+    private static final String DUPLICATE_MESSAGE = "The custom alias is repeated earlier in the import";
+    private static final String TAKEN_MESSAGE = "The custom alias is already in use";
+
+    private final LinkStore dbClient;
+    private final DbConcurrencyLimiter dbLimiter;
+    private final AliasBloomFilter aliasFilter;
+    private final ShortenerProperties props;
+    private final JsonFactory jsonFactory;
+    private final Path reportDir;
+    private final int workers;
+    private final Counter importedLines;
+    private final Counter rejectedLines;
+    private final Counter conflictLines;
+
+    /**
+     * Constructor
+     * @param dbClient the link store
+     * @param dbLimiter the database concurrency limiter
+     * @param aliasFilter the alias filter, to skip the lookup of aliases that cannot be taken
+     * @param props the shortener properties (import settings)
+     * @param objectMapper the JSON mapper, whose factory parses the NDJSON lines
+     * @param meterRegistry the registry the import counters are bound to
+     */
+    public LinkImporter(
+            final LinkStore dbClient,
+            final DbConcurrencyLimiter dbLimiter,
+            final AliasBloomFilter aliasFilter,
+            final ShortenerProperties props,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry
+    ) {
+        if (props.getImportBatchSize() < 1 || props.getImportQueueCapacity() < 1
+                || props.getImportMaxLineLength() < 1) {
+            throw new IllegalArgumentException("import batch size, queue capacity and max line length must be positive");
+        }
+        this.dbClient = dbClient;
+        this.dbLimiter = dbLimiter;
+        this.aliasFilter = aliasFilter;
+        this.props = props;
+        this.jsonFactory = objectMapper.getFactory();
+        this.reportDir = Path.of(props.getImportReportDir());
+        this.workers = props.getImportWorkers() > 0
+                ? props.getImportWorkers()
+                : Runtime.getRuntime().availableProcessors();
+        this.importedLines = lineCounter(meterRegistry, "imported");
+        this.rejectedLines = lineCounter(meterRegistry, "rejected");
+        this.conflictLines = lineCounter(meterRegistry, "conflict");
+    }
+
+    /**
+     * Import the links of a stream, until its end.
+     * @param input the NDJSON or CSV input, UTF-8, read on the calling thread
+     * @param format the format of the input
+     * @return the counts of the import and the path of its report
+     * @throws com.example.urlShortenerService.exception.ImportNotValidException if the CSV header is
+     *         missing or incomplete (nothing is imported)
+     * @throws UncheckedIOException if the input or the report cannot be read or written
+     */
+    public ImportSummaryOutput importLinks(final InputStream input, final ImportFormat format) {
+        final long start = System.nanoTime();
+        final String importId = UUID.randomUUID().toString();
+        final LineReader lines = new LineReader(new InputStreamReader(input, StandardCharsets.UTF_8),
+                props.getImportMaxLineLength());
+        final ImportLineParser parser = new ImportLineParser(format, jsonFactory, props.isDedupSortQueryParameters());
+        final ImportRun run;
+        try {
+            if (format == ImportFormat.CSV) {
+                parser.readHeader(lines.next());
+            }
+            Files.createDirectories(reportDir);
+            deleteExpiredReports();
+            log.info("Import started: importId={}, format={}, workers={}", importId, format, workers);
+            try (ImportReport report = new ImportReport(reportDir.resolve(importId + REPORT_SUFFIX), jsonFactory)) {
+                run = new ImportRun(lines, parser, report);
+                run.execute();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Import " + importId + " failed", e);
+        }
+        final ImportSummaryOutput summary = ImportSummaryOutput.builder()
+                .importId(importId)
+                .format(format)
+                .lines(run.lines)
+                .imported(run.imported)
+                .rejected(run.rejected)
+                .conflicts(run.conflicts)
+                .durationMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .report("/links/import/" + importId + "/report")
+                .build();
+        log.info("Import done: {}", summary);
+        return summary;
+    }
+
+    /**
+     * Get the report file of an import.
+     * @param importId the id returned with the import summary
+     * @return the NDJSON report
+     * @throws ImportReportNotFoundException if there is no such report
+     */
+    public Path reportFile(final String importId) {
+        final UUID id;
+        try {
+            id = UUID.fromString(importId);
+        } catch (final IllegalArgumentException e) {
+            throw new ImportReportNotFoundException("Import report not found");
+        }
+        final Path file = reportDir.resolve(id + REPORT_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            throw new ImportReportNotFoundException("Import report not found");
+        }
+        return file;
+    }
+
+    private void deleteExpiredReports() throws IOException {
+        final Instant expiredBefore = Instant.now().minus(Duration.ofHours(props.getImportReportRetentionHours()));
+        try (Stream<Path> files = Files.list(reportDir)) {
+            for (final Path file : files.filter(f -> f.toString().endsWith(REPORT_SUFFIX)).toList()) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(expiredBefore)) {
+                    Files.deleteIfExists(file);
+                    log.debug("Import report deleted: {}", file);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the most chunks read and not written yet: both queues full, one chunk in each worker, and as
+     * many waiting at the writer for an earlier chunk still being validated.
+     * @return the cap of the chunks held in memory by one import
+     */
+    int maxChunksInFlight() {
+        return 2 * props.getImportQueueCapacity() + workers;
+    }
+
+    private static Counter lineCounter(final MeterRegistry meterRegistry, final String outcome) {
+        return Counter.builder("shortener.import.lines")
+                .description("Lines of the bulk imports, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One import: its queues, threads and counts. The counts are written by the writer thread and
+     * read once the writer is joined.
+     */
+    private final class ImportRun {
+
+        private final LineReader input;
+        private final ImportLineParser parser;
+        private final ImportReport report;
+        private final int batchSize = props.getImportBatchSize();
+        private final BlockingQueue<ImportChunk> parsed = new ArrayBlockingQueue<>(props.getImportQueueCapacity());
+        private final BlockingQueue<ImportChunk> validated = new ArrayBlockingQueue<>(props.getImportQueueCapacity());
+        // taken by the reader before a chunk is queued, given back once it is written, so the chunks
+        // reordered by the writer behind a slow one are bounded as well
+        private final Semaphore inFlight = new Semaphore(maxChunksInFlight());
+        // first failure of any stage, the other stages stop at their next queue operation
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private long lines;
+        private long imported;
+        private long rejected;
+        private long conflicts;
+
+        ImportRun(final LineReader input, final ImportLineParser parser, final ImportReport report) {
+            this.input = input;
+            this.parser = parser;
+            this.report = report;
+        }
+
+        void execute() throws IOException {
+            final List<Thread> threads = new ArrayList<>(workers + 1);
+            for (int i = 0; i < workers; i++) {
+                threads.add(Thread.ofPlatform().name("link-import-worker-" + i).daemon().start(this::validateLoop));
+            }
+            threads.add(Thread.ofPlatform().name("link-import-writer").daemon().start(this::writeLoop));
+            try {
+                readLoop();
+            } catch (final IOException | RuntimeException e) {
+                fail(e);
+            } finally {
+                join(threads);
+            }
+            final Throwable cause = failure.get();
+            if (cause instanceof IOException e) {
+                throw e;
+            }
+            if (cause instanceof RuntimeException e) {
+                throw e;
+            }
+            if (cause instanceof Error e) {
+                throw e;
+            }
+        }
+
+        private void readLoop() throws IOException {
+            long sequence = 0L;
+            ImportChunk chunk = new ImportChunk(sequence, batchSize);
+            String line;
+            while ((line = input.next()) != null) {
+                if (!input.truncated() && line.isBlank()) {
+                    continue;
+                }
+                if (chunk.add(input.lineNumber(), input.truncated() ? null : line)) {
+                    acquire();
+                    put(parsed, chunk);
+                    chunk = new ImportChunk(++sequence, batchSize);
+                }
+            }
+            if (chunk.size() > 0) {
+                acquire();
+                put(parsed, chunk);
+            }
+            for (int i = 0; i < workers; i++) {
+                put(parsed, ImportChunk.END);
+            }
+        }
+
+        private void validateLoop() {
+            try {
+                ImportChunk chunk;
+                while ((chunk = take(parsed)) != ImportChunk.END) {
+                    validate(chunk);
+                    put(validated, chunk);
+                }
+                put(validated, ImportChunk.END);
+            } catch (final RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private void validate(final ImportChunk chunk) {
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.lines[i] == null) {
+                    chunk.rejections[i] = "The line is longer than " + props.getImportMaxLineLength() + " characters";
+                    continue;
+                }
+                try {
+                    final ImportRecord record = parser.parse(chunk.lines[i]);
+                    chunk.aliases[i] = record.customAlias();
+                    chunk.urls[i] = parser.toUrl(record);
+                } catch (final ShortUrlNotValidException e) {
+                    chunk.rejections[i] = e.getMessage();
+                }
+                // the line is not needed anymore, let it go while the chunk waits for the writer
+                chunk.lines[i] = null;
+            }
+        }
+
+        private void writeLoop() {
+            try {
+                // chunks validated ahead of an earlier one wait for it, so the first occurrence of
+                // a repeated alias is the one imported and the report is in line order
+                final Map<Long, ImportChunk> early = new HashMap<>();
+                long next = 0L;
+                int ended = 0;
+                while (ended < workers) {
+                    ImportChunk chunk = take(validated);
+                    if (chunk == ImportChunk.END) {
+                        ended++;
+                        continue;
+                    }
+                    if (chunk.sequence != next) {
+                        early.put(chunk.sequence, chunk);
+                        continue;
+                    }
+                    while (chunk != null) {
+                        write(chunk);
+                        inFlight.release();
+                        chunk = early.remove(++next);
+                    }
+                }
+            } catch (final IOException | RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+        private void write(final ImportChunk chunk) throws IOException {
+            lines += chunk.size();
+            // conflict message of each valid line that is not inserted
+            final String[] conflictOf = new String[chunk.size()];
+            final List<Integer> candidates = new ArrayList<>(chunk.size());
+            final Set<String> chunkAliases = new HashSet<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.urls[i] == null) {
+                    continue;
+                }
+                if (chunkAliases.add(chunk.urls[i].getCustomAlias())) {
+                    candidates.add(i);
+                } else {
+                    conflictOf[i] = DUPLICATE_MESSAGE;
+                }
+            }
+            // the earlier chunks are committed, so this also finds the aliases repeated across chunks
+            final List<String> mayBeTaken = candidates.stream()
+                    .map(i -> chunk.urls[i].getCustomAlias())
+                    .filter(aliasFilter::mightContain)
+                    .toList();
+            final Set<String> taken = mayBeTaken.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(dbLimiter.call(() -> dbClient.findExistingAliases(mayBeTaken)));
+            final List<Integer> toInsert = new ArrayList<>(candidates.size());
+            for (final int i : candidates) {
+                if (taken.contains(chunk.urls[i].getCustomAlias())) {
+                    conflictOf[i] = TAKEN_MESSAGE;
+                } else {
+                    toInsert.add(i);
+                }
+            }
+            insert(chunk, toInsert, conflictOf);
+            for (int i = 0; i < chunk.size(); i++) {
+                if (chunk.urls[i] == null) {
+                    rejected++;
+                    rejectedLines.increment();
+                    report.add(chunk.lineNumbers[i], ImportReport.REJECTED, chunk.aliases[i], chunk.rejections[i]);
+                } else if (conflictOf[i] != null) {
+                    conflicts++;
+                    conflictLines.increment();
+                    report.add(chunk.lineNumbers[i], ImportReport.CONFLICT, chunk.urls[i].getCustomAlias(),
+                            conflictOf[i]);
+                }
+            }
+        }
+
+        private void insert(final ImportChunk chunk, final List<Integer> indexes, final String[] conflictOf) {
+            if (indexes.isEmpty()) {
+                return;
+            }
+            try {
+                final List<Url> urls = indexes.stream().map(i -> chunk.urls[i]).toList();
+                dbLimiter.call(() -> dbClient.saveAll(urls));
+                imported += indexes.size();
+                importedLines.increment(indexes.size());
+            } catch (final DataIntegrityViolationException e) {
+                log.warn("Import batch hit a concurrent alias conflict, inserting {} links one by one", indexes.size());
+                for (final int i : indexes) {
+                    final Url url = chunk.urls[i];
+                    // a fresh instance: the failed batch may have assigned an id
+                    final Url copy = new Url(url.getTargetUrl(), url.getCustomAlias(), url.getExpiresAt());
+                    copy.setRedirectPolicy(url.getRedirectPolicy());
+                    copy.setTargetHash(url.getTargetHash());
+                    try {
+                        dbLimiter.call(() -> dbClient.save(copy));
+                        imported++;
+                        importedLines.increment();
+                    } catch (final DataIntegrityViolationException conflict) {
+                        conflictOf[i] = TAKEN_MESSAGE;
+                    }
+                }
+            }
+        }
+
+        private void put(final BlockingQueue<ImportChunk> queue, final ImportChunk chunk) {
+            try {
+                while (!queue.offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    checkNotFailed();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            }
+        }
+
+        private void acquire() {
+            try {
+                while (!inFlight.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    checkNotFailed();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            }
+        }
+
+        private ImportChunk take(final BlockingQueue<ImportChunk> queue) {
+            try {
+                ImportChunk chunk;
+                while ((chunk = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                    checkNotFailed();
+                }
+                return chunk;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Import interrupted", e);
+            }
+        }
+
+        private void checkNotFailed() {
+            if (failure.get() != null) {
+                throw new ImportAbortedException();
+            }
+        }
+
+        private void fail(final Throwable cause) {
+            if (!(cause instanceof ImportAbortedException) && failure.compareAndSet(null, cause)) {
+                log.error("Import failed, stopping", cause);
+            }
+        }
+
+        private void join(final List<Thread> threads) {
+            for (final Thread thread : threads) {
+                try {
+                    thread.join();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(new IllegalStateException("Import interrupted", e));
+                    threads.forEach(Thread::interrupt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops a stage after another one failed. Carries no stack trace, the cause is the first failure.
+     */
+    private static final class ImportAbortedException extends RuntimeException {
+
+        ImportAbortedException() {
+            super("Import aborted", null, false, false);
+        }
+    }
+}
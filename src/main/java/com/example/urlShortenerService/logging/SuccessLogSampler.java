@@ -0,0 +1,37 @@
+package com.example.urlShortenerService.logging;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a successful request is logged, one out of {@code shortener.success-log-sample-rate}.
+ * <p>
+ * Hot read paths (a redirect is mostly a cache hit) would otherwise spend more time formatting
+ * log lines than serving the request. The decision uses {@link ThreadLocalRandom}, so sampling
+ * has no shared state to contend on. Failures are never sampled, they are always logged.
+ */
+@Component
+public class SuccessLogSampler {
+
+    private final int sampleRate;
+
+    /**
+     * Constructor
+     * @param props the shortener properties (sample rate)
+     */
+    public SuccessLogSampler(final ShortenerProperties props) {
+        this.sampleRate = props.getSuccessLogSampleRate();
+    }
+
+    /**
+     * @return true if the current successful request should be logged
+     */
+    public boolean sample() {
+        if (sampleRate <= 1) {
+            return sampleRate == 1;
+        }
+        return ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.urlShortenerService.manager;
+
+import com.example.urlShortenerService.client.database.ShortCodeSequence;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collision-free generator backed by blocks of numeric ids reserved from the database.
+ * <p>
+ * Each instance reserves a block of {@code short-code-block-size} ids in a single
+ * round trip, then hands them out with a lock-free increment. Every id maps to exactly
+ * one fixed-length base62 code; when obfuscation is enabled, ids are first shuffled by a
+ * keyed bijection so consecutive links do not get guessable consecutive codes.
+ * Only the (rare) block refill takes a lock.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(
+        prefix = "shortener",
+        name = "short-code-generator",
+        havingValue = "block",
+        matchIfMissing = true)
+public class BlockShortCodeGenerator implements ShortCodeGenerator {
+
+    static final char[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    /**
+     * 62^10 is the largest power of 62 that fits in a long.
+     */
+    private static final int MAX_CODE_LENGTH = 10;
+
+    private static final long MIX_MULTIPLIER_1 = 0x9E3779B97F4A7C15L;
+    private static final long MIX_MULTIPLIER_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final ShortCodeSequence sequence;
+    private final int codeLength;
+    private final long blockSize;
+    private final boolean obfuscate;
+    private final long salt;
+
+    // Number of distinct codes: 62^codeLength
+    private final long space;
+    // Smallest power of two covering the space, used by the bijective mix
+    private final int bits;
+    private final long mask;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block current = new Block(0L, 0L);
+
+    /**
+     * Constructor
+     * @param sequence the database block sequence
+     * @param props the shortener properties (code length, block size, obfuscation)
+     */
+    public BlockShortCodeGenerator(final ShortCodeSequence sequence, final ShortenerProperties props) {
+        if (props.getShortCodeLength() < 1 || props.getShortCodeLength() > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("short-code-length must be between 1 and " + MAX_CODE_LENGTH);
+        }
+        if (props.getShortCodeBlockSize() < 1) {
+            throw new IllegalArgumentException("short-code-block-size must be positive");
+        }
+        this.sequence = sequence;
+        this.codeLength = props.getShortCodeLength();
+        this.blockSize = props.getShortCodeBlockSize();
+        this.obfuscate = props.isShortCodeObfuscate();
+        this.salt = props.getShortCodeSalt();
+
+        long size = 1L;
+        for (int i = 0; i < codeLength; i++) {
+            size *= ALPHABET.length;
+        }
+        this.space = size;
+        this.bits = 64 - Long.numberOfLeadingZeros(space - 1);
+        this.mask = bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String nextCode() {
+        return encode(nextId());
+    }
+
+    /**
+     * Hand out the next id of the current block, reserving a new block when it is exhausted.
+     * @return a never handed out id
+     */
+    long nextId() {
+        while (true) {
+            final Block block = current;
+            final long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * Encode an id as a fixed-length base62 code.
+     * @param id the id (must be lower than 62^codeLength)
+     * @return the short code
+     */
+    String encode(final long id) {
+        long value = obfuscate ? permute(id) : id;
+        final char[] code = new char[codeLength];
+        for (int i = codeLength - 1; i >= 0; i--) {
+            code[i] = ALPHABET[(int) (value % ALPHABET.length)];
+            value /= ALPHABET.length;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Keyed bijection of [0, space): a mix that is bijective on [0, 2^bits),
+     * cycle-walked until the result falls back inside the code space.
+     */
+    private long permute(final long id) {
+        long value = id;
+        do {
+            value = mix(value);
+        } while (value >= space);
+        return value;
+    }
+
+    private long mix(final long value) {
+        long x = (value ^ salt) & mask;
+        x = (x * MIX_MULTIPLIER_1) & mask;
+        x ^= x >>> (bits / 2);
+        x = (x * MIX_MULTIPLIER_2) & mask;
+        x ^= x >>> ((bits + 1) / 2);
+        return x;
+    }
+
+    private void refill(final Block exhausted) {
+        refillLock.lock();
+        try {
+            // Another thread may have refilled while we were waiting
+            if (current != exhausted) {
+                return;
+            }
+            final long blockNumber = sequence.nextBlock();
+            final long start = Math.multiplyExact(blockNumber, blockSize);
+            if (start >= space) {
+                throw new IllegalStateException("Short code space exhausted for length " + codeLength);
+            }
+            current = new Block(start, Math.min(start + blockSize, space));
+            log.info("Reserved short code block #{}: ids [{}, {})", blockNumber, start, current.end);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * A reserved range of ids, [next, end).
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        Block(final long start, final long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
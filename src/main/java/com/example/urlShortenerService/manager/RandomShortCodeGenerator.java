@@ -0,0 +1,29 @@
+package com.example.urlShortenerService.manager;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Legacy generator: the first 10 hex characters of a random UUID.
+ * Codes may collide, collisions are only detected by the unique alias index.
+ */
+@Component
+@ConditionalOnProperty(prefix = "shortener", name = "short-code-generator", havingValue = "random")
+public class RandomShortCodeGenerator implements ShortCodeGenerator {
+
+    private static final int CODE_LENGTH = 10;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String nextCode() {
+        // Random UUID without hyphens, first 10 characters
+        return UUID.randomUUID()
+                .toString()
+                .replace("-", "")
+                .substring(0, CODE_LENGTH);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.urlShortenerService.manager;
+
+/**
+ * Strategy that produces the short code of links created without a custom alias.
+ */
+public interface ShortCodeGenerator {
+
+    /**
+     * Produce a new short code.
+     * @return the short code (never null or blank)
+     */
+    String nextCode();
+}
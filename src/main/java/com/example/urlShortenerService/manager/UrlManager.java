@@ -1,22 +1,60 @@
 package com.example.urlShortenerService.manager;
 
+import com.example.urlShortenerService.exception.AliasConflictException;
+import com.example.urlShortenerService.exception.BatchNotValidException;
+import com.example.urlShortenerService.exception.CursorNotValidException;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import com.example.urlShortenerService.exception.ExportQueryNotValidException;
+import com.example.urlShortenerService.exception.ShortCodeUnavailableException;
 import com.example.urlShortenerService.exception.ShortUrlExpiredException;
 import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.exception.StatsQueryNotValidException;
+import com.example.urlShortenerService.model.AliasAvailabilityOutput;
+import com.example.urlShortenerService.model.BatchCreateUrlOutput;
 import com.example.urlShortenerService.model.CreateUrlInput;
 import com.example.urlShortenerService.model.CreateUrlOutput;
 import com.example.urlShortenerService.model.LinkDetailsOutput;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.LinkPageOutput;
+import com.example.urlShortenerService.model.LinkStatsOutput;
+import com.example.urlShortenerService.model.RedirectResult;
 import lombok.NonNull;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface UrlManager {
 
+    /**
+     * Message of the not found errors.
+     */
+    String NOT_FOUND_MESSAGE = "Short URL not found";
+
+    /**
+     * Message of the expired link errors.
+     */
+    String EXPIRED_MESSAGE = "Short URL has expired";
+
     /**
      * Create the URL and save it into the local Database.
      * @param createUrlInput the Input parameter
      * @return CreateUrlOutput
+     * @throws AliasConflictException if the custom alias is already in use (409)
+     * @throws ShortCodeUnavailableException if no free generated code was found (503)
      */
     CreateUrlOutput createUrl(@NonNull final CreateUrlInput createUrlInput);
 
+    /**
+     * Create many URLs at once. Items are validated independently and persisted
+     * with JDBC batching; an invalid or conflicting item never aborts the others.
+     * @param createUrlInputs the Input parameters, at most shortener.batch-max-items
+     * @return one result per input item, in the same order
+     * @throws BatchNotValidException if the batch is empty or too large
+     */
+    BatchCreateUrlOutput createUrls(@NonNull final List<CreateUrlInput> createUrlInputs);
+
     /**
      * Find the target URL for a given short code.
      *
@@ -28,6 +66,32 @@ public interface UrlManager {
      */
     String getTargetUrl(@NonNull final String shortCode);
 
+    /**
+     * Find the target URL for a given short code and log the click with its attributes.
+     *
+     * @param shortCode the short code
+     * @param referrer the Referer header of the redirect request, may be null
+     * @param userAgent the User-Agent header of the redirect request, may be null
+     * @return the target URL
+     *
+     * @throws ShortUrlNotFoundException if not found
+     * @throws ShortUrlExpiredException if expired
+     */
+    String getTargetUrl(@NonNull final String shortCode, final String referrer, final String userAgent);
+
+    /**
+     * Find the target URL for a given short code and log the click with its attributes, without
+     * throwing for an unknown or expired link.
+     *
+     * @param shortCode the short code
+     * @param referrer the Referer header of the redirect request, may be null
+     * @param userAgent the User-Agent header of the redirect request, may be null
+     * @return the target URL, or the not found / expired status
+     *
+     * @throws DatabaseOverloadedException if no database permit was available in time
+     */
+    RedirectResult resolveRedirect(@NonNull final String shortCode, final String referrer, final String userAgent);
+
     /**
      * Get the links details (ex: expiration date, status, stats etc..)
      * @param shortCode the Url short Code
@@ -36,6 +100,21 @@ public interface UrlManager {
      */
     LinkDetailsOutput getLinkDetails(@NonNull final String shortCode);
 
+    /**
+     * Get the clicks of a link per minute, hour or day over a range, read from the pre-aggregated
+     * click rollups: the cost depends on the number of buckets, not on the number of clicks.
+     * Clicks not flushed yet (see shortener.click-flush-interval-ms) are not counted.
+     * @param shortCode the Url short Code
+     * @param from ISO date-time of the range start, null for the default range of the granularity
+     * @param to ISO date-time of the range end (exclusive), null for now
+     * @param granularity "minute", "hour" or "day", null for "hour"
+     * @return one bucket per unit of the range, empty buckets included
+     * @throws ShortUrlNotFoundException if it is not found (404)
+     * @throws StatsQueryNotValidException if the range or granularity is not valid (400)
+     */
+    LinkStatsOutput getLinkStats(@NonNull final String shortCode, final String from, final String to,
+                                 final String granularity);
+
     /**
      * Get all the links that are created
      * @param page the number of pages to retrieve
@@ -43,4 +122,43 @@ public interface UrlManager {
      * @return return all the link details output
      */
     Page<LinkDetailsOutput> listLinks(final int page, final int size);
-}
\ No newline at end of file
+
+    /**
+     * Get the links page by page, newest first, using keyset pagination:
+     * the cost of a page does not depend on its depth and no total count is computed.
+     * @param after the cursor returned with the previous page, null or blank for the first page
+     * @param size the size of the page
+     * @return the links of the page and the cursor of the next one
+     * @throws CursorNotValidException if the cursor is malformed (400)
+     */
+    LinkPageOutput listLinksAfter(final String after, final int size);
+
+    /**
+     * Parse and check the filter of a link export, before the response is started.
+     * @param status "active" or "expired", null or blank for both
+     * @param createdFrom ISO date-time, only the links created at or after it, null for no lower bound
+     * @param createdTo ISO date-time, only the links created before it, null for no upper bound
+     * @return the filter to pass to {@link #exportLinks}
+     * @throws ExportQueryNotValidException if the status or a date is not valid, or the range is empty (400)
+     */
+    LinkExportFilter exportFilter(final String status, final String createdFrom, final String createdTo);
+
+    /**
+     * Stream the details of every link matching a filter, oldest first, through one database cursor:
+     * memory use does not depend on the number of links. Archived links are not exported.
+     * @param filter the filter returned by {@link #exportFilter}
+     * @param action called once per link, on the calling thread
+     * @return the number of links exported
+     * @throws DatabaseOverloadedException if no database permit was available in time
+     */
+    long exportLinks(@NonNull final LinkExportFilter filter, final Consumer<LinkDetailsOutput> action);
+
+    /**
+     * Check whether a custom alias can still be used. Most unused aliases are answered
+     * from memory, without a database call.
+     * @param alias the custom alias
+     * @return the alias and whether it is available
+     * @throws ShortUrlNotValidException if the alias is not a valid custom alias (400)
+     */
+    AliasAvailabilityOutput checkAliasAvailability(@NonNull final String alias);
+}
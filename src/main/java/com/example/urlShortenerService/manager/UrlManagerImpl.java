@@ -1,26 +1,71 @@
 package com.example.urlShortenerService.manager;
 
+import com.example.urlShortenerService.cache.AliasBloomFilter;
+import com.example.urlShortenerService.cache.RedirectCache;
+import com.example.urlShortenerService.cache.RedirectLoadCoalescer;
+import com.example.urlShortenerService.click.ClickAccumulator;
+import com.example.urlShortenerService.click.ClickLog;
+import com.example.urlShortenerService.client.database.DbConcurrencyLimiter;
+import com.example.urlShortenerService.client.database.UrlArchiveRepository;
+import com.example.urlShortenerService.client.store.LinkStore;
 import com.example.urlShortenerService.config.ShortenerProperties;
 import com.example.urlShortenerService.exception.AliasConflictException;
+import com.example.urlShortenerService.exception.ShortCodeUnavailableException;
+import com.example.urlShortenerService.exception.BatchNotValidException;
+import com.example.urlShortenerService.exception.ErrorResponse;
+import com.example.urlShortenerService.exception.ExportQueryNotValidException;
 import com.example.urlShortenerService.exception.ShortUrlExpiredException;
 import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.exception.StatsQueryNotValidException;
+import com.example.urlShortenerService.logging.SuccessLogSampler;
+import com.example.urlShortenerService.metrics.ShortenerMetrics;
+import com.example.urlShortenerService.model.AliasAvailabilityOutput;
+import com.example.urlShortenerService.model.BatchCreateUrlOutput;
+import com.example.urlShortenerService.model.BatchItemResult;
+import com.example.urlShortenerService.model.BatchItemStatus;
+import com.example.urlShortenerService.model.ClickRollup;
+import com.example.urlShortenerService.model.LinkCursor;
 import com.example.urlShortenerService.model.LinkDetailsOutput;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.LinkPageOutput;
+import com.example.urlShortenerService.model.LinkStatsOutput;
 import com.example.urlShortenerService.model.LinkStatus;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.StatsGranularity;
 import com.example.urlShortenerService.model.TargetUrl;
 import com.example.urlShortenerService.model.Url;
-import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.model.UrlArchive;
 import com.example.urlShortenerService.model.CreateUrlInput;
 import com.example.urlShortenerService.model.CreateUrlOutput;
+import io.micrometer.core.instrument.Timer;
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 /**
  * Manage the logic of the CreateUrl API.
@@ -34,16 +79,81 @@ public class UrlManagerImpl implements UrlManager {
      */
     private static final int MAX_PAGE_SIZE = 100;
 
-    private final UrlRepository dbClient;
+    /**
+     * Number of generated codes tried before giving up, a generated code can only
+     * collide with a custom or imported alias that happens to have the same shape.
+     */
+    private static final int MAX_GENERATED_CODE_ATTEMPTS = 3;
+
+    /**
+     * Message of the creations that found no free generated code.
+     */
+    private static final String NO_FREE_CODE_MESSAGE = "No free short code was found, retry later";
+
+    /**
+     * Maximum number of aliases sent in one IN (...) lookup.
+     */
+    private static final int ALIAS_LOOKUP_CHUNK_SIZE = 1000;
+
+    /**
+     * Live links of one target compared by the deduplication, newest first.
+     */
+    private static final int DEDUP_CANDIDATES_PER_TARGET = 8;
+
+    private final LinkStore dbClient;
     private final ShortenerProperties props;
+    private final RedirectCache redirectCache;
+    private final ClickAccumulator clickAccumulator;
+    private final ShortCodeGenerator shortCodeGenerator;
+    private final DbConcurrencyLimiter dbLimiter;
+    private final ShortenerMetrics metrics;
+    private final SuccessLogSampler logSampler;
+    private final UrlArchiveRepository archiveClient;
+    private final AliasBloomFilter aliasFilter;
+    private final ClickLog clickLog;
+    private final RedirectLoadCoalescer redirectLoads;
 
     /**
      * Validate the CreateUrlInput
-     * @param dbClient the database client
+     * @param dbClient the link store
+     * @param props the shortener properties
+     * @param redirectCache the in-process alias -> target cache
+     * @param clickAccumulator the write-behind click counter
+     * @param shortCodeGenerator the generator of codes for links without custom alias
+     * @param dbLimiter the bound on concurrent database calls
+     * @param metrics the operation timers and counters
+     * @param logSampler the sampling of the successful read request logs
+     * @param archiveClient the database client of the archived (swept) expired links
+     * @param aliasFilter the in-memory filter of the existing aliases
+     * @param clickLog the click event log, entry point of every click
+     * @param redirectLoads the single-flight of the redirect cache miss loads
      */
-    public UrlManagerImpl(final UrlRepository dbClient, final ShortenerProperties props) {
+    public UrlManagerImpl(
+            final LinkStore dbClient,
+            final ShortenerProperties props,
+            final RedirectCache redirectCache,
+            final ClickAccumulator clickAccumulator,
+            final ShortCodeGenerator shortCodeGenerator,
+            final DbConcurrencyLimiter dbLimiter,
+            final ShortenerMetrics metrics,
+            final SuccessLogSampler logSampler,
+            final UrlArchiveRepository archiveClient,
+            final AliasBloomFilter aliasFilter,
+            final ClickLog clickLog,
+            final RedirectLoadCoalescer redirectLoads
+    ) {
         this.dbClient = dbClient;
         this.props = props;
+        this.redirectCache = redirectCache;
+        this.clickAccumulator = clickAccumulator;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.dbLimiter = dbLimiter;
+        this.metrics = metrics;
+        this.logSampler = logSampler;
+        this.archiveClient = archiveClient;
+        this.aliasFilter = aliasFilter;
+        this.clickLog = clickLog;
+        this.redirectLoads = redirectLoads;
     }
 
     /**
@@ -51,39 +161,167 @@ public class UrlManagerImpl implements UrlManager {
      */
     @Override
     public CreateUrlOutput createUrl(@NonNull final CreateUrlInput createUrlInput)  {
+        return metrics.time(ShortenerMetrics.CREATE, () -> doCreateUrl(createUrlInput));
+    }
+
+    private CreateUrlOutput doCreateUrl(final CreateUrlInput createUrlInput) {
         log.info("CreateUrl request: targetUrl={}, customAlias={}",
                 createUrlInput.getTargetUrl(),
                 createUrlInput.getCustomAlias());
 
-        final TargetUrl targetUrl = new TargetUrl(createUrlInput.getTargetUrl());
+        final TargetUrl targetUrl;
+        try {
+            targetUrl = new TargetUrl(createUrlInput.getTargetUrl());
+        } catch (final ShortUrlNotValidException e) {
+            metrics.validationFailure(ShortenerMetrics.CREATE);
+            throw e;
+        }
+
+        final RedirectPolicy redirectPolicy;
+        try {
+            redirectPolicy = RedirectPolicy.parse(createUrlInput.getRedirectPolicy());
+            if (hasCustomAlias(createUrlInput)) {
+                validateCustomAlias(createUrlInput.getCustomAlias().trim());
+            }
+        } catch (final ShortUrlNotValidException e) {
+            metrics.validationFailure(ShortenerMetrics.CREATE);
+            throw e;
+        }
+
+        // A create without custom alias may get the live link of the same target instead of a new one
+        final String canonical = targetUrl.canonical(props.isDedupSortQueryParameters());
+        if (props.isDedupEnabled() && !hasCustomAlias(createUrlInput)) {
+            final Url existing = findReusableLink(canonical, redirectPolicy, createUrlInput.getExpiresAt());
+            if (existing != null) {
+                metrics.dedupHit(ShortenerMetrics.CREATE);
+                log.info("Short URL reused: alias={}, id={}", existing.getCustomAlias(), existing.getId());
+                return toCreateUrlOutput(existing);
+            }
+        }
 
         // Create the URL that should be saved in the Database
         final Url url = new Url(
                 targetUrl.value(),
-                resolveShortCode(createUrlInput),
+                hasCustomAlias(createUrlInput) ? createUrlInput.getCustomAlias().trim() : nextFreeCode(),
                 resolveExpiration(createUrlInput.getExpiresAt()));
+        url.setRedirectPolicy(redirectPolicy);
+        url.setTargetHash(TargetUrl.hash(canonical));
 
-        // Save the Url to the DB
-        final Url createdUrl;
-
-        try {
-            createdUrl = dbClient.save(url);
-        } catch (final DataIntegrityViolationException e) {
+        // A custom alias the filter has never seen is free, otherwise check it before inserting
+        if (hasCustomAlias(createUrlInput) && isAliasTaken(url.getCustomAlias())) {
+            metrics.aliasConflict(ShortenerMetrics.CUSTOM_ALIAS);
             log.warn("Alias conflict for customAlias={}", url.getCustomAlias());
             throw new AliasConflictException("The custom alias is already in use: " + url.getCustomAlias());
         }
+
+        // Save the Url to the DB
+        final Url createdUrl = insert(url, !hasCustomAlias(createUrlInput));
         log.info("Short URL created: alias={}, id={}", createdUrl.getCustomAlias(), createdUrl.getId());
 
+        // Make the new link visible to the redirect path right away
+        redirectCache.put(createdUrl.getCustomAlias(), RedirectTarget.of(createdUrl));
 
         // Building the output object that will be returned to the client
-        return CreateUrlOutput
-                .builder()
-                .id(createdUrl.getId())
-                .targetUrl(createdUrl.getTargetUrl())
-                .shortCode(createdUrl.getCustomAlias())
-                .shortUrl(props.getRedirectDomain() + createdUrl.getCustomAlias())
-                .expiresAt(createdUrl.getExpiresAt())
-                .createdAt(createdUrl.getCreatedAt())
+        return toCreateUrlOutput(createdUrl);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BatchCreateUrlOutput createUrls(@NonNull final List<CreateUrlInput> createUrlInputs) {
+        return metrics.time(ShortenerMetrics.CREATE_BATCH, () -> doCreateUrls(createUrlInputs));
+    }
+
+    private BatchCreateUrlOutput doCreateUrls(final List<CreateUrlInput> createUrlInputs) {
+        final int size = createUrlInputs.size();
+        log.info("Batch CreateUrl request: items={}", size);
+        if (size == 0) {
+            throw new BatchNotValidException("The batch must contain at least one item");
+        }
+        if (size > props.getBatchMaxItems()) {
+            throw new BatchNotValidException("The batch cannot contain more than "
+                    + props.getBatchMaxItems() + " items");
+        }
+
+        final BatchItemResult[] results = new BatchItemResult[size];
+        final Url[] urls = new Url[size];
+        final boolean[] generatedCodes = new boolean[size];
+        final String[] canonicals = new String[size];
+
+        // Validate every item in parallel, only the valid ones get an entity
+        IntStream.range(0, size).parallel().forEach(index -> {
+            final CreateUrlInput input = createUrlInputs.get(index);
+            try {
+                validate(input);
+                final RedirectPolicy redirectPolicy = RedirectPolicy.parse(input.getRedirectPolicy());
+                final TargetUrl targetUrl = new TargetUrl(input.getTargetUrl());
+                generatedCodes[index] = !hasCustomAlias(input);
+                canonicals[index] = targetUrl.canonical(props.isDedupSortQueryParameters());
+                urls[index] = new Url(
+                        targetUrl.value(),
+                        resolveShortCode(input),
+                        resolveExpiration(input.getExpiresAt()));
+                urls[index].setRedirectPolicy(redirectPolicy);
+                urls[index].setTargetHash(TargetUrl.hash(canonicals[index]));
+            } catch (final ShortUrlNotValidException e) {
+                metrics.validationFailure(ShortenerMetrics.CREATE_BATCH);
+                results[index] = rejected(index, BatchItemStatus.INVALID, "INVALID_INPUT", e.getMessage());
+            }
+        });
+
+        // Items without custom alias get the live link of their target, or the link of an earlier item
+        final int[] duplicateOf = props.isDedupEnabled()
+                ? deduplicate(createUrlInputs, urls, canonicals, generatedCodes, results)
+                : null;
+
+        // Reject aliases already used in the database or earlier in the batch
+        final Set<String> existingAliases = findExistingAliases(urls);
+        final Set<String> batchAliases = new HashSet<>();
+        final List<Integer> indexes = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            final Url url = urls[index];
+            if (url == null) {
+                continue;
+            }
+            if (generatedCodes[index]) {
+                if (existingAliases.contains(url.getCustomAlias()) || batchAliases.contains(url.getCustomAlias())) {
+                    metrics.aliasConflict(ShortenerMetrics.GENERATED_ALIAS);
+                    try {
+                        url.setCustomAlias(nextFreeCode());
+                    } catch (final ShortCodeUnavailableException e) {
+                        results[index] = rejected(index, BatchItemStatus.CONFLICT, "SHORT_CODE_UNAVAILABLE",
+                                e.getMessage());
+                        continue;
+                    }
+                }
+            } else if (existingAliases.contains(url.getCustomAlias()) || batchAliases.contains(url.getCustomAlias())) {
+                metrics.aliasConflict(ShortenerMetrics.CUSTOM_ALIAS);
+                results[index] = rejected(index, BatchItemStatus.CONFLICT, "ALIAS_CONFLICT",
+                        "The custom alias is already in use: " + url.getCustomAlias());
+                continue;
+            }
+            batchAliases.add(url.getCustomAlias());
+            indexes.add(index);
+        }
+
+        persistBatch(indexes, urls, generatedCodes, results);
+        if (duplicateOf != null) {
+            for (int index = 0; index < size; index++) {
+                if (duplicateOf[index] >= 0) {
+                    results[index] = sameResult(index, results[duplicateOf[index]]);
+                }
+            }
+        }
+
+        final int created = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == BatchItemStatus.CREATED)
+                .count();
+        log.info("Batch CreateUrl done: created={}, rejected={}", created, size - created);
+        return BatchCreateUrlOutput.builder()
+                .created(created)
+                .rejected(size - created)
+                .results(Arrays.asList(results))
                 .build();
     }
 
@@ -92,27 +330,152 @@ public class UrlManagerImpl implements UrlManager {
      */
     @Override
     public String getTargetUrl(@NonNull final String shortCode) {
-        log.info("Redirect request for alias={}", shortCode);
+        return getTargetUrl(shortCode, null, null);
+    }
 
-        // Retrieve the URL from the shortCode
-        final Url url = dbClient.findByCustomAlias(shortCode)
-                .orElseThrow(() -> {
-                    log.warn("Redirect failed: alias={} not found", shortCode);
-                    return new ShortUrlNotFoundException("Short URL not found");
-                });
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getTargetUrl(@NonNull final String shortCode, final String referrer, final String userAgent) {
+        final RedirectResult result = resolveRedirect(shortCode, referrer, userAgent);
+        return switch (result.status()) {
+            case FOUND -> result.targetUrl();
+            case EXPIRED -> throw new ShortUrlExpiredException(EXPIRED_MESSAGE);
+            case NOT_FOUND -> throw new ShortUrlNotFoundException(NOT_FOUND_MESSAGE);
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public RedirectResult resolveRedirect(@NonNull final String shortCode, final String referrer,
+                                          final String userAgent) {
+        log.debug("Redirect request for alias={}", shortCode);
+        final Timer.Sample sample = metrics.start();
+        try {
+            final RedirectResult result = resolveTargetUrl(shortCode, referrer, userAgent, sample);
+            if (result.status() == RedirectResult.Status.FOUND && logSampler.sample()) {
+                log.info("Redirect success: alias={} -> {}", shortCode, result.targetUrl());
+            }
+            return result;
+        } catch (final RuntimeException e) {
+            metrics.record(sample, ShortenerMetrics.REDIRECT, ShortenerMetrics.outcomeOf(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve the target URL of a short code, from the cache or the database, and record
+     * the redirect timer with its outcome (hit, miss, not found or expired).
+     */
+    private RedirectResult resolveTargetUrl(
+            final String shortCode,
+            final String referrer,
+            final String userAgent,
+            final Timer.Sample sample
+    ) {
+        // Serve hot aliases from the cache, entries never outlive the link expiration
+        final RedirectTarget cached = redirectCache.get(shortCode);
+        if (cached != null) {
+            if (cached.isExpired()) {
+                redirectCache.invalidate(shortCode);
+                log.warn("Redirect failed: alias={} is expired", shortCode);
+                return expired(sample);
+            }
+            clickLog.record(cached.id(), referrer, userAgent);
+            metrics.record(sample, ShortenerMetrics.REDIRECT, ShortenerMetrics.HIT);
+            return found(cached);
+        }
+
+        // Codes that were never created (scanners, typos) are rejected without a database call
+        if (!aliasFilter.mightContain(shortCode)) {
+            log.debug("Redirect failed: alias={} not found (filter)", shortCode);
+            return notFound(sample);
+        }
+
+        // Concurrent misses of the same alias share one database load and its outcome
+        final StoredRedirect stored = redirectLoads.load(shortCode, () -> loadRedirect(shortCode));
+        final RedirectTarget target = stored.target();
+        if (target == null) {
+            if (stored.archived()) {
+                log.warn("Redirect failed: alias={} is expired (archived)", shortCode);
+                return expired(sample);
+            }
+            log.warn("Redirect failed: alias={} not found", shortCode);
+            return notFound(sample);
+        }
 
         // Check if the URL is expired
-        if (url.isExpired()) {
+        if (target.isExpired()) {
             log.warn("Redirect failed: alias={} is expired", shortCode);
-            throw new ShortUrlExpiredException("Short URL has expired");
+            return expired(sample);
         }
 
-        url.registerClick();
-        dbClient.save(url);
+        clickLog.record(target.id(), referrer, userAgent);
+        metrics.record(sample, ShortenerMetrics.REDIRECT, ShortenerMetrics.MISS);
 
-        log.info("Redirect success: alias={} -> {}", shortCode, url.getTargetUrl());
         // Return the targetUrl
-        return url.getTargetUrl();
+        return found(target);
+    }
+
+    /**
+     * Build the result of a live link. A cached redirect must not outlive the link, so its max age
+     * is the configured one lowered to the time left before the expiration.
+     */
+    private RedirectResult found(final RedirectTarget target) {
+        if (target.redirectPolicy() == RedirectPolicy.TEMPORARY) {
+            return RedirectResult.found(target.targetUrl());
+        }
+        long maxAgeSeconds = props.getRedirectMaxAgeSeconds();
+        if (target.expiresAt() != null) {
+            maxAgeSeconds = Math.min(maxAgeSeconds,
+                    Math.max(0L, Duration.between(LocalDateTime.now(), target.expiresAt()).toSeconds()));
+        }
+        return RedirectResult.found(target.targetUrl(), target.redirectPolicy(), maxAgeSeconds);
+    }
+
+    /**
+     * Load the redirect of an alias from the database, run once per alias for concurrent callers.
+     * A live target is cached before the waiters are released.
+     */
+    private StoredRedirect loadRedirect(final String shortCode) {
+        // Retrieve only the redirect columns, no managed entity (clicks are recorded separately)
+        final RedirectTarget target = dbLimiter.call(() -> dbClient.findRedirectTargetByCustomAlias(shortCode))
+                .orElse(null);
+        if (target == null) {
+            // An archived code is an expired link that was swept, not an unknown one
+            if (dbLimiter.call(() -> archiveClient.existsByCustomAlias(shortCode))) {
+                return StoredRedirect.ARCHIVED;
+            }
+            aliasFilter.falsePositive();
+            return StoredRedirect.MISSING;
+        }
+        if (!target.isExpired()) {
+            redirectCache.put(shortCode, target);
+        }
+        return new StoredRedirect(target, false);
+    }
+
+    /**
+     * Outcome of a redirect database load.
+     * @param target the live or expired link, null if not in the links table
+     * @param archived whether a missing link was archived (expired and swept)
+     */
+    private record StoredRedirect(RedirectTarget target, boolean archived) {
+        static final StoredRedirect MISSING = new StoredRedirect(null, false);
+        static final StoredRedirect ARCHIVED = new StoredRedirect(null, true);
+    }
+
+    private RedirectResult notFound(final Timer.Sample sample) {
+        metrics.record(sample, ShortenerMetrics.REDIRECT, ShortenerMetrics.NOT_FOUND);
+        return RedirectResult.NOT_FOUND;
+    }
+
+    private RedirectResult expired(final Timer.Sample sample) {
+        metrics.record(sample, ShortenerMetrics.REDIRECT, ShortenerMetrics.EXPIRED);
+        return RedirectResult.EXPIRED;
     }
 
     /**
@@ -120,19 +483,86 @@ public class UrlManagerImpl implements UrlManager {
      */
     @Override
     public LinkDetailsOutput getLinkDetails(@NonNull final String shortCode) {
-        log.info("LinkDetails request for alias={}", shortCode);
-        final Url url = dbClient.findByCustomAlias(shortCode)
+        return metrics.time(ShortenerMetrics.DETAILS, () -> doGetLinkDetails(shortCode));
+    }
+
+    private LinkDetailsOutput doGetLinkDetails(final String shortCode) {
+        log.debug("LinkDetails request for alias={}", shortCode);
+        if (!aliasFilter.mightContain(shortCode)) {
+            log.debug("LinkDetails not found: alias={} (filter)", shortCode);
+            throw new ShortUrlNotFoundException(NOT_FOUND_MESSAGE);
+        }
+        final LinkDetailsOutput output = dbLimiter.call(() -> dbClient.findByCustomAlias(shortCode))
+                .map(this::toLinkDetailsOutput)
+                .or(() -> dbLimiter.call(() -> archiveClient.findFirstByCustomAliasOrderByArchivedAtDesc(shortCode))
+                        .map(this::toLinkDetailsOutput))
                 .orElseThrow(() -> {
+                    aliasFilter.falsePositive();
                     log.warn("LinkDetails not found: alias={}", shortCode);
-                    return new ShortUrlNotFoundException("Short URL not found");
+                    return new ShortUrlNotFoundException(NOT_FOUND_MESSAGE);
                 });
 
-        final LinkDetailsOutput output = toLinkDetailsOutput(url);
-        log.info("LinkDetails delivered: alias={}, status={}", shortCode, output.getStatus());
+        if (logSampler.sample()) {
+            log.info("LinkDetails delivered: alias={}, status={}", shortCode, output.getStatus());
+        }
         return output;
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkStatsOutput getLinkStats(@NonNull final String shortCode, final String from, final String to,
+                                        final String granularity) {
+        return metrics.time(ShortenerMetrics.STATS, () -> doGetLinkStats(shortCode, from, to, granularity));
+    }
+
+    private LinkStatsOutput doGetLinkStats(final String shortCode, final String from, final String to,
+                                           final String granularity) {
+        log.debug("LinkStats request for alias={}, from={}, to={}, granularity={}", shortCode, from, to, granularity);
+        final StatsGranularity unit = granularity == null || granularity.isBlank()
+                ? StatsGranularity.HOUR
+                : StatsGranularity.parse(granularity);
+        final LocalDateTime requestedEnd = to == null || to.isBlank() ? LocalDateTime.now() : parseDate(to, "to");
+        // bucket-aligned [start, end), a partial last bucket is included
+        final LocalDateTime end = unit.bucketStart(requestedEnd).equals(requestedEnd)
+                ? requestedEnd
+                : unit.next(unit.bucketStart(requestedEnd));
+        final LocalDateTime start = unit.bucketStart(from == null || from.isBlank()
+                ? end.minus(unit.defaultRange())
+                : parseDate(from, "from"));
+        validateStatsRange(unit, start, end);
+
+        final long linkId = findLinkId(shortCode);
+        final List<ClickRollup> rollups = dbLimiter.call(() -> dbClient.findClickRollups(linkId, unit, start, end));
+
+        // fill the buckets without clicks, the database only holds the others
+        final List<ClickRollup> buckets = new ArrayList<>((int) unit.bucketsBetween(start, end));
+        long totalClicks = 0;
+        int next = 0;
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = unit.next(bucket)) {
+            long clicks = 0;
+            if (next < rollups.size() && rollups.get(next).bucketStart().equals(bucket)) {
+                clicks = rollups.get(next++).clicks();
+            }
+            buckets.add(new ClickRollup(bucket, clicks));
+            totalClicks += clicks;
+        }
+
+        if (logSampler.sample()) {
+            log.info("LinkStats delivered: alias={}, granularity={}, buckets={}", shortCode, unit, buckets.size());
+        }
+        return LinkStatsOutput.builder()
+                .shortCode(shortCode)
+                .granularity(unit)
+                .from(start)
+                .to(end)
+                .totalClicks(totalClicks)
+                .buckets(buckets)
+                .build();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -141,10 +571,12 @@ public class UrlManagerImpl implements UrlManager {
         final int safePage = Math.max(0, page);
         final int safeSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
 
-        log.info(
-                "Listing links: requestedPage={}, requestedSize={}, page={}, size={}",
-                page, size, safePage, safeSize
-        );
+        if (logSampler.sample()) {
+            log.info(
+                    "Listing links: requestedPage={}, requestedSize={}, page={}, size={}",
+                    page, size, safePage, safeSize
+            );
+        }
 
         final Pageable pageable = PageRequest.of(
                 safePage,
@@ -152,8 +584,97 @@ public class UrlManagerImpl implements UrlManager {
                 Sort.by("createdAt").descending()
         );
 
-        return dbClient.findAll(pageable)
-                .map(this::toLinkDetailsOutput);
+        return metrics.time(ShortenerMetrics.LIST,
+                () -> dbLimiter.call(() -> dbClient.findAll(pageable)).map(this::toLinkDetailsOutput));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkPageOutput listLinksAfter(final String after, final int size) {
+        return metrics.time(ShortenerMetrics.LIST_AFTER, () -> doListLinksAfter(after, size));
+    }
+
+    private LinkPageOutput doListLinksAfter(final String after, final int size) {
+        final int safeSize = Math.min(Math.max(1, size), MAX_PAGE_SIZE);
+        final LinkCursor cursor = after == null || after.isBlank() ? null : LinkCursor.decode(after.trim());
+
+        if (logSampler.sample()) {
+            log.info("Listing links after cursor: cursor={}, requestedSize={}, size={}", cursor, size, safeSize);
+        }
+
+        // one extra row tells whether there is a next page, without a count query
+        final Limit limit = Limit.of(safeSize + 1);
+        final List<Url> urls = dbLimiter.call(() -> cursor == null
+                ? dbClient.findNewest(limit)
+                : dbClient.findPageAfter(cursor.createdAt(), cursor.id(), limit));
+
+        final boolean hasNext = urls.size() > safeSize;
+        final List<Url> page = hasNext ? urls.subList(0, safeSize) : urls;
+        return LinkPageOutput.builder()
+                .items(page.stream().map(this::toLinkDetailsOutput).toList())
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? LinkCursor.of(page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LinkExportFilter exportFilter(final String status, final String createdFrom, final String createdTo) {
+        final LinkStatus linkStatus = parseStatus(status);
+        final LocalDateTime from = createdFrom == null || createdFrom.isBlank()
+                ? null
+                : parseExportDate(createdFrom, "createdFrom");
+        final LocalDateTime to = createdTo == null || createdTo.isBlank()
+                ? null
+                : parseExportDate(createdTo, "createdTo");
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ExportQueryNotValidException("createdFrom must be before createdTo");
+        }
+        return new LinkExportFilter(linkStatus, from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The export holds one database permit (and connection) until the last row is written:
+     * a slow client slows down its own export only, but keeps that permit.
+     */
+    @Override
+    public long exportLinks(@NonNull final LinkExportFilter filter, final Consumer<LinkDetailsOutput> action) {
+        return metrics.time(ShortenerMetrics.EXPORT, () -> {
+            log.info("Exporting links: filter={}", filter);
+            final long[] exported = new long[1];
+            dbLimiter.call(() -> {
+                dbClient.forEachLink(filter, LocalDateTime.now(), props.getExportFetchSize(), url -> {
+                    action.accept(toLinkDetailsOutput(url));
+                    exported[0]++;
+                });
+                return null;
+            });
+            log.info("Exported {} links: filter={}", exported[0], filter);
+            return exported[0];
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AliasAvailabilityOutput checkAliasAvailability(@NonNull final String alias) {
+        return metrics.time(ShortenerMetrics.ALIAS_AVAILABILITY, () -> {
+            final String trimmed = alias.trim();
+            validateCustomAlias(trimmed);
+            return AliasAvailabilityOutput.builder()
+                    .alias(trimmed)
+                    .available(!isAliasTaken(trimmed))
+                    .build();
+        });
     }
 
 
@@ -161,25 +682,414 @@ public class UrlManagerImpl implements UrlManager {
     // Helper methods
     // ---------------------
 
+    /**
+     * Check whether an alias is used by a live link. The database is only asked when
+     * the alias filter cannot rule the alias out.
+     */
+    private boolean isAliasTaken(final String alias) {
+        return aliasFilter.mightContain(alias) && dbLimiter.call(() -> dbClient.existsByCustomAlias(alias));
+    }
+
+    /**
+     * Find the id of a live or archived link, from the redirect cache when possible.
+     * @throws ShortUrlNotFoundException if the alias does not exist
+     */
+    private long findLinkId(final String shortCode) {
+        final RedirectTarget cached = redirectCache.get(shortCode);
+        if (cached != null) {
+            return cached.id();
+        }
+        if (!aliasFilter.mightContain(shortCode)) {
+            log.debug("LinkStats not found: alias={} (filter)", shortCode);
+            throw new ShortUrlNotFoundException(NOT_FOUND_MESSAGE);
+        }
+        return dbLimiter.call(() -> dbClient.findRedirectTargetByCustomAlias(shortCode))
+                .map(RedirectTarget::id)
+                .or(() -> dbLimiter.call(() -> archiveClient.findFirstByCustomAliasOrderByArchivedAtDesc(shortCode))
+                        .map(UrlArchive::getId))
+                .orElseThrow(() -> {
+                    aliasFilter.falsePositive();
+                    log.warn("LinkStats not found: alias={}", shortCode);
+                    return new ShortUrlNotFoundException(NOT_FOUND_MESSAGE);
+                });
+    }
+
+    /**
+     * Check that a stats range is not empty, not too long and still covered by the rollups
+     * of its granularity.
+     * @throws StatsQueryNotValidException if the range is not valid
+     */
+    private void validateStatsRange(final StatsGranularity unit, final LocalDateTime start, final LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new StatsQueryNotValidException("from must be before to");
+        }
+        if (unit.bucketsBetween(start, end) > props.getStatsMaxBuckets()) {
+            throw new StatsQueryNotValidException(
+                    "The range cannot span more than " + props.getStatsMaxBuckets() + " buckets");
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        if (unit == StatsGranularity.MINUTE
+                && start.isBefore(unit.bucketStart(now.minusHours(props.getRollupMinuteRetentionHours())))) {
+            throw new StatsQueryNotValidException("Minute stats are kept for "
+                    + props.getRollupMinuteRetentionHours() + " hours, use the hour or day granularity");
+        }
+        if (unit == StatsGranularity.HOUR
+                && start.isBefore(unit.bucketStart(now.minusDays(props.getRollupHourRetentionDays())))) {
+            throw new StatsQueryNotValidException("Hour stats are kept for "
+                    + props.getRollupHourRetentionDays() + " days, use the day granularity");
+        }
+    }
+
+    private static LocalDateTime parseDate(final String value, final String name) {
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (final DateTimeParseException e) {
+            throw new StatsQueryNotValidException(name + " must be an ISO date-time, e.g. 2025-01-31T10:15:00");
+        }
+    }
+
+    private static LinkStatus parseStatus(final String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return LinkStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new ExportQueryNotValidException("status must be active or expired");
+        }
+    }
+
+    private static LocalDateTime parseExportDate(final String value, final String name) {
+        try {
+            return LocalDateTime.parse(value.trim());
+        } catch (final DateTimeParseException e) {
+            throw new ExportQueryNotValidException(name + " must be an ISO date-time, e.g. 2025-01-31T10:15:00");
+        }
+    }
+
     /**
      * Resolve the short code for a URL creation request.
      * <p>
      * If the user provides a non-blank custom alias, it is returned as-is.
-     * Otherwise, a random 10-character alphanumeric code is generated.
+     * Otherwise, a code is taken from the configured {@link ShortCodeGenerator}.
      *
      * @param input the CreateUrlInput containing optional custom alias
      * @return the resolved short code (never null or blank)
      */
     private String resolveShortCode(final CreateUrlInput input) {
-        if (input.getCustomAlias() != null && !input.getCustomAlias().isBlank()) {
+        if (hasCustomAlias(input)) {
             return input.getCustomAlias().trim();
         }
+        return shortCodeGenerator.nextCode();
+    }
+
+    private static boolean hasCustomAlias(final CreateUrlInput input) {
+        return input.getCustomAlias() != null && !input.getCustomAlias().isBlank();
+    }
+
+    /**
+     * Draw generated codes until one is not in use. Generated codes have the shape of a valid custom
+     * alias, so the ones a custom or imported alias already took are skipped.
+     * @return a code no link had when it was checked
+     * @throws ShortCodeUnavailableException if every code drawn is taken
+     */
+    private String nextFreeCode() {
+        for (int attempt = 1; attempt <= MAX_GENERATED_CODE_ATTEMPTS; attempt++) {
+            final String code = shortCodeGenerator.nextCode();
+            if (!isAliasTaken(code)) {
+                return code;
+            }
+            metrics.aliasConflict(ShortenerMetrics.GENERATED_ALIAS);
+            log.warn("Generated code already in use, skipped: alias={}, attempt={}", code, attempt);
+        }
+        log.error("No free generated code after {} attempts", MAX_GENERATED_CODE_ATTEMPTS);
+        throw new ShortCodeUnavailableException(NO_FREE_CODE_MESSAGE);
+    }
+
+    /**
+     * Insert a new Url.
+     * <p>
+     * A generated code that collides with an existing alias is replaced by the next
+     * free generated code; a custom alias conflict is reported right away.
+     *
+     * @param url the Url to insert
+     * @param generatedCode whether the alias comes from the {@link ShortCodeGenerator}
+     * @return the persisted Url
+     * @throws AliasConflictException if the custom alias is already in use
+     * @throws ShortCodeUnavailableException if no free generated code was found
+     */
+    private Url insert(final Url url, final boolean generatedCode) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return dbLimiter.call(() -> dbClient.save(url));
+            } catch (final DataIntegrityViolationException e) {
+                metrics.aliasConflict(generatedCode ? ShortenerMetrics.GENERATED_ALIAS : ShortenerMetrics.CUSTOM_ALIAS);
+                if (!generatedCode) {
+                    log.warn("Alias conflict for customAlias={}", url.getCustomAlias());
+                    throw new AliasConflictException("The custom alias is already in use: " + url.getCustomAlias());
+                }
+                if (attempt >= MAX_GENERATED_CODE_ATTEMPTS) {
+                    log.error("Generated codes kept colliding on insert, attempts={}", attempt);
+                    throw new ShortCodeUnavailableException(NO_FREE_CODE_MESSAGE);
+                }
+                // The unique index is the final guard against an alias of the same shape created meanwhile
+                log.warn("Generated code collided with an existing alias: alias={}, attempt={}",
+                        url.getCustomAlias(), attempt);
+                url.setId(null);
+                url.setCustomAlias(nextFreeCode());
+            }
+        }
+    }
 
-        // Random UUID without hyphens, first 10 characters
-        return java.util.UUID.randomUUID()
-                .toString()
-                .replace("-", "")
-                .substring(0, 10);
+    /**
+     * Persist the accepted items of a batch with JDBC batching, in a single transaction.
+     * <p>
+     * If a concurrent request took one of the aliases in the meantime, the whole batch
+     * is rolled back and the items are inserted one by one so that only the conflicting
+     * items are rejected.
+     */
+    private void persistBatch(
+            final List<Integer> indexes,
+            final Url[] urls,
+            final boolean[] generatedCodes,
+            final BatchItemResult[] results
+    ) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        try {
+            final List<Url> toSave = indexes.stream().map(index -> urls[index]).toList();
+            final List<Url> saved = dbLimiter.call(() -> dbClient.saveAll(toSave));
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = created(indexes.get(i), saved.get(i));
+            }
+        } catch (final DataIntegrityViolationException e) {
+            log.warn("Batch insert hit a concurrent alias conflict, inserting {} items one by one", indexes.size());
+            for (final int index : indexes) {
+                final Url url = urls[index];
+                try {
+                    final Url copy = new Url(url.getTargetUrl(), url.getCustomAlias(), url.getExpiresAt());
+                    copy.setRedirectPolicy(url.getRedirectPolicy());
+                    copy.setTargetHash(url.getTargetHash());
+                    results[index] = created(index, insert(copy, generatedCodes[index]));
+                } catch (final AliasConflictException conflict) {
+                    results[index] = rejected(index, BatchItemStatus.CONFLICT, "ALIAS_CONFLICT",
+                            conflict.getMessage());
+                } catch (final ShortCodeUnavailableException unavailable) {
+                    results[index] = rejected(index, BatchItemStatus.CONFLICT, "SHORT_CODE_UNAVAILABLE",
+                            unavailable.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Find a live link that can be returned for a create without custom alias: same canonical target,
+     * same redirect policy and, when the request sets one, same expiration date.
+     * @param canonical the canonical target
+     * @param redirectPolicy the requested redirect policy
+     * @param requestedExpiry the requested expiration date, null for the default one
+     * @return the newest matching link, or null if a new one must be created
+     */
+    private Url findReusableLink(final String canonical, final RedirectPolicy redirectPolicy,
+                                 final LocalDateTime requestedExpiry) {
+        final List<Url> candidates = dbLimiter.call(() -> dbClient.findLiveByTargetHashes(
+                List.of(TargetUrl.hash(canonical)), LocalDateTime.now(), DEDUP_CANDIDATES_PER_TARGET));
+        return candidates.stream()
+                .filter(candidate -> isReusable(candidate, canonical, redirectPolicy, requestedExpiry))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Resolve the batch items without custom alias whose target already has a live link (their result
+     * is set and their entity removed) or appears in an earlier item of the batch.
+     * @return for each item, the index of the earlier item whose result it shares, or -1
+     */
+    private int[] deduplicate(
+            final List<CreateUrlInput> inputs,
+            final Url[] urls,
+            final String[] canonicals,
+            final boolean[] generatedCodes,
+            final BatchItemResult[] results
+    ) {
+        final List<Long> hashes = new ArrayList<>();
+        for (int index = 0; index < urls.length; index++) {
+            if (urls[index] != null && generatedCodes[index]) {
+                hashes.add(urls[index].getTargetHash());
+            }
+        }
+        final Map<Long, List<Url>> candidates = new HashMap<>();
+        final List<Long> distinctHashes = hashes.stream().distinct().toList();
+        for (int from = 0; from < distinctHashes.size(); from += ALIAS_LOOKUP_CHUNK_SIZE) {
+            final List<Long> chunk = distinctHashes.subList(from, Math.min(from + ALIAS_LOOKUP_CHUNK_SIZE,
+                    distinctHashes.size()));
+            dbLimiter.call(() -> dbClient.findLiveByTargetHashes(chunk, LocalDateTime.now(),
+                            DEDUP_CANDIDATES_PER_TARGET))
+                    .forEach(url -> candidates.computeIfAbsent(url.getTargetHash(), hash -> new ArrayList<>())
+                            .add(url));
+        }
+
+        final int[] duplicateOf = new int[urls.length];
+        Arrays.fill(duplicateOf, -1);
+        final Map<DedupKey, Integer> firstItems = new HashMap<>();
+        for (int index = 0; index < urls.length; index++) {
+            final Url url = urls[index];
+            if (url == null || !generatedCodes[index]) {
+                continue;
+            }
+            final LocalDateTime requestedExpiry = inputs.get(index).getExpiresAt();
+            final String canonical = canonicals[index];
+            final Url existing = candidates.getOrDefault(url.getTargetHash(), List.of()).stream()
+                    .filter(candidate -> isReusable(candidate, canonical, url.getRedirectPolicy(), requestedExpiry))
+                    .findFirst()
+                    .orElse(null);
+            if (existing != null) {
+                metrics.dedupHit(ShortenerMetrics.CREATE_BATCH);
+                results[index] = BatchItemResult.builder()
+                        .index(index)
+                        .status(BatchItemStatus.CREATED)
+                        .link(toCreateUrlOutput(existing))
+                        .build();
+                urls[index] = null;
+                continue;
+            }
+            final Integer first = firstItems.putIfAbsent(
+                    new DedupKey(canonical, url.getRedirectPolicy(), requestedExpiry), index);
+            if (first != null) {
+                metrics.dedupHit(ShortenerMetrics.CREATE_BATCH);
+                duplicateOf[index] = first;
+                urls[index] = null;
+            }
+        }
+        return duplicateOf;
+    }
+
+    /**
+     * What makes two creates without custom alias the same link.
+     */
+    private record DedupKey(String canonical, RedirectPolicy redirectPolicy, LocalDateTime requestedExpiry) {
+    }
+
+    private boolean isReusable(final Url candidate, final String canonical, final RedirectPolicy redirectPolicy,
+                               final LocalDateTime requestedExpiry) {
+        if (candidate.isExpired() || candidate.getRedirectPolicy() != redirectPolicy
+                || requestedExpiry != null && !requestedExpiry.equals(candidate.getExpiresAt())) {
+            return false;
+        }
+        // the hash only narrows the search, the canonical targets decide
+        try {
+            return canonical.equals(new TargetUrl(candidate.getTargetUrl())
+                    .canonical(props.isDedupSortQueryParameters()));
+        } catch (final ShortUrlNotValidException e) {
+            return false;
+        }
+    }
+
+    private static BatchItemResult sameResult(final int index, final BatchItemResult result) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(result.getStatus())
+                .link(result.getLink())
+                .error(result.getError())
+                .build();
+    }
+
+    /**
+     * Find which aliases of the given entities already exist, in bounded IN (...) chunks.
+     * Aliases ruled out by the alias filter are not looked up.
+     */
+    private Set<String> findExistingAliases(final Url[] urls) {
+        final List<String> aliases = Arrays.stream(urls)
+                .filter(Objects::nonNull)
+                .map(Url::getCustomAlias)
+                .filter(aliasFilter::mightContain)
+                .toList();
+        final Set<String> existing = new HashSet<>();
+        for (int from = 0; from < aliases.size(); from += ALIAS_LOOKUP_CHUNK_SIZE) {
+            final int to = Math.min(from + ALIAS_LOOKUP_CHUNK_SIZE, aliases.size());
+            final List<String> chunk = aliases.subList(from, to);
+            existing.addAll(dbLimiter.call(() -> dbClient.findExistingAliases(chunk)));
+        }
+        return existing;
+    }
+
+    /**
+     * Validate an input the same way the single CreateUrl API does.
+     * @param input the input to validate
+     * @throws ShortUrlNotValidException if the input is not valid
+     */
+    private static void validate(final CreateUrlInput input) {
+        if (input == null) {
+            throw new ShortUrlNotValidException("Item cannot be null");
+        }
+        if (input.getTargetUrl() != null
+                && input.getTargetUrl().length() > CreateUrlInput.TARGET_URL_MAX_LENGTH) {
+            throw new ShortUrlNotValidException("targetUrl is too long");
+        }
+        if (hasCustomAlias(input)) {
+            validateCustomAlias(input.getCustomAlias().trim());
+        }
+        if (input.getExpiresAt() != null && !input.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new ShortUrlNotValidException("expiresAt must be in the future");
+        }
+    }
+
+    /**
+     * Validate a custom alias the same way the CreateUrlInput constraints do, and reject the aliases
+     * that are paths of the API.
+     * @param alias the trimmed alias
+     * @throws ShortUrlNotValidException if the alias is not valid
+     */
+    private static void validateCustomAlias(final String alias) {
+        if (alias.length() < CreateUrlInput.CUSTOM_ALIAS_MIN_LENGTH
+                || alias.length() > CreateUrlInput.CUSTOM_ALIAS_MAX_LENGTH) {
+            throw new ShortUrlNotValidException("customAlias must be between 3 and 50 characters");
+        }
+        if (!alias.matches(CreateUrlInput.CUSTOM_ALIAS_REGEX)) {
+            throw new ShortUrlNotValidException(
+                    "custom Alias can only contain letters, numbers, hyphens, and underscores");
+        }
+        if (CreateUrlInput.RESERVED_ALIASES.contains(alias)) {
+            throw new ShortUrlNotValidException("customAlias is reserved: " + alias);
+        }
+    }
+
+    private BatchItemResult created(final int index, final Url url) {
+        redirectCache.put(url.getCustomAlias(), RedirectTarget.of(url));
+        return BatchItemResult.builder()
+                .index(index)
+                .status(BatchItemStatus.CREATED)
+                .link(toCreateUrlOutput(url))
+                .build();
+    }
+
+    private static BatchItemResult rejected(
+            final int index,
+            final BatchItemStatus status,
+            final String code,
+            final String message
+    ) {
+        return BatchItemResult.builder()
+                .index(index)
+                .status(status)
+                .error(new ErrorResponse(code, message))
+                .build();
+    }
+
+    /**
+     * Map a persisted {@link Url} to the {@link CreateUrlOutput} returned to the client.
+     */
+    private CreateUrlOutput toCreateUrlOutput(final Url url) {
+        return CreateUrlOutput
+                .builder()
+                .id(url.getId())
+                .targetUrl(url.getTargetUrl())
+                .shortCode(url.getCustomAlias())
+                .shortUrl(props.getRedirectDomain() + url.getCustomAlias())
+                .expiresAt(url.getExpiresAt())
+                .createdAt(url.getCreatedAt())
+                .build();
     }
 
     /**
@@ -206,6 +1116,7 @@ public class UrlManagerImpl implements UrlManager {
      * <p>
      * This method centralizes the transformation logic so that any change
      * in the link details representation is done in a single place.
+     * Clicks that are still buffered in memory are added to the stored stats.
      *
      * @param url the Url entity to map
      * @return a LinkDetailsOutput view of the given URL
@@ -214,15 +1125,47 @@ public class UrlManagerImpl implements UrlManager {
         final boolean expired = url.isExpired();
         final LinkStatus status = expired ? LinkStatus.EXPIRED : LinkStatus.ACTIVE;
 
+        long clickCount = url.getClickCount();
+        LocalDateTime lastAccessedAt = url.getLastAccessedAt();
+        final PendingClicks pending = clickAccumulator.pending(url.getId());
+        if (pending != null) {
+            clickCount += pending.count();
+            if (lastAccessedAt == null || pending.lastAccessedAt().isAfter(lastAccessedAt)) {
+                lastAccessedAt = pending.lastAccessedAt();
+            }
+        }
+
         return LinkDetailsOutput.builder()
                 .shortCode(url.getCustomAlias())
                 .shortUrl(props.getRedirectDomain() + url.getCustomAlias())
                 .targetUrl(url.getTargetUrl())
                 .createdAt(url.getCreatedAt())
                 .expiresAt(url.getExpiresAt())
-                .clickCount(url.getClickCount())
-                .lastAccessedAt(url.getLastAccessedAt())
+                .clickCount(clickCount)
+                .lastAccessedAt(lastAccessedAt)
                 .status(status)
+                .redirectPolicy(url.getRedirectPolicy())
+                .build();
+    }
+
+    /**
+     * Map an archived link to a {@link LinkDetailsOutput} DTO. Archived links are always expired
+     * and have no pending clicks (expired links are not redirected).
+     *
+     * @param archived the archived link to map
+     * @return a LinkDetailsOutput view of the archived link
+     */
+    private LinkDetailsOutput toLinkDetailsOutput(final UrlArchive archived) {
+        return LinkDetailsOutput.builder()
+                .shortCode(archived.getCustomAlias())
+                .shortUrl(props.getRedirectDomain() + archived.getCustomAlias())
+                .targetUrl(archived.getTargetUrl())
+                .createdAt(archived.getCreatedAt())
+                .expiresAt(archived.getExpiresAt())
+                .clickCount(archived.getClickCount())
+                .lastAccessedAt(archived.getLastAccessedAt())
+                .status(LinkStatus.EXPIRED)
+                .redirectPolicy(archived.getRedirectPolicy())
                 .build();
     }
 
@@ -0,0 +1,182 @@
+package com.example.urlShortenerService.metrics;
+
+import com.example.urlShortenerService.exception.AliasConflictException;
+import com.example.urlShortenerService.exception.BatchNotValidException;
+import com.example.urlShortenerService.exception.CursorNotValidException;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import com.example.urlShortenerService.exception.ExportQueryNotValidException;
+import com.example.urlShortenerService.exception.ShortCodeUnavailableException;
+import com.example.urlShortenerService.exception.ShortUrlExpiredException;
+import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.exception.StatsQueryNotValidException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Business metrics of the URL Shortener service.
+ * <p>
+ * Every manager operation is timed by {@code shortener.operation} with a percentile
+ * histogram (so p99 can be aggregated across instances in Prometheus), tagged by
+ * {@code operation} and {@code outcome}. Tags only take values from the constants
+ * below, never from request data such as the alias, so the cardinality stays bounded.
+ */
+@Component
+public class ShortenerMetrics {
+
+    static final String OPERATION_TIMER = "shortener.operation";
+    static final String ALIAS_CONFLICT_COUNTER = "shortener.alias.conflicts";
+    static final String VALIDATION_FAILURE_COUNTER = "shortener.validation.failures";
+    static final String DEDUP_HIT_COUNTER = "shortener.dedup.hits";
+
+    // operation tag values
+    public static final String REDIRECT = "redirect";
+    public static final String CREATE = "create";
+    public static final String CREATE_BATCH = "create_batch";
+    public static final String DETAILS = "details";
+    public static final String LIST = "list";
+    public static final String LIST_AFTER = "list_after";
+    public static final String ALIAS_AVAILABILITY = "alias_availability";
+    public static final String STATS = "stats";
+    public static final String EXPORT = "export";
+
+    // outcome tag values
+    public static final String HIT = "hit";
+    public static final String MISS = "miss";
+    public static final String SUCCESS = "success";
+    public static final String NOT_FOUND = "not_found";
+    public static final String EXPIRED = "expired";
+    public static final String CONFLICT = "conflict";
+    public static final String INVALID = "invalid";
+    public static final String OVERLOADED = "overloaded";
+    public static final String CODE_UNAVAILABLE = "code_unavailable";
+    public static final String ERROR = "error";
+
+    // alias type tag values
+    public static final String CUSTOM_ALIAS = "custom";
+    public static final String GENERATED_ALIAS = "generated";
+
+    private final MeterRegistry registry;
+    private final Meter.MeterProvider<Timer> operationTimer;
+    private final Meter.MeterProvider<Counter> aliasConflicts;
+    private final Meter.MeterProvider<Counter> validationFailures;
+    private final Meter.MeterProvider<Counter> dedupHits;
+
+    /**
+     * Constructor
+     * @param registry the registry the meters are bound to
+     */
+    public ShortenerMetrics(final MeterRegistry registry) {
+        this.registry = registry;
+        this.operationTimer = Timer.builder(OPERATION_TIMER)
+                .description("Latency of the URL manager operations")
+                .publishPercentileHistogram()
+                .withRegistry(registry);
+        this.aliasConflicts = Counter.builder(ALIAS_CONFLICT_COUNTER)
+                .description("Aliases rejected or regenerated because they were already in use")
+                .withRegistry(registry);
+        this.validationFailures = Counter.builder(VALIDATION_FAILURE_COUNTER)
+                .description("Create requests or batch items rejected by validation")
+                .withRegistry(registry);
+        this.dedupHits = Counter.builder(DEDUP_HIT_COUNTER)
+                .description("Create requests or batch items answered with the existing link of their target")
+                .withRegistry(registry);
+    }
+
+    /**
+     * Start timing an operation.
+     * @return the sample to pass to {@link #record(Timer.Sample, String, String)}
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Stop timing an operation.
+     * @param sample the sample returned by {@link #start()}
+     * @param operation the operation, one of the operation constants
+     * @param outcome the outcome, one of the outcome constants
+     */
+    public void record(final Timer.Sample sample, final String operation, final String outcome) {
+        sample.stop(operationTimer.withTags("operation", operation, "outcome", outcome));
+    }
+
+    /**
+     * Time an operation, its outcome is {@link #SUCCESS} or derived from the exception it throws.
+     * @param operation the operation, one of the operation constants
+     * @param call the operation
+     * @param <T> the result type
+     * @return the result of the operation
+     */
+    public <T> T time(final String operation, final Supplier<T> call) {
+        final Timer.Sample sample = start();
+        try {
+            final T result = call.get();
+            record(sample, operation, SUCCESS);
+            return result;
+        } catch (final RuntimeException e) {
+            record(sample, operation, outcomeOf(e));
+            throw e;
+        }
+    }
+
+    /**
+     * Count an alias that was already in use.
+     * @param aliasType {@link #CUSTOM_ALIAS} or {@link #GENERATED_ALIAS}
+     */
+    public void aliasConflict(final String aliasType) {
+        aliasConflicts.withTags("type", aliasType).increment();
+    }
+
+    /**
+     * Count a create request (or batch item) rejected by validation.
+     * @param operation {@link #CREATE} or {@link #CREATE_BATCH}
+     */
+    public void validationFailure(final String operation) {
+        validationFailures.withTags("operation", operation).increment();
+    }
+
+    /**
+     * Count a create request (or batch item) answered with an existing link.
+     * @param operation {@link #CREATE} or {@link #CREATE_BATCH}
+     */
+    public void dedupHit(final String operation) {
+        dedupHits.withTags("operation", operation).increment();
+    }
+
+    /**
+     * Map an exception to its outcome tag.
+     * @param e the exception thrown by an operation
+     * @return the outcome
+     */
+    public static String outcomeOf(final RuntimeException e) {
+        if (e instanceof ShortUrlNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (e instanceof ShortUrlExpiredException) {
+            return EXPIRED;
+        }
+        if (e instanceof AliasConflictException) {
+            return CONFLICT;
+        }
+        if (e instanceof ShortUrlNotValidException
+                || e instanceof BatchNotValidException
+                || e instanceof CursorNotValidException
+                || e instanceof StatsQueryNotValidException
+                || e instanceof ExportQueryNotValidException) {
+            return INVALID;
+        }
+        if (e instanceof DatabaseOverloadedException) {
+            return OVERLOADED;
+        }
+        if (e instanceof ShortCodeUnavailableException) {
+            return CODE_UNAVAILABLE;
+        }
+        return ERROR;
+    }
+}
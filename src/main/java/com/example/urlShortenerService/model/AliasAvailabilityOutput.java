@@ -0,0 +1,14 @@
+package com.example.urlShortenerService.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * This class is the Output of the GET /aliases/{alias}/available API.
+ */
+@Data
+@Builder
+public class AliasAvailabilityOutput {
+    private String alias;
+    private boolean available;
+}
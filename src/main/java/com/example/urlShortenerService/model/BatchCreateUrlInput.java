@@ -0,0 +1,19 @@
+package com.example.urlShortenerService.model;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+/**
+ * This class is the Input parameters of the batch CreateUrl API
+ */
+@Data
+@Builder
+@Jacksonized
+public class BatchCreateUrlInput {
+
+    // Required, each item is validated and created independently
+    private List<CreateUrlInput> items;
+}
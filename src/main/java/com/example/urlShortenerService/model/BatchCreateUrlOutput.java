@@ -0,0 +1,19 @@
+package com.example.urlShortenerService.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * This class is the Output of the batch CreateUrl API that will be returned to the client
+ */
+@Data
+@Builder
+public class BatchCreateUrlOutput {
+    private int created;
+
+    private int rejected;
+
+    private List<BatchItemResult> results;
+}
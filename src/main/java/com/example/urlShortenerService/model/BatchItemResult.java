@@ -0,0 +1,22 @@
+package com.example.urlShortenerService.model;
+
+import com.example.urlShortenerService.exception.ErrorResponse;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Result of one item of a batch creation, in the order of the input items
+ */
+@Data
+@Builder
+public class BatchItemResult {
+    private int index;
+
+    private BatchItemStatus status;
+
+    // Set when the link is created
+    private CreateUrlOutput link;
+
+    // Set when the item is rejected
+    private ErrorResponse error;
+}
@@ -0,0 +1,10 @@
+package com.example.urlShortenerService.model;
+
+/**
+ * Outcome of one item of a batch creation
+ */
+public enum BatchItemStatus {
+    CREATED,
+    INVALID,
+    CONFLICT
+}
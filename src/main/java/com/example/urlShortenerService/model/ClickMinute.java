@@ -0,0 +1,12 @@
+package com.example.urlShortenerService.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One link during one minute, the key of the buffered per-minute click counts.
+ *
+ * @param linkId the link id
+ * @param minute the start of the minute
+ */
+public record ClickMinute(long linkId, LocalDateTime minute) {
+}
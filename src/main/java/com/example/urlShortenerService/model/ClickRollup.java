@@ -0,0 +1,12 @@
+package com.example.urlShortenerService.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of clicks of a link during one time bucket.
+ *
+ * @param bucketStart the start of the bucket (minute, hour or day)
+ * @param clicks      the number of clicks in the bucket
+ */
+public record ClickRollup(LocalDateTime bucketStart, long clicks) {
+}
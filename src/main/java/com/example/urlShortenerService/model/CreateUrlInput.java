@@ -9,6 +9,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * This class is the Input parameters of the CreateUrl API
@@ -17,15 +18,25 @@ import java.time.LocalDateTime;
 @Builder
 public class CreateUrlInput {
 
+    public static final int TARGET_URL_MAX_LENGTH = 2048;
+    public static final int CUSTOM_ALIAS_MIN_LENGTH = 3;
+    public static final int CUSTOM_ALIAS_MAX_LENGTH = 50;
+    public static final String CUSTOM_ALIAS_REGEX = "^[a-zA-Z0-9_-]+$";
+    // Aliases that are paths of the API: GET /links/export would shadow the details of such a link
+    public static final Set<String> RESERVED_ALIASES = Set.of("export");
+
     // Required
     @NotBlank(message = "targetUrl is required")
-    @Size(max = 2048, message = "targetUrl is too long")
+    @Size(max = TARGET_URL_MAX_LENGTH, message = "targetUrl is too long")
     private String targetUrl;
 
     // Optional
-    @Size(min = 3, max = 50, message = "customAlias must be between 3 and 50 characters")
+    @Size(
+            min = CUSTOM_ALIAS_MIN_LENGTH,
+            max = CUSTOM_ALIAS_MAX_LENGTH,
+            message = "customAlias must be between 3 and 50 characters")
     @Pattern(
-            regexp = "^[a-zA-Z0-9_-]+$",
+            regexp = CUSTOM_ALIAS_REGEX,
             message = "custom Alias can only contain letters, numbers, hyphens, and underscores"
     )
     private String customAlias;
@@ -34,4 +45,7 @@ public class CreateUrlInput {
     @Future(message = "expiresAt must be in the future")
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime expiresAt;
+
+    // Optional, temporary (default), cacheable or permanent, case-insensitive (validated by the manager)
+    private String redirectPolicy;
 }
@@ -0,0 +1,58 @@
+package com.example.urlShortenerService.model;
+
+import com.example.urlShortenerService.exception.ImportNotValidException;
+
+import java.util.Locale;
+
+/**
+ * Formats of a bulk import: one link per line.
+ */
+public enum ImportFormat {
+    /**
+     * One JSON object per line: {"customAlias", "targetUrl", "expiresAt", "redirectPolicy"}.
+     */
+    NDJSON,
+    /**
+     * A header line naming the columns (customAlias, targetUrl, expiresAt, redirectPolicy in any order),
+     * then one link per line. Fields may be double-quoted.
+     */
+    CSV;
+
+    /**
+     * Media type of the NDJSON uploads.
+     */
+    public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+    /**
+     * Media type of the CSV uploads.
+     */
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    /**
+     * Get the format of an upload from its Content-Type, parameters (charset) ignored.
+     * @param contentType the Content-Type header
+     * @return the format
+     * @throws ImportNotValidException if the media type is not application/x-ndjson or text/csv
+     */
+    public static ImportFormat ofContentType(final String contentType) {
+        final String mediaType = contentType == null
+                ? ""
+                : contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return switch (mediaType) {
+            case NDJSON_MEDIA_TYPE -> NDJSON;
+            case CSV_MEDIA_TYPE -> CSV;
+            default -> throw new ImportNotValidException(
+                    "Content-Type must be " + NDJSON_MEDIA_TYPE + " or " + CSV_MEDIA_TYPE);
+        };
+    }
+
+    /**
+     * Get the format of a file from its name: CSV for ".csv" (or ".csv.gz"), NDJSON otherwise.
+     * @param fileName the file name
+     * @return the format
+     */
+    public static ImportFormat ofFileName(final String fileName) {
+        final String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".csv.gz") ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.urlShortenerService.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * This class is the Output of the POST /links/import API and of the import-file mode.
+ */
+@Data
+@Builder
+public class ImportSummaryOutput {
+    private String importId;
+    private ImportFormat format;
+    // lines read, blank lines excluded
+    private long lines;
+    private long imported;
+    // lines that are not a valid link
+    private long rejected;
+    // valid links whose alias is already in use, or repeated in the import
+    private long conflicts;
+    private long durationMs;
+    // GET path of the report listing the rejected and conflicting lines
+    private String report;
+}
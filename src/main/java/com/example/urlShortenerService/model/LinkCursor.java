@@ -0,0 +1,72 @@
+package com.example.urlShortenerService.model;
+
+import com.example.urlShortenerService.exception.CursorNotValidException;
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Position of the last link of a page, in the (createdAt desc, id desc) listing order.
+ * <p>
+ * Sent to clients as an opaque base64url token so the encoding can change without
+ * breaking the API.
+ *
+ * @param createdAt creation date of the last link returned
+ * @param id id of the last link returned (tie-breaker for equal creation dates)
+ */
+public record LinkCursor(@NonNull LocalDateTime createdAt, @NonNull Long id) {
+
+    // epoch seconds (8) + nanos (4) + id (8)
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    /**
+     * Cursor pointing right after the given link.
+     * @param url the last link of a page
+     * @return the cursor
+     */
+    public static LinkCursor of(final Url url) {
+        return new LinkCursor(url.getCreatedAt(), url.getId());
+    }
+
+    /**
+     * Encode the cursor as an opaque token.
+     * @return the base64url token
+     */
+    public String encode() {
+        final ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}.
+     * @param token the base64url token
+     * @return the cursor
+     * @throws CursorNotValidException if the token is malformed
+     */
+    public static LinkCursor decode(@NonNull final String token) {
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (final IllegalArgumentException e) {
+            throw new CursorNotValidException("Cursor is not valid: " + token, e);
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new CursorNotValidException("Cursor is not valid: " + token);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        try {
+            final LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                    buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            return new LinkCursor(createdAt, buffer.getLong());
+        } catch (final DateTimeException e) {
+            throw new CursorNotValidException("Cursor is not valid: " + token, e);
+        }
+    }
+}
@@ -16,4 +16,18 @@ public class LinkDetailsOutput {
     private long clickCount;
     private LocalDateTime lastAccessedAt;
     private LinkStatus status;
+    private RedirectPolicy redirectPolicy;
+
+    /**
+     * Get the strong validator of this representation: the click count, then a 64-bit hash of every
+     * other serialized field. It changes whenever the body does, whichever way the link changed
+     * (clicks written by JDBC, expiration, archival).
+     * @return the quoted ETag value
+     */
+    public String etag() {
+        final String fields = String.join("\u001f", shortCode, shortUrl, targetUrl, String.valueOf(createdAt),
+                String.valueOf(expiresAt), String.valueOf(lastAccessedAt), String.valueOf(status),
+                String.valueOf(redirectPolicy));
+        return "\"" + clickCount + "-" + Long.toHexString(TargetUrl.hash(fields)) + "\"";
+    }
 }
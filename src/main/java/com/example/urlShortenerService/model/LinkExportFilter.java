@@ -0,0 +1,38 @@
+package com.example.urlShortenerService.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which links {@code GET /links/export} streams. Every part is optional (null matches all links).
+ *
+ * @param status      only the active or only the expired links
+ * @param createdFrom only the links created at or after this date
+ * @param createdTo   only the links created before this date
+ */
+public record LinkExportFilter(LinkStatus status, LocalDateTime createdFrom, LocalDateTime createdTo) {
+
+    /**
+     * Filter matching every link.
+     */
+    public static final LinkExportFilter ALL = new LinkExportFilter(null, null, null);
+
+    /**
+     * Check whether a link is exported, with the same rules as the SQL of the JPA engine.
+     * @param url the link
+     * @param now the date the status is evaluated at
+     * @return true if the link matches every part of the filter
+     */
+    public boolean matches(final Url url, final LocalDateTime now) {
+        if (createdFrom != null && url.getCreatedAt().isBefore(createdFrom)) {
+            return false;
+        }
+        if (createdTo != null && !url.getCreatedAt().isBefore(createdTo)) {
+            return false;
+        }
+        if (status == null) {
+            return true;
+        }
+        final boolean expired = url.getExpiresAt() != null && url.getExpiresAt().isBefore(now);
+        return expired == (status == LinkStatus.EXPIRED);
+    }
+}
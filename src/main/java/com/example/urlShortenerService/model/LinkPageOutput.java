@@ -0,0 +1,23 @@
+package com.example.urlShortenerService.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * This class is the Output of the cursor-based GET /links API.
+ * There is no total count: pass {@code nextCursor} as {@code after} to get the next page.
+ */
+@Data
+@Builder
+public class LinkPageOutput {
+    private List<LinkDetailsOutput> items;
+
+    private int size;
+
+    private boolean hasNext;
+
+    // null on the last page
+    private String nextCursor;
+}
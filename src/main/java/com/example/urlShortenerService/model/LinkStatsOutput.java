@@ -0,0 +1,29 @@
+package com.example.urlShortenerService.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This class is the Output of the GET /links/{shortCode}/stats API.
+ * One bucket per minute, hour or day of [from, to), empty buckets included.
+ */
+@Data
+@Builder
+public class LinkStatsOutput {
+    private String shortCode;
+
+    private StatsGranularity granularity;
+
+    // start of the first bucket, inclusive
+    private LocalDateTime from;
+
+    // end of the last bucket, exclusive
+    private LocalDateTime to;
+
+    private long totalClicks;
+
+    private List<ClickRollup> buckets;
+}
@@ -0,0 +1,24 @@
+package com.example.urlShortenerService.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clicks registered in memory that are not yet written to the database.
+ *
+ * @param count          the number of unflushed clicks
+ * @param lastAccessedAt the most recent click timestamp
+ */
+public record PendingClicks(long count, LocalDateTime lastAccessedAt) {
+
+    /**
+     * Combine two pending click snapshots of the same link.
+     * @param other the other snapshot
+     * @return the summed count with the latest access timestamp
+     */
+    public PendingClicks plus(final PendingClicks other) {
+        final LocalDateTime latest = lastAccessedAt.isAfter(other.lastAccessedAt)
+                ? lastAccessedAt
+                : other.lastAccessedAt;
+        return new PendingClicks(count + other.count, latest);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.urlShortenerService.model;
+
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+
+import java.util.Locale;
+
+/**
+ * How the redirect of a link may be cached by browsers and shared caches (CDNs, proxies).
+ * A cached redirect never reaches the service, so its clicks are not counted.
+ */
+public enum RedirectPolicy {
+    /**
+     * 302 Found without caching headers: every redirect reaches the service. The default.
+     */
+    TEMPORARY,
+    /**
+     * 302 Found, cacheable up to the max age.
+     */
+    CACHEABLE,
+    /**
+     * 301 Moved Permanently, cacheable up to the max age.
+     */
+    PERMANENT;
+
+    /**
+     * Parse a redirect policy, case-insensitive.
+     * @param value "temporary", "cacheable" or "permanent", null or blank for the default
+     * @return the policy
+     * @throws ShortUrlNotValidException if the value is unknown
+     */
+    public static RedirectPolicy parse(final String value) {
+        if (value == null || value.isBlank()) {
+            return TEMPORARY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new ShortUrlNotValidException("redirectPolicy must be one of temporary, cacheable, permanent");
+        }
+    }
+}
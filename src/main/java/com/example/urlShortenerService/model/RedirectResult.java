@@ -0,0 +1,64 @@
+package com.example.urlShortenerService.model;
+
+/**
+ * Outcome of a redirect lookup, returned instead of thrown so the redirect fast path
+ * never pays for an exception.
+ *
+ * @param status         found, not found or expired
+ * @param targetUrl      the URL to redirect to, only when found
+ * @param redirectPolicy how the redirect may be cached, only when found
+ * @param maxAgeSeconds  how long the redirect may be cached, unused for {@link RedirectPolicy#TEMPORARY}
+ */
+public record RedirectResult(Status status, String targetUrl, RedirectPolicy redirectPolicy, long maxAgeSeconds) {
+
+    public static final RedirectResult NOT_FOUND =
+            new RedirectResult(Status.NOT_FOUND, null, RedirectPolicy.TEMPORARY, 0L);
+    public static final RedirectResult EXPIRED =
+            new RedirectResult(Status.EXPIRED, null, RedirectPolicy.TEMPORARY, 0L);
+
+    /**
+     * Redirect lookup status
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        EXPIRED
+    }
+
+    /**
+     * Build the result of a found link with the default (uncached) redirect.
+     * @param targetUrl the URL to redirect to
+     * @return the result
+     */
+    public static RedirectResult found(final String targetUrl) {
+        return new RedirectResult(Status.FOUND, targetUrl, RedirectPolicy.TEMPORARY, 0L);
+    }
+
+    /**
+     * Build the result of a found link.
+     * @param targetUrl the URL to redirect to
+     * @param redirectPolicy how the redirect may be cached
+     * @param maxAgeSeconds how long the redirect may be cached
+     * @return the result
+     */
+    public static RedirectResult found(final String targetUrl, final RedirectPolicy redirectPolicy,
+                                       final long maxAgeSeconds) {
+        return new RedirectResult(Status.FOUND, targetUrl, redirectPolicy, maxAgeSeconds);
+    }
+
+    /**
+     * Get the HTTP status of a found link.
+     * @return 301 for a permanent redirect, 302 otherwise
+     */
+    public int httpStatus() {
+        return redirectPolicy == RedirectPolicy.PERMANENT ? 301 : 302;
+    }
+
+    /**
+     * Get the Cache-Control header value of a found link.
+     * @return the header value, null for a temporary redirect (no header)
+     */
+    public String cacheControl() {
+        return redirectPolicy == RedirectPolicy.TEMPORARY ? null : "public, max-age=" + maxAgeSeconds;
+    }
+}
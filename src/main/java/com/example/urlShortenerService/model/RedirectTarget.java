@@ -0,0 +1,41 @@
+package com.example.urlShortenerService.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Slim, immutable view of a link holding only what the redirect path needs.
+ *
+ * @param id             the link primary key
+ * @param targetUrl      the URL to redirect to
+ * @param expiresAt      the expiration date (nullable)
+ * @param redirectPolicy how the redirect may be cached, null reads as {@link RedirectPolicy#TEMPORARY}
+ */
+public record RedirectTarget(Long id, String targetUrl, LocalDateTime expiresAt, RedirectPolicy redirectPolicy) {
+
+    public RedirectTarget {
+        redirectPolicy = redirectPolicy == null ? RedirectPolicy.TEMPORARY : redirectPolicy;
+    }
+
+    /**
+     * Build the target of a link with the default (uncached) redirect.
+     * @param id        the link primary key
+     * @param targetUrl the URL to redirect to
+     * @param expiresAt the expiration date (nullable)
+     */
+    public RedirectTarget(final Long id, final String targetUrl, final LocalDateTime expiresAt) {
+        this(id, targetUrl, expiresAt, RedirectPolicy.TEMPORARY);
+    }
+
+    /**
+     * Build the redirect view of a persisted {@link Url}.
+     * @param url the Url entity
+     * @return the redirect target
+     */
+    public static RedirectTarget of(final Url url) {
+        return new RedirectTarget(url.getId(), url.getTargetUrl(), url.getExpiresAt(), url.getRedirectPolicy());
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.urlShortenerService.model;
+
+import com.example.urlShortenerService.exception.StatsQueryNotValidException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Size of the click rollup buckets. Every click is added to one bucket of each granularity.
+ */
+public enum StatsGranularity {
+    MINUTE(ChronoUnit.MINUTES, Duration.ofHours(1)),
+    HOUR(ChronoUnit.HOURS, Duration.ofDays(1)),
+    DAY(ChronoUnit.DAYS, Duration.ofDays(30));
+
+    private final ChronoUnit unit;
+    private final Duration defaultRange;
+
+    StatsGranularity(final ChronoUnit unit, final Duration defaultRange) {
+        this.unit = unit;
+        this.defaultRange = defaultRange;
+    }
+
+    /**
+     * Get the range queried when no start date is given.
+     * @return the default range
+     */
+    public Duration defaultRange() {
+        return defaultRange;
+    }
+
+    /**
+     * Get the start of the bucket holding a timestamp.
+     * @param timestamp the timestamp
+     * @return the bucket start
+     */
+    public LocalDateTime bucketStart(final LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    /**
+     * Get the start of the bucket following the one holding a timestamp.
+     * @param bucketStart a bucket start
+     * @return the next bucket start
+     */
+    public LocalDateTime next(final LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Count the buckets between two bucket starts.
+     * @param from the first bucket start, inclusive
+     * @param to the last bucket start, exclusive
+     * @return the number of buckets
+     */
+    public long bucketsBetween(final LocalDateTime from, final LocalDateTime to) {
+        return unit.between(from, to);
+    }
+
+    /**
+     * Parse a granularity, case-insensitive.
+     * @param value "minute", "hour" or "day"
+     * @return the granularity
+     * @throws StatsQueryNotValidException if the value is unknown
+     */
+    public static StatsGranularity parse(final String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException | NullPointerException e) {
+            throw new StatsQueryNotValidException("granularity must be one of minute, hour, day");
+        }
+    }
+}
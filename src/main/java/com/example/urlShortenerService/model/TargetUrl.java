@@ -4,9 +4,14 @@ import com.example.urlShortenerService.exception.ShortUrlNotValidException;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Locale;
 
 public record TargetUrl(String value) {
 
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     public TargetUrl {
         if (value == null || value.isBlank()) {
             throw new ShortUrlNotValidException("Target URL cannot be empty");
@@ -29,4 +34,64 @@ public record TargetUrl(String value) {
             throw new ShortUrlNotValidException("Invalid URL syntax: " + value);
         }
     }
+
+    /**
+     * Get the canonical form of the URL, the same for the spellings of one target: lower case scheme
+     * and host, no default port, "/" for an empty path and no empty query. Everything else is kept
+     * as written (percent-encoding, user info, fragment).
+     * @param sortQueryParameters whether the query parameters are sorted, for targets where their
+     *                            order does not matter
+     * @return the canonical URL
+     */
+    public String canonical(final boolean sortQueryParameters) {
+        final URI uri = URI.create(value);
+        final String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+        final StringBuilder canonical = new StringBuilder(value.length() + 1).append(scheme).append("://");
+        if (uri.getRawUserInfo() != null) {
+            canonical.append(uri.getRawUserInfo()).append('@');
+        }
+        canonical.append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (uri.getPort() != -1 && uri.getPort() != ("https".equals(scheme) ? 443 : 80)) {
+            canonical.append(':').append(uri.getPort());
+        }
+        final String path = uri.getRawPath();
+        canonical.append(path == null || path.isEmpty() ? "/" : path);
+        final String query = uri.getRawQuery() == null || !sortQueryParameters
+                ? uri.getRawQuery()
+                : sortParameters(uri.getRawQuery());
+        if (query != null && !query.isEmpty()) {
+            canonical.append('?').append(query);
+        }
+        if (uri.getRawFragment() != null) {
+            canonical.append('#').append(uri.getRawFragment());
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * Hash a canonical URL to 64 bits (FNV-1a, then the MurmurHash3 finalizer), stored to find the
+     * links of a target without comparing their URLs.
+     * @param canonical the canonical URL, see {@link #canonical(boolean)}
+     * @return the hash, never 0
+     */
+    public static long hash(final String canonical) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < canonical.length(); i++) {
+            hash = (hash ^ canonical.charAt(i)) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static String sortParameters(final String query) {
+        final String[] parameters = Arrays.stream(query.split("&"))
+                .filter(parameter -> !parameter.isEmpty())
+                .sorted()
+                .toArray(String[]::new);
+        return String.join("&", parameters);
+    }
 }
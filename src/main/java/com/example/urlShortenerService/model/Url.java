@@ -1,11 +1,17 @@
 package com.example.urlShortenerService.model;
 
+import com.example.urlShortenerService.cache.AliasFilterEntityListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,14 +20,27 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "urls")
+@Table(
+        name = "urls",
+        indexes = {
+            // keyset pagination of GET /links (createdAt desc, id desc)
+            @Index(name = "idx_urls_created_at_id", columnList = "created_at, id"),
+            // expired link sweeper
+            @Index(name = "idx_urls_expires_at", columnList = "expires_at"),
+            // deduplicated creation, links of the same canonical target
+            @Index(name = "idx_urls_target_hash", columnList = "target_hash")
+        }
+)
+@EntityListeners(AliasFilterEntityListener.class)
 @Getter
 @Setter
 @NoArgsConstructor // required by JPA
 public class Url {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "urls_seq")
+    @SequenceGenerator(name = "urls_seq", sequenceName = "urls_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 2048)
@@ -32,6 +51,14 @@ public class Url {
 
     private LocalDateTime expiresAt;
 
+    // Hash of the canonical target (TargetUrl.hash), null for the links created before it was stored
+    private Long targetHash;
+
+    // Nullable column so existing rows need no default, null reads as TEMPORARY
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RedirectPolicy redirectPolicy = RedirectPolicy.TEMPORARY;
+
     // 🔹 New: stats fields
     @Column(nullable = false)
     private long clickCount = 0L;
@@ -54,13 +81,12 @@ public class Url {
         this.expiresAt = expiresAt;
     }
 
-    public boolean isExpired() {
-        return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
+    public RedirectPolicy getRedirectPolicy() {
+        return redirectPolicy == null ? RedirectPolicy.TEMPORARY : redirectPolicy;
     }
 
-    public void registerClick() {
-        clickCount = clickCount + 1;
-        lastAccessedAt = LocalDateTime.now();
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(LocalDateTime.now());
     }
 
 }
@@ -0,0 +1,65 @@
+package com.example.urlShortenerService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of an expired link, moved out of {@code urls} by the expired link sweeper.
+ * Only read by the details and redirect paths, to keep reporting archived codes as expired.
+ */
+@Entity
+@Table(
+        name = "urls_archive",
+        // an alias is free again once archived, so it is not unique here
+        indexes = @Index(name = "idx_urls_archive_custom_alias", columnList = "custom_alias")
+)
+@Getter
+@Setter
+@NoArgsConstructor // required by JPA
+public class UrlArchive {
+
+    // Same id as the archived urls row, never generated
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 2048)
+    private String targetUrl;
+
+    @Column(nullable = false, length = 50)
+    private String customAlias;
+
+    private LocalDateTime expiresAt;
+
+    // Copied from urls, null for the links archived before it was copied
+    private Long targetHash;
+
+    // Copied from urls, so the details of an archived link keep their policy (and their ETag)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private RedirectPolicy redirectPolicy = RedirectPolicy.TEMPORARY;
+
+    @Column(nullable = false)
+    private long clickCount;
+
+    private LocalDateTime lastAccessedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    public RedirectPolicy getRedirectPolicy() {
+        return redirectPolicy == null ? RedirectPolicy.TEMPORARY : redirectPolicy;
+    }
+}
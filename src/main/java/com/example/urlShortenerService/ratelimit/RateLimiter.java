@@ -0,0 +1,124 @@
+package com.example.urlShortenerService.ratelimit;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory rate limits of the create, details and redirect traffic, per API key and per client address.
+ * <p>
+ * Each kind of traffic has its own {@link TokenBuckets}, sized by {@code shortener.rate-limit-max-keys}.
+ * A request is counted against its API key when it sends the configured one, else against its client
+ * address: sending random keys does not get a fresh bucket. The limits are per instance, they are not
+ * shared between replicas. With {@code shortener.rate-limit-enabled=false} (the default) nothing is limited.
+ */
+@Log4j2
+@Component
+public class RateLimiter {
+
+    /**
+     * Error message of the rejected requests.
+     */
+    public static final String RATE_LIMITED_MESSAGE = "Too many requests, retry later";
+
+    private static final long API_KEY_SEED = 0xCBF29CE484222325L;
+    private static final long ADDRESS_SEED = 0x84222325CBF29CE4L;
+    private static final long ORIGIN_NANOS = System.nanoTime();
+
+    /**
+     * The kinds of traffic, each with its own limit.
+     */
+    public enum Traffic {
+        /**
+         * POST /links and POST /links/batch.
+         */
+        CREATE,
+        /**
+         * The other /links reads: details, list, stats, alias availability.
+         */
+        DETAILS,
+        /**
+         * GET /r/{shortCode}, on the main and the edge server port.
+         */
+        REDIRECT
+    }
+
+    private final String apiKey;
+    private final TokenBuckets[] buckets = new TokenBuckets[Traffic.values().length];
+    private final Counter[] rejections = new Counter[Traffic.values().length];
+
+    /**
+     * Constructor
+     * @param props the shortener properties (rate limits)
+     * @param meterRegistry the registry the rate limit meters are bound to
+     */
+    public RateLimiter(final ShortenerProperties props, final MeterRegistry meterRegistry) {
+        this.apiKey = props.getApiKey();
+        if (!props.isRateLimitEnabled()) {
+            return;
+        }
+        configure(Traffic.CREATE, props.getRateLimitCreatePerSecond(), props.getRateLimitCreateBurst(),
+                props.getRateLimitMaxKeys(), meterRegistry);
+        configure(Traffic.DETAILS, props.getRateLimitDetailsPerSecond(), props.getRateLimitDetailsBurst(),
+                props.getRateLimitMaxKeys(), meterRegistry);
+        configure(Traffic.REDIRECT, props.getRateLimitRedirectPerSecond(), props.getRateLimitRedirectBurst(),
+                props.getRateLimitMaxKeys(), meterRegistry);
+    }
+
+    /**
+     * Take one request of a client from its limit.
+     * @param traffic the kind of request
+     * @param apiKey the X-API-KEY header, may be null
+     * @param clientAddress the client IP address
+     * @return 0 if the request may proceed, else the milliseconds before the client may retry
+     */
+    public long tryAcquire(final Traffic traffic, final String apiKey, final String clientAddress) {
+        final TokenBuckets limit = buckets[traffic.ordinal()];
+        if (limit == null) {
+            return 0L;
+        }
+        final long key = apiKey != null && apiKey.equals(this.apiKey)
+                ? TokenBuckets.hash(apiKey, API_KEY_SEED)
+                : TokenBuckets.hash(clientAddress, ADDRESS_SEED);
+        final long waitMillis = limit.tryAcquire(key, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ORIGIN_NANOS));
+        if (waitMillis > 0L) {
+            rejections[traffic.ordinal()].increment();
+        }
+        return waitMillis;
+    }
+
+    /**
+     * Get the Retry-After value of a rejected request.
+     * @param waitMillis the wait returned by {@link #tryAcquire}
+     * @return the wait in whole seconds, rounded up
+     */
+    public static long retryAfterSeconds(final long waitMillis) {
+        return Math.max(1L, (waitMillis + 999L) / 1000L);
+    }
+
+    private void configure(final Traffic traffic, final int ratePerSecond, final int burst, final int maxKeys,
+                           final MeterRegistry meterRegistry) {
+        if (ratePerSecond <= 0) {
+            log.info("No rate limit on {} traffic", traffic);
+            return;
+        }
+        final TokenBuckets limit = new TokenBuckets(ratePerSecond, burst, maxKeys);
+        final String tag = traffic.name().toLowerCase(Locale.ROOT);
+        buckets[traffic.ordinal()] = limit;
+        rejections[traffic.ordinal()] = Counter.builder("shortener.rate.limit.rejections")
+                .description("Requests rejected with a 429 by the rate limit")
+                .tag("traffic", tag)
+                .register(meterRegistry);
+        FunctionCounter.builder("shortener.rate.limit.evictions", limit, TokenBuckets::evictions)
+                .description("Clients evicted from the rate limit table to make room for another one")
+                .tag("traffic", tag)
+                .register(meterRegistry);
+        log.info("Rate limit on {} traffic: {} requests/s, burst {}", traffic, ratePerSecond, burst);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.urlShortenerService.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size table of token buckets with the same rate and burst, one per key, lock-free.
+ * <p>
+ * The table is 4-way set-associative: a key hash maps to one set of {@value #WAYS} slots, and a key
+ * that is not in its set takes the empty slot, or else evicts the slot refilled the longest ago
+ * (the key restarts with a full bucket if it comes back). Its size never changes, so memory stays
+ * bounded whatever the number of clients. A slot is two longs: the 64-bit key hash and the bucket
+ * state, packed as {@code lastRefillMillis << 24 | milliTokens}, updated with one CAS. A rejected
+ * request does not write anything. Under eviction races a request may be counted against the
+ * bucket a slot held just before: the limits are approximate there, never unbounded.
+ */
+final class TokenBuckets {
+
+    static final int WAYS = 4;
+
+    /**
+     * A token is 1000 milli-tokens, so a bucket refills by {@code ratePerSecond} milli-tokens per millisecond.
+     */
+    private static final long TOKEN = 1000L;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long EMPTY = 0L;
+
+    /**
+     * Largest burst the packed state can hold.
+     */
+    static final int MAX_BURST = (int) (TOKEN_MASK / TOKEN);
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray states;
+    private final int setMask;
+    private final long rate;
+    private final long capacity;
+    private final long fullAfterMillis;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructor
+     * @param ratePerSecond tokens added per second, positive
+     * @param burst bucket capacity in tokens, from 1 to {@link #MAX_BURST}
+     * @param maxKeys number of keys tracked at once, rounded up to a power of two of at least {@value #WAYS}
+     */
+    TokenBuckets(final int ratePerSecond, final int burst, final int maxKeys) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("rate limit must be positive: " + ratePerSecond);
+        }
+        if (burst < 1 || burst > MAX_BURST) {
+            throw new IllegalArgumentException("rate limit burst must be between 1 and " + MAX_BURST + ": " + burst);
+        }
+        final int slots = Math.max(WAYS, Integer.highestOneBit(Math.max(1, maxKeys - 1)) << 1);
+        this.keys = new AtomicLongArray(slots);
+        this.states = new AtomicLongArray(slots);
+        this.setMask = slots / WAYS - 1;
+        this.rate = ratePerSecond;
+        this.capacity = burst * TOKEN;
+        this.fullAfterMillis = (capacity + rate - 1) / rate;
+    }
+
+    /**
+     * Take one token from the bucket of a key.
+     * @param key the key hash, see {@link #hash}
+     * @param nowMillis the current time, from a monotonic clock starting at 0
+     * @return 0 if the token was taken, else the milliseconds until the bucket has one
+     */
+    long tryAcquire(final long key, final long nowMillis) {
+        final int set = (int) (key ^ key >>> 32) & setMask;
+        final int first = set * WAYS;
+        while (true) {
+            final int slot = find(first, key);
+            if (slot < 0) {
+                if (claim(first, key, nowMillis)) {
+                    return 0L;
+                }
+                continue;
+            }
+            final long state = states.get(slot);
+            if (keys.get(slot) != key) {
+                continue; // evicted between the two reads
+            }
+            final long elapsed = Math.min(fullAfterMillis, Math.max(0L, nowMillis - (state >>> TOKEN_BITS)));
+            final long tokens = Math.min(capacity, (state & TOKEN_MASK) + elapsed * rate);
+            if (tokens < TOKEN) {
+                return (TOKEN - tokens + rate - 1) / rate;
+            }
+            if (states.compareAndSet(slot, state, nowMillis << TOKEN_BITS | tokens - TOKEN)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Get the number of keys evicted to make room for another one.
+     * @return the evictions since the table was created
+     */
+    long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Hash a key to 64 bits (FNV-1a, then the MurmurHash3 finalizer), never 0.
+     * @param value the key
+     * @param seed the seed, to keep apart keys of different kinds with the same value
+     * @return the hash
+     */
+    static long hash(final String value, final long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+
+    private int find(final int first, final long key) {
+        for (int slot = first; slot < first + WAYS; slot++) {
+            if (keys.get(slot) == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private boolean claim(final int first, final long key, final long nowMillis) {
+        int victim = first;
+        long oldest = Long.MAX_VALUE;
+        for (int slot = first; slot < first + WAYS; slot++) {
+            if (keys.get(slot) == EMPTY) {
+                victim = slot;
+                break;
+            }
+            final long refilled = states.get(slot) >>> TOKEN_BITS;
+            if (refilled < oldest) {
+                oldest = refilled;
+                victim = slot;
+            }
+        }
+        final long victimKey = keys.get(victim);
+        if (!keys.compareAndSet(victim, victimKey, key)) {
+            return false;
+        }
+        if (victimKey != EMPTY) {
+            evictions.increment();
+        }
+        // a new key starts with a full bucket, minus the token of this request
+        states.set(victim, nowMillis << TOKEN_BITS | capacity - TOKEN);
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+-- Each value is a block number; a block covers [value * block-size, (value + 1) * block-size)
+CREATE SEQUENCE IF NOT EXISTS short_code_block_seq START WITH 1 INCREMENT BY 1;
+
+-- Click log position covered by the click counts (single row, saved with each click flush)
+CREATE TABLE IF NOT EXISTS click_log_checkpoint (
+    id           INT PRIMARY KEY,
+    log_position BIGINT NOT NULL
+);
+
+-- Clicks per link and minute / hour / day, incremented with each click flush
+CREATE TABLE IF NOT EXISTS click_rollups (
+    link_id      BIGINT     NOT NULL,
+    granularity  VARCHAR(6) NOT NULL,
+    bucket_start TIMESTAMP  NOT NULL,
+    clicks       BIGINT     NOT NULL,
+    PRIMARY KEY (link_id, granularity, bucket_start)
+);
+
+-- Compaction deletes the old minute and hour buckets, oldest first
+CREATE INDEX IF NOT EXISTS idx_click_rollups_granularity_bucket ON click_rollups (granularity, bucket_start);
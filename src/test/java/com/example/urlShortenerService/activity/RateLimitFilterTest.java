@@ -0,0 +1,139 @@
+package com.example.urlShortenerService.activity;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class RateLimitFilterTest {
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setApiKey("dev-key-123");
+        props.setRateLimitEnabled(true);
+        props.setRateLimitCreatePerSecond(1);
+        props.setRateLimitCreateBurst(1);
+        props.setRateLimitDetailsPerSecond(1);
+        props.setRateLimitDetailsBurst(2);
+        props.setRateLimitRedirectPerSecond(1);
+        props.setRateLimitRedirectBurst(1);
+        filter = new RateLimitFilter(new RateLimiter(props, new SimpleMeterRegistry()), new ObjectMapper());
+    }
+
+    @Test
+    void givenClientOverItsLimit_whenFilter_thenTooManyRequestsWithRetryAfter() throws Exception {
+        // arrange
+        final MockHttpServletResponse allowed = new MockHttpServletResponse();
+        final MockHttpServletResponse limited = new MockHttpServletResponse();
+
+        // act
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/code1"), allowed, filterChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/code2"), limited, filterChain);
+
+        // assert
+        assertEquals(200, allowed.getStatus());
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertEquals("application/json", limited.getContentType());
+        assertEquals("{\"code\":\"RATE_LIMITED\",\"message\":\"Too many requests, retry later\"}",
+                limited.getContentAsString());
+        verify(filterChain, times(1)).doFilter(any(), any());
+    }
+
+    @Test
+    void givenDifferentClientsAndTraffic_whenFilter_thenEachHasItsOwnBucket() throws Exception {
+        // arrange
+        final MockHttpServletRequest otherClient = new MockHttpServletRequest("GET", "/r/code1");
+        otherClient.setRemoteAddr("10.0.0.2");
+
+        // act
+        final int redirect = status(new MockHttpServletRequest("GET", "/r/code1"));
+        final int redirectOtherClient = status(otherClient);
+        final int details = status(new MockHttpServletRequest("GET", "/links/code1"));
+        final int list = status(new MockHttpServletRequest("GET", "/links"));
+        final int create = status(new MockHttpServletRequest("POST", "/links"));
+
+        // assert
+        assertEquals(200, redirect);
+        assertEquals(200, redirectOtherClient);
+        assertEquals(200, details);
+        assertEquals(200, list);
+        assertEquals(200, create);
+        assertEquals(429, status(new MockHttpServletRequest("GET", "/links/code1/stats")));
+        assertEquals(429, status(new MockHttpServletRequest("POST", "/links/batch")));
+    }
+
+    @Test
+    void givenConfiguredApiKey_whenCreate_thenLimitedPerKeyNotPerAddress() throws Exception {
+        // arrange
+        final MockHttpServletRequest withKey = new MockHttpServletRequest("POST", "/links");
+        withKey.addHeader("X-API-KEY", "dev-key-123");
+        final MockHttpServletRequest sameKeyOtherAddress = new MockHttpServletRequest("POST", "/links");
+        sameKeyOtherAddress.addHeader("X-API-KEY", "dev-key-123");
+        sameKeyOtherAddress.setRemoteAddr("10.0.0.2");
+        final MockHttpServletRequest unknownKey = new MockHttpServletRequest("POST", "/links");
+        unknownKey.addHeader("X-API-KEY", "random-key");
+
+        // act
+        final int first = status(withKey);
+        final int second = status(sameKeyOtherAddress);
+        final int byAddress = status(unknownKey);
+
+        // assert
+        assertEquals(200, first);
+        assertEquals(429, second);
+        assertEquals(200, byAddress);
+        // a different unknown key is still counted against the same address
+        final MockHttpServletRequest anotherUnknownKey = new MockHttpServletRequest("POST", "/links");
+        anotherUnknownKey.addHeader("X-API-KEY", "another-random-key");
+        assertEquals(429, status(anotherUnknownKey));
+    }
+
+    @Test
+    void givenRequests_whenTrafficOf_thenKindOfTheEndpoint() {
+        // act + assert
+        assertEquals(RateLimiter.Traffic.CREATE,
+                RateLimitFilter.trafficOf(new MockHttpServletRequest("POST", "/links")));
+        assertEquals(RateLimiter.Traffic.CREATE,
+                RateLimitFilter.trafficOf(new MockHttpServletRequest("POST", "/links/batch")));
+        assertEquals(RateLimiter.Traffic.CREATE,
+                RateLimitFilter.trafficOf(new MockHttpServletRequest("POST", "/links/import")));
+        assertEquals(RateLimiter.Traffic.DETAILS,
+                RateLimitFilter.trafficOf(new MockHttpServletRequest("GET", "/links/code1")));
+        assertEquals(RateLimiter.Traffic.DETAILS,
+                RateLimitFilter.trafficOf(new MockHttpServletRequest("HEAD", "/links")));
+        assertEquals(RateLimiter.Traffic.REDIRECT,
+                RateLimitFilter.trafficOf(new MockHttpServletRequest("GET", "/r/code1")));
+        assertNull(RateLimitFilter.trafficOf(new MockHttpServletRequest("POST", "/links/code1")));
+        assertNull(RateLimitFilter.trafficOf(new MockHttpServletRequest("DELETE", "/links/code1")));
+        assertNull(RateLimitFilter.trafficOf(new MockHttpServletRequest("GET", "/linksx")));
+        assertNull(RateLimitFilter.trafficOf(new MockHttpServletRequest("GET", "/actuator/health")));
+    }
+
+    private int status(final MockHttpServletRequest request) throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response.getStatus();
+    }
+}
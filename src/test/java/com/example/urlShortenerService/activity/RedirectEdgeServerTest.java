@@ -0,0 +1,215 @@
+package com.example.urlShortenerService.activity;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import com.example.urlShortenerService.exception.GlobalExceptionHandler;
+import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.example.urlShortenerService.ratelimit.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RedirectEdgeServerTest {
+
+    private static final String TARGET_URL = "https://google.com";
+
+    @Mock
+    private UrlManager manager;
+
+    private RedirectEdgeServer server;
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        start(new ShortenerProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void givenRedirectRateLimit_whenClientExceedsIt_thenTooManyRequestsWithoutLookup() throws Exception {
+        // arrange
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setRateLimitEnabled(true);
+        props.setRateLimitRedirectPerSecond(1);
+        props.setRateLimitRedirectBurst(1);
+        server.stop();
+        start(props);
+        when(manager.resolveRedirect(eq("code1"), any(), any())).thenReturn(RedirectResult.found(TARGET_URL));
+
+        // act
+        final HttpResponse<String> allowed = get("/r/code1");
+        final HttpResponse<String> limited = get("/r/code1");
+
+        // assert
+        assertEquals(302, allowed.statusCode());
+        assertEquals(429, limited.statusCode());
+        assertEquals("1", limited.headers().firstValue("Retry-After").orElseThrow());
+        assertEquals("{\"code\":\"RATE_LIMITED\",\"message\":\"Too many requests, retry later\"}", limited.body());
+        verify(manager).resolveRedirect(eq("code1"), any(), any());
+    }
+
+    @Test
+    void givenKnownShortCode_whenGet_thenRedirectAndPassClickHeaders() throws Exception {
+        // arrange
+        when(manager.resolveRedirect("code1", "https://news.example.com/", "curl/8.5.0"))
+                .thenReturn(RedirectResult.found(TARGET_URL));
+
+        // act
+        final HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/r/code1"))
+                .header("Referer", "https://news.example.com/")
+                .header("User-Agent", "curl/8.5.0")
+                .build(), HttpResponse.BodyHandlers.ofString());
+
+        // assert
+        assertEquals(302, response.statusCode());
+        assertEquals(TARGET_URL, response.headers().firstValue("Location").orElseThrow());
+    }
+
+    @Test
+    void givenPermanentShortCode_whenGet_thenMovedPermanentlyWithCacheControl() throws Exception {
+        // arrange
+        when(manager.resolveRedirect(eq("perm1"), any(), any()))
+                .thenReturn(RedirectResult.found(TARGET_URL, RedirectPolicy.PERMANENT, 3600L));
+
+        // act
+        final HttpResponse<String> response = get("/r/perm1");
+
+        // assert
+        assertEquals(301, response.statusCode());
+        assertEquals(TARGET_URL, response.headers().firstValue("Location").orElseThrow());
+        assertEquals("public, max-age=3600", response.headers().firstValue("Cache-Control").orElseThrow());
+    }
+
+    @Test
+    void givenUnknownAndExpiredShortCodes_whenGet_thenSameErrorBodiesAsTheMainPort() throws Exception {
+        // arrange
+        when(manager.resolveRedirect(eq("missing"), any(), any()))
+                .thenReturn(RedirectResult.NOT_FOUND);
+        when(manager.resolveRedirect(eq("expired"), any(), any()))
+                .thenReturn(RedirectResult.EXPIRED);
+
+        // act
+        final HttpResponse<String> missing = get("/r/missing");
+        final HttpResponse<String> expired = get("/r/expired");
+
+        // assert
+        assertEquals(404, missing.statusCode());
+        assertEquals("application/json", missing.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals("{\"code\":\"NOT_FOUND\",\"message\":\"Short URL not found\"}", missing.body());
+        assertEquals(410, expired.statusCode());
+        assertEquals("{\"code\":\"EXPIRED_URL\",\"message\":\"Short URL has expired\"}", expired.body());
+    }
+
+    @Test
+    void givenOverloadedOrFailingManager_whenGet_thenHandlerResponses() throws Exception {
+        // arrange
+        when(manager.resolveRedirect(anyString(), any(), any()))
+                .thenThrow(new DatabaseOverloadedException("No database connection available"))
+                .thenThrow(new IllegalStateException("boom"));
+
+        // act
+        final HttpResponse<String> busy = get("/r/busy");
+        final HttpResponse<String> failed = get("/r/boom");
+
+        // assert
+        assertEquals(503, busy.statusCode());
+        assertEquals("{\"code\":\"SERVICE_OVERLOADED\",\"message\":\"No database connection available\"}",
+                busy.body());
+        assertEquals(500, failed.statusCode());
+    }
+
+    @Test
+    void givenOtherMethodOrPath_whenRequest_thenRejectedWithoutLookup() throws Exception {
+        // act
+        final HttpResponse<String> post = client.send(HttpRequest.newBuilder(uri("/r/code1"))
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+        final HttpResponse<String> nested = get("/r/code1/extra");
+        final HttpResponse<String> empty = get("/r/");
+
+        // assert
+        assertEquals(405, post.statusCode());
+        assertEquals("GET", post.headers().firstValue("Allow").orElseThrow());
+        assertEquals(404, nested.statusCode());
+        assertEquals(404, empty.statusCode());
+        verify(manager, never()).resolveRedirect(anyString(), any(), any());
+    }
+
+    @Test
+    void givenPipelinedRequestsOnOneConnection_whenSent_thenAnsweredInOrder() throws Exception {
+        // arrange
+        when(manager.resolveRedirect("first", null, null)).thenReturn(RedirectResult.found(TARGET_URL + "/1"));
+        when(manager.resolveRedirect("second", null, null)).thenReturn(RedirectResult.found(TARGET_URL + "/2"));
+
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            // act: both requests written before reading any response
+            final OutputStream out = socket.getOutputStream();
+            out.write(("GET /r/first HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "GET /r/second HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            // assert
+            final BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            final List<String> locations = new ArrayList<>();
+            while (locations.size() < 2) {
+                final String line = in.readLine();
+                assertTrue(line != null, "connection closed before the second response");
+                if (line.regionMatches(true, 0, "Location:", 0, 9)) {
+                    locations.add(line.substring(9).trim());
+                }
+            }
+            assertEquals(List.of(TARGET_URL + "/1", TARGET_URL + "/2"), locations);
+        }
+    }
+
+    private HttpResponse<String> get(final String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    private void start(final ShortenerProperties props) {
+        props.setEdgeServerPort(0);
+        server = new RedirectEdgeServer(manager, new GlobalExceptionHandler(), new ObjectMapper(), props,
+                new RateLimiter(props, new SimpleMeterRegistry()));
+        server.start();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.urlShortenerService.activity;
+
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import com.example.urlShortenerService.exception.GlobalExceptionHandler;
+import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class RedirectFilterTest {
+
+    private static final String SHORT_CODE = "code1";
+    private static final String TARGET_URL = "https://google.com";
+
+    @Mock
+    private UrlManager manager;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RedirectFilter filter;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RedirectFilter(manager, new GlobalExceptionHandler(), new ObjectMapper());
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void givenKnownShortCode_whenFilter_thenRedirectWithoutDispatch() throws Exception {
+        // arrange
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/r/" + SHORT_CODE);
+        request.addHeader("Referer", "https://news.example.com/");
+        request.addHeader("User-Agent", "curl/8.5.0");
+        when(manager.resolveRedirect(SHORT_CODE, "https://news.example.com/", "curl/8.5.0"))
+                .thenReturn(RedirectResult.found(TARGET_URL));
+
+        // act
+        filter.doFilter(request, response, filterChain);
+
+        // assert
+        assertEquals(302, response.getStatus());
+        assertEquals(TARGET_URL, response.getHeader("Location"));
+        assertNull(response.getHeader("Cache-Control"));
+        verify(filterChain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void givenCacheableAndPermanentShortCodes_whenFilter_thenStatusAndCacheControlOfThePolicy() throws Exception {
+        // arrange
+        when(manager.resolveRedirect("cacheable", null, null))
+                .thenReturn(RedirectResult.found(TARGET_URL, RedirectPolicy.CACHEABLE, 60L));
+        when(manager.resolveRedirect("permanent", null, null))
+                .thenReturn(RedirectResult.found(TARGET_URL, RedirectPolicy.PERMANENT, 3600L));
+        final MockHttpServletResponse permanent = new MockHttpServletResponse();
+
+        // act
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/cacheable"), response, filterChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/permanent"), permanent, filterChain);
+
+        // assert
+        assertEquals(302, response.getStatus());
+        assertEquals("public, max-age=60", response.getHeader("Cache-Control"));
+        assertEquals(301, permanent.getStatus());
+        assertEquals(TARGET_URL, permanent.getHeader("Location"));
+        assertEquals("public, max-age=3600", permanent.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void givenNonAsciiTarget_whenFilter_thenLocationPercentEncodedLikeUriToAsciiString() throws Exception {
+        // arrange
+        final String target = "https://example.com/café?q=ü";
+        when(manager.resolveRedirect(SHORT_CODE, null, null)).thenReturn(RedirectResult.found(target));
+
+        // act
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/" + SHORT_CODE), response, filterChain);
+        final MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/" + SHORT_CODE), second, filterChain);
+
+        // assert
+        assertEquals("https://example.com/caf%C3%A9?q=%C3%BC", response.getHeader("Location"));
+        assertEquals(response.getHeader("Location"), second.getHeader("Location"));
+    }
+
+    @Test
+    void givenUnknownAndExpiredShortCodes_whenFilter_thenSameErrorBodiesAsTheExceptionHandler() throws Exception {
+        // arrange
+        when(manager.resolveRedirect("missing", null, null)).thenReturn(RedirectResult.NOT_FOUND);
+        when(manager.resolveRedirect("expired", null, null)).thenReturn(RedirectResult.EXPIRED);
+        final MockHttpServletResponse expired = new MockHttpServletResponse();
+
+        // act
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/missing"), response, filterChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/expired"), expired, filterChain);
+
+        // assert
+        assertEquals(404, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{\"code\":\"NOT_FOUND\",\"message\":\"Short URL not found\"}", response.getContentAsString());
+        assertEquals(410, expired.getStatus());
+        assertEquals("{\"code\":\"EXPIRED_URL\",\"message\":\"Short URL has expired\"}", expired.getContentAsString());
+    }
+
+    @Test
+    void givenOverloadedOrFailingManager_whenFilter_thenHandlerResponses() throws Exception {
+        // arrange
+        when(manager.resolveRedirect("busy", null, null))
+                .thenThrow(new DatabaseOverloadedException("No database connection available"));
+        when(manager.resolveRedirect("boom", null, null)).thenThrow(new IllegalStateException("boom"));
+        final MockHttpServletResponse failed = new MockHttpServletResponse();
+
+        // act
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/busy"), response, filterChain);
+        filter.doFilter(new MockHttpServletRequest("GET", "/r/boom"), failed, filterChain);
+
+        // assert
+        assertEquals(503, response.getStatus());
+        assertEquals("{\"code\":\"SERVICE_OVERLOADED\",\"message\":\"No database connection available\"}",
+                response.getContentAsString());
+        assertEquals(500, failed.getStatus());
+        assertEquals("{\"code\":\"INTERNAL_ERROR\",\"message\":\"An unexpected error occurred\"}",
+                failed.getContentAsString());
+    }
+
+    @Test
+    void givenRequestsOutsideTheFastPath_whenFilter_thenPassedToTheDispatch() throws Exception {
+        // arrange
+        final MockHttpServletRequest post = new MockHttpServletRequest("POST", "/r/" + SHORT_CODE);
+        final MockHttpServletRequest encoded = new MockHttpServletRequest("GET", "/r/code%201");
+        final MockHttpServletRequest nested = new MockHttpServletRequest("GET", "/r/code1/extra");
+        final MockHttpServletRequest empty = new MockHttpServletRequest("GET", "/r/");
+
+        // act
+        filter.doFilter(post, response, filterChain);
+        filter.doFilter(encoded, response, filterChain);
+        filter.doFilter(nested, response, filterChain);
+        filter.doFilter(empty, response, filterChain);
+
+        // assert
+        verify(filterChain).doFilter(post, response);
+        verify(filterChain).doFilter(encoded, response);
+        verify(filterChain).doFilter(nested, response);
+        verify(filterChain).doFilter(empty, response);
+        verify(manager, never()).resolveRedirect(anyString(), any(), any());
+    }
+
+    @Test
+    void givenContextPath_whenShortCodeOf_thenCodeAfterThePrefix() {
+        // arrange
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/r/" + SHORT_CODE);
+        request.setContextPath("/app");
+
+        // act + assert
+        assertEquals(SHORT_CODE, RedirectFilter.shortCodeOf(request));
+        assertNull(RedirectFilter.shortCodeOf(new MockHttpServletRequest("GET", "/links/" + SHORT_CODE)));
+    }
+}
@@ -1,29 +1,64 @@
 package com.example.urlShortenerService.activity;
 
+import com.example.urlShortenerService.exception.ImportNotValidException;
 import com.example.urlShortenerService.exception.ShortUrlExpiredException;
 import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.linkimport.LinkImporter;
 import com.example.urlShortenerService.manager.UrlManager;
+import com.example.urlShortenerService.model.AliasAvailabilityOutput;
+import com.example.urlShortenerService.model.BatchCreateUrlInput;
+import com.example.urlShortenerService.model.BatchCreateUrlOutput;
+import com.example.urlShortenerService.model.ClickRollup;
 import com.example.urlShortenerService.model.CreateUrlInput;
 import com.example.urlShortenerService.model.CreateUrlOutput;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.ImportSummaryOutput;
 import com.example.urlShortenerService.model.LinkDetailsOutput;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.LinkPageOutput;
+import com.example.urlShortenerService.model.LinkStatsOutput;
 import com.example.urlShortenerService.model.LinkStatus;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,6 +74,15 @@ public class UrlActivityTest {
     @Mock
     private UrlManager manager;
 
+    @Mock
+    private LinkImporter importer;
+
+    // configured like the MVC mapper: ISO dates, not timestamps
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
     @InjectMocks
     private UrlActivity urlActivity;
 
@@ -69,6 +113,26 @@ public class UrlActivityTest {
         assertEquals(expectedCreateUrlOutput, actualCreateUrlOutput.getBody());
     }
 
+    @Test
+    public void givenBatchCreateUrlInput_whenCreateUrls_thenReturnManagerOutput() {
+        // arrange
+        final CreateUrlInput item = CreateUrlInput.builder().targetUrl(LONG_URL).build();
+        final BatchCreateUrlOutput expectedOutput = BatchCreateUrlOutput.builder()
+                .created(1)
+                .results(List.of())
+                .build();
+        when(manager.createUrls(List.of(item))).thenReturn(expectedOutput);
+
+        // test
+        final ResponseEntity<BatchCreateUrlOutput> actualOutput = urlActivity.createUrls(
+                BatchCreateUrlInput.builder().items(List.of(item)).build());
+
+        // assert
+        verify(manager, times(1)).createUrls(List.of(item));
+        assertEquals(HttpStatus.OK, actualOutput.getStatusCode());
+        assertEquals(expectedOutput, actualOutput.getBody());
+    }
+
     @Test
     public void givenAvailableShortCode_whenRedirect_thenRedirectCorrectly() {
         // arrange
@@ -76,40 +140,53 @@ public class UrlActivityTest {
                 .status(HttpStatus.FOUND)
                 .location(URI.create(LONG_URL))
                 .build();
-        when(manager.getTargetUrl(SHORT_CODE)).thenReturn(LONG_URL);
+        when(manager.resolveRedirect(SHORT_CODE, null, null)).thenReturn(RedirectResult.found(LONG_URL));
 
         // test
-        final ResponseEntity<Void> actualResponse = urlActivity.redirect(SHORT_CODE);
+        final ResponseEntity<Void> actualResponse = urlActivity.redirect(SHORT_CODE, null, null);
 
         // assert
-        verify(manager, times(1)).getTargetUrl(SHORT_CODE);
+        verify(manager, times(1)).resolveRedirect(SHORT_CODE, null, null);
         assertEquals(expectedResponse, actualResponse);
     }
 
+    @Test
+    public void givenPermanentShortCode_whenRedirect_thenMovedPermanentlyWithMaxAge() {
+        // arrange
+        when(manager.resolveRedirect(SHORT_CODE, null, null))
+                .thenReturn(RedirectResult.found(LONG_URL, RedirectPolicy.PERMANENT, 3600L));
+
+        // test
+        final ResponseEntity<Void> actualResponse = urlActivity.redirect(SHORT_CODE, null, null);
+
+        // assert
+        assertEquals(HttpStatus.MOVED_PERMANENTLY, actualResponse.getStatusCode());
+        assertEquals(URI.create(LONG_URL), actualResponse.getHeaders().getLocation());
+        assertEquals("public, max-age=3600", actualResponse.getHeaders().getCacheControl());
+    }
+
     @Test
     public void givenExpiredShortCode_whenRedirect_thenThrowsShortUrlExpiredException() {
         // arrange
-        when(manager.getTargetUrl(SHORT_CODE))
-                .thenThrow(new ShortUrlExpiredException("Short URL has expired"));
+        when(manager.resolveRedirect(SHORT_CODE, null, null)).thenReturn(RedirectResult.EXPIRED);
 
         // test + assert
         assertThrowsExactly(ShortUrlExpiredException.class,
-                () -> urlActivity.redirect(SHORT_CODE));
+                () -> urlActivity.redirect(SHORT_CODE, null, null));
 
-        verify(manager, times(1)).getTargetUrl(SHORT_CODE);
+        verify(manager, times(1)).resolveRedirect(SHORT_CODE, null, null);
     }
 
     @Test
     public void givenWrongShortCode_whenRedirect_thenThrowsShortUrlNotFoundException() {
         // arrange
-        when(manager.getTargetUrl(SHORT_CODE))
-                .thenThrow(new ShortUrlNotFoundException("Short URL not found"));
+        when(manager.resolveRedirect(SHORT_CODE, null, null)).thenReturn(RedirectResult.NOT_FOUND);
 
         // test + assert
         assertThrowsExactly(ShortUrlNotFoundException.class,
-                () -> urlActivity.redirect(SHORT_CODE));
+                () -> urlActivity.redirect(SHORT_CODE, null, null));
 
-        verify(manager, times(1)).getTargetUrl(SHORT_CODE);
+        verify(manager, times(1)).resolveRedirect(SHORT_CODE, null, null);
     }
 
     @Test
@@ -126,7 +203,10 @@ public class UrlActivityTest {
                 .lastAccessedAt(LocalDateTime.now().plusSeconds(5))
                 .status(LinkStatus.ACTIVE)
                 .build();
-        final ResponseEntity<LinkDetailsOutput> expectedResponse = ResponseEntity.ok(linkDetailsOutput);
+        final ResponseEntity<LinkDetailsOutput> expectedResponse = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(linkDetailsOutput.etag())
+                .body(linkDetailsOutput);
         when(manager.getLinkDetails(SHORT_CODE)).thenReturn(linkDetailsOutput);
 
         // test
@@ -135,6 +215,28 @@ public class UrlActivityTest {
         // assert
         verify(manager, times(1)).getLinkDetails(SHORT_CODE);
         assertEquals(expectedResponse, actualResponse);
+        assertTrue(actualResponse.getHeaders().getETag().startsWith("\"5-"));
+    }
+
+    @Test
+    void givenDetailsDifferingInOneField_whenEtag_thenDifferentEtags() {
+        // arrange
+        final LinkDetailsOutput details = LinkDetailsOutput.builder()
+                .shortCode(SHORT_CODE)
+                .targetUrl(LONG_URL)
+                .clickCount(5)
+                .status(LinkStatus.EXPIRED)
+                .redirectPolicy(RedirectPolicy.PERMANENT)
+                .build();
+        final String etag = details.etag();
+
+        // act + assert
+        assertEquals(etag, details.etag());
+        details.setRedirectPolicy(null);
+        assertNotEquals(etag, details.etag());
+        details.setRedirectPolicy(RedirectPolicy.PERMANENT);
+        details.setTargetUrl(TARGET_URL);
+        assertNotEquals(etag, details.etag());
     }
 
     @Test
@@ -150,6 +252,29 @@ public class UrlActivityTest {
         verify(manager, times(1)).getLinkDetails(SHORT_CODE);
     }
 
+    @Test
+    void givenShortCode_whenGetLinkStats_thenReturnBuckets() {
+        // arrange
+        final LocalDateTime from = LocalDateTime.of(2025, 1, 31, 10, 0);
+        final LinkStatsOutput stats = LinkStatsOutput.builder()
+                .shortCode(SHORT_CODE)
+                .granularity(StatsGranularity.HOUR)
+                .from(from)
+                .to(from.plusHours(1))
+                .totalClicks(3L)
+                .buckets(List.of(new ClickRollup(from, 3L)))
+                .build();
+        when(manager.getLinkStats(SHORT_CODE, from.toString(), null, "hour")).thenReturn(stats);
+
+        // act
+        final ResponseEntity<LinkStatsOutput> actual =
+                urlActivity.getLinkStats(SHORT_CODE, from.toString(), null, "hour");
+
+        // assert
+        assertEquals(ResponseEntity.ok(stats), actual);
+        verify(manager).getLinkStats(SHORT_CODE, from.toString(), null, "hour");
+    }
+
     @Test
     void givenLinksExist_whenListLinks_thenReturnPage() {
         // arrange
@@ -172,4 +297,115 @@ public class UrlActivityTest {
         assertEquals(expected.getContent(), actual.getBody().getContent());
         verify(manager).listLinks(0, 20);
     }
+
+    @Test
+    void givenCursor_whenListLinksAfter_thenReturnCursorPage() {
+        // arrange
+        final LinkPageOutput expected = LinkPageOutput.builder()
+                .items(List.of(LinkDetailsOutput.builder().shortCode(SHORT_CODE).build()))
+                .size(1)
+                .hasNext(false)
+                .build();
+        when(manager.listLinksAfter("cursor", 20)).thenReturn(expected);
+
+        // act
+        final ResponseEntity<LinkPageOutput> actual = urlActivity.listLinksAfter("cursor", 20);
+
+        // assert
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(expected, actual.getBody());
+        verify(manager).listLinksAfter("cursor", 20);
+    }
+
+    @Test
+    void givenAlias_whenCheckAliasAvailability_thenReturnManagerOutput() {
+        // arrange
+        final AliasAvailabilityOutput expected = AliasAvailabilityOutput.builder()
+                .alias(SHORT_CODE)
+                .available(true)
+                .build();
+        when(manager.checkAliasAvailability(SHORT_CODE)).thenReturn(expected);
+
+        // act
+        final ResponseEntity<AliasAvailabilityOutput> actual = urlActivity.checkAliasAvailability(SHORT_CODE);
+
+        // assert
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(expected, actual.getBody());
+    }
+
+    @Test
+    void givenLinks_whenExportLinks_thenOneJsonObjectPerLine() throws Exception {
+        // arrange
+        final LinkExportFilter filter = new LinkExportFilter(LinkStatus.ACTIVE, null, null);
+        when(manager.exportFilter("active", null, null)).thenReturn(filter);
+        when(manager.exportLinks(eq(filter), any())).thenAnswer(invocation -> {
+            final Consumer<LinkDetailsOutput> action = invocation.getArgument(1);
+            action.accept(LinkDetailsOutput.builder().shortCode("code1").targetUrl(TARGET_URL)
+                    .createdAt(LocalDateTime.of(2025, 1, 1, 12, 0)).status(LinkStatus.ACTIVE).build());
+            action.accept(LinkDetailsOutput.builder().shortCode("code2").status(LinkStatus.ACTIVE).build());
+            return 2L;
+        });
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // act
+        final ResponseEntity<StreamingResponseBody> actual = urlActivity.exportLinks("active", null, null);
+        actual.getBody().writeTo(out);
+
+        // assert
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, actual.getHeaders().getContentType());
+        final String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        final JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("code1", first.get("shortCode").asText());
+        assertEquals("2025-01-01T12:00:00", first.get("createdAt").asText());
+        assertEquals("code2", objectMapper.readTree(lines[1]).get("shortCode").asText());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+    }
+
+    @Test
+    void givenNdjsonUpload_whenImportLinks_thenReturnSummary() {
+        // arrange
+        final InputStream body = new ByteArrayInputStream(new byte[0]);
+        final ImportSummaryOutput summary = ImportSummaryOutput.builder().importId("id1").format(ImportFormat.NDJSON)
+                .lines(2).imported(1).rejected(1).report("/links/import/id1/report").build();
+        when(importer.importLinks(body, ImportFormat.NDJSON)).thenReturn(summary);
+
+        // act
+        final ResponseEntity<ImportSummaryOutput> actual =
+                urlActivity.importLinks("application/x-ndjson; charset=UTF-8", body);
+
+        // assert
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(summary, actual.getBody());
+    }
+
+    @Test
+    void givenJsonUpload_whenImportLinks_thenThrowImportNotValidException() {
+        // arrange
+        final InputStream body = new ByteArrayInputStream(new byte[0]);
+
+        // act + assert
+        assertThrowsExactly(ImportNotValidException.class,
+                () -> urlActivity.importLinks(MediaType.APPLICATION_JSON_VALUE, body));
+        verify(importer, never()).importLinks(any(), any());
+    }
+
+    @Test
+    void givenImportId_whenGetImportReport_thenReturnNdjsonAttachment() {
+        // arrange
+        final Path report = Path.of("reports", "id1.ndjson");
+        when(importer.reportFile("id1")).thenReturn(report);
+
+        // act
+        final ResponseEntity<FileSystemResource> actual = urlActivity.getImportReport("id1");
+
+        // assert
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, actual.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"id1.ndjson\"",
+                actual.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals(report, actual.getBody().getFile().toPath());
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.urlShortenerService.alias;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AliasCodecTest {
+
+    @Test
+    void givenShortAliases_whenPackAndUnpack_thenSameAlias() {
+        // arrange
+        final String[] aliases = {"a", "Z", "0", "-", "_", "mario", "aB3_-xYz09", "__________", "zzzzzzzzzz"};
+
+        // act + assert
+        for (final String alias : aliases) {
+            final long code = AliasCodec.pack(alias);
+            assertNotEquals(AliasCodec.NOT_PACKED, code);
+            assertEquals(alias, AliasCodec.unpack(code));
+        }
+    }
+
+    @Test
+    void givenAliasesWithLeadingZeros_whenPack_thenDistinctCodes() {
+        // arrange: "0" is symbol 0, only the length tells these apart
+        final String[] aliases = {"0", "00", "000", "0000000000", "1", "01", "10"};
+        final Set<Long> codes = new HashSet<>();
+
+        // act
+        for (final String alias : aliases) {
+            codes.add(AliasCodec.pack(alias));
+        }
+
+        // assert
+        assertEquals(aliases.length, codes.size());
+    }
+
+    @Test
+    void givenAliasNotPackable_whenPack_thenNotPacked() {
+        // act + assert
+        assertEquals(AliasCodec.NOT_PACKED, AliasCodec.pack(""));
+        assertEquals(AliasCodec.NOT_PACKED, AliasCodec.pack("abcdefghijk"));
+        assertEquals(AliasCodec.NOT_PACKED, AliasCodec.pack("promo.2024"));
+        assertEquals(AliasCodec.NOT_PACKED, AliasCodec.pack("alïas"));
+        assertEquals(AliasCodec.NOT_PACKED, AliasCodec.pack("a b"));
+    }
+
+    @Test
+    void givenInvalidCode_whenUnpack_thenThrow() {
+        // act + assert
+        assertThrows(IllegalArgumentException.class, () -> AliasCodec.unpack(AliasCodec.NOT_PACKED));
+        assertThrows(IllegalArgumentException.class, () -> AliasCodec.unpack(-1L));
+    }
+
+    @Test
+    void givenConsecutiveCodes_whenHash_thenLowBitsSpread() {
+        // arrange
+        final Set<Integer> buckets = new HashSet<>();
+
+        // act
+        for (int i = 0; i < 1000; i++) {
+            buckets.add(AliasCodec.hash(AliasCodec.pack("a" + i)) & 1023);
+        }
+
+        // assert: close to the ~630 distinct buckets of a uniform hash
+        assertTrue(buckets.size() > 550);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.urlShortenerService.alias;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LongLongHashMapTest {
+
+    private final LongLongHashMap map = new LongLongHashMap(4);
+
+    @Test
+    void givenEntries_whenGet_thenReturnTheirValues() {
+        // arrange
+        map.put(code("mario"), 8L);
+        map.put(code("luigi"), 16L);
+
+        // act
+        final long mario = map.get(code("mario"));
+        final long unknown = map.get(code("peach"));
+
+        // assert
+        assertEquals(8L, mario);
+        assertEquals(16L, map.get(code("luigi")));
+        assertEquals(LongLongHashMap.NO_VALUE, unknown);
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void givenExistingKey_whenPut_thenReplaceAndReturnPrevious() {
+        // arrange
+        map.put(code("mario"), 8L);
+
+        // act
+        final long previous = map.put(code("mario"), 24L);
+
+        // assert
+        assertEquals(8L, previous);
+        assertEquals(24L, map.get(code("mario")));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void givenRemovedKey_whenGetOrPutAgain_thenAbsentThenStoredAgain() {
+        // arrange
+        map.put(code("mario"), 8L);
+
+        // act
+        final boolean stale = map.remove(code("mario"), 99L);
+        final boolean removed = map.remove(code("mario"), 8L);
+
+        // assert
+        assertFalse(stale);
+        assertTrue(removed);
+        assertFalse(map.remove(code("mario"), 8L));
+        assertFalse(map.remove(code("peach"), 8L));
+        assertEquals(LongLongHashMap.NO_VALUE, map.get(code("mario")));
+        assertEquals(0, map.size());
+        assertEquals(LongLongHashMap.NO_VALUE, map.put(code("mario"), 32L));
+        assertEquals(32L, map.get(code("mario")));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void givenManyKeys_whenPut_thenTableGrowsAndMatchesAHashMap() {
+        // arrange
+        final Map<Long, Long> expected = new HashMap<>();
+
+        // act
+        for (int i = 0; i < 20_000; i++) {
+            map.put(code("k" + i), i);
+            expected.put(code("k" + i), (long) i);
+            if (i % 3 == 0) {
+                map.remove(code("k" + (i / 2)), i / 2);
+                expected.remove(code("k" + (i / 2)), (long) (i / 2));
+            }
+        }
+
+        // assert
+        final Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), map.size());
+        assertTrue(map.capacity() >= 2 * map.size());
+    }
+
+    @Test
+    void givenReservedKeyOrValue_whenPut_thenThrow() {
+        // act + assert
+        assertThrows(IllegalArgumentException.class, () -> map.put(AliasCodec.NOT_PACKED, 1L));
+        assertThrows(IllegalArgumentException.class, () -> map.put(code("mario"), LongLongHashMap.NO_VALUE));
+    }
+
+    private static long code(final String alias) {
+        return AliasCodec.pack(alias);
+    }
+}
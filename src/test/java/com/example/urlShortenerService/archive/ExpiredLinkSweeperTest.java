@@ -0,0 +1,142 @@
+package com.example.urlShortenerService.archive;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpiredLinkSweeperTest {
+
+    @Mock
+    private UrlRepository dbClient;
+
+    private final ShortenerProperties props = new ShortenerProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExpiredLinkSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        props.setSweepBatchSize(2);
+        props.setSweepBatchPauseMs(0);
+        props.setSweepMaxBatchesPerRun(3);
+        sweeper = new ExpiredLinkSweeper(dbClient, props, meterRegistry);
+    }
+
+    @Test
+    void givenExpiredLinks_whenSweep_thenArchiveBatchesUntilShortBatch() {
+        // arrange
+        when(dbClient.archiveExpired(any(), eq(2), any())).thenReturn(2, 1);
+
+        // act
+        final int archived = sweeper.sweep();
+
+        // assert
+        assertEquals(3, archived);
+        verify(dbClient, times(2)).archiveExpired(any(), eq(2), any());
+        assertEquals(3.0, meterRegistry.get("shortener.sweep.archived").counter().count());
+        assertEquals(2, meterRegistry.get("shortener.sweep.batches").timer().count());
+    }
+
+    @Test
+    void givenGracePeriod_whenSweep_thenOnlyArchiveLinksExpiredBeforeIt() {
+        // arrange
+        final ArgumentCaptor<LocalDateTime> expiredBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        final LocalDateTime before = LocalDateTime.now().minusHours(24);
+
+        // act
+        sweeper.sweep();
+
+        // assert
+        verify(dbClient).archiveExpired(expiredBefore.capture(), anyInt(), any());
+        assertTrue(!expiredBefore.getValue().isBefore(before)
+                && expiredBefore.getValue().isBefore(LocalDateTime.now().minusHours(23)));
+    }
+
+    @Test
+    void givenFullBatches_whenSweep_thenStopAtMaxBatchesPerRun() {
+        // arrange
+        when(dbClient.archiveExpired(any(), anyInt(), any())).thenReturn(2);
+
+        // act
+        final int archived = sweeper.sweep();
+
+        // assert
+        assertEquals(6, archived);
+        verify(dbClient, times(3)).archiveExpired(any(), anyInt(), any());
+    }
+
+    @Test
+    void givenFailingBatch_whenSweep_thenKeepArchivedCountAndRetryNextRun() {
+        // arrange
+        when(dbClient.archiveExpired(any(), anyInt(), any()))
+                .thenReturn(2)
+                .thenThrow(new IllegalStateException("db down"));
+
+        // act
+        final int archived = sweeper.sweep();
+
+        // assert
+        assertEquals(2, archived);
+        assertEquals(2.0, meterRegistry.get("shortener.sweep.archived").counter().count());
+    }
+
+    @Test
+    void givenBacklog_whenSweep_thenExposeLag() {
+        // arrange
+        when(dbClient.findOldestExpiresAt()).thenReturn(LocalDateTime.now().minusHours(25));
+
+        // act
+        sweeper.sweep();
+
+        // assert
+        final long lag = sweeper.lagSeconds();
+        assertTrue(lag >= 3590 && lag <= 3610, "lag was " + lag);
+        assertEquals(lag, meterRegistry.get("shortener.sweep.lag").gauge().value());
+    }
+
+    @Test
+    void givenNoBacklogOrFailingLagQuery_whenSweep_thenLagIsZero() {
+        // arrange
+        when(dbClient.findOldestExpiresAt())
+                .thenReturn(LocalDateTime.now().plusDays(1))
+                .thenThrow(new IllegalStateException("db down"));
+
+        // act
+        sweeper.sweep();
+        sweeper.sweep();
+
+        // assert
+        assertEquals(0, sweeper.lagSeconds());
+    }
+
+    @Test
+    void givenSweepDisabled_whenSweep_thenDoNothing() {
+        // arrange
+        props.setSweepEnabled(false);
+
+        // act
+        final int archived = sweeper.sweep();
+
+        // assert
+        assertEquals(0, archived);
+        verify(dbClient, never()).archiveExpired(any(), anyInt(), any());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class AliasBloomFilterTest {
+
+    private static final int ALIASES = 10_000;
+
+    @Mock
+    private LinkStore dbClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenAliasesInDatabase_whenLoad_thenNoFalseNegativeAndBoundedFalsePositives() {
+        // arrange
+        final AliasBloomFilter filter = newFilter(true);
+        doAnswer(invocation -> {
+            final Consumer<String> action = invocation.getArgument(0);
+            for (int i = 0; i < ALIASES; i++) {
+                action.accept("alias-" + i);
+            }
+            return null;
+        }).when(dbClient).forEachAlias(any(Consumer.class));
+
+        // act
+        filter.load();
+
+        // assert
+        for (int i = 0; i < ALIASES; i++) {
+            assertTrue(filter.mightContain("alias-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < ALIASES; i++) {
+            if (filter.mightContain("unknown-" + i)) {
+                falsePositives++;
+            }
+        }
+        // sized for 1%, allow some slack
+        assertTrue(falsePositives < ALIASES * 0.02, "false positives: " + falsePositives);
+        assertEquals(ALIASES - falsePositives,
+                meterRegistry.get("shortener.alias.filter.rejections").counter().count());
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void givenNotLoaded_whenMightContain_thenEveryAliasMayExist() {
+        // arrange
+        final AliasBloomFilter filter = newFilter(true);
+
+        // act + assert
+        assertTrue(filter.mightContain("anything"));
+        assertEquals(1.0, filter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    void givenLoadedFilter_whenPut_thenAliasMayExist() {
+        // arrange
+        final AliasBloomFilter filter = newFilter(true);
+        filter.load();
+        assertFalse(filter.mightContain("new-alias"));
+
+        // act
+        filter.put("new-alias");
+        filter.falsePositive();
+
+        // assert
+        assertTrue(filter.mightContain("new-alias"));
+        assertEquals(1.0, meterRegistry.get("shortener.alias.filter.false.positives").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenAliasInsertedByAnotherInstance_whenRefresh_thenAliasMayExist() {
+        // arrange
+        final AliasBloomFilter filter = newFilter(true);
+        filter.load();
+        filter.put("local-alias");
+        doAnswer(invocation -> {
+            final Consumer<String> action = invocation.getArgument(0);
+            action.accept("remote-alias");
+            return null;
+        }).when(dbClient).forEachAlias(any(Consumer.class));
+        assertFalse(filter.mightContain("remote-alias"));
+
+        // act
+        filter.refresh();
+
+        // assert
+        assertTrue(filter.mightContain("remote-alias"));
+        assertTrue(filter.mightContain("local-alias"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenStoreFailure_whenRefresh_thenFilterKeptAndNoException() {
+        // arrange
+        final AliasBloomFilter filter = newFilter(true);
+        filter.load();
+        filter.put("alias");
+        doThrow(new IllegalStateException("database down")).when(dbClient).forEachAlias(any(Consumer.class));
+
+        // act
+        filter.refresh();
+
+        // assert
+        assertTrue(filter.mightContain("alias"));
+        assertFalse(filter.mightContain("unknown"));
+    }
+
+    @Test
+    void givenDisabledFilter_whenLoadAndMightContain_thenNeverLoadAndNeverReject() {
+        // arrange
+        final AliasBloomFilter filter = newFilter(false);
+
+        // act
+        filter.load();
+        filter.refresh();
+        filter.put("alias");
+
+        // assert
+        assertTrue(filter.mightContain("unknown"));
+        verify(dbClient, never()).forEachAlias(any());
+    }
+
+    private AliasBloomFilter newFilter(final boolean enabled) {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setAliasFilterEnabled(enabled);
+        props.setAliasFilterExpectedAliases(ALIASES);
+        props.setAliasFilterFalsePositiveRate(0.01);
+        return new AliasBloomFilter(dbClient, props, meterRegistry);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CaffeineRedirectCacheTest {
+
+    private static final String ALIAS = "alias1";
+    private static final String TARGET_URL = "https://google.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedirectCache redirectCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        redirectCache = new CaffeineRedirectCache(new ShortenerProperties(), meterRegistry);
+    }
+
+    @Test
+    void givenCachedTarget_whenGet_thenReturnTarget() {
+        // arrange
+        final RedirectTarget target = new RedirectTarget(1L, TARGET_URL, LocalDateTime.now().plusDays(1));
+        redirectCache.put(ALIAS, target);
+
+        // act + assert
+        assertEquals(target, redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenTargetWithoutExpiration_whenGet_thenReturnTarget() {
+        // arrange
+        final RedirectTarget target = new RedirectTarget(1L, TARGET_URL, null);
+        redirectCache.put(ALIAS, target);
+
+        // act + assert
+        assertEquals(target, redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenExpiredTarget_whenPut_thenNotCached() {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, LocalDateTime.now().minusSeconds(1)));
+
+        // act + assert
+        assertNull(redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenTargetExpiringSoon_whenExpiresAtPasses_thenNotServed() throws InterruptedException {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, LocalDateTime.now().plusNanos(50_000_000)));
+        assertNotNull(redirectCache.get(ALIAS));
+
+        // act
+        Thread.sleep(100);
+
+        // assert
+        assertNull(redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenCachedTarget_whenInvalidate_thenRemoved() {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, null));
+
+        // act
+        redirectCache.invalidate(ALIAS);
+
+        // assert
+        assertNull(redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenHitsAndMisses_whenGet_thenStatisticsPublished() {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, null));
+
+        // act
+        redirectCache.get(ALIAS);
+        redirectCache.get("missing");
+
+        // assert
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", RedirectCache.CACHE_NAME).tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", RedirectCache.CACHE_NAME).tag("result", "miss").functionCounter().count());
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapRedirectCacheTest {
+
+    private static final String ALIAS = "alias1";
+    private static final String TARGET_URL = "https://google.com";
+
+    private SimpleMeterRegistry meterRegistry;
+    private OffHeapRedirectCache redirectCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        redirectCache = new OffHeapRedirectCache(properties(1000, 64 * 1024, 128 * 1024), meterRegistry);
+    }
+
+    @Test
+    void givenCachedTarget_whenGet_thenReturnTarget() {
+        // arrange
+        final RedirectTarget target = new RedirectTarget(1L, TARGET_URL, LocalDateTime.now().plusDays(1));
+        redirectCache.put(ALIAS, target);
+
+        // act + assert
+        assertEquals(target, redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenTargetWithoutExpiration_whenGet_thenReturnTarget() {
+        // arrange
+        final RedirectTarget target = new RedirectTarget(1L, TARGET_URL, null);
+        redirectCache.put(ALIAS, target);
+
+        // act + assert
+        assertEquals(target, redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenNonAsciiTarget_whenGet_thenReturnSameTarget() {
+        // arrange
+        final RedirectTarget target = new RedirectTarget(7L, "https://例え.jp/パス?q=é", null);
+        redirectCache.put(ALIAS, target);
+
+        // act + assert
+        assertEquals(target, redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenCachedRedirectPolicies_whenGet_thenPolicyKept() {
+        // arrange
+        final RedirectTarget permanent = new RedirectTarget(1L, TARGET_URL, null, RedirectPolicy.PERMANENT);
+        final RedirectTarget cacheable = new RedirectTarget(2L, TARGET_URL, null, RedirectPolicy.CACHEABLE);
+        redirectCache.put("permanent", permanent);
+        redirectCache.put("cacheable", cacheable);
+
+        // act + assert
+        assertEquals(permanent, redirectCache.get("permanent"));
+        assertEquals(cacheable, redirectCache.get("cacheable"));
+    }
+
+    @Test
+    void givenExpiredTarget_whenPut_thenNotCached() {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, LocalDateTime.now().minusSeconds(1)));
+
+        // act + assert
+        assertNull(redirectCache.get(ALIAS));
+        assertEquals(0, redirectCache.size());
+    }
+
+    @Test
+    void givenTargetExpiringSoon_whenExpiresAtPasses_thenNotServed() throws InterruptedException {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, LocalDateTime.now().plusNanos(50_000_000)));
+        assertNotNull(redirectCache.get(ALIAS));
+
+        // act
+        Thread.sleep(100);
+
+        // assert
+        assertNull(redirectCache.get(ALIAS));
+    }
+
+    @Test
+    void givenNonAsciiAliasOrHugeTarget_whenPut_thenNotCached() {
+        // arrange
+        final RedirectTarget huge = new RedirectTarget(2L, "https://example.com/" + "a".repeat(70_000), null);
+
+        // act
+        redirectCache.put("alïas", new RedirectTarget(1L, TARGET_URL, null));
+        redirectCache.put(ALIAS, huge);
+
+        // assert
+        assertNull(redirectCache.get("alïas"));
+        assertNull(redirectCache.get(ALIAS));
+        assertEquals(0, redirectCache.size());
+    }
+
+    @Test
+    void givenCachedTarget_whenInvalidate_thenRemoved() {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, null));
+
+        // act
+        redirectCache.invalidate(ALIAS);
+        redirectCache.invalidate("missing");
+
+        // assert
+        assertNull(redirectCache.get(ALIAS));
+        assertEquals(0, redirectCache.size());
+    }
+
+    @Test
+    void givenCachedTarget_whenPutAgain_thenReplaced() {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, null));
+        final RedirectTarget updated = new RedirectTarget(1L, "https://example.com", null);
+
+        // act
+        redirectCache.put(ALIAS, updated);
+
+        // assert
+        assertEquals(updated, redirectCache.get(ALIAS));
+        assertEquals(1, redirectCache.size());
+    }
+
+    @Test
+    void givenMaxEntriesReached_whenPut_thenOldestEvicted() {
+        // arrange
+        redirectCache = new OffHeapRedirectCache(properties(10, 64 * 1024, 128 * 1024), meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            redirectCache.put("alias" + i, new RedirectTarget((long) i, TARGET_URL + "/" + i, null));
+        }
+
+        // act
+        redirectCache.put("newest", new RedirectTarget(10L, TARGET_URL, null));
+
+        // assert
+        assertNull(redirectCache.get("alias0"));
+        assertNotNull(redirectCache.get("newest"));
+        assertEquals(1, redirectCache.size());
+        assertEquals(10.0, meterRegistry.get("cache.evictions").counter().count());
+    }
+
+    @Test
+    void givenSlabsFull_whenPut_thenOldestSlabReused() {
+        // arrange: two slabs of 64 KiB, about 900 entries each
+        redirectCache = new OffHeapRedirectCache(properties(100_000, 64 * 1024, 128 * 1024), meterRegistry);
+
+        // act
+        for (int i = 0; i < 5000; i++) {
+            redirectCache.put("alias" + i, new RedirectTarget((long) i, TARGET_URL + "/" + i, null));
+        }
+
+        // assert
+        assertNull(redirectCache.get("alias0"));
+        assertEquals(new RedirectTarget(4999L, TARGET_URL + "/4999", null), redirectCache.get("alias4999"));
+        assertTrue(redirectCache.size() < 2000);
+        assertEquals(2 * 64 * 1024 + 256 * 1024 * 16, redirectCache.allocatedBytes());
+    }
+
+    @Test
+    void givenManyReplacedEntries_whenGet_thenIndexStillConsistent() {
+        // arrange: replacements leave removed slots behind until the index is rebuilt
+        redirectCache = new OffHeapRedirectCache(properties(100, 1024 * 1024, 2 * 1024 * 1024), meterRegistry);
+
+        // act
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 50; i++) {
+                redirectCache.put("alias" + i, new RedirectTarget((long) round, TARGET_URL + "/" + i, null));
+            }
+        }
+
+        // assert
+        assertEquals(50, redirectCache.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(new RedirectTarget(49L, TARGET_URL + "/" + i, null), redirectCache.get("alias" + i));
+        }
+    }
+
+    @Test
+    void givenHugeMaxSize_whenCreated_thenRejected() {
+        // arrange
+        final ShortenerProperties props = properties(Integer.MAX_VALUE, 64 * 1024, 128 * 1024);
+
+        // act + assert
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapRedirectCache(props, meterRegistry));
+    }
+
+    @Test
+    void givenHitsAndMisses_whenGet_thenStatisticsPublished() {
+        // arrange
+        redirectCache.put(ALIAS, new RedirectTarget(1L, TARGET_URL, null));
+
+        // act
+        redirectCache.get(ALIAS);
+        redirectCache.get("missing");
+
+        // assert
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", RedirectCache.CACHE_NAME).tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", RedirectCache.CACHE_NAME).tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.size").gauge().value());
+        assertTrue(meterRegistry.get("shortener.redirect.cache.off.heap.bytes").gauge().value() > 0);
+    }
+
+    private static ShortenerProperties properties(final long maxSize, final long slabBytes, final long offHeapBytes) {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setRedirectCacheMaxSize(maxSize);
+        props.setRedirectCacheOffHeapSlabBytes(slabBytes);
+        props.setRedirectCacheOffHeapBytes(offHeapBytes);
+        return props;
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.urlShortenerService.cache;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+public class RedirectLoadCoalescerTest {
+
+    private static final String ALIAS = "alias1";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RedirectLoadCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setRedirectLoadWaitTimeoutMs(200L);
+        coalescer = new RedirectLoadCoalescer(props, meterRegistry);
+    }
+
+    @Test
+    void givenSequentialLoads_whenLoad_thenEachRunsItsOwnLoad() {
+        // arrange
+        final AtomicInteger loads = new AtomicInteger();
+
+        // act
+        final int first = coalescer.load(ALIAS, loads::incrementAndGet);
+        final int second = coalescer.load(ALIAS, loads::incrementAndGet);
+
+        // assert
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(0.0, coalesced());
+        assertEquals(0.0, meterRegistry.get("shortener.redirect.loads.in.flight").gauge().value());
+    }
+
+    @Test
+    void givenLoadInFlight_whenLoadSameAlias_thenWaitForItsValue() throws Exception {
+        // arrange
+        final CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<String> leader = executor.submit(() -> coalescer.load(ALIAS, () -> {
+                await(release);
+                return "leader";
+            }));
+            awaitInFlight(1);
+
+            // act
+            final Future<String> waiter = executor.submit(() -> coalescer.load(ALIAS, () -> "waiter"));
+            final String other = coalescer.load("alias2", () -> "other");
+            awaitCoalesced(1);
+            release.countDown();
+
+            // assert
+            assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("leader", waiter.get(5, TimeUnit.SECONDS));
+            assertEquals("other", other);
+        }
+    }
+
+    @Test
+    void givenFailingLoad_whenLoadSameAlias_thenEachWaiterGetsOverloadedCausedByTheFailure() throws Exception {
+        // arrange
+        final CountDownLatch release = new CountDownLatch(1);
+        final IllegalStateException failure = new IllegalStateException("boom");
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<String> leader = executor.submit(() -> coalescer.load(ALIAS, () -> {
+                await(release);
+                throw failure;
+            }));
+            awaitInFlight(1);
+
+            // act
+            final Future<String> waiter = executor.submit(() -> coalescer.load(ALIAS, () -> "waiter"));
+            final Future<String> otherWaiter = executor.submit(() -> coalescer.load(ALIAS, () -> "other"));
+            awaitCoalesced(2);
+            release.countDown();
+
+            // assert
+            assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS))
+                    .getCause());
+            final Throwable waiterFailure = assertThrows(ExecutionException.class,
+                    () -> waiter.get(5, TimeUnit.SECONDS)).getCause();
+            final Throwable otherWaiterFailure = assertThrows(ExecutionException.class,
+                    () -> otherWaiter.get(5, TimeUnit.SECONDS)).getCause();
+            assertInstanceOf(DatabaseOverloadedException.class, waiterFailure);
+            assertSame(failure, waiterFailure.getCause());
+            assertSame(failure, otherWaiterFailure.getCause());
+            assertNotSame(waiterFailure, otherWaiterFailure);
+        }
+        // the failed load is not kept
+        assertEquals("retried", coalescer.load(ALIAS, () -> "retried"));
+    }
+
+    @Test
+    void givenStuckLoad_whenWaitTimeoutPasses_thenWaiterFailsWithOverloaded() throws Exception {
+        // arrange
+        final CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final Future<String> leader = executor.submit(() -> coalescer.load(ALIAS, () -> {
+                await(release);
+                return "leader";
+            }));
+            awaitInFlight(1);
+
+            // act + assert
+            final DatabaseOverloadedException e = assertThrowsExactly(DatabaseOverloadedException.class,
+                    () -> coalescer.load(ALIAS, () -> "waiter"));
+            assertEquals("Timed out waiting for a concurrent lookup, retry later", e.getMessage());
+            assertEquals(1.0, meterRegistry.get("shortener.redirect.coalesced.timeouts").counter().count());
+
+            // the leader is not affected
+            release.countDown();
+            assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void givenInterruptedWaiter_whenLoadSameAlias_thenFailWithOverloadedAndKeepInterrupt() throws Exception {
+        // arrange
+        final CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> coalescer.load(ALIAS, () -> {
+                await(release);
+                return "leader";
+            }));
+            awaitInFlight(1);
+
+            // act
+            Thread.currentThread().interrupt();
+            final DatabaseOverloadedException e = assertThrowsExactly(DatabaseOverloadedException.class,
+                    () -> coalescer.load(ALIAS, () -> "waiter"));
+
+            // assert
+            assertInstanceOf(InterruptedException.class, e.getCause());
+            assertEquals(true, Thread.interrupted());
+            release.countDown();
+        }
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("shortener.redirect.coalesced").counter().count();
+    }
+
+    private void awaitInFlight(final int loads) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("shortener.redirect.loads.in.flight").gauge().value() < loads
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void awaitCoalesced(final int waiters) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < waiters && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.urlShortenerService.click;
+
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.PendingClicks;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ClickAccumulatorTest {
+
+    private static final Long LINK_ID = 1L;
+
+    @Mock
+    private LinkStore dbClient;
+
+    @InjectMocks
+    private ClickAccumulator clickAccumulator;
+
+    @Test
+    void givenClicks_whenPending_thenReturnCountAndLatestAccess() {
+        // arrange
+        final LocalDateTime first = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_789);
+        final LocalDateTime second = first.plusSeconds(1);
+
+        // act
+        clickAccumulator.record(LINK_ID, second);
+        clickAccumulator.record(LINK_ID, first);
+
+        // assert
+        // at the microsecond precision of the database
+        assertEquals(new PendingClicks(2L, second.truncatedTo(ChronoUnit.MICROS)), clickAccumulator.pending(LINK_ID));
+        assertNull(clickAccumulator.pending(2L));
+        assertNull(clickAccumulator.pending(null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenClicks_whenFlush_thenWriteBatchAndClearPending() {
+        // arrange
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        clickAccumulator.record(LINK_ID, now);
+        clickAccumulator.record(LINK_ID, now);
+        clickAccumulator.record(2L, now);
+
+        // act
+        clickAccumulator.flush();
+
+        // assert
+        final ArgumentCaptor<Map<Long, PendingClicks>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(dbClient).addClicks(captor.capture(), anyMap());
+        assertEquals(Map.of(LINK_ID, new PendingClicks(2L, now), 2L, new PendingClicks(1L, now)),
+                captor.getValue());
+        assertNull(clickAccumulator.pending(LINK_ID));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenClicksOverSeveralMinutes_whenFlush_thenWriteClicksPerLinkAndMinute() {
+        // arrange
+        final LocalDateTime minute = LocalDateTime.of(2025, 1, 31, 10, 15);
+        clickAccumulator.record(LINK_ID, minute.plusSeconds(5));
+        clickAccumulator.record(LINK_ID, minute.plusSeconds(59));
+        clickAccumulator.record(LINK_ID, minute.plusMinutes(1));
+        clickAccumulator.record(2L, minute);
+
+        // act
+        clickAccumulator.flush();
+
+        // assert
+        final ArgumentCaptor<Map<ClickMinute, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(dbClient).addClicks(anyMap(), captor.capture());
+        assertEquals(Map.of(
+                new ClickMinute(LINK_ID, minute), 2L,
+                new ClickMinute(LINK_ID, minute.plusMinutes(1)), 1L,
+                new ClickMinute(2L, minute), 1L), captor.getValue());
+    }
+
+    @Test
+    void givenNoClicks_whenFlush_thenNothingWritten() {
+        // act
+        clickAccumulator.flush();
+
+        // assert
+        verify(dbClient, never()).addClicks(anyMap(), anyMap());
+    }
+
+    @Test
+    void givenDatabaseFailure_whenFlush_thenClicksKeptForNextFlush() {
+        // arrange
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        clickAccumulator.record(LINK_ID, now);
+        doThrow(new IllegalStateException("db down")).when(dbClient).addClicks(anyMap(), anyMap());
+
+        // act
+        clickAccumulator.flush();
+        clickAccumulator.record(LINK_ID, now);
+
+        // assert
+        assertEquals(new PendingClicks(2L, now), clickAccumulator.pending(LINK_ID));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenLoggedClicks_whenFlush_thenWriteCountsWithLogCheckpoint() {
+        // arrange
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        clickAccumulator.recordLogged(LINK_ID, now, 7L);
+        clickAccumulator.recordLogged(LINK_ID, now, 8L);
+
+        // act
+        clickAccumulator.flush();
+
+        // assert
+        final ArgumentCaptor<Map<Long, PendingClicks>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(dbClient).addClicks(captor.capture(), anyMap(), eq(8L));
+        verify(dbClient, never()).addClicks(anyMap(), anyMap());
+        assertEquals(Map.of(LINK_ID, new PendingClicks(2L, now)), captor.getValue());
+        assertEquals(8L, clickAccumulator.checkpoint());
+    }
+
+    @Test
+    void givenDatabaseFailure_whenFlushLoggedClicks_thenCheckpointNotMoved() {
+        // arrange
+        clickAccumulator.recordLogged(LINK_ID, LocalDateTime.now(), 3L);
+        doThrow(new IllegalStateException("db down")).when(dbClient).addClicks(anyMap(), anyMap(), anyLong());
+
+        // act
+        clickAccumulator.flush();
+
+        // assert
+        assertEquals(-1L, clickAccumulator.checkpoint());
+        assertEquals(1L, clickAccumulator.pending(LINK_ID).count());
+    }
+}
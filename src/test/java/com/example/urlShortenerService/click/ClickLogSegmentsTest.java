@@ -0,0 +1,106 @@
+package com.example.urlShortenerService.click;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ClickLogSegmentsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenRecordsOverSeveralSegments_whenReplay_thenReadBackEveryRecordInOrder() {
+        // arrange: 2 records per segment
+        final ClickLogSegments segments = new ClickLogSegments(directory, 2L * ClickLogSegments.RECORD_BYTES);
+        long last = 0;
+        for (int i = 1; i <= 5; i++) {
+            last = segments.append(i, 1000L + i, i * 10, (byte) (i % 3));
+        }
+        final List<String> records = new ArrayList<>();
+
+        // act
+        final long count = new ClickLogSegments(directory, 2L * ClickLogSegments.RECORD_BYTES)
+                .replay(0L, (linkId, millis, referrerHash, userAgentClass, nextPosition) ->
+                        records.add(linkId + ":" + millis + ":" + referrerHash + ":" + userAgentClass));
+
+        // assert
+        assertEquals(5, count);
+        assertEquals(List.of("1:1001:10:1", "2:1002:20:2", "3:1003:30:0", "4:1004:40:1", "5:1005:50:2"), records);
+        assertEquals(ClickLogSegments.position(2, 1), last);
+    }
+
+    @Test
+    void givenPosition_whenReplay_thenSkipRecordsBeforeIt() {
+        // arrange
+        final ClickLogSegments segments = new ClickLogSegments(directory, 2L * ClickLogSegments.RECORD_BYTES);
+        long checkpoint = 0;
+        for (int i = 1; i <= 5; i++) {
+            final long position = segments.append(i, i, 0, (byte) 0);
+            if (i == 3) {
+                checkpoint = position;
+            }
+        }
+        final List<Long> linkIds = new ArrayList<>();
+        final List<Long> positions = new ArrayList<>();
+
+        // act
+        segments.replay(checkpoint, (linkId, millis, referrerHash, userAgentClass, nextPosition) -> {
+            linkIds.add(linkId);
+            positions.add(nextPosition);
+        });
+
+        // assert
+        assertEquals(List.of(4L, 5L), linkIds);
+        assertEquals(List.of(ClickLogSegments.position(1, 2), ClickLogSegments.position(2, 1)), positions);
+    }
+
+    @Test
+    void givenRestart_whenOpenNextSegment_thenAppendAfterExistingSegments() throws IOException {
+        // arrange
+        final ClickLogSegments first = new ClickLogSegments(directory, 4L * ClickLogSegments.RECORD_BYTES);
+        first.append(1L, 1L, 0, (byte) 0);
+        first.force();
+        final ClickLogSegments second = new ClickLogSegments(directory, 4L * ClickLogSegments.RECORD_BYTES);
+
+        // act
+        second.openNextSegment();
+        final long position = second.append(2L, 2L, 0, (byte) 0);
+        final List<Long> linkIds = new ArrayList<>();
+        second.replay(0L, (linkId, millis, referrerHash, userAgentClass, nextPosition) -> linkIds.add(linkId));
+
+        // assert
+        assertEquals(ClickLogSegments.position(1, 1), position);
+        assertEquals(List.of(1L, 2L), linkIds);
+        assertEquals(2, segmentFiles());
+    }
+
+    @Test
+    void givenCheckpoint_whenDeleteBefore_thenKeepRetainedAndUncheckpointedSegments() throws IOException {
+        // arrange: 1 record per segment, 5 segments
+        final ClickLogSegments segments = new ClickLogSegments(directory, ClickLogSegments.RECORD_BYTES);
+        for (int i = 0; i < 5; i++) {
+            segments.append(i, i, 0, (byte) 0);
+        }
+
+        // act + assert: checkpoint in segment 1 protects segments 1 to 4
+        assertEquals(1, segments.deleteBefore(ClickLogSegments.position(1, 0), 2));
+        // checkpoint at the end, only the 2 retained segments stay
+        assertEquals(2, segments.deleteBefore(ClickLogSegments.position(4, 1), 2));
+        assertEquals(2, segmentFiles());
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.urlShortenerService.click;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.PendingClicks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ClickLogTest {
+
+    private static final String CHROME = "Mozilla/5.0 (X11; Linux x86_64) Chrome/129.0 Safari/537.36";
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private UrlRepository dbClient;
+
+    @Mock
+    private LinkStore linkStore;
+
+    @Test
+    void givenDisabledLog_whenRecord_thenCountDirectly() {
+        // arrange
+        final ClickAccumulator clickAccumulator = mock(ClickAccumulator.class);
+        final ClickLog clickLog = new ClickLog(new ShortenerProperties(), clickAccumulator, dbClient,
+                new SimpleMeterRegistry());
+        clickLog.start();
+
+        // act
+        clickLog.record(1L, "https://example.com", CHROME);
+        clickLog.stop();
+
+        // assert
+        verify(clickAccumulator).record(eq(1L), any(LocalDateTime.class));
+        verify(dbClient, never()).findClickLogCheckpoint();
+    }
+
+    @Test
+    void givenLoggedClicks_whenStop_thenEveryClickIsWrittenAndCounted() {
+        // arrange
+        final ClickAccumulator clickAccumulator = new ClickAccumulator(linkStore);
+        final ClickLog clickLog = new ClickLog(properties(), clickAccumulator, dbClient, new SimpleMeterRegistry());
+        clickLog.start();
+
+        // act
+        clickLog.record(1L, "https://example.com", CHROME);
+        clickLog.record(1L, null, "curl/8.5.0");
+        clickLog.record(2L, null, null);
+        clickLog.stop();
+
+        // assert
+        assertEquals(2L, clickAccumulator.pending(1L).count());
+        assertEquals(1L, clickAccumulator.pending(2L).count());
+        final List<String> records = new ArrayList<>();
+        new ClickLogSegments(directory, 1024).replay(0L, (linkId, millis, referrerHash, userAgentClass, next) ->
+                records.add(linkId + ":" + referrerHash + ":" + UserAgentClass.ofCode(userAgentClass)));
+        assertEquals(List.of("1:" + "https://example.com".hashCode() + ":BROWSER", "1:0:CLI", "2:0:UNKNOWN"),
+                records);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenClicksAfterCheckpoint_whenStart_thenReplayAndFlushThemOnce() {
+        // arrange: 3 clicks logged, the first one already flushed
+        final ClickLogSegments segments = new ClickLogSegments(directory, 1024);
+        final long checkpoint = segments.append(1L, 1_000L, 0, (byte) 0);
+        segments.append(1L, 2_000L, 0, (byte) 0);
+        final long last = segments.append(2L, 3_000L, 0, (byte) 0);
+        segments.force();
+        when(dbClient.findClickLogCheckpoint()).thenReturn(checkpoint);
+        final ClickAccumulator clickAccumulator = new ClickAccumulator(linkStore);
+        final ClickLog clickLog = new ClickLog(properties(), clickAccumulator, dbClient, new SimpleMeterRegistry());
+
+        // act
+        clickLog.start();
+        clickLog.stop();
+
+        // assert
+        final ArgumentCaptor<Map<Long, PendingClicks>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(linkStore).addClicks(captor.capture(), anyMap(), eq(last));
+        assertEquals(1L, captor.getValue().get(1L).count());
+        assertEquals(1L, captor.getValue().get(2L).count());
+        assertEquals(last, clickAccumulator.checkpoint());
+    }
+
+    @Test
+    void givenNoCheckpoint_whenStartOnEmptyLog_thenNothingFlushed() {
+        // arrange
+        final ClickAccumulator clickAccumulator = new ClickAccumulator(linkStore);
+        final ClickLog clickLog = new ClickLog(properties(), clickAccumulator, dbClient, new SimpleMeterRegistry());
+
+        // act
+        clickLog.start();
+        clickLog.stop();
+
+        // assert
+        verify(linkStore, never()).addClicks(any(), any(), anyLong());
+    }
+
+    @Test
+    void givenFullSegments_whenWrite_thenDeleteSegmentsCoveredByCheckpoint() {
+        // arrange: 1 record per segment, 1 retained segment
+        final ShortenerProperties props = properties();
+        props.setClickLogSegmentBytes(ClickLogSegments.RECORD_BYTES);
+        props.setClickLogRetainedSegments(1);
+        when(dbClient.findClickLogCheckpoint()).thenReturn(ClickLogSegments.position(0, 1));
+        final ClickAccumulator clickAccumulator = new ClickAccumulator(linkStore);
+        final ClickLog clickLog = new ClickLog(props, clickAccumulator, dbClient, new SimpleMeterRegistry());
+        clickLog.start();
+        clickLog.record(1L, null, null);
+        clickLog.stop();
+        clickAccumulator.flush();
+
+        // act
+        final ClickLog restarted = new ClickLog(props, clickAccumulator, dbClient, new SimpleMeterRegistry());
+        restarted.start();
+        restarted.record(1L, null, null);
+        restarted.stop();
+
+        // assert: the first segment is covered by the checkpoint and deleted
+        final List<Long> linkIds = new ArrayList<>();
+        new ClickLogSegments(directory, ClickLogSegments.RECORD_BYTES)
+                .replay(0L, (linkId, millis, referrerHash, userAgentClass, next) -> linkIds.add(linkId));
+        assertEquals(1, linkIds.size());
+    }
+
+    private ShortenerProperties properties() {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setClickLogEnabled(true);
+        props.setClickLogDir(directory.toString());
+        props.setClickLogSegmentBytes(1024);
+        props.setClickLogRingCapacity(16);
+        return props;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.urlShortenerService.click;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClickRingBufferTest {
+
+    @Test
+    void givenEvents_whenDrain_thenReturnThemInOrderWithAttributes() {
+        // arrange
+        final ClickRingBuffer ring = new ClickRingBuffer(4);
+        final List<String> drained = new ArrayList<>();
+        ring.offer(1L, 100L, -7, (byte) 3);
+        ring.offer(2L, 200L, 42, (byte) 1);
+
+        // act
+        final int count = ring.drain((linkId, millis, referrerHash, userAgentClass) ->
+                drained.add(linkId + ":" + millis + ":" + referrerHash + ":" + userAgentClass), 10);
+
+        // assert
+        assertEquals(2, count);
+        assertEquals(List.of("1:100:-7:3", "2:200:42:1"), drained);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void givenFullBuffer_whenOffer_thenRejectWithoutBlocking() {
+        // arrange
+        final ClickRingBuffer ring = new ClickRingBuffer(3);
+
+        // act + assert
+        assertEquals(4, ring.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i, i, 0, (byte) 0));
+        }
+        assertFalse(ring.offer(5L, 5L, 0, (byte) 0));
+        assertEquals(2, ring.drain((linkId, millis, referrerHash, userAgentClass) -> { }, 2));
+        assertTrue(ring.offer(5L, 5L, 0, (byte) 0));
+        assertEquals(3, ring.size());
+    }
+
+    @Test
+    void givenFailingConsumer_whenDrain_thenFailingEventIsDrainedAgain() {
+        // arrange
+        final ClickRingBuffer ring = new ClickRingBuffer(4);
+        ring.offer(1L, 1L, 0, (byte) 0);
+        ring.offer(2L, 2L, 0, (byte) 0);
+        final List<Long> drained = new ArrayList<>();
+
+        // act
+        assertThrows(IllegalStateException.class, () -> ring.drain((linkId, millis, referrerHash, ua) -> {
+            if (linkId == 2L) {
+                throw new IllegalStateException("disk full");
+            }
+            drained.add(linkId);
+        }, 10));
+        ring.drain((linkId, millis, referrerHash, ua) -> drained.add(linkId), 10);
+
+        // assert
+        assertEquals(List.of(1L, 2L), drained);
+    }
+
+    @Test
+    void givenConcurrentProducers_whenDrain_thenEveryEventIsDrainedOnce() throws Exception {
+        // arrange
+        final ClickRingBuffer ring = new ClickRingBuffer(1024);
+        final int producers = 4;
+        final int perProducer = 10_000;
+        final long[] sums = new long[1];
+        final int[] count = new int[1];
+        final CountDownLatch done = new CountDownLatch(producers);
+        final ExecutorService pool = Executors.newFixedThreadPool(producers);
+
+        // act
+        for (int p = 0; p < producers; p++) {
+            final long base = p * 1_000_000L;
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(base + i, i, 0, (byte) 0)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        while (done.getCount() > 0 || ring.size() > 0) {
+            ring.drain((linkId, millis, referrerHash, ua) -> {
+                sums[0] += linkId;
+                count[0]++;
+            }, 256);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        // assert
+        long expected = 0;
+        for (int p = 0; p < producers; p++) {
+            for (int i = 0; i < perProducer; i++) {
+                expected += p * 1_000_000L + i;
+            }
+        }
+        assertEquals(producers * perProducer, count[0]);
+        assertEquals(expected, sums[0]);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.urlShortenerService.click;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.StatsGranularity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ClickRollupCompactorTest {
+
+    @Mock
+    private UrlRepository dbClient;
+
+    private final ShortenerProperties props = new ShortenerProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ClickRollupCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        props.setRollupCompactionBatchSize(2);
+        compactor = new ClickRollupCompactor(dbClient, props, meterRegistry);
+    }
+
+    @Test
+    void givenOldBuckets_whenCompact_thenDeleteMinutesAndHoursPastRetentionInBatches() {
+        // arrange
+        when(dbClient.deleteClickRollups(eq(StatsGranularity.MINUTE), any(), eq(2))).thenReturn(2, 2, 1);
+        when(dbClient.deleteClickRollups(eq(StatsGranularity.HOUR), any(), eq(2))).thenReturn(0);
+        final LocalDateTime now = LocalDateTime.now();
+
+        // act
+        final int deleted = compactor.compact();
+
+        // assert
+        assertEquals(5, deleted);
+        final ArgumentCaptor<LocalDateTime> minutesBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        final ArgumentCaptor<LocalDateTime> hoursBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(dbClient, times(3)).deleteClickRollups(eq(StatsGranularity.MINUTE), minutesBefore.capture(), eq(2));
+        verify(dbClient).deleteClickRollups(eq(StatsGranularity.HOUR), hoursBefore.capture(), eq(2));
+        assertEquals(now.minusHours(48).truncatedTo(ChronoUnit.MINUTES), minutesBefore.getValue());
+        assertEquals(now.minusDays(90).truncatedTo(ChronoUnit.HOURS), hoursBefore.getValue());
+        assertEquals(5.0, meterRegistry.get("shortener.rollup.compacted").counter().count());
+    }
+
+    @Test
+    void givenDatabaseFailure_whenCompact_thenStopAndReportDeletedSoFar() {
+        // arrange
+        when(dbClient.deleteClickRollups(eq(StatsGranularity.MINUTE), any(), anyInt())).thenReturn(1);
+        doThrow(new IllegalStateException("db down"))
+                .when(dbClient).deleteClickRollups(eq(StatsGranularity.HOUR), any(), anyInt());
+
+        // act + assert
+        assertEquals(1, compactor.compact());
+        assertEquals(1.0, meterRegistry.get("shortener.rollup.compacted").counter().count());
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.urlShortenerService.click;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class UserAgentClassTest {
+
+    @Test
+    void givenUserAgents_whenClassify_thenReturnClientClass() {
+        assertEquals(UserAgentClass.UNKNOWN, UserAgentClass.classify(null));
+        assertEquals(UserAgentClass.UNKNOWN, UserAgentClass.classify(" "));
+        assertEquals(UserAgentClass.BOT, UserAgentClass.classify(
+                "Mozilla/5.0 (compatible; Googlebot/2.1; +http://www.google.com/bot.html)"));
+        assertEquals(UserAgentClass.CLI, UserAgentClass.classify("curl/8.5.0"));
+        assertEquals(UserAgentClass.MOBILE, UserAgentClass.classify(
+                "Mozilla/5.0 (iPhone; CPU iPhone OS 17_0 like Mac OS X) Mobile/15E148"));
+        assertEquals(UserAgentClass.BROWSER, UserAgentClass.classify(
+                "Mozilla/5.0 (X11; Linux x86_64; rv:128.0) Gecko/20100101 Firefox/128.0"));
+        assertEquals(UserAgentClass.UNKNOWN, UserAgentClass.classify("SomeClient"));
+    }
+
+    @Test
+    void givenCodes_whenOfCode_thenRoundTrip() {
+        for (final UserAgentClass userAgentClass : UserAgentClass.values()) {
+            assertEquals(userAgentClass, UserAgentClass.ofCode(userAgentClass.code()));
+        }
+        assertEquals(UserAgentClass.UNKNOWN, UserAgentClass.ofCode((byte) 99));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.urlShortenerService.client.database;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DbConcurrencyLimiterTest {
+
+    @Test
+    void givenDisabledLimiter_whenCall_thenRunDirectly() {
+        // arrange
+        final DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(new ShortenerProperties(), new SimpleMeterRegistry());
+
+        // act + assert
+        assertEquals("result", limiter.call(() -> "result"));
+    }
+
+    @Test
+    void givenManyVirtualThreads_whenCall_thenConcurrencyIsBounded() throws InterruptedException {
+        // arrange
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setDbMaxConcurrency(3);
+        props.setDbAcquireTimeoutMs(10_000);
+        final DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(props, new SimpleMeterRegistry());
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        // act
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> limiter.call(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    sleep(1);
+                    return inFlight.decrementAndGet();
+                }));
+            }
+        }
+
+        // assert
+        assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    void givenNoPermitInTime_whenCall_thenThrowDatabaseOverloadedException() throws InterruptedException {
+        // arrange
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setDbMaxConcurrency(1);
+        props.setDbAcquireTimeoutMs(10);
+        final DbConcurrencyLimiter limiter = new DbConcurrencyLimiter(props, new SimpleMeterRegistry());
+        final CountDownLatch holding = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread holder = Thread.ofVirtual().start(() -> limiter.call(() -> {
+            holding.countDown();
+            await(release);
+            return null;
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // act + assert
+        assertThrowsExactly(DatabaseOverloadedException.class, () -> limiter.call(() -> "result"));
+        release.countDown();
+        holder.join();
+        assertEquals("result", limiter.call(() -> "result"));
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
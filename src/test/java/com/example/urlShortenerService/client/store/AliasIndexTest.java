@@ -0,0 +1,174 @@
+package com.example.urlShortenerService.client.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AliasIndexTest {
+
+    // stands for the records: position -> alias
+    private final Map<Long, String> records = new HashMap<>();
+    private final AliasIndex index = new AliasIndex(4, (position, alias) -> alias.equals(records.get(position)));
+
+    @Test
+    void givenIndexedAlias_whenGet_thenReturnItsPosition() {
+        // arrange
+        put("mario", 8L);
+        put("luigi", 16L);
+
+        // act
+        final long mario = index.get("mario");
+        final long unknown = index.get("peach");
+
+        // assert
+        assertEquals(8L, mario);
+        assertEquals(16L, index.get("luigi"));
+        assertEquals(AliasIndex.REMOVED, unknown);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void givenMovedRecord_whenPut_thenReplaceThePosition() {
+        // arrange
+        put("mario", 8L);
+
+        // act
+        put("mario", 24L);
+
+        // assert
+        assertEquals(24L, index.get("mario"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void givenRemovedAlias_whenGet_thenNotFoundAndSlotReused() {
+        // arrange
+        put("mario", 8L);
+        put("luigi", 16L);
+
+        // act
+        final boolean stale = index.remove("mario", 99L);
+        final boolean removed = index.remove("mario", 8L);
+
+        // assert
+        assertFalse(stale);
+        assertTrue(removed);
+        assertEquals(AliasIndex.REMOVED, index.get("mario"));
+        assertEquals(16L, index.get("luigi"));
+        assertFalse(index.remove("peach", 8L));
+        put("mario", 32L);
+        assertEquals(32L, index.get("mario"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void givenManyAliases_whenPut_thenTableGrowsAndEveryAliasIsFound() {
+        // arrange
+        final int count = 10_000;
+
+        // act
+        for (int i = 1; i <= count; i++) {
+            put("alias" + i, i * 8L);
+        }
+
+        // assert
+        for (int i = 1; i <= count; i++) {
+            assertEquals(i * 8L, index.get("alias" + i));
+        }
+        assertEquals(count, index.size());
+        assertTrue(index.capacity() >= 2 * count);
+    }
+
+    @Test
+    void givenRemovedAliases_whenPutMore_thenRemovedSlotsAreDropped() {
+        // arrange
+        for (int i = 1; i <= 1000; i++) {
+            put("alias" + i, i * 8L);
+            index.remove("alias" + i, i * 8L);
+        }
+
+        // act
+        put("last", 1L);
+
+        // assert
+        assertEquals(1, index.size());
+        assertEquals(1L, index.get("last"));
+        assertTrue(index.capacity() < 1000);
+    }
+
+    @Test
+    void givenAliases_whenForEachPosition_thenVisitOnlyLivePositions() {
+        // arrange
+        put("mario", 8L);
+        put("luigi", 16L);
+        put("peach", 24L);
+        index.remove("luigi", 16L);
+        final Set<Long> positions = new HashSet<>();
+
+        // act
+        index.forEachPosition(positions::add);
+
+        // assert
+        assertEquals(Set.of(8L, 24L), positions);
+    }
+
+    @Test
+    void givenLongCustomAliases_whenPutGetRemove_thenFallBackToTheFingerprintTable() {
+        // arrange: longer than a packed alias, or with characters a packed alias cannot hold
+        final String longAlias = "spring-sale-landing-page";
+        final String oddAlias = "promo.2024";
+        put(longAlias, 8L);
+        put(oddAlias, 16L);
+        put("short", 24L);
+
+        // act
+        put(longAlias, 32L);
+        final boolean removed = index.remove(oddAlias, 16L);
+
+        // assert
+        assertTrue(removed);
+        assertEquals(32L, index.get(longAlias));
+        assertEquals(AliasIndex.REMOVED, index.get(oddAlias));
+        assertEquals(AliasIndex.REMOVED, index.get("spring-sale-landing-pages"));
+        assertEquals(24L, index.get("short"));
+        assertEquals(2, index.size());
+        final Set<Long> positions = new HashSet<>();
+        index.forEachPosition(positions::add);
+        assertEquals(Set.of(24L, 32L), positions);
+    }
+
+    @Test
+    void givenManyLongCustomAliases_whenPutAndRemove_thenRemovedSlotsReusedAndTableGrows() {
+        // arrange
+        final int count = 2000;
+
+        // act
+        for (int i = 1; i <= count; i++) {
+            put("campaign-landing-" + i, i * 8L);
+            if (i % 2 == 0) {
+                index.remove("campaign-landing-" + (i - 1), (i - 1) * 8L);
+                put("campaign-landing-" + (i - 1), i * 8L + 1);
+            }
+        }
+
+        // assert
+        for (int i = 1; i <= count; i++) {
+            final long expected = i % 2 == 0 ? i * 8L : (i + 1) * 8L + 1;
+            assertEquals(expected, index.get("campaign-landing-" + i));
+        }
+        assertEquals(count, index.size());
+        assertTrue(index.capacity() >= 2 * count);
+    }
+
+    private void put(final String alias, final long position) {
+        records.put(position, alias);
+        index.put(alias, position);
+    }
+}
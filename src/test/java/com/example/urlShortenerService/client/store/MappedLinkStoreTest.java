@@ -0,0 +1,493 @@
+package com.example.urlShortenerService.client.store;
+
+import com.example.urlShortenerService.cache.AliasBloomFilter;
+import com.example.urlShortenerService.client.database.UrlArchiveRepository;
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.ClickMinute;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.LinkStatus;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.TargetUrl;
+import com.example.urlShortenerService.model.Url;
+import com.example.urlShortenerService.model.UrlArchive;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class MappedLinkStoreTest {
+
+    private static final long SEGMENT_BYTES = 64 * 1024;
+    private static final String TARGET = "https://example.com/some/path";
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private UrlRepository dbClient;
+
+    @Mock
+    private UrlArchiveRepository archiveClient;
+
+    @Mock
+    private ObjectProvider<AliasBloomFilter> aliasFilterProvider;
+
+    @Mock
+    private AliasBloomFilter aliasFilter;
+
+    @Captor
+    private ArgumentCaptor<List<UrlArchive>> archivedCaptor;
+
+    @Test
+    void givenNewLinks_whenSave_thenFoundWithIdsInCreationOrder() {
+        // arrange
+        final MappedLinkStore store = open("always");
+        final LocalDateTime expiresAt = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        // act
+        final Url first = store.save(new Url(TARGET + "/1", "first", expiresAt));
+        final Url second = store.save(new Url(TARGET + "/2", "second", null));
+
+        // assert
+        assertEquals(1L, first.getId());
+        assertEquals(2L, second.getId());
+        assertFalse(second.getCreatedAt().isBefore(first.getCreatedAt()));
+        final Url found = store.findByCustomAlias("first").orElseThrow();
+        assertEquals(TARGET + "/1", found.getTargetUrl());
+        assertEquals(expiresAt, found.getExpiresAt());
+        assertEquals(first.getCreatedAt(), found.getCreatedAt());
+        assertEquals(0L, found.getClickCount());
+        assertNull(found.getLastAccessedAt());
+        assertEquals(new RedirectTarget(2L, TARGET + "/2", null),
+                store.findRedirectTargetByCustomAlias("second").orElseThrow());
+        assertTrue(store.findByCustomAlias("third").isEmpty());
+        assertTrue(store.findRedirectTargetByCustomAlias("third").isEmpty());
+        assertTrue(store.existsByCustomAlias("first"));
+        assertEquals(List.of("second"), store.findExistingAliases(List.of("third", "second")));
+        verify(aliasFilter).put("first");
+        verify(aliasFilter).put("second");
+    }
+
+    @Test
+    void givenTakenAlias_whenSave_thenDuplicateKeyException() {
+        // arrange
+        final MappedLinkStore store = open("never");
+        store.save(new Url(TARGET, "taken", null));
+
+        // act & assert
+        assertThrows(DuplicateKeyException.class, () -> store.save(new Url(TARGET, "taken", null)));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void givenBatchWithTakenAlias_whenSaveAll_thenNothingInserted() {
+        // arrange
+        final MappedLinkStore store = open("never");
+        store.save(new Url(TARGET, "taken", null));
+
+        // act & assert
+        assertThrows(DuplicateKeyException.class, () -> store.saveAll(List.of(
+                new Url(TARGET, "free", null), new Url(TARGET, "taken", null))));
+        assertThrows(DuplicateKeyException.class, () -> store.saveAll(List.of(
+                new Url(TARGET, "twice", null), new Url(TARGET, "twice", null))));
+        assertFalse(store.existsByCustomAlias("free"));
+        assertFalse(store.existsByCustomAlias("twice"));
+        final List<Url> saved = store.saveAll(List.of(new Url(TARGET, "a", null), new Url(TARGET, "b", null)));
+        assertEquals(List.of(2L, 3L), saved.stream().map(Url::getId).toList());
+    }
+
+    @Test
+    void givenLinks_whenList_thenNewestFirst() {
+        // arrange
+        final MappedLinkStore store = open("never");
+        for (int i = 1; i <= 5; i++) {
+            store.save(new Url(TARGET, "link" + i, null));
+        }
+
+        // act
+        final List<Url> newest = store.findNewest(Limit.of(2));
+        final Url last = newest.get(1);
+        final List<Url> next = store.findPageAfter(last.getCreatedAt(), last.getId(), Limit.of(10));
+        final Page<Url> page = store.findAll(PageRequest.of(1, 2));
+
+        // assert
+        assertEquals(List.of("link5", "link4"), aliases(newest));
+        assertEquals(List.of("link3", "link2", "link1"), aliases(next));
+        assertEquals(List.of("link3", "link2"), aliases(page.getContent()));
+        assertEquals(5, page.getTotalElements());
+        assertEquals(5, store.findNewest(Limit.unlimited()).size());
+    }
+
+    @Test
+    void givenClicks_whenAddClicks_thenRollupsSavedAndCountersUpdated() {
+        // arrange
+        final MappedLinkStore store = open("always");
+        final Url url = store.save(new Url(TARGET, "clicked", null));
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        final Map<ClickMinute, Long> minutes = Map.of(new ClickMinute(1L, now.truncatedTo(ChronoUnit.MINUTES)), 3L);
+
+        // act
+        store.addClicks(Map.of(url.getId(), new PendingClicks(2L, now.minusSeconds(1)), 42L,
+                new PendingClicks(1L, now)), minutes);
+        store.addClicks(Map.of(url.getId(), new PendingClicks(1L, now)), minutes, 7L);
+
+        // assert
+        verify(dbClient).addClicks(Map.of(), minutes);
+        verify(dbClient).addClicks(Map.of(), minutes, 7L);
+        final Url found = store.findByCustomAlias("clicked").orElseThrow();
+        assertEquals(3L, found.getClickCount());
+        assertEquals(now, found.getLastAccessedAt());
+    }
+
+    @Test
+    void givenRollupFailure_whenAddClicksRetried_thenCountersAddedOnce() {
+        // arrange
+        final MappedLinkStore store = open("always");
+        final Url url = store.save(new Url(TARGET, "clicked", null));
+        final Map<Long, PendingClicks> clicks = Map.of(url.getId(), new PendingClicks(2L, LocalDateTime.now()));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("db down");
+        }).doNothing().when(dbClient).addClicks(any(), any(), anyLong());
+
+        // act & assert
+        assertThrows(IllegalStateException.class, () -> store.addClicks(clicks, Map.of(), 7L));
+        assertEquals(0L, store.findByCustomAlias("clicked").orElseThrow().getClickCount());
+        store.addClicks(clicks, Map.of(), 7L);
+        assertEquals(2L, store.findByCustomAlias("clicked").orElseThrow().getClickCount());
+    }
+
+    @Test
+    void givenStoreOnDisk_whenReopen_thenEveryLinkIsRecovered() {
+        // arrange: enough links for several segments
+        final MappedLinkStore store = open("interval");
+        for (int i = 1; i <= 1500; i++) {
+            store.save(new Url(TARGET + "/" + i, "link" + i, null));
+        }
+        store.addClicks(Map.of(7L, new PendingClicks(5L, LocalDateTime.now())), Map.of());
+        final Url permanent = new Url(TARGET, "permanent", null);
+        permanent.setRedirectPolicy(RedirectPolicy.PERMANENT);
+        store.save(permanent);
+        store.sync();
+        store.close();
+
+        // act
+        final MappedLinkStore reopened = open("interval");
+
+        // assert
+        assertTrue(fileCount() > 1);
+        assertEquals(1501, reopened.size());
+        assertEquals(TARGET + "/1500", reopened.findRedirectTargetByCustomAlias("link1500").orElseThrow().targetUrl());
+        assertEquals(5L, reopened.findByCustomAlias("link7").orElseThrow().getClickCount());
+        assertEquals(RedirectPolicy.TEMPORARY, reopened.findByCustomAlias("link7").orElseThrow().getRedirectPolicy());
+        assertEquals(RedirectPolicy.PERMANENT,
+                reopened.findRedirectTargetByCustomAlias("permanent").orElseThrow().redirectPolicy());
+        assertEquals(RedirectPolicy.PERMANENT, reopened.findByCustomAlias("permanent").orElseThrow().getRedirectPolicy());
+        assertEquals(1502L, reopened.save(new Url(TARGET, "after", null)).getId());
+    }
+
+    @Test
+    void givenTargetHashes_whenFindLiveByTargetHashes_thenNewestLiveLinkOfEachTarget() {
+        // arrange
+        final ShortenerProperties props = properties("never");
+        props.setDedupEnabled(true);
+        final MappedLinkStore store = open(props);
+        final long hashA = TargetUrl.hash(TARGET + "/a");
+        final long hashB = TargetUrl.hash(TARGET + "/b");
+        store.save(link(TARGET + "/a", "a1", null, hashA));
+        store.save(link(TARGET + "/a", "a2", null, hashA));
+        store.save(link(TARGET + "/b", "b1", LocalDateTime.now().plusSeconds(1), hashB));
+        store.save(new Url(TARGET + "/c", "c1", null));
+        final LocalDateTime later = LocalDateTime.now().plusMinutes(1);
+
+        // act
+        final List<Url> live = store.findLiveByTargetHashes(List.of(hashA, hashB), LocalDateTime.now(), 10);
+        final List<Url> liveLater = store.findLiveByTargetHashes(List.of(hashA, hashB), later, 8);
+        store.close();
+        final List<Url> reopened = open(props).findLiveByTargetHashes(List.of(hashA, hashB, 42L), later, 1);
+
+        // assert
+        assertEquals(List.of("b1", "a2"), aliases(live));
+        assertEquals(hashB, live.get(0).getTargetHash());
+        assertEquals(List.of("a2"), aliases(liveLater));
+        assertEquals(List.of("a2"), aliases(reopened));
+    }
+
+    @Test
+    void givenTornLastRecord_whenReopen_thenOnlyThatRecordIsDropped() throws IOException {
+        // arrange
+        final MappedLinkStore store = open("always");
+        store.save(new Url(TARGET, "one", null));
+        store.save(new Url(TARGET, "two", null));
+        store.save(new Url(TARGET, "three", null));
+        store.close();
+        final List<Long> positions = new ArrayList<>();
+        new LinkSegments(directory, SEGMENT_BYTES, ZoneId.systemDefault())
+                .recover((position, id, createdAtMillis) -> positions.add(position));
+        // flip one byte of the last record, as a crash in the middle of its write would
+        final int offset = (int) (long) positions.get(2) + LinkSegments.RECORD_HEADER_BYTES;
+        try (FileChannel channel = FileChannel.open(segmentFile(0), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, offset);
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) (one.get(0) ^ 1)}), offset);
+        }
+
+        // act
+        final MappedLinkStore reopened = open("always");
+
+        // assert
+        assertEquals(2, reopened.size());
+        assertTrue(reopened.existsByCustomAlias("two"));
+        assertFalse(reopened.existsByCustomAlias("three"));
+        assertEquals(3L, reopened.save(new Url(TARGET, "again", null)).getId());
+        reopened.close();
+        assertEquals(3, open("always").size());
+    }
+
+    @Test
+    void givenSegmentOfExpiredLinks_whenCompact_thenArchiveExpiredAndMoveLiveLinks() {
+        // arrange: 9 links out of 10 expired two days ago, past the 24h grace period
+        final MappedLinkStore store = open("never");
+        final LocalDateTime expired = LocalDateTime.now().minusDays(2);
+        for (int i = 0; i < 1000; i++) {
+            store.save(new Url(TARGET + "/" + i, "link" + i, i % 10 == 0 ? null : expired));
+        }
+
+        // act
+        final int compacted = store.compact();
+        final int again = store.compact();
+
+        // assert
+        assertEquals(1, compacted);
+        assertEquals(0, again);
+        verify(archiveClient).saveAll(archivedCaptor.capture());
+        final UrlArchive archived = archivedCaptor.getValue().get(0);
+        assertEquals("link1", archived.getCustomAlias());
+        assertEquals(2L, archived.getId());
+        assertEquals(TargetUrl.hash(new TargetUrl(TARGET + "/1").canonical(false)), archived.getTargetHash());
+        assertEquals(RedirectPolicy.TEMPORARY, archived.getRedirectPolicy());
+        assertFalse(store.existsByCustomAlias("link1"));
+        assertTrue(store.existsByCustomAlias("link0"));
+        assertEquals(TARGET + "/0", store.findRedirectTargetByCustomAlias("link0").orElseThrow().targetUrl());
+        assertFalse(Files.exists(segmentFile(0)));
+        final int size = store.size();
+        assertEquals(1000 - archivedCaptor.getValue().size(), size);
+        store.close();
+        final MappedLinkStore reopened = open("never");
+        assertEquals(size, reopened.size());
+        assertTrue(reopened.existsByCustomAlias("link0"));
+        assertFalse(reopened.existsByCustomAlias("link1"));
+    }
+
+    @Test
+    void givenCompactedSegment_whenReopenBeforeItsDeletion_thenArchivedLinksStayGone() {
+        // arrange
+        final MappedLinkStore store = open("never");
+        final LocalDateTime expired = LocalDateTime.now().minusDays(2);
+        for (int i = 0; i < 1000; i++) {
+            store.save(new Url(TARGET + "/" + i, "link" + i, i % 10 == 0 ? null : expired));
+        }
+        assertEquals(1, store.compact());
+        final int size = store.size();
+        store.close();
+
+        // act
+        final MappedLinkStore reopened = open("never");
+
+        // assert: the retired file is still there, but none of its records came back
+        assertTrue(Files.exists(segmentFile(0)));
+        assertEquals(size, reopened.size());
+        assertFalse(reopened.existsByCustomAlias("link1"));
+        assertTrue(reopened.existsByCustomAlias("link0"));
+        assertEquals(0, reopened.compact());
+        assertFalse(Files.exists(segmentFile(0)));
+        verify(archiveClient, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void givenNewestLinkArchived_whenReopen_thenItsIdIsNotReused() {
+        // arrange: a long live link, then expired links
+        final MappedLinkStore store = open("never");
+        final LocalDateTime expired = LocalDateTime.now().minusDays(2);
+        final String longTarget = TARGET + "/" + "x".repeat(2000);
+        store.save(new Url(longTarget, "long", null));
+        final int longBytes = recordBytes("long", longTarget);
+        final int fillerBytes = recordBytes("f0000", TARGET + "/0000");
+        // segment 0 is full with the long link, segment 1 keeps room for one more filler but not for it
+        final int fillersPerSegment = (int) (SEGMENT_BYTES - LinkSegments.HEADER_BYTES - longBytes) / fillerBytes;
+        final int fillers = fillersPerSegment + fillersPerSegment + 1;
+        for (int i = 0; i < fillers; i++) {
+            store.save(new Url(TARGET + String.format("/%04d", i), String.format("f%04d", i), expired));
+        }
+        final long newestId = fillers + 1;
+        // the copy of the long link does not fit in segment 1 and opens segment 2, which seals segment 1
+        assertEquals(1, store.compact());
+        assertEquals(1, store.compact());
+        assertFalse(store.existsByCustomAlias(String.format("f%04d", fillers - 1)));
+        store.close();
+
+        // act
+        final MappedLinkStore reopened = open("never");
+        final Url created = reopened.save(new Url(TARGET, "after", null));
+
+        // assert
+        assertEquals(2, reopened.size());
+        assertEquals(newestId + 1, created.getId());
+    }
+
+    @Test
+    void givenMostlyLiveSegments_whenCompact_thenNothingRewritten() {
+        // arrange
+        final ShortenerProperties props = properties("never");
+        props.setSweepEnabled(false);
+        final MappedLinkStore store = open(props);
+        for (int i = 0; i < 1000; i++) {
+            store.save(new Url(TARGET, "link" + i, LocalDateTime.now().minusDays(2)));
+        }
+
+        // act
+        final int compacted = store.compact();
+
+        // assert
+        assertEquals(0, compacted);
+        verify(archiveClient, never()).saveAll(anyList());
+        assertEquals(1000, store.size());
+    }
+
+    @Test
+    void givenLiveAndArchivedAliases_whenForEachAlias_thenVisitBoth() {
+        // arrange
+        final MappedLinkStore store = open("never");
+        store.save(new Url(TARGET, "live", null));
+        final List<String> aliases = new ArrayList<>();
+
+        // act
+        store.forEachAlias(aliases::add);
+
+        // assert
+        assertEquals(List.of("live"), aliases);
+        verify(dbClient, times(1)).forEachAlias(any(Consumer.class));
+    }
+
+    @Test
+    void givenLiveAndExpiredLinks_whenForEachLink_thenMatchingLinksInIdOrder() {
+        // arrange
+        final MappedLinkStore store = open("never");
+        final LocalDateTime now = LocalDateTime.now();
+        store.save(new Url(TARGET, "live1", null));
+        store.save(new Url(TARGET, "expired", now.minusDays(1)));
+        store.save(new Url(TARGET, "live2", now.plusDays(1)));
+        final List<Url> all = new ArrayList<>();
+        final List<Url> active = new ArrayList<>();
+        final List<Url> expired = new ArrayList<>();
+        final List<Url> createdLater = new ArrayList<>();
+
+        // act
+        store.forEachLink(LinkExportFilter.ALL, now, 10, all::add);
+        store.forEachLink(new LinkExportFilter(LinkStatus.ACTIVE, null, now.plusDays(1)), now, 10, active::add);
+        store.forEachLink(new LinkExportFilter(LinkStatus.EXPIRED, null, null), now, 10, expired::add);
+        store.forEachLink(new LinkExportFilter(null, now.plusDays(1), null), now, 10, createdLater::add);
+
+        // assert
+        assertEquals(List.of("live1", "expired", "live2"), aliases(all));
+        assertEquals(List.of(1L, 2L, 3L), all.stream().map(Url::getId).toList());
+        assertEquals(List.of("live1", "live2"), aliases(active));
+        assertEquals(List.of("expired"), aliases(expired));
+        assertEquals(List.of(), createdLater);
+    }
+
+    @Test
+    void givenUnknownFsyncPolicy_whenCreate_thenFail() {
+        // act & assert
+        assertThrows(IllegalArgumentException.class, () -> new MappedLinkStore(properties("sometimes"), dbClient,
+                archiveClient, aliasFilterProvider, new SimpleMeterRegistry()));
+    }
+
+    private MappedLinkStore open(final String fsync) {
+        return open(properties(fsync));
+    }
+
+    private MappedLinkStore open(final ShortenerProperties props) {
+        lenient().when(aliasFilterProvider.getObject()).thenReturn(aliasFilter);
+        final MappedLinkStore store = new MappedLinkStore(props, dbClient, archiveClient, aliasFilterProvider,
+                new SimpleMeterRegistry());
+        store.open();
+        return store;
+    }
+
+    private ShortenerProperties properties(final String fsync) {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setLinkStoreDir(directory.toString());
+        props.setLinkStoreSegmentBytes(SEGMENT_BYTES);
+        props.setLinkStoreFsync(fsync);
+        return props;
+    }
+
+    private static int recordBytes(final String alias, final String target) {
+        return (LinkSegments.RECORD_HEADER_BYTES + alias.length() * 2 + target.length() + 7) & ~7;
+    }
+
+    private Path segmentFile(final int index) {
+        return directory.resolve(String.format("links-%08d.dat", index));
+    }
+
+    private long fileCount() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Url link(final String target, final String alias, final LocalDateTime expiresAt,
+                            final long targetHash) {
+        final Url url = new Url(target, alias, expiresAt);
+        url.setTargetHash(targetHash);
+        return url;
+    }
+
+    private static List<String> aliases(final List<Url> urls) {
+        return urls.stream().map(Url::getCustomAlias).toList();
+    }
+}
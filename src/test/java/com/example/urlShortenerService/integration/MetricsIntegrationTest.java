@@ -0,0 +1,56 @@
+package com.example.urlShortenerService.integration;
+
+import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.model.Url;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability // metrics export is disabled in tests by default
+class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @BeforeEach
+    void cleanDb() {
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void givenRedirects_whenScrapePrometheus_thenExposeOperationHistogramsWithoutAliasTags() throws Exception {
+        // arrange
+        urlRepository.save(new Url("https://example.com", "metrics1", LocalDateTime.now().plusDays(1)));
+        mockMvc.perform(get("/r/{shortCode}", "metrics1")).andExpect(status().isFound());
+        mockMvc.perform(get("/r/{shortCode}", "metrics-missing")).andExpect(status().isNotFound());
+
+        // act
+        final String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // assert
+        assertTrue(scrape.contains("shortener_operation_seconds_bucket{"));
+        assertTrue(scrape.contains("operation=\"redirect\""));
+        assertTrue(scrape.contains("outcome=\"not_found\""));
+        assertTrue(scrape.contains("shortener_db_calls_seconds_bucket{"));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+        assertFalse(scrape.contains("metrics-missing"));
+    }
+}
@@ -1,23 +1,43 @@
 package com.example.urlShortenerService.integration;
 
+import com.example.urlShortenerService.archive.ExpiredLinkSweeper;
+import com.example.urlShortenerService.click.ClickAccumulator;
+import com.example.urlShortenerService.click.ClickRollupCompactor;
+import com.example.urlShortenerService.client.database.UrlArchiveRepository;
 import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.example.urlShortenerService.model.TargetUrl;
 import com.example.urlShortenerService.model.Url;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.net.URI;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
@@ -25,15 +45,112 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 @AutoConfigureMockMvc
 class UrlActivityIntegrationTest {
 
+    @TempDir
+    static Path importReportDir;
+
+    @DynamicPropertySource
+    static void importReportDir(final DynamicPropertyRegistry registry) {
+        registry.add("shortener.import-report-dir", () -> importReportDir.toString());
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private UrlRepository urlRepository;  // adjust package if needed
 
+    @Autowired
+    private ClickAccumulator clickAccumulator;
+
+    @Autowired
+    private UrlArchiveRepository urlArchiveRepository;
+
+    @Autowired
+    private ExpiredLinkSweeper expiredLinkSweeper;
+
+    @Autowired
+    private ClickRollupCompactor clickRollupCompactor;
+
     @BeforeEach
     void cleanDb() {
         urlRepository.deleteAll();
+        urlArchiveRepository.deleteAll();
+    }
+
+    @Test
+    void givenLinkExpiredPastGracePeriod_whenSweep_thenArchivedAndStillReportedExpired() throws Exception {
+        urlRepository.save(new Url("https://example.com/old", "swept-link", LocalDateTime.now().minusDays(2)));
+        urlRepository.save(new Url("https://example.com/recent", "recent-expired", LocalDateTime.now().minusHours(1)));
+        urlRepository.save(new Url("https://example.com/live", "live-link", LocalDateTime.now().plusDays(1)));
+
+        assertEquals(1, expiredLinkSweeper.sweep());
+
+        assertTrue(urlRepository.findByCustomAlias("swept-link").isEmpty());
+        assertTrue(urlArchiveRepository.existsByCustomAlias("swept-link"));
+        assertTrue(urlRepository.findByCustomAlias("recent-expired").isPresent());
+        assertTrue(urlRepository.findByCustomAlias("live-link").isPresent());
+        assertEquals(0, expiredLinkSweeper.lagSeconds());
+
+        mockMvc.perform(get("/links/swept-link"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.targetUrl").value("https://example.com/old"))
+                .andExpect(jsonPath("$.status").value("EXPIRED"));
+        mockMvc.perform(get("/r/swept-link"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void givenLoggedClicks_whenFlush_thenCountsAndCheckpointSavedTogether() {
+        final Url url = urlRepository.save(new Url("https://example.com/logged", "logged-link",
+                LocalDateTime.now().plusDays(1)));
+
+        clickAccumulator.recordLogged(url.getId(), LocalDateTime.now(), 41L);
+        clickAccumulator.recordLogged(url.getId(), LocalDateTime.now(), 42L);
+        clickAccumulator.flush();
+
+        assertEquals(2L, urlRepository.findById(url.getId()).orElseThrow().getClickCount());
+        assertEquals(42L, urlRepository.findClickLogCheckpoint());
+    }
+
+    @Test
+    void givenRedirects_whenGetLinkStats_thenReturnClicksFromRollups() throws Exception {
+        urlRepository.save(new Url("https://example.com/stats", "stats-link", LocalDateTime.now().plusDays(1)));
+        mockMvc.perform(get("/r/stats-link")).andExpect(status().isFound());
+        mockMvc.perform(get("/r/stats-link")).andExpect(status().isFound());
+        clickAccumulator.flush();
+        mockMvc.perform(get("/r/stats-link")).andExpect(status().isFound());
+        clickAccumulator.flush();
+
+        mockMvc.perform(get("/links/stats-link/stats").param("granularity", "day"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("DAY"))
+                .andExpect(jsonPath("$.totalClicks").value(3))
+                .andExpect(jsonPath("$.buckets.length()").value(30))
+                .andExpect(jsonPath("$.buckets[29].clicks").value(3));
+        mockMvc.perform(get("/links/stats-link/stats").param("granularity", "minute"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalClicks").value(3));
+        mockMvc.perform(get("/links/stats-link/stats").param("granularity", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_STATS_QUERY"));
+    }
+
+    @Test
+    void givenOldMinuteRollups_whenCompact_thenOnlyCoarserBucketsRemain() {
+        final Url url = urlRepository.save(new Url("https://example.com/compact", "compact-link",
+                LocalDateTime.now().plusDays(1)));
+        final LocalDateTime old = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.MINUTES);
+        clickAccumulator.record(url.getId(), old);
+        clickAccumulator.flush();
+
+        clickRollupCompactor.compact();
+
+        assertTrue(urlRepository.findClickRollups(url.getId(), StatsGranularity.MINUTE, old, old.plusDays(1))
+                .isEmpty());
+        assertEquals(1L, urlRepository.findClickRollups(url.getId(), StatsGranularity.HOUR,
+                old.truncatedTo(ChronoUnit.HOURS), old.plusDays(1)).get(0).clicks());
+        assertEquals(1L, urlRepository.findClickRollups(url.getId(), StatsGranularity.DAY,
+                old.truncatedTo(ChronoUnit.DAYS), old.plusDays(1)).get(0).clicks());
     }
 
     @Test
@@ -111,6 +228,57 @@ class UrlActivityIntegrationTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void givenBatchWithConflict_whenCreateUrls_thenReturnResultPerItem() throws Exception {
+        urlRepository.save(new Url("https://example.com", "batch-taken", LocalDateTime.now().plusDays(1)));
+
+        String body = """
+        {
+          "items": [
+            { "targetUrl": "https://example.com/1", "customAlias": "batch-1" },
+            { "targetUrl": "https://example.com/2", "customAlias": "batch-taken" },
+            { "targetUrl": "https://example.com/3" },
+            { "targetUrl": "invalid-url" }
+          ]
+        }
+        """;
+
+        mockMvc.perform(post("/links/batch")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].link.shortCode").value("batch-1"))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[2].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"));
+
+        mockMvc.perform(get("/r/{shortCode}", "batch-1"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://example.com/1"));
+    }
+
+    @Test
+    void givenMissingApiKey_whenCreateUrls_then401() throws Exception {
+        mockMvc.perform(post("/links/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void givenEmptyBatch_whenCreateUrls_then400() throws Exception {
+        mockMvc.perform(post("/links/batch")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_BATCH"));
+    }
+
     @Test
     void givenExistingShortCode_whenRedirect_then302AndLocationHeader() throws Exception {
         Url url = new Url();
@@ -136,6 +304,7 @@ class UrlActivityIntegrationTest {
 
         mockMvc.perform(get("/r/{shortCode}", "stat123"))
                 .andExpect(status().isFound());
+        clickAccumulator.flush(); // clicks are written behind
 
         Url updated = urlRepository.findByCustomAlias("stat123").orElseThrow();
         assertEquals(1L, updated.getClickCount());
@@ -164,6 +333,24 @@ class UrlActivityIntegrationTest {
 
 
 
+    @Test
+    void givenUnknownAndExpiredShortCodes_whenRedirect_thenJsonErrorBodies() throws Exception {
+        urlRepository.save(new Url("https://example.com", "expired2", LocalDateTime.now().minusDays(1)));
+
+        mockMvc.perform(get("/r/{shortCode}", "missing456"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value("Short URL not found"));
+        mockMvc.perform(get("/r/{shortCode}", "expired2"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.code").value("EXPIRED_URL"))
+                .andExpect(jsonPath("$.message").value("Short URL has expired"));
+        // percent-encoded codes are decoded by the MVC dispatch, with the same answer
+        mockMvc.perform(get(URI.create("/r/expired%32")))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.code").value("EXPIRED_URL"));
+    }
+
     @Test
     void givenExistingShortCode_whenGetLinkDetails_thenReturn200() throws Exception {
         // arrange
@@ -180,6 +367,170 @@ class UrlActivityIntegrationTest {
                 .andExpect(jsonPath("$.targetUrl").value("https://example.com"));
     }
 
+    @Test
+    void givenRedirectPolicies_whenRedirect_thenStatusAndCacheControlPerLink() throws Exception {
+        // arrange: the permanent link expires in about an hour, below the one day max age
+        final String expiresAt = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS).toString();
+        createLink("{\"targetUrl\": \"https://example.com/p\", \"customAlias\": \"perm1\","
+                + " \"redirectPolicy\": \"permanent\", \"expiresAt\": \"" + expiresAt + "\"}");
+        createLink("{\"targetUrl\": \"https://example.com/c\", \"customAlias\": \"cache1\","
+                + " \"redirectPolicy\": \"CACHEABLE\"}");
+        createLink("{\"targetUrl\": \"https://example.com/t\", \"customAlias\": \"temp1\"}");
+
+        // act + assert
+        final String permanentCacheControl = mockMvc.perform(get("/r/{shortCode}", "perm1"))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Location", "https://example.com/p"))
+                .andReturn().getResponse().getHeader("Cache-Control");
+        final long maxAge = Long.parseLong(permanentCacheControl.substring("public, max-age=".length()));
+        assertTrue(maxAge > 3500 && maxAge <= 3600, permanentCacheControl);
+        mockMvc.perform(get("/r/{shortCode}", "cache1"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Cache-Control", "public, max-age=86400"));
+        mockMvc.perform(get("/r/{shortCode}", "temp1"))
+                .andExpect(status().isFound())
+                .andExpect(header().doesNotExist("Cache-Control"));
+        mockMvc.perform(get("/links/{shortCode}", "perm1"))
+                .andExpect(jsonPath("$.redirectPolicy").value("PERMANENT"));
+    }
+
+    @Test
+    void givenUnknownRedirectPolicy_whenCreateUrl_then400() throws Exception {
+        mockMvc.perform(post("/links")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetUrl\": \"https://example.com\", \"redirectPolicy\": \"forever\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("redirectPolicy must be one of temporary, cacheable, permanent"));
+    }
+
+    @Test
+    void givenMatchingEtag_whenGetLinkDetails_then304UntilTheLinkChanges() throws Exception {
+        // arrange
+        urlRepository.save(new Url("https://example.com", "etag1", LocalDateTime.now().plusDays(1)));
+        final String etag = mockMvc.perform(get("/links/{shortCode}", "etag1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // act + assert: unchanged link, no body
+        mockMvc.perform(get("/links/{shortCode}", "etag1").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        // a click changes the representation, pending or flushed
+        mockMvc.perform(get("/r/{shortCode}", "etag1")).andExpect(status().isFound());
+        final String clickedEtag = mockMvc.perform(get("/links/{shortCode}", "etag1").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clickCount").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+        clickAccumulator.flush();
+        mockMvc.perform(get("/links/{shortCode}", "etag1").header("If-None-Match", clickedEtag))
+                .andExpect(status().isNotModified());
+
+        // so does an update of the row
+        final Url url = urlRepository.findByCustomAlias("etag1").orElseThrow();
+        url.setTargetUrl("https://example.com/moved");
+        urlRepository.save(url);
+        mockMvc.perform(get("/links/{shortCode}", "etag1").header("If-None-Match", clickedEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.targetUrl").value("https://example.com/moved"));
+    }
+
+    @Test
+    void givenEtagOfExpiredLink_whenLinkArchived_thenPolicyHashAndEtagKept() throws Exception {
+        // arrange
+        final Url url = new Url("https://example.com/archived", "etag-archived", LocalDateTime.now().minusDays(2));
+        url.setRedirectPolicy(RedirectPolicy.PERMANENT);
+        url.setTargetHash(TargetUrl.hash("https://example.com/archived"));
+        final Long id = urlRepository.save(url).getId();
+        final String etag = mockMvc.perform(get("/links/{shortCode}", "etag-archived"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.redirectPolicy").value("PERMANENT"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // act
+        assertEquals(1, expiredLinkSweeper.sweep());
+
+        // assert: the archived details serialize the same, policy included
+        assertEquals(TargetUrl.hash("https://example.com/archived"),
+                urlArchiveRepository.findById(id).orElseThrow().getTargetHash());
+        mockMvc.perform(get("/links/{shortCode}", "etag-archived"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("EXPIRED"))
+                .andExpect(jsonPath("$.redirectPolicy").value("PERMANENT"))
+                .andExpect(header().string("ETag", etag));
+        mockMvc.perform(get("/links/{shortCode}", "etag-archived").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void givenCreatedLinks_whenFindLiveByTargetHashes_thenOnlyLiveLinksOfTheCanonicalTarget() throws Exception {
+        // arrange
+        createLink("{\"targetUrl\": \"HTTPS://Example.com:443/dedup\", \"customAlias\": \"dedup-live\"}");
+        createLink("{\"targetUrl\": \"https://example.com/dedup\", \"customAlias\": \"dedup-soon\","
+                + " \"expiresAt\": \"" + LocalDateTime.now().plusMinutes(1).truncatedTo(ChronoUnit.SECONDS) + "\"}");
+        createLink("{\"targetUrl\": \"https://example.com/other\", \"customAlias\": \"dedup-other\"}");
+        final long hash = TargetUrl.hash("https://example.com/dedup");
+
+        // act
+        final List<Url> now = urlRepository.findLiveByTargetHashes(List.of(hash), LocalDateTime.now(), 10);
+        final List<Url> later = urlRepository.findLiveByTargetHashes(List.of(hash),
+                LocalDateTime.now().plusMinutes(2), 10);
+
+        // assert
+        assertEquals(List.of("dedup-soon", "dedup-live"), now.stream().map(Url::getCustomAlias).toList());
+        assertEquals(List.of("dedup-live"), later.stream().map(Url::getCustomAlias).toList());
+    }
+
+    @Test
+    void givenHeavilyDuplicatedTarget_whenFindLiveByTargetHashes_thenLimitAppliedPerTarget() {
+        // arrange: the other target is older than every link of the heavy one
+        final long heavy = TargetUrl.hash("https://example.com/heavy");
+        final long light = TargetUrl.hash("https://example.com/light");
+        final Url lightUrl = new Url("https://example.com/light", "light-1", null);
+        lightUrl.setTargetHash(light);
+        urlRepository.save(lightUrl);
+        for (int i = 0; i < 20; i++) {
+            final Url url = new Url("https://example.com/heavy", "heavy-" + i, null);
+            url.setTargetHash(heavy);
+            urlRepository.save(url);
+        }
+
+        // act
+        final List<Url> actual = urlRepository.findLiveByTargetHashes(List.of(heavy, light), LocalDateTime.now(), 8);
+
+        // assert: the 8 newest of the heavy target, and still the light one
+        assertEquals(9, actual.size());
+        assertEquals(List.of("heavy-19", "heavy-18"), actual.subList(0, 2).stream().map(Url::getCustomAlias).toList());
+        assertEquals(8, actual.stream().filter(url -> url.getTargetHash() == heavy).count());
+        assertEquals("light-1", actual.get(8).getCustomAlias());
+    }
+
+    private void createLink(final String body) throws Exception {
+        mockMvc.perform(post("/links")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void givenAliases_whenCheckAvailability_thenReportTakenAndFreeAliases() throws Exception {
+        urlRepository.save(new Url("https://example.com", "taken-alias", LocalDateTime.now().plusDays(1)));
+
+        mockMvc.perform(get("/aliases/{alias}/available", "taken-alias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alias").value("taken-alias"))
+                .andExpect(jsonPath("$.available").value(false));
+        mockMvc.perform(get("/aliases/{alias}/available", "free-alias"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(true));
+        mockMvc.perform(get("/aliases/{alias}/available", "a!"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void givenNonExistingShortCode_whenGetLinkDetails_then404() throws Exception {
         // no URL saved in DB
@@ -206,4 +557,174 @@ class UrlActivityIntegrationTest {
                 .andExpect(jsonPath("$.content[0].shortCode").value("code2")) // sorted by createdAt desc
                 .andExpect(jsonPath("$.content[1].shortCode").value("code1"));
     }
+
+    @Test
+    void givenExistingUrls_whenListLinksWithCursor_thenWalkAllPagesNewestFirst() throws Exception {
+        // arrange
+        urlRepository.saveAll(List.of(
+                new Url("https://google.com", "seek1", LocalDateTime.now().plusDays(1)),
+                new Url("https://github.com", "seek2", LocalDateTime.now().plusDays(1)),
+                new Url("https://example.com", "seek3", LocalDateTime.now().plusDays(1))));
+
+        // act + assert
+        final String firstPage = mockMvc.perform(get("/links")
+                        .param("after", "")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].shortCode").value("seek3"))
+                .andExpect(jsonPath("$.items[1].shortCode").value("seek2"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString();
+        final String cursor = JsonPath.read(firstPage, "$.nextCursor");
+
+        mockMvc.perform(get("/links")
+                        .param("after", cursor)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].shortCode").value("seek1"))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void givenMalformedCursor_whenListLinks_then400() throws Exception {
+        mockMvc.perform(get("/links").param("after", "%%%"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+    }
+
+    @Test
+    void givenLiveAndExpiredLinks_whenExportLinks_thenNdjsonStreamOfMatchingLinks() throws Exception {
+        urlRepository.save(new Url("https://example.com/1", "export-live1", null));
+        urlRepository.save(new Url("https://example.com/2", "export-expired", LocalDateTime.now().minusDays(1)));
+        urlRepository.save(new Url("https://example.com/3", "export-live2", LocalDateTime.now().plusDays(1)));
+
+        final MvcResult all = mockMvc.perform(get("/links/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final String body = mockMvc.perform(asyncDispatch(all))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        final List<String> lines = body.lines().toList();
+        assertEquals(List.of("export-live1", "export-expired", "export-live2"),
+                lines.stream().map(line -> JsonPath.<String>read(line, "$.shortCode")).toList());
+        assertEquals("EXPIRED", JsonPath.read(lines.get(1), "$.status"));
+        assertTrue(body.endsWith("\n"));
+
+        final MvcResult expired = mockMvc.perform(get("/links/export")
+                        .param("status", "expired")
+                        .param("createdFrom", LocalDateTime.now().minusHours(1).toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final String expiredBody = mockMvc.perform(asyncDispatch(expired))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(1, expiredBody.lines().count());
+        assertEquals("export-expired", JsonPath.read(expiredBody, "$.shortCode"));
+    }
+
+    @Test
+    void givenReservedAliasExport_whenCreateOrImportLink_then400() throws Exception {
+        mockMvc.perform(post("/links")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetUrl\":\"https://example.com\",\"customAlias\":\"export\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_URL"))
+                .andExpect(jsonPath("$.message").value("customAlias is reserved: export"));
+        mockMvc.perform(post("/links/batch")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"targetUrl\":\"https://example.com\",\"customAlias\":\"export\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value("INVALID"));
+        mockMvc.perform(post("/links/import")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"customAlias\":\"export\",\"targetUrl\":\"https://example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.rejected").value(1));
+        assertTrue(urlRepository.findByCustomAlias("export").isEmpty());
+    }
+
+    @Test
+    void givenInvalidStatus_whenExportLinks_then400BeforeStreaming() throws Exception {
+        mockMvc.perform(get("/links/export").param("status", "archived"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_EXPORT_QUERY"));
+    }
+
+    @Test
+    void givenNdjsonUpload_whenImportLinks_thenLinksRedirectAndReportDownloadable() throws Exception {
+        urlRepository.save(new Url("https://example.com/existing", "import-taken", null));
+        final String upload = String.join("\n",
+                "{\"customAlias\":\"import-one\",\"targetUrl\":\"https://example.com/1\"}",
+                "{\"customAlias\":\"import-taken\",\"targetUrl\":\"https://example.com/2\"}",
+                "{\"customAlias\":\"import-old\",\"targetUrl\":\"https://example.com/3\","
+                        + "\"expiresAt\":\"2001-01-01T00:00:00\"}",
+                "{\"customAlias\":\"import-bad\",\"targetUrl\":\"ftp://example.com\"}");
+
+        final String summary = mockMvc.perform(post("/links/import")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(upload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("NDJSON"))
+                .andExpect(jsonPath("$.lines").value(4))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.conflicts").value(1))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/r/import-one"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://example.com/1"));
+        mockMvc.perform(get("/r/import-old"))
+                .andExpect(status().isGone());
+        final String report = mockMvc.perform(get(JsonPath.<String>read(summary, "$.report")))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", startsWith("attachment")))
+                .andReturn().getResponse().getContentAsString();
+        final List<String> lines = report.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("CONFLICT", JsonPath.read(lines.get(0), "$.status"));
+        assertEquals(2, (int) JsonPath.read(lines.get(0), "$.line"));
+        assertEquals("REJECTED", JsonPath.read(lines.get(1), "$.status"));
+        assertEquals("import-bad", JsonPath.read(lines.get(1), "$.customAlias"));
+    }
+
+    @Test
+    void givenCsvUpload_whenImportLinks_thenLinksImported() throws Exception {
+        mockMvc.perform(post("/links/import")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType("text/csv; charset=UTF-8")
+                        .content("targetUrl,customAlias,redirectPolicy\r\n"
+                                + "https://example.com/csv,import-csv,permanent\r\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+
+        mockMvc.perform(get("/r/import-csv"))
+                .andExpect(status().isMovedPermanently());
+    }
+
+    @Test
+    void givenImportWithoutApiKeyOrWithJson_whenImportLinks_then401Or400() throws Exception {
+        mockMvc.perform(post("/links/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/links/import")
+                        .header("X-API-KEY", "dev-key-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_IMPORT"));
+        mockMvc.perform(get("/links/import/{importId}/report", "not-an-import"))
+                .andExpect(status().isNotFound());
+    }
 }
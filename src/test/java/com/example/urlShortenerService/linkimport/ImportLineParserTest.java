@@ -0,0 +1,125 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.example.urlShortenerService.exception.ImportNotValidException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.TargetUrl;
+import com.example.urlShortenerService.model.Url;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+public class ImportLineParserTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final ImportLineParser ndjson = new ImportLineParser(ImportFormat.NDJSON, JSON_FACTORY, false);
+
+    @Test
+    void givenJsonLine_whenParse_thenKnownFieldsRead() {
+        // act
+        final ImportRecord actual = ndjson.parse("{\"customAlias\":\"abc\",\"targetUrl\":\"https://a.com\","
+                + "\"expiresAt\":\"2030-01-01T00:00:00\",\"redirectPolicy\":\"permanent\","
+                + "\"clicks\":12,\"tags\":[\"x\",{\"y\":1}],\"meta\":{\"customAlias\":\"other\"}}");
+
+        // assert
+        assertEquals(new ImportRecord("abc", "https://a.com", "2030-01-01T00:00:00", "permanent"), actual);
+    }
+
+    @Test
+    void givenJsonLineWithNullsAndObjects_whenParse_thenFieldsAbsent() {
+        // act
+        final ImportRecord actual = ndjson.parse("{\"customAlias\":null,\"targetUrl\":{\"href\":\"x\"}}");
+
+        // assert
+        assertNull(actual.customAlias());
+        assertNull(actual.targetUrl());
+    }
+
+    @Test
+    void givenLineNotJsonObject_whenParse_thenThrowShortUrlNotValidException() {
+        // act + assert
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> ndjson.parse("[1,2]"));
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> ndjson.parse("{\"customAlias\":"));
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> ndjson.parse("{} {}"));
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> ndjson.parse("not json"));
+    }
+
+    @Test
+    void givenCsvHeader_whenParse_thenColumnsOfTheHeader() {
+        // arrange
+        final ImportLineParser csv = new ImportLineParser(ImportFormat.CSV, JSON_FACTORY, false);
+        csv.readHeader("targetUrl, notes ,customAlias,redirectPolicy");
+
+        // act
+        final ImportRecord actual = csv.parse("\"https://a.com/?q=1,2\",\"say \"\"hi\"\"\",abc,");
+
+        // assert
+        assertEquals(new ImportRecord("abc", "https://a.com/?q=1,2", null, null), actual);
+    }
+
+    @Test
+    void givenCsvHeaderWithoutAlias_whenReadHeader_thenThrowImportNotValidException() {
+        // arrange
+        final ImportLineParser csv = new ImportLineParser(ImportFormat.CSV, JSON_FACTORY, false);
+
+        // act + assert
+        assertThrowsExactly(ImportNotValidException.class, () -> csv.readHeader("targetUrl,expiresAt"));
+        assertThrowsExactly(ImportNotValidException.class, () -> csv.readHeader(null));
+    }
+
+    @Test
+    void givenCsvLines_whenCsvFields_thenFieldsSplit() {
+        // act + assert
+        assertEquals(List.of("a", "", "c"), ImportLineParser.csvFields("a,,c"));
+        assertEquals(List.of("a\"b", "c"), ImportLineParser.csvFields("\"a\"\"b\",c"));
+        assertEquals(List.of("a\"b\""), ImportLineParser.csvFields("a\"b\""));
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> ImportLineParser.csvFields("\"abc,d"));
+    }
+
+    @Test
+    void givenValidRecord_whenToUrl_thenUrlWithPolicyAndHash() {
+        // arrange
+        final ImportLineParser sorting = new ImportLineParser(ImportFormat.NDJSON, JSON_FACTORY, true);
+
+        // act
+        final Url actual = sorting.toUrl(new ImportRecord(" abc_1 ", "https://a.com/p?b=2&a=1",
+                "2001-01-01T00:00:00", "cacheable"));
+
+        // assert
+        assertEquals("abc_1", actual.getCustomAlias());
+        assertEquals("https://a.com/p?b=2&a=1", actual.getTargetUrl());
+        assertEquals(LocalDateTime.of(2001, 1, 1, 0, 0), actual.getExpiresAt());
+        assertEquals(RedirectPolicy.CACHEABLE, actual.getRedirectPolicy());
+        assertEquals(TargetUrl.hash(new TargetUrl("https://a.com/p?a=1&b=2").canonical(true)),
+                actual.getTargetHash());
+    }
+
+    @Test
+    void givenInvalidRecords_whenToUrl_thenThrowShortUrlNotValidException() {
+        // act + assert
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord(null, "https://a.com", null, null)));
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord("ab", "https://a.com", null, null)));
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord("a b c", "https://a.com", null, null)));
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord("export", "https://a.com", null, null)));
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord("abc", "https://a.com/" + "x".repeat(2048), null, null)));
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord("abc", "ftp://a.com", null, null)));
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord("abc", "https://a.com", "tomorrow", null)));
+        assertThrowsExactly(ShortUrlNotValidException.class,
+                () -> ndjson.toUrl(new ImportRecord("abc", "https://a.com", null, "forever")));
+    }
+}
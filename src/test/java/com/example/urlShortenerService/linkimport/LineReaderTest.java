@@ -0,0 +1,70 @@
+package com.example.urlShortenerService.linkimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LineReaderTest {
+
+    @Test
+    void givenLines_whenNext_thenLinesWithoutEndOfLineAndNumbered() throws Exception {
+        // arrange
+        final LineReader reader = new LineReader(new StringReader("\uFEFFfirst\r\nsecond\n\nlast"), 10);
+
+        // act + assert
+        assertEquals("first", reader.next());
+        assertEquals(1, reader.lineNumber());
+        assertEquals("second", reader.next());
+        assertEquals("", reader.next());
+        assertEquals("last", reader.next());
+        assertEquals(4, reader.lineNumber());
+        assertFalse(reader.truncated());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void givenTrailingNewLine_whenNext_thenNoEmptyLastLine() throws Exception {
+        // arrange
+        final LineReader reader = new LineReader(new StringReader("one\ntwo\n"), 10);
+
+        // act + assert
+        assertEquals("one", reader.next());
+        assertEquals("two", reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void givenLongLine_whenNext_thenTruncatedAndNextLineRead() throws Exception {
+        // arrange
+        final String longLine = "x".repeat(100_000);
+        final LineReader reader = new LineReader(new StringReader("12345\r\n" + longLine + "\nafter"), 5);
+
+        // act + assert
+        assertEquals("12345", reader.next());
+        assertFalse(reader.truncated());
+        reader.next();
+        assertTrue(reader.truncated());
+        assertEquals(2, reader.lineNumber());
+        assertEquals("after", reader.next());
+        assertFalse(reader.truncated());
+        assertEquals(3, reader.lineNumber());
+    }
+
+    @Test
+    void givenLineOneCharTooLong_whenNext_thenTruncated() throws Exception {
+        // arrange
+        final LineReader reader = new LineReader(new StringReader("123456"), 5);
+
+        // act
+        reader.next();
+
+        // assert
+        assertTrue(reader.truncated());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.ImportSummaryOutput;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkImportRunnerTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private LinkImporter importer;
+
+    private final ShortenerProperties props = new ShortenerProperties();
+
+    private final List<Integer> exitCodes = new ArrayList<>();
+
+    @Test
+    void givenGzippedCsvFile_whenRun_thenDecompressedCsvImportedAndExitZero() throws Exception {
+        // arrange
+        final Path file = directory.resolve("links.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write("customAlias,targetUrl\nabc,https://a.com\n".getBytes(StandardCharsets.UTF_8));
+        }
+        props.setImportFile(file.toString());
+        final List<String> imported = new ArrayList<>();
+        when(importer.importLinks(any(), eq(ImportFormat.CSV))).thenAnswer(invocation -> {
+            final InputStream input = invocation.getArgument(0);
+            imported.add(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+            return ImportSummaryOutput.builder().importId("id1").lines(1).imported(1).build();
+        });
+        when(importer.reportFile("id1")).thenReturn(directory.resolve("id1.ndjson"));
+
+        // act
+        new LinkImportRunner(importer, props, exitCodes::add).run(null);
+
+        // assert
+        assertEquals(List.of("customAlias,targetUrl\nabc,https://a.com\n"), imported);
+        assertEquals(List.of(0), exitCodes);
+    }
+
+    @Test
+    void givenMissingFile_whenRun_thenExitOne() {
+        // arrange
+        props.setImportFile(directory.resolve("missing.ndjson").toString());
+
+        // act
+        new LinkImportRunner(importer, props, exitCodes::add).run(null);
+
+        // assert
+        assertEquals(List.of(1), exitCodes);
+    }
+}
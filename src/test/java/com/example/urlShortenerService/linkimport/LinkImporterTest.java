@@ -0,0 +1,322 @@
+package com.example.urlShortenerService.linkimport;
+
+import com.example.urlShortenerService.cache.AliasBloomFilter;
+import com.example.urlShortenerService.client.database.DbConcurrencyLimiter;
+import com.example.urlShortenerService.client.store.LinkStore;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.ImportNotValidException;
+import com.example.urlShortenerService.exception.ImportReportNotFoundException;
+import com.example.urlShortenerService.model.ImportFormat;
+import com.example.urlShortenerService.model.ImportSummaryOutput;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.Url;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkImporterTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path reportDir;
+
+    @Mock
+    private LinkStore dbClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ShortenerProperties props = new ShortenerProperties();
+
+    private final List<Url> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        props.setImportReportDir(reportDir.toString());
+        props.setImportWorkers(2);
+        props.setImportBatchSize(2);
+        props.setImportQueueCapacity(1);
+        props.setImportMaxLineLength(200);
+    }
+
+    @Test
+    void givenNdjsonLines_whenImportLinks_thenValidLinksSavedAndOthersReported() throws Exception {
+        // arrange
+        when(dbClient.findExistingAliases(anyList())).thenAnswer(invocation -> {
+            // the aliases of the earlier batches are taken too
+            final List<String> aliases = invocation.getArgument(0);
+            return aliases.stream()
+                    .filter(alias -> "taken".equals(alias) || saved.stream().anyMatch(
+                            url -> url.getCustomAlias().equals(alias)))
+                    .toList();
+        });
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        final String input = String.join("\n",
+                "{\"customAlias\":\"first\",\"targetUrl\":\"https://a.com\",\"redirectPolicy\":\"permanent\"}",
+                "",
+                "{\"customAlias\":\"taken\",\"targetUrl\":\"https://b.com\"}",
+                "not json",
+                "{\"customAlias\":\"x\",\"targetUrl\":\"https://c.com\"}",
+                "{\"customAlias\":\"first\",\"targetUrl\":\"https://d.com\"}",
+                "{\"customAlias\":\"long\",\"targetUrl\":\"https://e.com/" + "x".repeat(300) + "\"}",
+                "{\"customAlias\":\"old\",\"targetUrl\":\"https://f.com\",\"expiresAt\":\"2001-01-01T00:00:00\"}");
+
+        // act
+        final ImportSummaryOutput actual = importer().importLinks(stream(input), ImportFormat.NDJSON);
+
+        // assert
+        assertEquals(7, actual.getLines());
+        assertEquals(2, actual.getImported());
+        assertEquals(3, actual.getRejected());
+        assertEquals(2, actual.getConflicts());
+        assertEquals(ImportFormat.NDJSON, actual.getFormat());
+        assertEquals("/links/import/" + actual.getImportId() + "/report", actual.getReport());
+        assertEquals(List.of("first", "old"), saved.stream().map(Url::getCustomAlias).toList());
+        assertEquals(RedirectPolicy.PERMANENT, saved.get(0).getRedirectPolicy());
+        assertEquals(LocalDateTime.of(2001, 1, 1, 0, 0), saved.get(1).getExpiresAt());
+
+        final List<JsonNode> report = report(actual);
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), report.stream().map(line -> line.get("line").asLong()).toList());
+        assertEquals(List.of("CONFLICT", "REJECTED", "REJECTED", "CONFLICT", "REJECTED"),
+                report.stream().map(line -> line.get("status").asText()).toList());
+        assertEquals("taken", report.get(0).get("customAlias").asText());
+        assertEquals("x", report.get(2).get("customAlias").asText());
+        assertTrue(report.get(4).get("message").asText().contains("longer than 200"));
+        assertEquals(2.0, meterRegistry.get("shortener.import.lines").tag("outcome", "imported").counter().count());
+        assertEquals(3.0, meterRegistry.get("shortener.import.lines").tag("outcome", "rejected").counter().count());
+        assertEquals(2.0, meterRegistry.get("shortener.import.lines").tag("outcome", "conflict").counter().count());
+    }
+
+    @Test
+    void givenManyLines_whenImportLinks_thenEveryLineImportedOnce() {
+        // arrange
+        when(dbClient.findExistingAliases(anyList())).thenReturn(List.of());
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        final StringBuilder input = new StringBuilder("targetUrl,customAlias\n");
+        for (int i = 0; i < 1_000; i++) {
+            input.append("https://a.com/").append(i).append(",alias").append(i).append('\n');
+        }
+
+        // act
+        final ImportSummaryOutput actual = importer().importLinks(stream(input.toString()), ImportFormat.CSV);
+
+        // assert
+        assertEquals(1_000, actual.getLines());
+        assertEquals(1_000, actual.getImported());
+        assertEquals(1_000, saved.stream().map(Url::getCustomAlias).distinct().count());
+    }
+
+    @Test
+    void givenSlowChunk_whenImportLinks_thenChunksReadAheadOfItCapped() {
+        // arrange
+        when(dbClient.findExistingAliases(anyList())).thenReturn(List.of());
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        final AtomicInteger parsedLines = new AtomicInteger();
+        final AtomicInteger parsedWhileSlow = new AtomicInteger();
+        final JsonFactory slowFirstLine = new JsonFactory() {
+            @Override
+            public JsonParser createParser(final String content) throws IOException {
+                parsedLines.incrementAndGet();
+                if (content.contains("\"slow\"")) {
+                    // the other worker goes on with the next chunks meanwhile
+                    sleep(500L);
+                    parsedWhileSlow.set(parsedLines.get());
+                }
+                return super.createParser(content);
+            }
+        };
+        final StringBuilder input = new StringBuilder("{\"customAlias\":\"slow\",\"targetUrl\":\"https://a.com\"}\n");
+        for (int i = 0; i < 1_000; i++) {
+            input.append("{\"customAlias\":\"alias").append(i).append("\",\"targetUrl\":\"https://a.com\"}\n");
+        }
+        final LinkImporter importer = new LinkImporter(dbClient,
+                new DbConcurrencyLimiter(props, new SimpleMeterRegistry()),
+                new AliasBloomFilter(null, props, new SimpleMeterRegistry()), props, new ObjectMapper(slowFirstLine),
+                meterRegistry);
+
+        // act
+        final ImportSummaryOutput actual = importer.importLinks(stream(input.toString()), ImportFormat.NDJSON);
+
+        // assert: 2 queues of 1 chunk + 2 workers, of 2 lines each
+        assertEquals(4, importer.maxChunksInFlight());
+        assertTrue(parsedWhileSlow.get() <= 4 * 2, "lines parsed behind the slow chunk: " + parsedWhileSlow.get());
+        assertEquals(1_001, actual.getImported());
+        assertEquals("slow", saved.get(0).getCustomAlias());
+    }
+
+    @Test
+    void givenCsvWithoutHeader_whenImportLinks_thenThrowImportNotValidException() {
+        // arrange
+        final LinkImporter importer = importer();
+        final InputStream input = stream("");
+
+        // act + assert
+        assertThrowsExactly(ImportNotValidException.class, () -> importer.importLinks(input, ImportFormat.CSV));
+        verify(dbClient, never()).saveAll(anyList());
+    }
+
+    @Test
+    void givenConcurrentAliasConflict_whenImportLinks_thenLinksSavedOneByOne() throws Exception {
+        // arrange
+        when(dbClient.findExistingAliases(anyList())).thenReturn(List.of());
+        when(dbClient.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(dbClient.save(any(Url.class))).thenAnswer(invocation -> {
+            final Url url = invocation.getArgument(0);
+            if ("raced".equals(url.getCustomAlias())) {
+                throw new DataIntegrityViolationException("duplicate");
+            }
+            saved.add(url);
+            return url;
+        });
+        final String input = "customAlias,targetUrl,redirectPolicy\nraced,https://a.com,\nmine,https://b.com,cacheable";
+
+        // act
+        final ImportSummaryOutput actual = importer().importLinks(stream(input), ImportFormat.CSV);
+
+        // assert
+        assertEquals(1, actual.getImported());
+        assertEquals(1, actual.getConflicts());
+        assertEquals("mine", saved.get(0).getCustomAlias());
+        assertEquals(RedirectPolicy.CACHEABLE, saved.get(0).getRedirectPolicy());
+        assertEquals("raced", report(actual).get(0).get("customAlias").asText());
+    }
+
+    @Test
+    void givenStoreFailure_whenImportLinks_thenFailureThrownAndImportStopped() {
+        // arrange
+        when(dbClient.findExistingAliases(anyList())).thenReturn(List.of());
+        when(dbClient.saveAll(anyList())).thenThrow(new IllegalStateException("database down"));
+        final StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            input.append("{\"customAlias\":\"alias").append(i).append("\",\"targetUrl\":\"https://a.com\"}\n");
+        }
+        final LinkImporter importer = importer();
+
+        // act
+        final IllegalStateException actual = assertThrowsExactly(IllegalStateException.class,
+                () -> importer.importLinks(stream(input.toString()), ImportFormat.NDJSON));
+
+        // assert
+        assertEquals("database down", actual.getMessage());
+        // the full queues stopped the reader: the failed batch was the only one written
+        verify(dbClient, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void givenImportDone_whenReportFile_thenReportOfTheImport() {
+        // arrange
+        final LinkImporter importer = importer();
+        final ImportSummaryOutput summary = importer.importLinks(stream("bad line"), ImportFormat.NDJSON);
+
+        // act
+        final Path actual = importer.reportFile(summary.getImportId());
+
+        // assert
+        assertEquals(reportDir.resolve(summary.getImportId() + ".ndjson"), actual);
+    }
+
+    @Test
+    void givenUnknownImportIds_whenReportFile_thenThrowImportReportNotFoundException() {
+        // arrange
+        final LinkImporter importer = importer();
+
+        // act + assert
+        assertThrowsExactly(ImportReportNotFoundException.class, () -> importer.reportFile("../secret"));
+        assertThrowsExactly(ImportReportNotFoundException.class,
+                () -> importer.reportFile(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void givenExpiredReport_whenImportLinks_thenReportDeleted() throws Exception {
+        // arrange
+        final Path expired = Files.writeString(reportDir.resolve(UUID.randomUUID() + ".ndjson"), "");
+        Files.setLastModifiedTime(expired, FileTime.from(Instant.now().minus(25, ChronoUnit.HOURS)));
+        final Path recent = Files.writeString(reportDir.resolve(UUID.randomUUID() + ".ndjson"), "");
+
+        // act
+        importer().importLinks(stream(""), ImportFormat.NDJSON);
+
+        // assert
+        assertFalse(Files.exists(expired));
+        assertTrue(Files.exists(recent));
+    }
+
+    @Test
+    void givenZeroBatchSize_whenConstruct_thenThrowIllegalArgumentException() {
+        // arrange
+        props.setImportBatchSize(0);
+
+        // act + assert
+        assertThrowsExactly(IllegalArgumentException.class, this::importer);
+    }
+
+    private LinkImporter importer() {
+        return new LinkImporter(dbClient, new DbConcurrencyLimiter(props, new SimpleMeterRegistry()),
+                new AliasBloomFilter(null, props, new SimpleMeterRegistry()), props, OBJECT_MAPPER, meterRegistry);
+    }
+
+    private List<JsonNode> report(final ImportSummaryOutput summary) throws Exception {
+        final List<JsonNode> lines = new ArrayList<>();
+        for (final String line : Files.readAllLines(reportDir.resolve(summary.getImportId() + ".ndjson"))) {
+            lines.add(OBJECT_MAPPER.readTree(line));
+        }
+        return lines;
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static InputStream stream(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.urlShortenerService.logging;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SuccessLogSamplerTest {
+
+    @Test
+    void givenRateOne_whenSample_thenAlwaysLog() {
+        // arrange
+        final SuccessLogSampler sampler = samplerWithRate(1);
+
+        // act + assert
+        assertTrue(IntStream.range(0, 1000).allMatch(i -> sampler.sample()));
+    }
+
+    @Test
+    void givenRateZero_whenSample_thenNeverLog() {
+        // arrange
+        final SuccessLogSampler sampler = samplerWithRate(0);
+
+        // act + assert
+        assertTrue(IntStream.range(0, 1000).noneMatch(i -> sampler.sample()));
+    }
+
+    @Test
+    void givenRateHundred_whenSample_thenLogAboutOneRequestInHundred() {
+        // arrange
+        final SuccessLogSampler sampler = samplerWithRate(100);
+
+        // act
+        final long sampled = IntStream.range(0, 100_000).filter(i -> sampler.sample()).count();
+
+        // assert
+        assertEquals(1000, sampled, 300);
+    }
+
+    private static SuccessLogSampler samplerWithRate(final int rate) {
+        final ShortenerProperties props = new ShortenerProperties();
+        props.setSuccessLogSampleRate(rate);
+        return new SuccessLogSampler(props);
+    }
+}
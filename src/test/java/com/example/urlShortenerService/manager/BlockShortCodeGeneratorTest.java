@@ -0,0 +1,146 @@
+package com.example.urlShortenerService.manager;
+
+import com.example.urlShortenerService.client.database.ShortCodeSequence;
+import com.example.urlShortenerService.config.ShortenerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BlockShortCodeGeneratorTest {
+
+    @Mock
+    private ShortCodeSequence sequence;
+
+    private ShortenerProperties props;
+
+    @BeforeEach
+    void setUp() {
+        props = new ShortenerProperties();
+        props.setShortCodeBlockSize(100);
+    }
+
+    @Test
+    void givenObfuscation_whenNextCode_thenFixedLengthBase62Codes() {
+        // arrange
+        when(sequence.nextBlock()).thenReturn(1L);
+        final BlockShortCodeGenerator generator = new BlockShortCodeGenerator(sequence, props);
+
+        // act
+        final String first = generator.nextCode();
+        final String second = generator.nextCode();
+
+        // assert
+        assertEquals(7, first.length());
+        assertTrue(first.matches("[0-9A-Za-z]+"));
+        // consecutive ids must not produce codes sharing the same prefix
+        assertNotEquals(first.substring(0, 6), second.substring(0, 6));
+    }
+
+    @Test
+    void givenNoObfuscation_whenEncode_thenPlainPaddedBase62() {
+        // arrange
+        props.setShortCodeObfuscate(false);
+        props.setShortCodeLength(4);
+        final BlockShortCodeGenerator generator = new BlockShortCodeGenerator(sequence, props);
+
+        // act + assert
+        assertEquals("0000", generator.encode(0));
+        assertEquals("000z", generator.encode(61));
+        assertEquals("0010", generator.encode(62));
+    }
+
+    @Test
+    void givenSeveralBlocks_whenNextCode_thenCodesAreUniqueAndOneRoundTripPerBlock() {
+        // arrange
+        when(sequence.nextBlock()).thenReturn(1L, 2L, 3L);
+        final BlockShortCodeGenerator generator = new BlockShortCodeGenerator(sequence, props);
+        final Set<String> codes = new HashSet<>();
+
+        // act
+        for (int i = 0; i < 300; i++) {
+            codes.add(generator.nextCode());
+        }
+
+        // assert
+        assertEquals(300, codes.size());
+        verify(sequence, times(3)).nextBlock();
+    }
+
+    @Test
+    void givenSmallCodeSpace_whenEncodeEveryId_thenPermutationIsBijective() {
+        // arrange
+        props.setShortCodeLength(2);
+        final BlockShortCodeGenerator generator = new BlockShortCodeGenerator(sequence, props);
+        final Set<String> codes = new HashSet<>();
+
+        // act
+        for (int id = 0; id < 62 * 62; id++) {
+            codes.add(generator.encode(id));
+        }
+
+        // assert
+        assertEquals(62 * 62, codes.size());
+    }
+
+    @Test
+    void givenConcurrentCallers_whenNextCode_thenNoDuplicates() throws InterruptedException {
+        // arrange
+        final AtomicLong blocks = new AtomicLong();
+        when(sequence.nextBlock()).thenAnswer(invocation -> blocks.incrementAndGet());
+        final BlockShortCodeGenerator generator = new BlockShortCodeGenerator(sequence, props);
+        final Set<String> codes = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // act
+        for (int i = 0; i < 5_000; i++) {
+            executor.submit(() -> codes.add(generator.nextCode()));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // assert
+        assertEquals(5_000, codes.size());
+    }
+
+    @Test
+    void givenExhaustedCodeSpace_whenNextCode_thenThrowIllegalStateException() {
+        // arrange
+        props.setShortCodeLength(1);
+        when(sequence.nextBlock()).thenReturn(1L);
+        final BlockShortCodeGenerator generator = new BlockShortCodeGenerator(sequence, props);
+
+        // act + assert
+        assertThrowsExactly(IllegalStateException.class, generator::nextCode);
+    }
+
+    @Test
+    void givenInvalidConfiguration_whenCreate_thenThrowIllegalArgumentException() {
+        // arrange
+        props.setShortCodeLength(11);
+
+        // act + assert
+        assertThrowsExactly(IllegalArgumentException.class, () -> new BlockShortCodeGenerator(sequence, props));
+        props.setShortCodeLength(7);
+        props.setShortCodeBlockSize(0);
+        assertThrowsExactly(IllegalArgumentException.class, () -> new BlockShortCodeGenerator(sequence, props));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.urlShortenerService.manager;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RandomShortCodeGeneratorTest {
+
+    @Test
+    void whenNextCode_thenReturnTenHexCharacters() {
+        // act
+        final String code = new RandomShortCodeGenerator().nextCode();
+
+        // assert
+        assertTrue(code.matches("[0-9a-f]{10}"));
+    }
+}
@@ -1,34 +1,91 @@
 package com.example.urlShortenerService.manager;
 
-import com.example.urlShortenerService.client.database.UrlRepository;
+import com.example.urlShortenerService.cache.AliasBloomFilter;
+import com.example.urlShortenerService.cache.RedirectCache;
+import com.example.urlShortenerService.cache.RedirectLoadCoalescer;
+import com.example.urlShortenerService.click.ClickAccumulator;
+import com.example.urlShortenerService.click.ClickLog;
+import com.example.urlShortenerService.client.database.DbConcurrencyLimiter;
+import com.example.urlShortenerService.client.database.UrlArchiveRepository;
+import com.example.urlShortenerService.client.store.LinkStore;
 import com.example.urlShortenerService.config.ShortenerProperties;
+import com.example.urlShortenerService.exception.AliasConflictException;
+import com.example.urlShortenerService.exception.BatchNotValidException;
+import com.example.urlShortenerService.exception.CursorNotValidException;
+import com.example.urlShortenerService.exception.ExportQueryNotValidException;
+import com.example.urlShortenerService.exception.ShortCodeUnavailableException;
 import com.example.urlShortenerService.exception.ShortUrlExpiredException;
 import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import com.example.urlShortenerService.exception.StatsQueryNotValidException;
+import com.example.urlShortenerService.logging.SuccessLogSampler;
+import com.example.urlShortenerService.metrics.ShortenerMetrics;
+import com.example.urlShortenerService.model.AliasAvailabilityOutput;
+import com.example.urlShortenerService.model.BatchCreateUrlOutput;
+import com.example.urlShortenerService.model.BatchItemStatus;
+import com.example.urlShortenerService.model.ClickRollup;
 import com.example.urlShortenerService.model.CreateUrlInput;
 import com.example.urlShortenerService.model.CreateUrlOutput;
+import com.example.urlShortenerService.model.LinkCursor;
 import com.example.urlShortenerService.model.LinkDetailsOutput;
+import com.example.urlShortenerService.model.LinkExportFilter;
+import com.example.urlShortenerService.model.LinkPageOutput;
+import com.example.urlShortenerService.model.LinkStatsOutput;
 import com.example.urlShortenerService.model.LinkStatus;
+import com.example.urlShortenerService.model.PendingClicks;
+import com.example.urlShortenerService.model.RedirectPolicy;
+import com.example.urlShortenerService.model.RedirectResult;
+import com.example.urlShortenerService.model.RedirectTarget;
+import com.example.urlShortenerService.model.StatsGranularity;
+import com.example.urlShortenerService.model.TargetUrl;
 import com.example.urlShortenerService.model.Url;
+import com.example.urlShortenerService.model.UrlArchive;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -46,11 +103,47 @@ public class UrlManagerTest {
 
 
     @Mock
-    private UrlRepository dbClient;
+    private LinkStore dbClient;
 
     @Mock
     private ShortenerProperties props;
 
+    @Mock
+    private RedirectCache redirectCache;
+
+    @Mock
+    private ClickAccumulator clickAccumulator;
+
+    @Mock
+    private ShortCodeGenerator shortCodeGenerator;
+
+    @Mock
+    private ClickLog clickLog;
+
+    @Mock
+    private UrlArchiveRepository archiveClient;
+
+    @Spy
+    private DbConcurrencyLimiter dbLimiter =
+            new DbConcurrencyLimiter(new ShortenerProperties(), new SimpleMeterRegistry());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ShortenerMetrics metrics = new ShortenerMetrics(meterRegistry);
+
+    // never loaded: every alias may exist unless a test says otherwise
+    @Spy
+    private AliasBloomFilter aliasFilter =
+            new AliasBloomFilter(null, new ShortenerProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private RedirectLoadCoalescer redirectLoads =
+            new RedirectLoadCoalescer(new ShortenerProperties(), meterRegistry);
+
+    @Spy
+    private SuccessLogSampler logSampler = new SuccessLogSampler(new ShortenerProperties());
+
     @InjectMocks
     private UrlManagerImpl urlManager;
 
@@ -82,6 +175,7 @@ public class UrlManagerTest {
 
         // assert
         verify(dbClient, times(1)).save(any(Url.class));
+        verify(redirectCache, times(1)).put(eq(CUSTOM_ALIAS), any(RedirectTarget.class));
         assertEquals(AFTER_A_WEEK_EXPIRY_DATE, createUrlOutput.getExpiresAt());
         assertEquals(CUSTOM_ALIAS, createUrlOutput.getShortCode());
         assertEquals(TARGET_URL, createUrlOutput.getTargetUrl());
@@ -126,12 +220,14 @@ public class UrlManagerTest {
                 CUSTOM_ALIAS,
                 AFTER_A_YEAR_EXPIRY_DATE
         );
+        when(shortCodeGenerator.nextCode()).thenReturn(CUSTOM_ALIAS);
         when(dbClient.save(any(Url.class))).thenReturn(url);
 
         // test
         final CreateUrlOutput createUrlOutput = urlManager.createUrl(createUrlInput);
 
         // assert
+        verify(shortCodeGenerator, times(1)).nextCode();
         verify(dbClient, times(1)).save(any(Url.class));
         assertEquals(AFTER_A_YEAR_EXPIRY_DATE, createUrlOutput.getExpiresAt());
         assertEquals(CUSTOM_ALIAS, createUrlOutput.getShortCode());
@@ -139,48 +235,637 @@ public class UrlManagerTest {
     }
 
     @Test
-    public void givenShortCode_whenGetTargetUrl_ReturnTargetUrl() {
+    public void givenGeneratedCodeCollision_whenCreateUrl_thenRetryWithNextCode() {
         // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput
+                .builder()
+                .targetUrl(TARGET_URL)
+                .build();
         final Url url = new Url(
                 TARGET_URL,
-                CUSTOM_ALIAS,
+                "code2",
                 AFTER_A_YEAR_EXPIRY_DATE
         );
-        when(dbClient.findByCustomAlias(anyString())).thenReturn(Optional.of(url));
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2");
+        when(dbClient.save(any(Url.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenReturn(url);
 
         // test
-        final String actualTargetUrl = urlManager.getTargetUrl(CUSTOM_ALIAS);
+        final CreateUrlOutput createUrlOutput = urlManager.createUrl(createUrlInput);
 
         // assert
-        verify(dbClient, times(1)).findByCustomAlias(anyString());
+        verify(dbClient, times(2)).save(any(Url.class));
+        assertEquals("code2", createUrlOutput.getShortCode());
+        assertEquals(1.0, meterRegistry.get("shortener.alias.conflicts").tag("type", "generated").counter().count());
+        assertEquals(1, operationCount(ShortenerMetrics.CREATE, ShortenerMetrics.SUCCESS));
+    }
+
+    @Test
+    public void givenGeneratedCodeTakenByCustomAlias_whenCreateUrl_thenSkipToNextFreeCode() {
+        // arrange
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2");
+        when(dbClient.existsByCustomAlias("code1")).thenReturn(true);
+        when(dbClient.save(any(Url.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // test
+        final CreateUrlOutput createUrlOutput = urlManager.createUrl(
+                CreateUrlInput.builder().targetUrl(TARGET_URL).build());
+
+        // assert
+        assertEquals("code2", createUrlOutput.getShortCode());
+        verify(dbClient, times(1)).save(any(Url.class));
+        assertEquals(1.0, meterRegistry.get("shortener.alias.conflicts").tag("type", "generated").counter().count());
+    }
+
+    @Test
+    public void givenEveryGeneratedCodeTaken_whenCreateUrl_thenThrowShortCodeUnavailableException() {
+        // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput.builder().targetUrl(TARGET_URL).build();
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2", "code3");
+        when(dbClient.existsByCustomAlias(anyString())).thenReturn(true);
+
+        // test + assert: never reported as a conflict on an alias the client did not send
+        assertThrowsExactly(ShortCodeUnavailableException.class, () -> urlManager.createUrl(createUrlInput));
+        verify(shortCodeGenerator, times(3)).nextCode();
+        verify(dbClient, never()).save(any(Url.class));
+    }
+
+    @Test
+    public void givenGeneratedCodesCollidingOnEveryInsert_whenCreateUrl_thenThrowShortCodeUnavailableException() {
+        // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput.builder().targetUrl(TARGET_URL).build();
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2", "code3");
+        when(dbClient.save(any(Url.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // test + assert
+        assertThrowsExactly(ShortCodeUnavailableException.class, () -> urlManager.createUrl(createUrlInput));
+        verify(dbClient, times(3)).save(any(Url.class));
+    }
+
+    @Test
+    public void givenInvalidTargetUrl_whenCreateUrl_thenThrowAndCountValidationFailure() {
+        // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput
+                .builder()
+                .targetUrl("invalid-url")
+                .build();
+
+        // test
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> urlManager.createUrl(createUrlInput));
+        verify(dbClient, never()).save(any(Url.class));
+        assertEquals(1.0, meterRegistry.get("shortener.validation.failures")
+                .tag("operation", ShortenerMetrics.CREATE).counter().count());
+        assertEquals(1, operationCount(ShortenerMetrics.CREATE, ShortenerMetrics.INVALID));
+    }
+
+    @Test
+    public void givenUnknownRedirectPolicy_whenCreateUrl_thenThrowAndCountValidationFailure() {
+        // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput
+                .builder()
+                .targetUrl(TARGET_URL)
+                .redirectPolicy("forever")
+                .build();
+
+        // test
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> urlManager.createUrl(createUrlInput));
+        verify(dbClient, never()).save(any(Url.class));
+        assertEquals(1.0, meterRegistry.get("shortener.validation.failures")
+                .tag("operation", ShortenerMetrics.CREATE).counter().count());
+    }
+
+    @Test
+    public void givenCustomAliasConflict_whenCreateUrl_thenThrowAliasConflictWithoutRetry() {
+        // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput
+                .builder()
+                .customAlias(CUSTOM_ALIAS)
+                .targetUrl(TARGET_URL)
+                .build();
+        when(dbClient.save(any(Url.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // test
+        assertThrowsExactly(AliasConflictException.class, () -> urlManager.createUrl(createUrlInput));
         verify(dbClient, times(1)).save(any(Url.class));
+        verify(shortCodeGenerator, never()).nextCode();
+        assertEquals(1.0, meterRegistry.get("shortener.alias.conflicts").tag("type", "custom").counter().count());
+        assertEquals(1, operationCount(ShortenerMetrics.CREATE, ShortenerMetrics.CONFLICT));
+    }
+
+    @Test
+    public void givenCustomAliasInUse_whenCreateUrl_thenThrowAliasConflictWithoutInsert() {
+        // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput
+                .builder()
+                .customAlias(CUSTOM_ALIAS)
+                .targetUrl(TARGET_URL)
+                .build();
+        when(dbClient.existsByCustomAlias(CUSTOM_ALIAS)).thenReturn(true);
+
+        // test
+        assertThrowsExactly(AliasConflictException.class, () -> urlManager.createUrl(createUrlInput));
+        verify(dbClient, never()).save(any(Url.class));
+        assertEquals(1.0, meterRegistry.get("shortener.alias.conflicts").tag("type", "custom").counter().count());
+    }
+
+    @Test
+    public void givenCustomAliasUnknownToFilter_whenCreateUrl_thenInsertWithoutLookup() {
+        // arrange
+        final CreateUrlInput createUrlInput = CreateUrlInput
+                .builder()
+                .customAlias(CUSTOM_ALIAS)
+                .targetUrl(TARGET_URL)
+                .build();
+        doReturn(false).when(aliasFilter).mightContain(CUSTOM_ALIAS);
+        when(dbClient.save(any(Url.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // test
+        urlManager.createUrl(createUrlInput);
+
+        // assert
+        verify(dbClient, never()).existsByCustomAlias(anyString());
+        verify(dbClient).save(any(Url.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenBatchWithInvalidAndConflictingItems_whenCreateUrls_thenReportEachItem() {
+        // arrange
+        final List<CreateUrlInput> inputs = List.of(
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("new-alias").build(),
+                CreateUrlInput.builder().targetUrl("invalid-url").build(),
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("taken").build(),
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("new-alias").build(),
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("a!").build());
+        when(props.getBatchMaxItems()).thenReturn(10);
+        when(dbClient.findExistingAliases(anyList())).thenReturn(List.of("taken"));
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(inputs);
+
+        // assert
+        assertEquals(1, output.getCreated());
+        assertEquals(4, output.getRejected());
+        assertEquals(BatchItemStatus.CREATED, output.getResults().get(0).getStatus());
+        assertEquals("new-alias", output.getResults().get(0).getLink().getShortCode());
+        assertEquals(BatchItemStatus.INVALID, output.getResults().get(1).getStatus());
+        assertEquals(BatchItemStatus.CONFLICT, output.getResults().get(2).getStatus());
+        assertEquals(BatchItemStatus.CONFLICT, output.getResults().get(3).getStatus());
+        assertEquals(BatchItemStatus.INVALID, output.getResults().get(4).getStatus());
+        verify(dbClient, times(1)).saveAll(anyList());
+        verify(dbClient, never()).save(any(Url.class));
+        assertEquals(2.0, meterRegistry.get("shortener.validation.failures")
+                .tag("operation", ShortenerMetrics.CREATE_BATCH).counter().count());
+        assertEquals(2.0, meterRegistry.get("shortener.alias.conflicts").tag("type", "custom").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenRedirectPolicies_whenCreateUrls_thenPolicyStoredOrItemRejected() {
+        // arrange
+        final List<CreateUrlInput> inputs = List.of(
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("perm-1").redirectPolicy("Permanent").build(),
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("bad-1").redirectPolicy("forever").build());
+        when(props.getBatchMaxItems()).thenReturn(10);
+        final List<Url> saved = new ArrayList<>();
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(inputs);
+
+        // assert
+        assertEquals(BatchItemStatus.CREATED, output.getResults().get(0).getStatus());
+        assertEquals(RedirectPolicy.PERMANENT, saved.get(0).getRedirectPolicy());
+        assertEquals(BatchItemStatus.INVALID, output.getResults().get(1).getStatus());
+        assertEquals("redirectPolicy must be one of temporary, cacheable, permanent",
+                output.getResults().get(1).getError().message());
+    }
+
+    @Test
+    public void givenConcurrentConflictDuringBatchInsert_whenCreateUrls_thenFallBackToSingleInserts() {
+        // arrange
+        final List<CreateUrlInput> inputs = List.of(
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("alias-1").build(),
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias("alias-2").build());
+        when(props.getBatchMaxItems()).thenReturn(10);
+        when(dbClient.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(dbClient.save(any(Url.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(inputs);
+
+        // assert
+        assertEquals(1, output.getCreated());
+        assertEquals(BatchItemStatus.CREATED, output.getResults().get(0).getStatus());
+        assertEquals(BatchItemStatus.CONFLICT, output.getResults().get(1).getStatus());
+    }
+
+    @Test
+    public void givenGeneratedCodeTakenInDatabase_whenCreateUrls_thenUseNextCode() {
+        // arrange
+        final List<CreateUrlInput> inputs = List.of(CreateUrlInput.builder().targetUrl(TARGET_URL).build());
+        when(props.getBatchMaxItems()).thenReturn(10);
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2");
+        when(dbClient.findExistingAliases(anyList())).thenReturn(List.of("code1"));
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(inputs);
+
+        // assert
+        assertEquals("code2", output.getResults().get(0).getLink().getShortCode());
+    }
+
+    @Test
+    public void givenEveryGeneratedCodeTaken_whenCreateUrls_thenItemRejectedAsShortCodeUnavailable() {
+        // arrange
+        final List<CreateUrlInput> inputs = List.of(
+                CreateUrlInput.builder().targetUrl(TARGET_URL).build(),
+                CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias(CUSTOM_ALIAS).build());
+        when(props.getBatchMaxItems()).thenReturn(10);
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2", "code3", "code4");
+        when(dbClient.findExistingAliases(anyList())).thenReturn(List.of("code1"));
+        when(dbClient.existsByCustomAlias(anyString())).thenReturn(true);
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(inputs);
+
+        // assert
+        assertEquals(BatchItemStatus.CONFLICT, output.getResults().get(0).getStatus());
+        assertEquals("SHORT_CODE_UNAVAILABLE", output.getResults().get(0).getError().code());
+        assertEquals(CUSTOM_ALIAS, output.getResults().get(1).getLink().getShortCode());
+    }
+
+    @Test
+    public void givenDedupAndLiveLinkOfSameTarget_whenCreateUrl_thenReturnExistingLink() {
+        // arrange
+        final Url existing = new Url("http://google.com/", "existing1", AFTER_A_WEEK_EXPIRY_DATE);
+        existing.setId(7L);
+        when(props.isDedupEnabled()).thenReturn(true);
+        when(dbClient.findLiveByTargetHashes(eq(List.of(TargetUrl.hash("http://google.com/"))), any(), anyInt()))
+                .thenReturn(List.of(existing));
+
+        // test
+        final CreateUrlOutput output = urlManager.createUrl(
+                CreateUrlInput.builder().targetUrl("HTTP://Google.COM:80").build());
+
+        // assert
+        assertEquals("existing1", output.getShortCode());
+        assertEquals(7L, output.getId());
+        verify(dbClient, never()).save(any(Url.class));
+        verify(shortCodeGenerator, never()).nextCode();
+        assertEquals(1.0, meterRegistry.get("shortener.dedup.hits")
+                .tag("operation", ShortenerMetrics.CREATE).counter().count());
+    }
+
+    @Test
+    public void givenDedupWithSortedQueryParameters_whenCreateUrl_thenSameTargetInAnyParameterOrder() {
+        // arrange
+        final String canonical = "https://example.com/path?a=1&b=2#top";
+        final Url existing = new Url("https://example.com:443/path?b=2&a=1&#top", "existing1", null);
+        when(props.isDedupEnabled()).thenReturn(true);
+        when(props.isDedupSortQueryParameters()).thenReturn(true);
+        when(dbClient.findLiveByTargetHashes(eq(List.of(TargetUrl.hash(canonical))), any(), anyInt()))
+                .thenReturn(List.of(existing));
+
+        // test
+        final CreateUrlOutput output = urlManager.createUrl(
+                CreateUrlInput.builder().targetUrl("https://Example.com/path?a=1&b=2#top").build());
+
+        // assert
+        assertEquals("existing1", output.getShortCode());
+        assertEquals(canonical, new TargetUrl(existing.getTargetUrl()).canonical(true));
+        assertEquals("https://example.com/path?b=2&a=1&#top", new TargetUrl(existing.getTargetUrl()).canonical(false));
+    }
+
+    @Test
+    public void givenDedupAndOnlyOtherPolicyOrExpiry_whenCreateUrl_thenInsertNewLinkWithTargetHash() {
+        // arrange
+        final Url permanent = new Url(TARGET_URL, "permanent1", AFTER_A_WEEK_EXPIRY_DATE);
+        permanent.setRedirectPolicy(RedirectPolicy.PERMANENT);
+        final Url otherExpiry = new Url(TARGET_URL, "otherExpiry1", AFTER_A_WEEK_EXPIRY_DATE);
+        when(props.isDedupEnabled()).thenReturn(true);
+        when(dbClient.findLiveByTargetHashes(anyCollection(), any(), anyInt()))
+                .thenReturn(List.of(permanent, otherExpiry));
+        when(shortCodeGenerator.nextCode()).thenReturn("code1");
+        when(dbClient.save(any(Url.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // test
+        final CreateUrlOutput output = urlManager.createUrl(
+                CreateUrlInput.builder().targetUrl(TARGET_URL).expiresAt(AFTER_A_YEAR_EXPIRY_DATE).build());
+        urlManager.createUrl(CreateUrlInput.builder().targetUrl(TARGET_URL).customAlias(CUSTOM_ALIAS).build());
+
+        // assert
+        assertEquals("code1", output.getShortCode());
+        final ArgumentCaptor<Url> saved = ArgumentCaptor.forClass(Url.class);
+        verify(dbClient, times(2)).save(saved.capture());
+        assertEquals(TargetUrl.hash("http://google.com/"), saved.getAllValues().get(0).getTargetHash());
+        // a custom alias is always a new link
+        verify(dbClient, times(1)).findLiveByTargetHashes(anyCollection(), any(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void givenDedupAndRepeatedTargets_whenCreateUrls_thenReuseStoredAndEarlierItemLinks() {
+        // arrange
+        final Url existing = new Url("https://example.com/a", "existing1", null);
+        final List<CreateUrlInput> inputs = List.of(
+                CreateUrlInput.builder().targetUrl("https://example.com/a").build(),
+                CreateUrlInput.builder().targetUrl("https://example.com/b").build(),
+                CreateUrlInput.builder().targetUrl("https://EXAMPLE.com/b").build(),
+                CreateUrlInput.builder().targetUrl("https://example.com/b").redirectPolicy("permanent").build(),
+                CreateUrlInput.builder().targetUrl("https://example.com/a").customAlias("custom-a").build());
+        when(props.getBatchMaxItems()).thenReturn(10);
+        when(props.isDedupEnabled()).thenReturn(true);
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2", "code3", "code4");
+        when(dbClient.findLiveByTargetHashes(anyCollection(), any(), anyInt())).thenAnswer(invocation -> {
+            existing.setTargetHash(TargetUrl.hash("https://example.com/a"));
+            return List.of(existing);
+        });
+        final List<Url> saved = new ArrayList<>();
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(inputs);
+
+        // assert
+        assertEquals(5, output.getCreated());
+        assertEquals("existing1", output.getResults().get(0).getLink().getShortCode());
+        final String firstB = output.getResults().get(1).getLink().getShortCode();
+        assertEquals(firstB, output.getResults().get(2).getLink().getShortCode());
+        assertEquals(2, output.getResults().get(2).getIndex());
+        assertNotEquals(firstB, output.getResults().get(3).getLink().getShortCode());
+        assertEquals("custom-a", output.getResults().get(4).getLink().getShortCode());
+        assertEquals(3, saved.size());
+        assertEquals(2.0, meterRegistry.get("shortener.dedup.hits")
+                .tag("operation", ShortenerMetrics.CREATE_BATCH).counter().count());
+    }
+
+    @Test
+    public void givenDedupAndHeavilyDuplicatedTarget_whenCreateUrls_thenOtherTargetsStillReused() {
+        // arrange
+        final long heavy = TargetUrl.hash("https://example.com/heavy");
+        final List<Url> live = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Url url = new Url("https://example.com/heavy", "heavy" + i, null);
+            url.setTargetHash(heavy);
+            url.setRedirectPolicy(RedirectPolicy.PERMANENT);
+            live.add(url);
+        }
+        final Url light = new Url("https://example.com/light", "light1", null);
+        light.setTargetHash(TargetUrl.hash("https://example.com/light"));
+        live.add(light);
+        when(props.getBatchMaxItems()).thenReturn(10);
+        when(props.isDedupEnabled()).thenReturn(true);
+        when(shortCodeGenerator.nextCode()).thenReturn("code1", "code2");
+        when(dbClient.findLiveByTargetHashes(anyCollection(), any(), eq(8))).thenReturn(live);
+        when(dbClient.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(List.of(
+                CreateUrlInput.builder().targetUrl("https://example.com/heavy").build(),
+                CreateUrlInput.builder().targetUrl("https://example.com/light").build()));
+
+        // assert: the limit is per target, the light target is found behind the 8 heavy links
+        // the heavy links have another redirect policy: a new link
+        assertTrue(output.getResults().get(0).getLink().getShortCode().startsWith("code"));
+        assertEquals("light1", output.getResults().get(1).getLink().getShortCode());
+        verify(dbClient, times(1)).findLiveByTargetHashes(anyCollection(), any(), eq(8));
+    }
+
+    @Test
+    public void givenEmptyOrTooLargeBatch_whenCreateUrls_thenThrowBatchNotValidException() {
+        // arrange
+        when(props.getBatchMaxItems()).thenReturn(1);
+        final CreateUrlInput input = CreateUrlInput.builder().targetUrl(TARGET_URL).build();
+
+        // test + assert
+        assertThrowsExactly(BatchNotValidException.class, () -> urlManager.createUrls(Collections.emptyList()));
+        assertThrowsExactly(BatchNotValidException.class, () -> urlManager.createUrls(List.of(input, input)));
+    }
+
+    @Test
+    public void givenNullItemAndPastExpiration_whenCreateUrls_thenItemsAreInvalid() {
+        // arrange
+        final List<CreateUrlInput> inputs = new ArrayList<>();
+        inputs.add(null);
+        inputs.add(CreateUrlInput.builder().targetUrl(TARGET_URL).expiresAt(EXPIRED_DATE).build());
+        inputs.add(CreateUrlInput.builder().targetUrl("https://example.com/" + "a".repeat(2048)).build());
+        when(props.getBatchMaxItems()).thenReturn(10);
+
+        // test
+        final BatchCreateUrlOutput output = urlManager.createUrls(inputs);
+
+        // assert
+        assertEquals(0, output.getCreated());
+        output.getResults().forEach(result -> assertEquals(BatchItemStatus.INVALID, result.getStatus()));
+        verify(dbClient, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void givenShortCode_whenGetTargetUrl_ReturnTargetUrl() {
+        // arrange
+        when(dbClient.findRedirectTargetByCustomAlias(anyString()))
+                .thenReturn(Optional.of(new RedirectTarget(1L, TARGET_URL, AFTER_A_YEAR_EXPIRY_DATE)));
+
+        // test
+        final String actualTargetUrl = urlManager.getTargetUrl(CUSTOM_ALIAS);
+
+        // assert
+        verify(dbClient, times(1)).findRedirectTargetByCustomAlias(anyString());
+        verify(dbClient, never()).findByCustomAlias(anyString());
+        verify(dbClient, never()).save(any(Url.class));
+        verify(clickLog, times(1)).record(eq(1L), any(), any());
+        verify(redirectCache, times(1)).put(eq(CUSTOM_ALIAS), any(RedirectTarget.class));
+        assertEquals(TARGET_URL, actualTargetUrl);
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.MISS));
+    }
+
+    @Test
+    public void givenRequestHeaders_whenGetTargetUrl_LogClickWithAttributes() {
+        // arrange
+        when(redirectCache.get(CUSTOM_ALIAS))
+                .thenReturn(new RedirectTarget(1L, TARGET_URL, AFTER_A_YEAR_EXPIRY_DATE));
+
+        // test
+        urlManager.getTargetUrl(CUSTOM_ALIAS, "https://news.example.com/", "curl/8.5.0");
+
+        // assert
+        verify(clickLog).record(1L, "https://news.example.com/", "curl/8.5.0");
+    }
+
+    @Test
+    public void givenCachedShortCode_whenGetTargetUrl_ReturnTargetUrlWithoutLoadingEntity() {
+        // arrange
+        when(redirectCache.get(CUSTOM_ALIAS))
+                .thenReturn(new RedirectTarget(1L, TARGET_URL, AFTER_A_YEAR_EXPIRY_DATE));
+
+        // test
+        final String actualTargetUrl = urlManager.getTargetUrl(CUSTOM_ALIAS);
+
+        // assert
+        verify(dbClient, never()).findRedirectTargetByCustomAlias(anyString());
+        verify(clickLog, times(1)).record(eq(1L), any(), any());
         assertEquals(TARGET_URL, actualTargetUrl);
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.HIT));
+    }
+
+    @Test
+    public void givenCachedExpiredShortCode_whenGetTargetUrl_ThrowShortUrlExpiredException() {
+        // arrange
+        when(redirectCache.get(CUSTOM_ALIAS))
+                .thenReturn(new RedirectTarget(1L, TARGET_URL, EXPIRED_DATE));
+
+        // test
+        assertThrowsExactly(ShortUrlExpiredException.class, () -> urlManager.getTargetUrl(CUSTOM_ALIAS));
+        verify(redirectCache, times(1)).invalidate(CUSTOM_ALIAS);
+        verify(clickLog, never()).record(anyLong(), any(), any());
     }
 
     @Test
     public void givenInvalidShortCode_whenGetTargetUrl_ThrowShortUrlNotFoundException() {
         // arrange
-        when(dbClient.findByCustomAlias(anyString())).thenReturn(Optional.empty());
+        when(dbClient.findRedirectTargetByCustomAlias(anyString())).thenReturn(Optional.empty());
 
         // test
         assertThrowsExactly(ShortUrlNotFoundException.class, () -> urlManager.getTargetUrl(CUSTOM_ALIAS),
                 "Expected getTargetUrl to throw ShortUrlNotFoundException, but it didn't");
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.NOT_FOUND));
+    }
+
+    @Test
+    public void givenCodeUnknownToFilter_whenGetTargetUrl_ThrowShortUrlNotFoundExceptionWithoutDatabase() {
+        // arrange
+        doReturn(false).when(aliasFilter).mightContain(CUSTOM_ALIAS);
+
+        // test
+        assertThrowsExactly(ShortUrlNotFoundException.class, () -> urlManager.getTargetUrl(CUSTOM_ALIAS),
+                "Expected getTargetUrl to throw ShortUrlNotFoundException, but it didn't");
+        verify(dbClient, never()).findRedirectTargetByCustomAlias(anyString());
+        verify(archiveClient, never()).existsByCustomAlias(anyString());
+        verify(aliasFilter, never()).falsePositive();
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.NOT_FOUND));
+    }
+
+    @Test
+    public void givenUnknownOrExpiredShortCode_whenResolveRedirect_thenReturnStatusWithoutThrowing() {
+        // arrange
+        when(dbClient.findRedirectTargetByCustomAlias(CUSTOM_ALIAS)).thenReturn(Optional.empty());
+        when(dbClient.findRedirectTargetByCustomAlias("expired"))
+                .thenReturn(Optional.of(new RedirectTarget(1L, TARGET_URL, EXPIRED_DATE)));
+
+        // act
+        final RedirectResult unknown = urlManager.resolveRedirect(CUSTOM_ALIAS, null, null);
+        final RedirectResult expired = urlManager.resolveRedirect("expired", null, null);
+
+        // assert
+        assertEquals(RedirectResult.NOT_FOUND, unknown);
+        assertEquals(RedirectResult.EXPIRED, expired);
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.NOT_FOUND));
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.EXPIRED));
+    }
+
+    @Test
+    public void givenCacheableAndPermanentLinks_whenResolveRedirect_thenMaxAgeCappedByExpiration() {
+        // arrange
+        when(props.getRedirectMaxAgeSeconds()).thenReturn(86_400L);
+        when(dbClient.findRedirectTargetByCustomAlias("soon")).thenReturn(Optional.of(new RedirectTarget(
+                1L, TARGET_URL, LocalDateTime.now().plusMinutes(10), RedirectPolicy.CACHEABLE)));
+        lenient().when(redirectCache.get("forever"))
+                .thenReturn(new RedirectTarget(2L, TARGET_URL, null, RedirectPolicy.PERMANENT));
+
+        // act
+        final RedirectResult soon = urlManager.resolveRedirect("soon", null, null);
+        final RedirectResult forever = urlManager.resolveRedirect("forever", null, null);
+
+        // assert
+        assertEquals(RedirectPolicy.CACHEABLE, soon.redirectPolicy());
+        assertEquals(302, soon.httpStatus());
+        assertTrue(soon.maxAgeSeconds() > 590 && soon.maxAgeSeconds() <= 600);
+        assertEquals(301, forever.httpStatus());
+        assertEquals("public, max-age=86400", forever.cacheControl());
+    }
+
+    @Test
+    public void givenFilterFalsePositive_whenGetTargetUrl_CountFalsePositive() {
+        // arrange
+        when(dbClient.findRedirectTargetByCustomAlias(anyString())).thenReturn(Optional.empty());
+
+        // test
+        assertThrowsExactly(ShortUrlNotFoundException.class, () -> urlManager.getTargetUrl(CUSTOM_ALIAS));
+        verify(aliasFilter).falsePositive();
     }
 
     @Test
     public void givenExpiredShortCode_whenGetTargetUrl_ThrowShortUrlExpiredException() {
         // arrange
-        final Url url = new Url(
-                TARGET_URL,
-                CUSTOM_ALIAS,
-                EXPIRED_DATE
-        );
-        when(dbClient.findByCustomAlias(anyString())).thenReturn(Optional.of(url));
+        when(dbClient.findRedirectTargetByCustomAlias(anyString()))
+                .thenReturn(Optional.of(new RedirectTarget(1L, TARGET_URL, EXPIRED_DATE)));
 
         // test
         assertThrowsExactly(ShortUrlExpiredException.class, () -> urlManager.getTargetUrl(CUSTOM_ALIAS),
                 "Expected getTargetUrl to throw ShortUrlExpiredException, but it didn't");
         verify(dbClient, times(0)).save(any(Url.class));
+        verify(clickLog, never()).record(anyLong(), any(), any());
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.EXPIRED));
+    }
+
+    @Test
+    public void givenArchivedShortCode_whenGetTargetUrl_ThrowShortUrlExpiredException() {
+        // arrange
+        when(dbClient.findRedirectTargetByCustomAlias(anyString())).thenReturn(Optional.empty());
+        when(archiveClient.existsByCustomAlias(CUSTOM_ALIAS)).thenReturn(true);
+
+        // test
+        assertThrowsExactly(ShortUrlExpiredException.class, () -> urlManager.getTargetUrl(CUSTOM_ALIAS),
+                "Expected getTargetUrl to throw ShortUrlExpiredException, but it didn't");
+        verify(redirectCache, never()).put(anyString(), any());
+        assertEquals(1, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.EXPIRED));
+    }
+
+    @Test
+    public void givenConcurrentMissesOfSameShortCode_whenGetTargetUrl_thenOneDatabaseLoadIsShared() throws Exception {
+        // arrange
+        final int callers = 8;
+        final CountDownLatch release = new CountDownLatch(1);
+        when(dbClient.findRedirectTargetByCustomAlias(CUSTOM_ALIAS)).thenAnswer(invocation -> {
+            release.await();
+            return Optional.of(new RedirectTarget(1L, TARGET_URL, AFTER_A_YEAR_EXPIRY_DATE));
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // act: the load is held until every other caller waits for it
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> urlManager.getTargetUrl(CUSTOM_ALIAS)));
+            }
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("shortener.redirect.coalesced").counter().count() < callers - 1
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // assert
+            for (final Future<String> result : results) {
+                assertEquals(TARGET_URL, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        verify(dbClient, times(1)).findRedirectTargetByCustomAlias(CUSTOM_ALIAS);
+        verify(redirectCache, times(1)).put(eq(CUSTOM_ALIAS), any(RedirectTarget.class));
+        verify(clickLog, times(callers)).record(eq(1L), any(), any());
+        assertEquals(callers, operationCount(ShortenerMetrics.REDIRECT, ShortenerMetrics.MISS));
     }
 
     @Test
@@ -202,6 +887,29 @@ public class UrlManagerTest {
         assertEquals(LinkStatus.ACTIVE, actualLinkDetailsOutput.getStatus());
     }
 
+    @Test
+    public void givenUnflushedClicks_whenGetLinkDetails_ReturnStatsIncludingPendingClicks() {
+        // arrange
+        final LocalDateTime lastClick = LocalDateTime.now();
+        final Url url = new Url(
+                TARGET_URL,
+                CUSTOM_ALIAS,
+                AFTER_A_YEAR_EXPIRY_DATE
+        );
+        url.setId(1L);
+        url.setClickCount(3L);
+        url.setLastAccessedAt(lastClick.minusHours(1));
+        when(dbClient.findByCustomAlias(anyString())).thenReturn(Optional.of(url));
+        when(clickAccumulator.pending(1L)).thenReturn(new PendingClicks(2L, lastClick));
+
+        // test
+        final LinkDetailsOutput actualLinkDetailsOutput = urlManager.getLinkDetails(CUSTOM_ALIAS);
+
+        // assert
+        assertEquals(5, actualLinkDetailsOutput.getClickCount());
+        assertEquals(lastClick, actualLinkDetailsOutput.getLastAccessedAt());
+    }
+
     @Test
     public void givenExpiredShortCode_whenGetLinkDetails_ReturnLinkStats() {
         // arrange
@@ -221,6 +929,70 @@ public class UrlManagerTest {
         assertEquals(LinkStatus.EXPIRED, actualLinkDetailsOutput.getStatus());
     }
 
+    @Test
+    public void givenArchivedShortCode_whenGetLinkDetails_ReturnExpiredLinkStats() {
+        // arrange
+        final UrlArchive archived = new UrlArchive();
+        archived.setId(1L);
+        archived.setTargetUrl(TARGET_URL);
+        archived.setCustomAlias(CUSTOM_ALIAS);
+        archived.setExpiresAt(EXPIRED_DATE.minusDays(1));
+        archived.setClickCount(7L);
+        archived.setCreatedAt(EXPIRED_DATE.minusDays(30));
+        archived.setArchivedAt(EXPIRED_DATE);
+        archived.setRedirectPolicy(RedirectPolicy.CACHEABLE);
+        when(dbClient.findByCustomAlias(anyString())).thenReturn(Optional.empty());
+        when(archiveClient.findFirstByCustomAliasOrderByArchivedAtDesc(CUSTOM_ALIAS))
+                .thenReturn(Optional.of(archived));
+
+        // test
+        final LinkDetailsOutput actualLinkDetailsOutput = urlManager.getLinkDetails(CUSTOM_ALIAS);
+
+        // assert
+        assertEquals(7, actualLinkDetailsOutput.getClickCount());
+        assertEquals(TARGET_URL, actualLinkDetailsOutput.getTargetUrl());
+        assertEquals(LinkStatus.EXPIRED, actualLinkDetailsOutput.getStatus());
+        assertEquals(RedirectPolicy.CACHEABLE, actualLinkDetailsOutput.getRedirectPolicy());
+        verify(clickAccumulator, never()).pending(any());
+    }
+
+    @Test
+    public void givenCodeUnknownToFilter_whenGetLinkDetails_ThrowShortUrlNotFoundExceptionWithoutDatabase() {
+        // arrange
+        doReturn(false).when(aliasFilter).mightContain(CUSTOM_ALIAS);
+
+        // test
+        assertThrowsExactly(ShortUrlNotFoundException.class, () -> urlManager.getLinkDetails(CUSTOM_ALIAS));
+        verify(dbClient, never()).findByCustomAlias(anyString());
+    }
+
+    @Test
+    public void givenAliases_whenCheckAliasAvailability_ReturnAvailability() {
+        // arrange
+        doReturn(false).when(aliasFilter).mightContain("free-alias");
+        when(dbClient.existsByCustomAlias("taken-alias")).thenReturn(true);
+
+        // test
+        final AliasAvailabilityOutput free = urlManager.checkAliasAvailability(" free-alias ");
+        final AliasAvailabilityOutput taken = urlManager.checkAliasAvailability("taken-alias");
+
+        // assert
+        assertEquals("free-alias", free.getAlias());
+        assertTrue(free.isAvailable());
+        assertFalse(taken.isAvailable());
+        verify(dbClient, never()).existsByCustomAlias("free-alias");
+    }
+
+    @Test
+    public void givenInvalidAlias_whenCheckAliasAvailability_ThrowShortUrlNotValidException() {
+        // test
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> urlManager.checkAliasAvailability("a!"));
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> urlManager.checkAliasAvailability("bad alias"));
+        assertThrowsExactly(ShortUrlNotValidException.class, () -> urlManager.checkAliasAvailability("export"));
+        verify(dbClient, never()).existsByCustomAlias(anyString());
+        assertEquals(3, operationCount(ShortenerMetrics.ALIAS_AVAILABILITY, ShortenerMetrics.INVALID));
+    }
+
     @Test
     public void givenUnavailableShortCode_whenGetLinkDetails_ThrowShortUrlNotFoundException() {
         // arrange
@@ -231,6 +1003,126 @@ public class UrlManagerTest {
                 "Expected getTargetUrl to throw ShortUrlNotFoundException, but it didn't");
     }
 
+    @Test
+    public void givenRollups_whenGetLinkStats_ReturnEveryBucketOfTheRange() {
+        // arrange
+        statsProperties();
+        final LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(4);
+        final LocalDateTime to = from.plusHours(4);
+        when(dbClient.findRedirectTargetByCustomAlias(CUSTOM_ALIAS))
+                .thenReturn(Optional.of(new RedirectTarget(1L, TARGET_URL, AFTER_A_YEAR_EXPIRY_DATE)));
+        when(dbClient.findClickRollups(1L, StatsGranularity.HOUR, from, to)).thenReturn(List.of(
+                new ClickRollup(from.plusHours(1), 3L),
+                new ClickRollup(from.plusHours(3), 2L)));
+
+        // test
+        final LinkStatsOutput stats = urlManager.getLinkStats(CUSTOM_ALIAS, from.toString(), to.toString(), "HOUR");
+
+        // assert
+        assertEquals(CUSTOM_ALIAS, stats.getShortCode());
+        assertEquals(StatsGranularity.HOUR, stats.getGranularity());
+        assertEquals(from, stats.getFrom());
+        assertEquals(to, stats.getTo());
+        assertEquals(5L, stats.getTotalClicks());
+        assertEquals(List.of(
+                new ClickRollup(from, 0L),
+                new ClickRollup(from.plusHours(1), 3L),
+                new ClickRollup(from.plusHours(2), 0L),
+                new ClickRollup(from.plusHours(3), 2L)), stats.getBuckets());
+        assertEquals(1, operationCount(ShortenerMetrics.STATS, ShortenerMetrics.SUCCESS));
+    }
+
+    @Test
+    public void givenNoRange_whenGetLinkStats_ReturnDefaultRangeUpToCurrentBucket() {
+        // arrange
+        statsProperties();
+        when(redirectCache.get(CUSTOM_ALIAS))
+                .thenReturn(new RedirectTarget(1L, TARGET_URL, AFTER_A_YEAR_EXPIRY_DATE));
+        when(dbClient.findClickRollups(eq(1L), eq(StatsGranularity.MINUTE), any(), any())).thenReturn(List.of());
+
+        // test
+        final LinkStatsOutput stats = urlManager.getLinkStats(CUSTOM_ALIAS, null, null, "minute");
+
+        // assert
+        assertEquals(60, stats.getBuckets().size());
+        assertEquals(stats.getFrom().plusHours(1), stats.getTo());
+        assertTrue(stats.getTo().isAfter(LocalDateTime.now().minusMinutes(1)));
+        assertEquals(0L, stats.getTotalClicks());
+        verify(dbClient, never()).findRedirectTargetByCustomAlias(anyString());
+    }
+
+    @Test
+    public void givenArchivedShortCode_whenGetLinkStats_ReturnArchivedLinkStats() {
+        // arrange
+        statsProperties();
+        final UrlArchive archived = new UrlArchive();
+        archived.setId(7L);
+        when(dbClient.findRedirectTargetByCustomAlias(CUSTOM_ALIAS)).thenReturn(Optional.empty());
+        when(archiveClient.findFirstByCustomAliasOrderByArchivedAtDesc(CUSTOM_ALIAS))
+                .thenReturn(Optional.of(archived));
+        when(dbClient.findClickRollups(eq(7L), eq(StatsGranularity.DAY), any(), any()))
+                .thenReturn(List.of(new ClickRollup(LocalDateTime.now().truncatedTo(ChronoUnit.DAYS), 4L)));
+
+        // test
+        final LinkStatsOutput stats = urlManager.getLinkStats(CUSTOM_ALIAS, null, null, "day");
+
+        // assert
+        assertEquals(30, stats.getBuckets().size());
+        assertEquals(4L, stats.getTotalClicks());
+    }
+
+    @Test
+    public void givenInvalidQuery_whenGetLinkStats_ThrowStatsQueryNotValidException() {
+        // arrange
+        statsProperties();
+        final LocalDateTime now = LocalDateTime.now();
+
+        // test
+        assertThrowsExactly(StatsQueryNotValidException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, null, null, "week"));
+        assertThrowsExactly(StatsQueryNotValidException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, "yesterday", null, "hour"));
+        assertThrowsExactly(StatsQueryNotValidException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, now.toString(), now.minusHours(1).toString(), "hour"));
+        assertThrowsExactly(StatsQueryNotValidException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, now.minusYears(10).toString(), null, "day"));
+        assertThrowsExactly(StatsQueryNotValidException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, now.minusDays(3).toString(),
+                        now.minusDays(2).toString(), "minute"));
+        assertThrowsExactly(StatsQueryNotValidException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, now.minusDays(100).toString(),
+                        now.minusDays(95).toString(), "hour"));
+
+        // assert
+        verify(dbClient, never()).findClickRollups(anyLong(), any(), any(), any());
+        assertEquals(6, operationCount(ShortenerMetrics.STATS, ShortenerMetrics.INVALID));
+    }
+
+    @Test
+    public void givenCodeUnknownToFilter_whenGetLinkStats_ThrowShortUrlNotFoundExceptionWithoutDatabase() {
+        // arrange
+        statsProperties();
+        doReturn(false).when(aliasFilter).mightContain(CUSTOM_ALIAS);
+
+        // test
+        assertThrowsExactly(ShortUrlNotFoundException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, null, null, null));
+        verify(dbClient, never()).findRedirectTargetByCustomAlias(anyString());
+    }
+
+    @Test
+    public void givenUnknownShortCode_whenGetLinkStats_ThrowShortUrlNotFoundException() {
+        // arrange
+        statsProperties();
+        when(dbClient.findRedirectTargetByCustomAlias(CUSTOM_ALIAS)).thenReturn(Optional.empty());
+        when(archiveClient.findFirstByCustomAliasOrderByArchivedAtDesc(CUSTOM_ALIAS)).thenReturn(Optional.empty());
+
+        // test
+        assertThrowsExactly(ShortUrlNotFoundException.class,
+                () -> urlManager.getLinkStats(CUSTOM_ALIAS, null, null, "hour"));
+        verify(dbClient, never()).findClickRollups(anyLong(), any(), any(), any());
+    }
+
     @Test
     void givenUrlsInDb_whenListLinks_thenReturnMappedPage() {
         // arrange
@@ -261,6 +1153,125 @@ public class UrlManagerTest {
         verify(dbClient).findAll(any(Pageable.class));
     }
 
+    @Test
+    void givenMoreUrlsThanPageSize_whenListLinksAfterWithoutCursor_thenReturnFirstPageAndNextCursor() {
+        // arrange
+        final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        final List<Url> urlsFromDb = List.of(
+                urlCreatedAt(3L, "alias3", createdAt),
+                urlCreatedAt(2L, "alias2", createdAt),
+                urlCreatedAt(1L, "alias1", createdAt.minusDays(1)));
+        when(dbClient.findNewest(Limit.of(3))).thenReturn(urlsFromDb);
+
+        // act
+        final LinkPageOutput result = urlManager.listLinksAfter("", 2);
+
+        // assert
+        assertEquals(2, result.getSize());
+        assertEquals(List.of("alias3", "alias2"),
+                result.getItems().stream().map(LinkDetailsOutput::getShortCode).toList());
+        assertTrue(result.isHasNext());
+        assertEquals(new LinkCursor(createdAt, 2L), LinkCursor.decode(result.getNextCursor()));
+        verify(dbClient, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void givenCursor_whenListLinksAfter_thenSeekAfterCursorAndReturnLastPage() {
+        // arrange
+        final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000);
+        final String cursor = new LinkCursor(createdAt, 2L).encode();
+        when(dbClient.findPageAfter(createdAt, 2L, Limit.of(21)))
+                .thenReturn(List.of(urlCreatedAt(1L, "alias1", createdAt)));
+
+        // act
+        final LinkPageOutput result = urlManager.listLinksAfter(cursor, 20);
+
+        // assert
+        assertEquals(1, result.getSize());
+        assertEquals("alias1", result.getItems().get(0).getShortCode());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void givenMalformedCursor_whenListLinksAfter_thenThrowCursorNotValidException() {
+        // test
+        assertThrowsExactly(CursorNotValidException.class, () -> urlManager.listLinksAfter("not-a-cursor!", 20));
+        assertThrowsExactly(CursorNotValidException.class, () -> urlManager.listLinksAfter("AAAA", 20));
+        verify(dbClient, never()).findPageAfter(any(), any(), any());
+    }
+
+    @Test
+    void givenStatusAndRange_whenExportFilter_thenParsedFilter() {
+        // act
+        final LinkExportFilter filter = urlManager.exportFilter(" Expired ", "2025-01-01T00:00", "2025-02-01T00:00");
+        final LinkExportFilter all = urlManager.exportFilter(null, "", " ");
 
+        // assert
+        assertEquals(new LinkExportFilter(LinkStatus.EXPIRED, LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 2, 1, 0, 0)), filter);
+        assertEquals(LinkExportFilter.ALL, all);
+    }
 
+    @Test
+    void givenInvalidStatusOrRange_whenExportFilter_thenThrowExportQueryNotValidException() {
+        // test
+        assertThrowsExactly(ExportQueryNotValidException.class,
+                () -> urlManager.exportFilter("archived", null, null));
+        assertThrowsExactly(ExportQueryNotValidException.class,
+                () -> urlManager.exportFilter(null, "yesterday", null));
+        assertThrowsExactly(ExportQueryNotValidException.class,
+                () -> urlManager.exportFilter(null, null, "2025-13-01T00:00"));
+        assertThrowsExactly(ExportQueryNotValidException.class,
+                () -> urlManager.exportFilter(null, "2025-02-01T00:00", "2025-02-01T00:00"));
+    }
+
+    @Test
+    void givenLinksInStore_whenExportLinks_thenEachLinkMappedWithPendingClicksAndCounted() {
+        // arrange
+        final LocalDateTime createdAt = LocalDateTime.of(2025, 1, 1, 12, 0);
+        final LinkExportFilter filter = new LinkExportFilter(LinkStatus.ACTIVE, null, null);
+        when(props.getRedirectDomain()).thenReturn("http://localhost:8080/r/");
+        when(props.getExportFetchSize()).thenReturn(500);
+        lenient().when(clickAccumulator.pending(2L)).thenReturn(new PendingClicks(3L, createdAt.plusHours(1)));
+        doAnswer(invocation -> {
+            final Consumer<Url> action = invocation.getArgument(3);
+            action.accept(urlCreatedAt(1L, "alias1", createdAt));
+            action.accept(urlCreatedAt(2L, "alias2", createdAt));
+            return null;
+        }).when(dbClient).forEachLink(eq(filter), any(LocalDateTime.class), eq(500), any());
+        final List<LinkDetailsOutput> exported = new ArrayList<>();
+
+        // act
+        final long count = urlManager.exportLinks(filter, exported::add);
+
+        // assert
+        assertEquals(2L, count);
+        assertEquals(List.of("alias1", "alias2"), exported.stream().map(LinkDetailsOutput::getShortCode).toList());
+        assertEquals("http://localhost:8080/r/alias1", exported.get(0).getShortUrl());
+        assertEquals(3L, exported.get(1).getClickCount());
+        assertEquals(createdAt.plusHours(1), exported.get(1).getLastAccessedAt());
+        assertEquals(1L, operationCount(ShortenerMetrics.EXPORT, ShortenerMetrics.SUCCESS));
+    }
+
+    private void statsProperties() {
+        lenient().when(props.getStatsMaxBuckets()).thenReturn(1500);
+        lenient().when(props.getRollupMinuteRetentionHours()).thenReturn(48L);
+        lenient().when(props.getRollupHourRetentionDays()).thenReturn(90L);
+    }
+
+    private static Url urlCreatedAt(final Long id, final String alias, final LocalDateTime createdAt) {
+        final Url url = new Url(TARGET_URL, alias, AFTER_A_YEAR_EXPIRY_DATE);
+        url.setId(id);
+        url.setCreatedAt(createdAt);
+        return url;
+    }
+
+    private long operationCount(final String operation, final String outcome) {
+        return meterRegistry.get("shortener.operation")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
 }
@@ -0,0 +1,75 @@
+package com.example.urlShortenerService.metrics;
+
+import com.example.urlShortenerService.exception.AliasConflictException;
+import com.example.urlShortenerService.exception.DatabaseOverloadedException;
+import com.example.urlShortenerService.exception.ShortCodeUnavailableException;
+import com.example.urlShortenerService.exception.ShortUrlExpiredException;
+import com.example.urlShortenerService.exception.ShortUrlNotFoundException;
+import com.example.urlShortenerService.exception.ShortUrlNotValidException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+
+public class ShortenerMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ShortenerMetrics metrics = new ShortenerMetrics(registry);
+
+    @Test
+    void givenSuccessfulCall_whenTime_thenRecordSuccessOutcome() {
+        // act
+        final String result = metrics.time(ShortenerMetrics.DETAILS, () -> "details");
+
+        // assert
+        assertEquals("details", result);
+        assertEquals(1, timer(ShortenerMetrics.DETAILS, ShortenerMetrics.SUCCESS).count());
+    }
+
+    @Test
+    void givenFailingCall_whenTime_thenRecordOutcomeOfExceptionAndRethrow() {
+        // act
+        assertThrowsExactly(ShortUrlNotFoundException.class, () -> metrics.time(ShortenerMetrics.DETAILS, () -> {
+            throw new ShortUrlNotFoundException("Short URL not found");
+        }));
+
+        // assert
+        assertEquals(1, timer(ShortenerMetrics.DETAILS, ShortenerMetrics.NOT_FOUND).count());
+    }
+
+    @Test
+    void givenExceptions_whenOutcomeOf_thenMapToBoundedOutcomes() {
+        assertEquals(ShortenerMetrics.NOT_FOUND, ShortenerMetrics.outcomeOf(new ShortUrlNotFoundException("x")));
+        assertEquals(ShortenerMetrics.EXPIRED, ShortenerMetrics.outcomeOf(new ShortUrlExpiredException("x")));
+        assertEquals(ShortenerMetrics.CONFLICT, ShortenerMetrics.outcomeOf(new AliasConflictException("x")));
+        assertEquals(ShortenerMetrics.INVALID, ShortenerMetrics.outcomeOf(new ShortUrlNotValidException("x")));
+        assertEquals(ShortenerMetrics.OVERLOADED, ShortenerMetrics.outcomeOf(new DatabaseOverloadedException("x")));
+        assertEquals(ShortenerMetrics.CODE_UNAVAILABLE,
+                ShortenerMetrics.outcomeOf(new ShortCodeUnavailableException("x")));
+        assertEquals(ShortenerMetrics.ERROR, ShortenerMetrics.outcomeOf(new IllegalStateException("x")));
+    }
+
+    @Test
+    void givenConflictsAndValidationFailures_whenCounted_thenTaggedByTypeAndOperation() {
+        // act
+        metrics.aliasConflict(ShortenerMetrics.CUSTOM_ALIAS);
+        metrics.aliasConflict(ShortenerMetrics.CUSTOM_ALIAS);
+        metrics.validationFailure(ShortenerMetrics.CREATE);
+
+        // assert
+        assertEquals(2.0, registry.get(ShortenerMetrics.ALIAS_CONFLICT_COUNTER)
+                .tag("type", ShortenerMetrics.CUSTOM_ALIAS).counter().count());
+        assertEquals(1.0, registry.get(ShortenerMetrics.VALIDATION_FAILURE_COUNTER)
+                .tag("operation", ShortenerMetrics.CREATE).counter().count());
+    }
+
+    private Timer timer(final String operation, final String outcome) {
+        return registry.get(ShortenerMetrics.OPERATION_TIMER)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.urlShortenerService.ratelimit;
+
+import com.example.urlShortenerService.config.ShortenerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+
+    private static final String ADDRESS = "10.0.0.1";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ShortenerProperties props;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        props = new ShortenerProperties();
+        props.setApiKey("dev-key-123");
+    }
+
+    @Test
+    void givenRateLimitDisabled_whenTryAcquire_thenNeverLimited() {
+        // arrange
+        final RateLimiter rateLimiter = new RateLimiter(props, meterRegistry);
+
+        // act + assert
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0L, rateLimiter.tryAcquire(RateLimiter.Traffic.CREATE, null, ADDRESS));
+        }
+        assertNull(meterRegistry.find("shortener.rate.limit.rejections").counter());
+    }
+
+    @Test
+    void givenBurstSpent_whenTryAcquire_thenRejectAndCountPerTraffic() {
+        // arrange
+        props.setRateLimitEnabled(true);
+        props.setRateLimitRedirectPerSecond(1);
+        props.setRateLimitRedirectBurst(2);
+        final RateLimiter rateLimiter = new RateLimiter(props, meterRegistry);
+
+        // act
+        final long first = rateLimiter.tryAcquire(RateLimiter.Traffic.REDIRECT, null, ADDRESS);
+        final long second = rateLimiter.tryAcquire(RateLimiter.Traffic.REDIRECT, null, ADDRESS);
+        final long third = rateLimiter.tryAcquire(RateLimiter.Traffic.REDIRECT, null, ADDRESS);
+
+        // assert
+        assertEquals(0L, first);
+        assertEquals(0L, second);
+        assertTrue(third > 0L && third <= 1_000L, "wait " + third);
+        assertEquals(1.0, meterRegistry.get("shortener.rate.limit.rejections").tag("traffic", "redirect")
+                .counter().count());
+        assertEquals(0.0, meterRegistry.get("shortener.rate.limit.evictions").tag("traffic", "redirect")
+                .functionCounter().count());
+    }
+
+    @Test
+    void givenZeroRate_whenTryAcquire_thenThatTrafficIsNotLimited() {
+        // arrange
+        props.setRateLimitEnabled(true);
+        props.setRateLimitDetailsPerSecond(0);
+        final RateLimiter rateLimiter = new RateLimiter(props, meterRegistry);
+
+        // act + assert
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0L, rateLimiter.tryAcquire(RateLimiter.Traffic.DETAILS, null, ADDRESS));
+        }
+        assertNull(meterRegistry.find("shortener.rate.limit.rejections").tag("traffic", "details").counter());
+    }
+
+    @Test
+    void givenWaits_whenRetryAfterSeconds_thenRoundUpToAtLeastOneSecond() {
+        // act + assert
+        assertEquals(1L, RateLimiter.retryAfterSeconds(1L));
+        assertEquals(1L, RateLimiter.retryAfterSeconds(1_000L));
+        assertEquals(2L, RateLimiter.retryAfterSeconds(1_001L));
+    }
+}
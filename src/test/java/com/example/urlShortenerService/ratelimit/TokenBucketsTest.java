@@ -0,0 +1,119 @@
+package com.example.urlShortenerService.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TokenBucketsTest {
+
+    private static final long KEY = TokenBuckets.hash("10.0.0.1", 1L);
+
+    @Test
+    void givenBurstSpent_whenTryAcquire_thenWaitUntilNextToken() {
+        // arrange
+        final TokenBuckets buckets = new TokenBuckets(10, 2, 16);
+
+        // act
+        final long first = buckets.tryAcquire(KEY, 1_000L);
+        final long second = buckets.tryAcquire(KEY, 1_000L);
+        final long third = buckets.tryAcquire(KEY, 1_000L);
+        final long halfway = buckets.tryAcquire(KEY, 1_050L);
+        final long refilled = buckets.tryAcquire(KEY, 1_100L);
+
+        // assert
+        assertEquals(0L, first);
+        assertEquals(0L, second);
+        assertEquals(100L, third);
+        assertEquals(50L, halfway);
+        assertEquals(0L, refilled);
+    }
+
+    @Test
+    void givenLongIdleKey_whenTryAcquire_thenRefillCappedAtBurst() {
+        // arrange
+        final TokenBuckets buckets = new TokenBuckets(1, 3, 16);
+        buckets.tryAcquire(KEY, 0L);
+
+        // act
+        final List<Long> waits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            waits.add(buckets.tryAcquire(KEY, 3_600_000L));
+        }
+
+        // assert
+        assertEquals(List.of(0L, 0L, 0L, 1_000L), waits);
+    }
+
+    @Test
+    void givenFullSet_whenNewKey_thenEvictLeastRecentlyRefilledKey() {
+        // arrange: a single set of 4 ways
+        final TokenBuckets buckets = new TokenBuckets(1, 1, TokenBuckets.WAYS);
+        for (int i = 0; i < TokenBuckets.WAYS; i++) {
+            buckets.tryAcquire(TokenBuckets.hash("client" + i, 1L), i);
+        }
+
+        // act
+        final long newKey = buckets.tryAcquire(TokenBuckets.hash("client4", 1L), 10L);
+        final long evictedKey = buckets.tryAcquire(TokenBuckets.hash("client0", 1L), 11L);
+        final long keptKey = buckets.tryAcquire(TokenBuckets.hash("client3", 1L), 12L);
+
+        // assert
+        assertEquals(0L, newKey);
+        assertEquals(0L, evictedKey); // back with a full bucket
+        assertEquals(991L, keptKey);
+        assertEquals(2L, buckets.evictions());
+    }
+
+    @Test
+    void givenConcurrentRequests_whenTryAcquire_thenNeverMoreThanTheBurst() throws Exception {
+        // arrange
+        final TokenBuckets buckets = new TokenBuckets(1, 1_000, 1024);
+        final List<Future<Integer>> results = new ArrayList<>();
+
+        // act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int granted = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (buckets.tryAcquire(KEY, 5L) == 0L) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+        }
+
+        // assert
+        int granted = 0;
+        for (final Future<Integer> result : results) {
+            granted += result.get();
+        }
+        assertEquals(1_000, granted);
+    }
+
+    @Test
+    void givenSameValue_whenHashWithOtherSeed_thenOtherKey() {
+        // act + assert
+        assertEquals(TokenBuckets.hash("dev-key-123", 1L), TokenBuckets.hash("dev-key-123", 1L));
+        assertNotEquals(TokenBuckets.hash("dev-key-123", 1L), TokenBuckets.hash("dev-key-123", 2L));
+        assertNotEquals(0L, TokenBuckets.hash("", 0L));
+    }
+
+    @Test
+    void givenInvalidLimits_whenCreate_thenReject() {
+        // act + assert
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(0, 10, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(10, 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBuckets(10, TokenBuckets.MAX_BURST + 1, 16));
+    }
+}